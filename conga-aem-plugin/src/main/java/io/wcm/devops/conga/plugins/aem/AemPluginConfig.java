@@ -39,6 +39,11 @@ public final class AemPluginConfig {
    */
   public static final String PARAMETER_CRYPTO_SKIP = "cryptoSkip";
 
+  /**
+   * Secret for deriving reproducible salts for Oak password hashes. If not set, random salts are used.
+   */
+  public static final String PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET = "oakPasswordHashSaltSecret";
+
   private AemPluginConfig() {
     // constants only
   }
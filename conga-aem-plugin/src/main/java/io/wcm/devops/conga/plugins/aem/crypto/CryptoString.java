@@ -19,27 +19,60 @@
  */
 package io.wcm.devops.conga.plugins.aem.crypto;
 
-import org.apache.commons.lang3.StringUtils;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 
 /**
  * Converts byte array to crypto string and back in the same fashion as it is done by the Adobe Granite Crypto
  * implementation.
+ * <p>
+ * The hex codec is table-driven and supports encoding to and decoding from existing buffers without intermediate
+ * objects. Decoding validates the input strictly: only hex digits (upper or lower case) and an even number of digits
+ * are accepted.
+ * </p>
  */
 public final class CryptoString {
 
+  private static final char PREFIX = '{';
+  private static final char SUFFIX = '}';
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int INVALID = -1;
+  private static final int[] HEX_VALUES = initHexValues();
+
   private CryptoString() {
     // static methods only
   }
 
+  private static int[] initHexValues() {
+    int[] values = new int[128];
+    Arrays.fill(values, INVALID);
+    for (int i = 0; i < HEX_DIGITS.length; i++) {
+      values[HEX_DIGITS[i]] = i;
+      values[Character.toUpperCase(HEX_DIGITS[i])] = i;
+    }
+    return values;
+  }
+
   /**
    * Checks if the given string contains an encrypted string.
    * @param text String to check
    * @return true if string is assumed to be encrypted
    */
   public static boolean isCryptoString(final String text) {
+    return isCryptoString((CharSequence)text);
+  }
+
+  /**
+   * Checks if the given character sequence contains an encrypted string.
+   * @param text Character sequence to check
+   * @return true if string is assumed to be encrypted
+   */
+  public static boolean isCryptoString(final CharSequence text) {
     // very simplified check - just check for start and end of curly braces.
     return text != null && text.length() > 2
-        && StringUtils.startsWith(text, "{") && StringUtils.endsWith(text, "}");
+        && text.charAt(0) == PREFIX && text.charAt(text.length() - 1) == SUFFIX;
   }
 
   /**
@@ -48,20 +81,58 @@ public final class CryptoString {
    * @return Binary data string
    */
   public static String toString(byte[] data) {
-    if (data == null || data.length == 0) {
-      throw new IllegalArgumentException("Data is null or empty.");
+    char[] text = new char[getCryptoStringLength(data)];
+    toCryptoString(data, text, 0);
+    return new String(text);
+  }
+
+  /**
+   * Gets the length of the crypto string for the given binary data.
+   * @param data Binary data
+   * @return Number of characters of the crypto string including curly braces
+   */
+  public static int getCryptoStringLength(byte[] data) {
+    validateData(data);
+    return data.length * 2 + 2;
+  }
+
+  /**
+   * Converts byte array to hex string enclosed in curly braces and writes it to the given character array.
+   * @param data Binary data
+   * @param target Target character array
+   * @param offset Offset in target array
+   * @return Number of characters written
+   */
+  public static int toCryptoString(byte[] data, char[] target, int offset) {
+    int length = getCryptoStringLength(data);
+    if (offset < 0 || offset + length > target.length) {
+      throw new IllegalArgumentException("Target array too small: " + length + " characters required at offset " + offset + ".");
     }
-    StringBuilder text = new StringBuilder(data.length * 2 + 2);
-    text.append("{");
-    for (int i = 0; i < data.length; i++) {
-      String hex = Integer.toHexString(data[i] & 0xff);
-      if (hex.length() < 2) {
-        text.append("0");
-      }
-      text.append(hex);
+    int pos = offset;
+    target[pos++] = PREFIX;
+    for (byte item : data) {
+      target[pos++] = HEX_DIGITS[(item >> 4) & 0xf];
+      target[pos++] = HEX_DIGITS[item & 0xf];
     }
-    text.append("}");
-    return text.toString();
+    target[pos] = SUFFIX;
+    return length;
+  }
+
+  /**
+   * Converts byte array to hex string enclosed in curly braces and appends it to the given target
+   * (e.g. a {@link StringBuilder}, {@link CharBuffer} or {@link java.io.Writer}).
+   * @param data Binary data
+   * @param target Target
+   * @throws IOException I/O exception
+   */
+  public static void toCryptoString(byte[] data, Appendable target) throws IOException {
+    validateData(data);
+    target.append(PREFIX);
+    for (byte item : data) {
+      target.append(HEX_DIGITS[(item >> 4) & 0xf]);
+      target.append(HEX_DIGITS[item & 0xf]);
+    }
+    target.append(SUFFIX);
   }
 
   /**
@@ -70,18 +141,79 @@ public final class CryptoString {
    * @return Binary data
    */
   public static byte[] toByteArray(String text) {
+    return toByteArray((CharSequence)text);
+  }
+
+  /**
+   * Converts hex string enclosed in curly braces back to byte array.
+   * @param text Binary data string (e.g. a {@link String} or {@link CharBuffer})
+   * @return Binary data
+   */
+  public static byte[] toByteArray(CharSequence text) {
+    byte[] data = new byte[getByteArrayLength(text)];
+    toByteArray(text, data, 0);
+    return data;
+  }
+
+  /**
+   * Gets the length of the binary data for the given crypto string.
+   * @param text Binary data string
+   * @return Number of bytes
+   */
+  public static int getByteArrayLength(CharSequence text) {
     if (!isCryptoString(text)) {
       throw new IllegalArgumentException("Text does not seem to be encrypted.");
     }
-    String rawText = text.substring(1, text.length() - 1);
-    byte[] data = new byte[rawText.length() / 2];
-    for (int i = 0; i < data.length; i++) {
-      int pos = i * 2;
-      String hex = rawText.substring(pos, pos + 2);
-      int val = Integer.parseInt(hex, 16);
-      data[i] = (byte)val;
+    int hexLength = text.length() - 2;
+    if (hexLength % 2 != 0) {
+      throw new IllegalArgumentException("Text contains odd number of hex digits.");
+    }
+    return hexLength / 2;
+  }
+
+  /**
+   * Converts hex string enclosed in curly braces back to binary data and writes it to the given byte array.
+   * @param text Binary data string (e.g. a {@link String} or {@link CharBuffer})
+   * @param target Target byte array
+   * @param offset Offset in target array
+   * @return Number of bytes written
+   */
+  public static int toByteArray(CharSequence text, byte[] target, int offset) {
+    int length = getByteArrayLength(text);
+    if (offset < 0 || offset + length > target.length) {
+      throw new IllegalArgumentException("Target array too small: " + length + " bytes required at offset " + offset + ".");
+    }
+    for (int i = 0; i < length; i++) {
+      int pos = i * 2 + 1;
+      target[offset + i] = (byte)((hexValue(text, pos) << 4) | hexValue(text, pos + 1));
+    }
+    return length;
+  }
+
+  /**
+   * Converts hex string enclosed in curly braces back to binary data.
+   * @param text Character array containing the binary data string
+   * @param offset Offset of the binary data string in the character array
+   * @param length Length of the binary data string
+   * @return Binary data
+   */
+  public static byte[] toByteArray(char[] text, int offset, int length) {
+    return toByteArray(CharBuffer.wrap(text, offset, length));
+  }
+
+  private static int hexValue(CharSequence text, int pos) {
+    char c = text.charAt(pos);
+    int value = c < HEX_VALUES.length ? HEX_VALUES[c] : INVALID;
+    if (value == INVALID) {
+      throw new IllegalArgumentException("Text contains invalid hex digit at position " + pos + ".");
+    }
+    return value;
+  }
+
+  private static void validateData(byte[] data) {
+    if (data == null || data.length == 0) {
+      throw new IllegalArgumentException("Data is null or empty.");
     }
-    return data;
   }
 
 }
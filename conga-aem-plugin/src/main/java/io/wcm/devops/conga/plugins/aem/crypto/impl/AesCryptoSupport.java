@@ -50,6 +50,9 @@ public class AesCryptoSupport extends CryptoSupport {
 
   private static final Random RANDOM = initRandom();
 
+  // Cipher.getInstance involves a provider lookup, so reuse one (not thread-safe) cipher instance per thread
+  private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<>();
+
   private static Random initRandom() {
     try {
       return SecureRandom.getInstance(SECURE_RANDOM_ALGORITHM);
@@ -91,7 +94,12 @@ public class AesCryptoSupport extends CryptoSupport {
 
   private Cipher getCipher(int cipherMode, byte[] iv, Key key) throws GeneralSecurityException {
     IvParameterSpec spec = new IvParameterSpec(iv);
-    Cipher cipher = Cipher.getInstance(AES_CYPHER_ALGORITHM);
+    Cipher cipher = CIPHER.get();
+    if (cipher == null) {
+      cipher = Cipher.getInstance(AES_CYPHER_ALGORITHM);
+      CIPHER.set(cipher);
+    }
+    // init resets the cipher completely, so no state is carried over from a previous usage
     cipher.init(cipherMode, key, spec);
     return cipher;
   }
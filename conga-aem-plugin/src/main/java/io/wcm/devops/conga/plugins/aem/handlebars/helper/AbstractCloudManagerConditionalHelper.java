@@ -20,8 +20,10 @@
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -32,11 +34,11 @@ import com.github.jknack.handlebars.Options.Buffer;
 
 import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
 import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
-import io.wcm.devops.conga.model.util.MapMerger;
 
 /**
  * Checks if there is a conditional statement 'httpd.cloudManagerConditional' in the current context.
- * If yes iterates over all environments and renders the body for each with a merged model.
+ * If yes iterates over all environments and renders the body for each with a merged model. The merged model is a
+ * lazy {@link OverlayMap} view, so the model is not copied for each environment.
  * If no the body is rendered once with the default model.
  */
 abstract class AbstractCloudManagerConditionalHelper implements HelperPlugin<Object> {
@@ -67,15 +69,12 @@ abstract class AbstractCloudManagerConditionalHelper implements HelperPlugin<Obj
       List<CloudManagerConditional> items = getCloudManagerConditional((Map<String, Object>)cloudManagerConditional);
       for (CloudManagerConditional item : items) {
 
-        // config inside httpd.cloudManagerConditional is considered to be prefixed with "httpd.", so wrap it around here for merging
-        Map<String, Object> httpdWrapper = Map.of(HTTPD_KEY, item.getConfig());
-        Map<String, Object> mergedModel = MapMerger.merge(httpdWrapper, (Map<String, Object>)currentContext.model());
-
-        // remove cloudManagerConditional after merging the models
-        Map<String, Object> mergedHttpd = (Map<String, Object>)mergedModel.get(HTTPD_KEY);
-        if (mergedHttpd != null) {
-          mergedHttpd.remove(CLOUD_MANAGER_CONDITIONAL_KEY);
-        }
+        // config inside httpd.cloudManagerConditional is considered to be prefixed with "httpd.", so merge it with httpd
+        // and hide cloudManagerConditional in the merged model
+        Map<String, Object> model = (Map<String, Object>)currentContext.model();
+        Map<String, Object> mergedHttpd = new OverlayMap(item.getConfig(), toMap(model.get(HTTPD_KEY)),
+            Set.of(CLOUD_MANAGER_CONDITIONAL_KEY));
+        Map<String, Object> mergedModel = new OverlayMap(Map.of(HTTPD_KEY, mergedHttpd), model, Set.of(HTTPD_KEY));
 
         Context mergedContext = Context.copy(currentContext, mergedModel);
         CharSequence bodyContent = options.fn(mergedContext);
@@ -92,6 +91,14 @@ abstract class AbstractCloudManagerConditionalHelper implements HelperPlugin<Obj
   protected abstract void renderBodyContent(Buffer buffer, CharSequence bodyContent,
       String targetEnvironment) throws IOException;
 
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> toMap(Object value) {
+    if (value instanceof Map) {
+      return (Map<String, Object>)value;
+    }
+    return Map.of();
+  }
+
   private List<CloudManagerConditional> getCloudManagerConditional(Map<String, Object> cloudManagerConditional) {
     return ENVIRONMENTS.stream()
         .map(env -> new CloudManagerConditional(env, cloudManagerConditional.getOrDefault(env, Map.of())))
@@ -110,7 +117,12 @@ abstract class AbstractCloudManagerConditionalHelper implements HelperPlugin<Obj
     CloudManagerConditional(String targetEnvironment, Object value) {
       this.targetEnvironment = targetEnvironment;
       if (value instanceof Map) {
-        this.config = (Map<String, Object>)value;
+        Map<String, Object> map = (Map<String, Object>)value;
+        if (map.containsKey(CLOUD_MANAGER_CONDITIONAL_KEY)) {
+          map = new HashMap<>(map);
+          map.remove(CLOUD_MANAGER_CONDITIONAL_KEY);
+        }
+        this.config = map;
       }
       else {
         this.config = Map.of();
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.github.jknack.handlebars.Options;
+
+/**
+ * Handlebars helper that generates AEM dispatcher ANY rules consisting of type and glob pattern.
+ * If a list of rules is given, the complete numbered list is generated, and it is validated that all rules are
+ * reachable: As the last matching rule wins, a rule fully covered by a later rule has no effect, which is usually
+ * a configuration mistake.
+ */
+abstract class AbstractDispatcherGlobRuleHelper extends AbstractFilterHelper {
+
+  @Override
+  protected final String generateFilter(Map<String, Object> filterMap, Options options) {
+    return toAny(new DispatcherGlobRule(filterMap));
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  protected final String generateFilterList(List<?> filterList, Options options) {
+    List<DispatcherGlobRule> rules = new ArrayList<>();
+    for (Object item : filterList) {
+      if (!(item instanceof Map)) {
+        throw new IllegalArgumentException("Expected map object for rule.");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>)item;
+      try {
+        rules.add(new DispatcherGlobRule(map));
+      }
+      catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Invalid rule: " + ex.getMessage() + "\n" + toYaml(map));
+      }
+    }
+
+    List<String> problems = validate(rules);
+    if (!problems.isEmpty()) {
+      throw new IllegalArgumentException("Invalid rules:\n" + String.join("\n", problems));
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < rules.size(); i++) {
+      sb.append("/").append(i).append(" ").append(toAny(rules.get(i))).append("\n");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Detects rules that are overridden by a later rule.
+   * @param rules Rules
+   * @return Problem descriptions
+   */
+  static List<String> validate(List<DispatcherGlobRule> rules) {
+    List<String> problems = new ArrayList<>();
+    for (int i = 0; i < rules.size(); i++) {
+      DispatcherGlobRule rule = rules.get(i);
+      for (int j = rules.size() - 1; j > i; j--) {
+        DispatcherGlobRule laterRule = rules.get(j);
+        if (laterRule.covers(rule)) {
+          problems.add(getProblem(i, rule, j, laterRule));
+          break;
+        }
+      }
+    }
+    return problems;
+  }
+
+  private static String getProblem(int index, DispatcherGlobRule rule, int laterIndex, DispatcherGlobRule laterRule) {
+    String message;
+    if (rule.getGlob().equals(laterRule.getGlob())) {
+      message = rule.getType() == laterRule.getType() ? "duplicate of" : "conflicts with";
+    }
+    else {
+      message = "unreachable, overridden by";
+    }
+    return "Rule /" + index + " " + toAny(rule) + " is " + message + " rule /" + laterIndex + " " + toAny(laterRule);
+  }
+
+  static String toAny(DispatcherGlobRule rule) {
+    return "{ /type \"" + rule.getType() + "\" /glob \"" + rule.getGlob() + "\" }";
+  }
+
+}
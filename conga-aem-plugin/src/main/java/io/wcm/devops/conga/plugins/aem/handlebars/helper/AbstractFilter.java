@@ -68,6 +68,20 @@ abstract class AbstractFilter {
     return value;
   }
 
+  /**
+   * Gets and removes value from map and validates as glob pattern.
+   * @param map Map
+   * @param key Key
+   * @return Value or null if not set
+   */
+  protected final String getGlobValue(Map<String, Object> map, String key) {
+    String value = getValue(map, key);
+    if (value != null && (StringUtils.isBlank(value) || StringUtils.containsAny(value, " \t\r\n\"'"))) {
+      throw new IllegalArgumentException("Invalid glob for '" + key + "': Must not be empty or contain whitespaces or quotes.");
+    }
+    return value;
+  }
+
   /**
    * Gets and removes type and casts it to enum.
    * @param map Map
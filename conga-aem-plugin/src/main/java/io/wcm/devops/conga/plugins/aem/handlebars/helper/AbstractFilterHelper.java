@@ -20,6 +20,7 @@
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import com.github.jknack.handlebars.Options;
@@ -35,6 +36,9 @@ abstract class AbstractFilterHelper implements HelperPlugin<Object> {
   @Override
   @SuppressWarnings("PMD.PreserveStackTrace")
   public final Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    if (context instanceof List) {
+      return generateFilterList((List<?>)context, options);
+    }
     if (!(context instanceof Map)) {
       throw new IllegalArgumentException("Excpected map object for filter rule.");
     }
@@ -48,7 +52,7 @@ abstract class AbstractFilterHelper implements HelperPlugin<Object> {
     }
   }
 
-  private String toYaml(Map<String, Object> filterMap) {
+  static String toYaml(Map<String, Object> filterMap) {
     StringBuilder sb = new StringBuilder();
     filterMap.entrySet().forEach(entry -> {
       if (sb.length() == 0) {
@@ -64,4 +68,14 @@ abstract class AbstractFilterHelper implements HelperPlugin<Object> {
 
   protected abstract String generateFilter(Map<String, Object> filterMap, Options options);
 
+  /**
+   * Generates a list of filter rules. Not supported by default.
+   * @param filterList List of filter rule maps
+   * @param options Options
+   * @return Filter rules
+   */
+  protected String generateFilterList(List<?> filterList, Options options) {
+    throw new IllegalArgumentException("Excpected map object for filter rule.");
+  }
+
 }
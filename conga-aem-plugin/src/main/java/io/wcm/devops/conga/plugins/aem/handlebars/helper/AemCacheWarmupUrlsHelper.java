@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.jknack.handlebars.Options;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+
+/**
+ * Handlebars helper that generates a list of URLs for warming up the dispatcher cache after a deployment.
+ * The context is a host name or a list of host names, the page paths are given as hash option.
+ * Ports are added to the host name as in {@link HttpHostHelper} and {@link HttpHostSslHelper}.
+ */
+public final class AemCacheWarmupUrlsHelper extends AbstractHostHelper implements HelperPlugin<Object> {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemCacheWarmupUrls";
+
+  /**
+   * Page paths (single value or list) to warm up.
+   */
+  public static final String HASH_OPTION_PATHS = "paths";
+
+  /**
+   * Content root path that is mapped to "/" by sling mappings. Page paths starting with it are shortened.
+   */
+  public static final String HASH_OPTION_ROOT_PATH = "rootPath";
+
+  /**
+   * Generate HTTPS URLs.
+   */
+  public static final String HASH_OPTION_SSL = "ssl";
+
+  /**
+   * Extension added to page paths without extension. Default: html
+   */
+  public static final String HASH_OPTION_EXTENSION = "extension";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    List<String> hosts = toList(context);
+    List<String> paths = toList(options.hash(HASH_OPTION_PATHS));
+    if (hosts.isEmpty()) {
+      throw new IllegalArgumentException("No host name given.");
+    }
+    if (paths.isEmpty()) {
+      throw new IllegalArgumentException("No paths given.");
+    }
+    boolean ssl = BooleanUtils.toBoolean(Objects.toString(options.hash(HASH_OPTION_SSL, false)));
+    String rootPath = StringUtils.removeEnd(options.hash(HASH_OPTION_ROOT_PATH), "/");
+    String extension = options.hash(HASH_OPTION_EXTENSION, "html");
+
+    Set<String> urls = new LinkedHashSet<>();
+    for (String host : hosts) {
+      String scheme = ssl ? "https" : "http";
+      int defaultPort = ssl ? HttpHostSslHelper.DEFAULT_PORT : HttpHostHelper.DEFAULT_PORT;
+      String hostWithPort = addNonDefaultPort(host, options, defaultPort).toString();
+      for (String path : paths) {
+        urls.add(scheme + "://" + hostWithPort + toExternalPath(path, rootPath, extension));
+      }
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (String url : urls) {
+      sb.append(url).append("\n");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Maps a page path to the external path: The root path is removed, and the extension added if missing.
+   */
+  static String toExternalPath(String path, String rootPath, String extension) {
+    if (!StringUtils.startsWith(path, "/")) {
+      throw new IllegalArgumentException("Path must start with '/': " + path);
+    }
+    String externalPath = path;
+    if (StringUtils.isNotEmpty(rootPath)) {
+      if (StringUtils.equals(externalPath, rootPath)) {
+        externalPath = "/";
+      }
+      else if (StringUtils.startsWith(externalPath, rootPath + "/")) {
+        externalPath = externalPath.substring(rootPath.length());
+      }
+    }
+    if (!StringUtils.endsWith(externalPath, "/") && StringUtils.isEmpty(FilenameUtils.getExtension(externalPath))) {
+      externalPath = externalPath + "." + extension;
+    }
+    return externalPath;
+  }
+
+  private static List<String> toList(Object value) {
+    List<String> result = new ArrayList<>();
+    if (value instanceof Iterable) {
+      for (Object item : (Iterable<?>)value) {
+        if (item != null) {
+          result.add(item.toString());
+        }
+      }
+    }
+    else if (value != null && StringUtils.isNotBlank(value.toString())) {
+      result.add(value.toString());
+    }
+    return result;
+  }
+
+}
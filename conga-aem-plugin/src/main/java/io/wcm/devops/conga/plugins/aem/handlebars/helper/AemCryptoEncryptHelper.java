@@ -24,13 +24,11 @@ import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PARAMETER_CRYPTO_S
 import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PLUGIN_NAME;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.util.Map;
 import java.util.Objects;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -44,6 +42,7 @@ import io.wcm.devops.conga.plugins.aem.crypto.impl.AesCryptoSupport;
 
 /**
  * Handlebars helper that encrypts a given string with AEM crypto key.
+ * The crypto key is read once per key URL and generation run, see {@link CryptoKeyCache}.
  */
 public final class AemCryptoEncryptHelper implements HelperPlugin<Object> {
 
@@ -57,6 +56,8 @@ public final class AemCryptoEncryptHelper implements HelperPlugin<Object> {
    */
   public static final String HASH_IGNORE_MISSING_KEY = "ignoreMissingKey";
 
+  private static final CryptoSupport CRYPTO = new AesCryptoSupport();
+
   @Override
   public String getName() {
     return NAME;
@@ -92,7 +93,7 @@ public final class AemCryptoEncryptHelper implements HelperPlugin<Object> {
       return input;
     }
 
-    byte[] cryptoKeyData;
+    Key cryptoKey;
     try {
       // get urls to crypto keys
       if (StringUtils.isBlank(cryptoAesKeyUrl)) {
@@ -101,9 +102,10 @@ public final class AemCryptoEncryptHelper implements HelperPlugin<Object> {
       }
 
       // get crypto key
-      try (InputStream is = pluginContext.getUrlFileManager().getFile(cryptoAesKeyUrl)) {
-        cryptoKeyData = IOUtils.toByteArray(is);
-      }
+      cryptoKey = CryptoKeyCache.getKey(pluginContext.getUrlFileManager(), cryptoAesKeyUrl, CRYPTO);
+    }
+    catch (GeneralSecurityException ex) {
+      throw new IOException("Unable to encrypt input string.", ex);
     }
     /*CHECKSTYLE:OFF*/
     catch (Exception ex) {
@@ -118,9 +120,7 @@ public final class AemCryptoEncryptHelper implements HelperPlugin<Object> {
 
     // encrypt input string
     try {
-      CryptoSupport crypto = new AesCryptoSupport();
-      Key cryptoKey = crypto.readKey(cryptoKeyData);
-      return crypto.encrypt(input, cryptoKey);
+      return CRYPTO.encrypt(input, cryptoKey);
     }
     catch (GeneralSecurityException ex) {
       throw new IOException("Unable to encrypt input string.", ex);
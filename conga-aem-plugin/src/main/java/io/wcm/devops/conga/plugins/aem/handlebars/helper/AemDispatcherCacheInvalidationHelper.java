@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+import com.github.jknack.handlebars.Options;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+
+/**
+ * Handlebars helper that generates the cache invalidation settings <code>/enableTTL</code>,
+ * <code>/statfileslevel</code>, <code>/gracePeriod</code> and <code>/invalidate</code> of a AEM dispatcher
+ * farm <code>/cache</code> section. Settings that are inconsistent with the content tree depth or the flush paths
+ * are logged as warnings.
+ */
+public final class AemDispatcherCacheInvalidationHelper implements HelperPlugin<Object> {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemDispatcherCacheInvalidation";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    if (!(context instanceof Map)) {
+      throw new IllegalArgumentException("Expected map object for cache invalidation.");
+    }
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = (Map<String, Object>)context;
+    DispatcherCacheInvalidation invalidation;
+    try {
+      invalidation = new DispatcherCacheInvalidation(map);
+    }
+    catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Invalid cache invalidation: " + ex.getMessage());
+    }
+
+    List<String> problems = AbstractDispatcherGlobRuleHelper.validate(invalidation.getInvalidate());
+    if (!problems.isEmpty()) {
+      throw new IllegalArgumentException("Invalid invalidate rules:\n" + String.join("\n", problems));
+    }
+    if (pluginContext != null) {
+      invalidation.validate().forEach(warning -> pluginContext.getLogger().warn("Dispatcher cache invalidation: " + warning));
+    }
+
+    StringBuilder sb = new StringBuilder();
+    if (invalidation.getEnableTTL() != null) {
+      sb.append("/enableTTL \"").append(BooleanUtils.toInteger(invalidation.getEnableTTL())).append("\"\n");
+    }
+    if (invalidation.getStatfileslevel() != null) {
+      sb.append("/statfileslevel \"").append(invalidation.getStatfileslevel()).append("\"\n");
+    }
+    if (invalidation.getGracePeriod() != null) {
+      sb.append("/gracePeriod \"").append(invalidation.getGracePeriod()).append("\"\n");
+    }
+    if (!invalidation.getInvalidate().isEmpty()) {
+      sb.append("/invalidate {\n");
+      for (int i = 0; i < invalidation.getInvalidate().size(); i++) {
+        sb.append("  /").append(i).append(" ")
+            .append(AbstractDispatcherGlobRuleHelper.toAny(invalidation.getInvalidate().get(i)))
+            .append("\n");
+      }
+      sb.append("}\n");
+    }
+    return sb.toString();
+  }
+
+}
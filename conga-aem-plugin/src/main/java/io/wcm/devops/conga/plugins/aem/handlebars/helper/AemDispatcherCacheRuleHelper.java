@@ -0,0 +1,38 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+/**
+ * Handlebars helper that generates AEM dispatcher ANY cache rules for <code>/cache /rules</code> and
+ * <code>/cache /invalidate</code>. The glob pattern is matched against the document path.
+ */
+public final class AemDispatcherCacheRuleHelper extends AbstractDispatcherGlobRuleHelper {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemDispatcherCacheRule";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+}
@@ -43,42 +43,24 @@ public final class AemDispatcherFilterHelper extends AbstractFilterHelper {
 
   @Override
   protected String generateFilter(Map<String, Object> filterMap, Options options) {
-    DispatcherFilter filter = new DispatcherFilter(filterMap);
+    return toAny(new DispatcherFilter(filterMap));
+  }
 
+  /**
+   * Renders a filter rule in ANY syntax.
+   * @param filter Filter rule
+   * @return ANY filter rule definition
+   */
+  static String toAny(DispatcherFilter filter) {
     StringBuilder sb = new StringBuilder()
         .append("{ ")
         .append("/type \"").append(filter.getType()).append("\" ");
-
-    if (StringUtils.isNotEmpty(filter.getMethod())) {
-      sb.append("/method '").append(filter.getMethod()).append("' ");
+    for (String name : DispatcherFilter.PROPERTY_NAMES) {
+      String value = filter.getProperty(name);
+      if (StringUtils.isNotEmpty(value)) {
+        sb.append('/').append(name).append(" '").append(value).append("' ");
+      }
     }
-    if (StringUtils.isNotEmpty(filter.getUrl())) {
-      sb.append("/url '").append(filter.getUrl()).append("' ");
-    }
-    if (StringUtils.isNotEmpty(filter.getQuery())) {
-      sb.append("/query '").append(filter.getQuery()).append("' ");
-    }
-    if (StringUtils.isNotEmpty(filter.getProtocol())) {
-      sb.append("/protocol '").append(filter.getProtocol()).append("' ");
-    }
-
-    if (StringUtils.isNotEmpty(filter.getPath())) {
-      sb.append("/path '").append(filter.getPath()).append("' ");
-    }
-    if (StringUtils.isNotEmpty(filter.getSelectors())) {
-      sb.append("/selectors '").append(filter.getSelectors()).append("' ");
-    }
-    if (StringUtils.isNotEmpty(filter.getExtension())) {
-      sb.append("/extension '").append(filter.getExtension()).append("' ");
-    }
-    if (StringUtils.isNotEmpty(filter.getSuffix())) {
-      sb.append("/suffix '").append(filter.getSuffix()).append("' ");
-    }
-
-    if (StringUtils.isNotEmpty(filter.getGlob())) {
-      sb.append("/glob '").append(filter.getGlob()).append("' ");
-    }
-
     sb.append("}");
     return sb.toString();
   }
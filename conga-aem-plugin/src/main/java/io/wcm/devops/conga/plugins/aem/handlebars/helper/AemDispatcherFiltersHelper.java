@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+import com.github.jknack.handlebars.Options;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+
+/**
+ * Handlebars helper that generates the complete list of AEM dispatcher ANY filter rules from a list of filter
+ * definitions as used by {@link AemDispatcherFilterHelper}. Shadowed and redundant rules are removed, and adjacent
+ * rules differing only in one property are merged to keep the filter chain short.
+ */
+public final class AemDispatcherFiltersHelper implements HelperPlugin<Object> {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemDispatcherFilters";
+
+  /**
+   * Write the optimization report as comments before the filter rules.
+   */
+  static final String HASH_REPORT = "report";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    if (!(context instanceof List)) {
+      throw new IllegalArgumentException("Expected list of filter rules.");
+    }
+    List<DispatcherFilter> filters = new ArrayList<>();
+    for (Object item : (List<?>)context) {
+      if (!(item instanceof Map)) {
+        throw new IllegalArgumentException("Expected map object for filter rule.");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>)item;
+      try {
+        filters.add(new DispatcherFilter(map));
+      }
+      catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Invalid filter rule: " + ex.getMessage() + "\n" + AbstractFilterHelper.toYaml(map));
+      }
+    }
+
+    DispatcherFilterOptimizer optimizer = new DispatcherFilterOptimizer();
+    List<DispatcherFilter> optimizedFilters = optimizer.optimize(filters);
+
+    StringBuilder sb = new StringBuilder();
+    if (BooleanUtils.toBoolean(Objects.toString(options.hash(HASH_REPORT, true)))) {
+      for (String message : optimizer.getReport()) {
+        sb.append("# ").append(message).append("\n");
+      }
+    }
+    for (int i = 0; i < optimizedFilters.size(); i++) {
+      sb.append("/").append(i).append(" ")
+          .append(AemDispatcherFilterHelper.toAny(optimizedFilters.get(i)))
+          .append("\n");
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.github.jknack.handlebars.Options;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+
+/**
+ * Handlebars helper that generates HTTPd <code>mod_expires</code> and <code>mod_headers</code> configuration for
+ * a list of resource classes identified by path prefix and file extensions. Classes with the same caching settings
+ * are merged into a single <code>LocationMatch</code> block. Overlapping classes with different settings are
+ * rejected, as the result would depend on the order of the blocks.
+ */
+public final class AemHttpdCacheHeadersHelper implements HelperPlugin<Object> {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemHttpdCacheHeaders";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    if (!(context instanceof List)) {
+      throw new IllegalArgumentException("Expected list of cache header classes.");
+    }
+    List<HttpdCacheHeaderClass> classes = new ArrayList<>();
+    for (Object item : (List<?>)context) {
+      if (!(item instanceof Map)) {
+        throw new IllegalArgumentException("Expected map object for cache header class.");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>)item;
+      try {
+        classes.add(new HttpdCacheHeaderClass(map));
+      }
+      catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Invalid cache header class: " + ex.getMessage() + "\n" + AbstractFilterHelper.toYaml(map));
+      }
+    }
+
+    List<String> problems = validate(classes);
+    if (!problems.isEmpty()) {
+      throw new IllegalArgumentException("Overlapping cache header classes:\n" + String.join("\n", problems));
+    }
+
+    // group classes by cache control settings, keeping the order of first occurrence
+    Map<String, List<HttpdCacheHeaderClass>> groups = new LinkedHashMap<>();
+    for (HttpdCacheHeaderClass item : classes) {
+      groups.computeIfAbsent(item.getCacheControl(), key -> new ArrayList<>()).add(item);
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (List<HttpdCacheHeaderClass> group : groups.values()) {
+      sb.append(generateBlock(group));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Detects classes with different caching settings that may match the same URL path.
+   * @param classes Cache header classes
+   * @return Problem descriptions
+   */
+  static List<String> validate(List<HttpdCacheHeaderClass> classes) {
+    List<String> problems = new ArrayList<>();
+    for (int i = 0; i < classes.size(); i++) {
+      for (int j = i + 1; j < classes.size(); j++) {
+        HttpdCacheHeaderClass item = classes.get(i);
+        HttpdCacheHeaderClass other = classes.get(j);
+        if (!item.getCacheControl().equals(other.getCacheControl()) && item.overlaps(other)) {
+          problems.add("Class " + i + " (" + item.getLocationMatch() + ") overlaps with class "
+              + j + " (" + other.getLocationMatch() + ")");
+        }
+      }
+    }
+    return problems;
+  }
+
+  private static String generateBlock(List<HttpdCacheHeaderClass> group) {
+    HttpdCacheHeaderClass first = group.get(0);
+    String locationMatch = group.stream()
+        .map(HttpdCacheHeaderClass::getLocationMatch)
+        .distinct()
+        .collect(Collectors.joining("|"));
+
+    return new StringBuilder()
+        .append("<LocationMatch \"").append(locationMatch).append("\">\n")
+        .append("  <IfModule mod_expires.c>\n")
+        .append("    ExpiresActive On\n")
+        .append("    ExpiresDefault \"access plus ").append(first.getMaxAge()).append(" seconds\"\n")
+        .append("  </IfModule>\n")
+        .append("  <IfModule mod_headers.c>\n")
+        .append("    Header set Cache-Control \"").append(first.getCacheControl()).append("\"\n")
+        .append("  </IfModule>\n")
+        .append("</LocationMatch>\n")
+        .toString();
+  }
+
+}
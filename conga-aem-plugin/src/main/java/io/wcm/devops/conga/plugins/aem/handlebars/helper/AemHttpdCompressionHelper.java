@@ -0,0 +1,133 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.github.jknack.handlebars.Options;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+
+/**
+ * Handlebars helper that generates HTTPd response compression configuration for <code>mod_deflate</code>, and for
+ * <code>mod_brotli</code> if available. For Apache 2.4 a <code>mod_filter</code> chain is used which supports
+ * a minimum response size and prefers Brotli for clients accepting it. For Apache 2.2 only <code>mod_deflate</code>
+ * is configured, without minimum size.
+ */
+public final class AemHttpdCompressionHelper implements HelperPlugin<Object> {
+
+  /**
+   * Plugin/Helper name
+   */
+  public static final String NAME = "aemHttpdCompression";
+
+  private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}#";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public Object apply(Object context, Options options, HelperContext pluginContext) throws IOException {
+    if (!(context instanceof Map)) {
+      throw new IllegalArgumentException("Expected map object for compression.");
+    }
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = (Map<String, Object>)context;
+    HttpdCompression compression;
+    try {
+      compression = new HttpdCompression(map);
+    }
+    catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Invalid compression: " + ex.getMessage());
+    }
+
+    String expression = getFilterExpression(compression);
+    StringBuilder sb = new StringBuilder()
+        .append("<IfVersion < 2.4>\n")
+        .append("  <IfModule mod_deflate.c>\n");
+    if (!compression.getExcludedPaths().isEmpty()) {
+      sb.append("    SetEnvIf Request_URI \"").append(getExcludedPathsRegex(compression)).append("\" no-gzip\n");
+    }
+    sb.append("    AddOutputFilterByType DEFLATE ").append(String.join(" ", compression.getMimeTypes())).append("\n")
+        .append("  </IfModule>\n")
+        .append("</IfVersion>\n")
+        .append("<IfVersion >= 2.4>\n")
+        .append("  <IfModule mod_filter.c>\n")
+        .append("    FilterDeclare COMPRESS CONTENT_SET\n")
+        .append("    <IfModule mod_brotli.c>\n")
+        .append("      FilterProvider COMPRESS BROTLI_COMPRESS \"").append(expression)
+        .append(" && %{HTTP:Accept-Encoding} =~ /\\bbr\\b/\"\n")
+        .append("    </IfModule>\n")
+        .append("    <IfModule mod_deflate.c>\n")
+        .append("      FilterProvider COMPRESS DEFLATE \"").append(expression).append("\"\n")
+        .append("    </IfModule>\n")
+        .append("    FilterChain COMPRESS\n")
+        .append("    FilterProtocol COMPRESS change=yes;byteranges=no\n")
+        .append("  </IfModule>\n")
+        .append("</IfVersion>\n");
+    return sb.toString();
+  }
+
+  /**
+   * Builds the mod_filter expression selecting the responses to compress.
+   */
+  static String getFilterExpression(HttpdCompression compression) {
+    StringBuilder sb = new StringBuilder()
+        .append("%{CONTENT_TYPE} =~ m#^")
+        .append(compression.getMimeTypes().stream()
+            .map(AemHttpdCompressionHelper::escapeRegex)
+            .collect(Collectors.joining("|", "(", ")")))
+        .append("(;|$)#");
+    if (compression.getMinSize() != null) {
+      // responses without content length (e.g. streamed) are compressed as well
+      sb.append(" && (-z resp('Content-Length') || resp('Content-Length') -ge ").append(compression.getMinSize()).append(")");
+    }
+    if (!compression.getExcludedPaths().isEmpty()) {
+      sb.append(" && !(%{REQUEST_URI} =~ m#").append(getExcludedPathsRegex(compression)).append("#)");
+    }
+    return sb.toString();
+  }
+
+  private static String getExcludedPathsRegex(HttpdCompression compression) {
+    List<String> paths = compression.getExcludedPaths();
+    return paths.stream()
+        .map(AemHttpdCompressionHelper::escapeRegex)
+        .collect(Collectors.joining("|", "^(", ")"));
+  }
+
+  private static String escapeRegex(String value) {
+    StringBuilder sb = new StringBuilder();
+    for (char c : value.toCharArray()) {
+      if (REGEX_SPECIAL_CHARS.indexOf(c) >= 0) {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+}
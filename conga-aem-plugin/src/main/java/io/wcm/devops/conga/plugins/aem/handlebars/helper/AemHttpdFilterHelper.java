@@ -19,6 +19,8 @@
  */
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -27,6 +29,8 @@ import com.github.jknack.handlebars.Options;
 
 /**
  * Handlebars helper that generates HTTPd access rules.
+ * If a list of rules is given, consecutive rules with the same type are consolidated into single
+ * <code>LocationMatch</code> blocks.
  */
 public final class AemHttpdFilterHelper extends AbstractFilterHelper {
 
@@ -46,7 +50,10 @@ public final class AemHttpdFilterHelper extends AbstractFilterHelper {
   @Override
   protected String generateFilter(Map<String, Object> filterMap, Options options) {
     HttpdFilter filter = new HttpdFilter(filterMap);
+    return generateRule(filter, getAllowFrom(options, HASH_ALLOW_FROM_KEY), getAllowFrom(options, HASH_ALLOW_FROM_HOST_KEY));
+  }
 
+  private String generateRule(HttpdFilter filter, String allowFrom, String allowFromHost) {
     String ruleType;
     String ruleExpression;
     if (StringUtils.isNotBlank(filter.getLocationMatch())) {
@@ -57,20 +64,53 @@ public final class AemHttpdFilterHelper extends AbstractFilterHelper {
       ruleType = "Location";
       ruleExpression = filter.getLocation();
     }
+    return generateRule(ruleType, ruleExpression, filter.getType(), allowFrom, allowFromHost);
+  }
 
-    String allowFromKey = options.hash(HASH_ALLOW_FROM_KEY, null);
-    String allowFromHostKey = options.hash(HASH_ALLOW_FROM_HOST_KEY, null);
-    String allowFrom = null;
-    String allowFromHost = null;
-    if (StringUtils.isNotBlank(allowFromKey)) {
-      allowFrom = options.get(allowFromKey);
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  protected String generateFilterList(List<?> filterList, Options options) {
+    List<HttpdFilter> filters = new ArrayList<>();
+    for (Object item : filterList) {
+      if (!(item instanceof Map)) {
+        throw new IllegalArgumentException("Expected map object for filter rule.");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>)item;
+      try {
+        filters.add(new HttpdFilter(map));
+      }
+      catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Invalid filter rule: " + ex.getMessage() + "\n" + toYaml(map));
+      }
     }
-    if (StringUtils.isNotBlank(allowFromHostKey)) {
-      allowFromHost = options.get(allowFromHostKey);
+
+    List<HttpdFilterConsolidator.Group> groups = HttpdFilterConsolidator.group(filters);
+    HttpdFilterConsolidator.verify(filters, groups);
+
+    String allowFrom = getAllowFrom(options, HASH_ALLOW_FROM_KEY);
+    String allowFromHost = getAllowFrom(options, HASH_ALLOW_FROM_HOST_KEY);
+    StringBuilder sb = new StringBuilder();
+    for (HttpdFilterConsolidator.Group group : groups) {
+      if (sb.length() > 0) {
+        sb.append("\n");
+      }
+      if (group.getFilters().size() == 1) {
+        sb.append(generateRule(group.getFilters().get(0), allowFrom, allowFromHost));
+      }
+      else {
+        sb.append(generateRule("LocationMatch", group.getLocationMatch(), group.getType(), allowFrom, allowFromHost));
+      }
     }
+    return sb.toString();
+  }
 
-    return generateRule(ruleType, ruleExpression, filter.getType(),
-        allowFrom, allowFromHost);
+  private static String getAllowFrom(Options options, String hashKey) {
+    String key = options.hash(hashKey, null);
+    if (StringUtils.isNotBlank(key)) {
+      return options.get(key);
+    }
+    return null;
   }
 
   @SuppressWarnings({ "java:S3776", "java:S1192" }) // ignore complexity
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.IOUtils;
+
+import io.wcm.devops.conga.generator.UrlFileManager;
+import io.wcm.devops.conga.plugins.aem.crypto.CryptoKeySupport;
+
+/**
+ * Caches crypto keys per key URL, so the key file is read only once per generation run.
+ * Cached keys are bound to the URL file manager instance they were read with - a new generation run uses a new
+ * URL file manager, the keys of previous runs are garbage collected together with their URL file manager.
+ */
+final class CryptoKeyCache {
+
+  private static final Map<UrlFileManager, Map<String, Key>> KEYS = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private CryptoKeyCache() {
+    // static methods only
+  }
+
+  /**
+   * Get crypto key from cache, or read it from the given URL.
+   * @param urlFileManager URL file manager
+   * @param url Key URL
+   * @param keySupport Key support to create the key from the binary key data
+   * @return Crypto key
+   * @throws IOException If key file cannot be read
+   * @throws GeneralSecurityException If key data is invalid
+   */
+  static Key getKey(UrlFileManager urlFileManager, String url, CryptoKeySupport keySupport)
+      throws IOException, GeneralSecurityException {
+    Map<String, Key> keys = KEYS.computeIfAbsent(urlFileManager, manager -> new ConcurrentHashMap<>());
+    Key key = keys.get(url);
+    if (key == null) {
+      // failures are not cached
+      byte[] keyData;
+      try (InputStream is = urlFileManager.getFile(url)) {
+        keyData = IOUtils.toByteArray(is);
+      }
+      key = keySupport.readKey(keyData);
+      keys.put(url, key);
+    }
+    return key;
+  }
+
+  /**
+   * Removes the cached key for the given URL, it is read again on next access.
+   * @param url Key URL
+   */
+  static void invalidate(String url) {
+    synchronized (KEYS) {
+      KEYS.values().forEach(keys -> keys.remove(url));
+    }
+  }
+
+  /**
+   * Removes all cached keys.
+   */
+  static void invalidateAll() {
+    KEYS.clear();
+  }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Java bean that describes the cache invalidation settings of a AEM dispatcher farm:
+ * <code>/enableTTL</code>, <code>/statfileslevel</code>, <code>/gracePeriod</code> and <code>/invalidate</code>,
+ * together with information about the content tree and flush agents used to validate them.
+ */
+final class DispatcherCacheInvalidation {
+
+  /*
+   * Respect cache headers of the response for expiring cached files.
+   */
+  private final Boolean enableTTL;
+
+  /*
+   * Level up to which .stat files are created in the cache directory. Level 0 means a single .stat file in
+   * the docroot, so each activation invalidates the whole cache.
+   */
+  private final Integer statfileslevel;
+
+  /*
+   * Seconds a stale, auto-invalidated resource may still be served after the last activation.
+   */
+  private final Integer gracePeriod;
+
+  /*
+   * Rules which files are auto-invalidated on activation.
+   */
+  private final List<DispatcherGlobRule> invalidate;
+
+  /*
+   * Level in the content tree where independent sites (e.g. tenants or languages) start,
+   * e.g. 3 for /content/tenant/language. Only used for validation.
+   */
+  private final Integer contentDepth;
+
+  /*
+   * Content paths invalidated by the flush agents. Only used for validation.
+   */
+  private final List<String> flushPaths;
+
+  /**
+   * Construct cache invalidation settings from map
+   * @param map Map with cache invalidation definition
+   */
+  DispatcherCacheInvalidation(Map<String, Object> map) {
+    Map<String, Object> mapCopy = new HashMap<>(map);
+    this.enableTTL = getBoolean(mapCopy, "enableTTL");
+    this.statfileslevel = getNonNegativeInteger(mapCopy, "statfileslevel");
+    this.gracePeriod = getNonNegativeInteger(mapCopy, "gracePeriod");
+    this.invalidate = getRules(mapCopy, "invalidate");
+    this.contentDepth = getNonNegativeInteger(mapCopy, "contentDepth");
+    this.flushPaths = getStringList(mapCopy, "flushPaths");
+
+    if (!mapCopy.isEmpty()) {
+      throw new IllegalArgumentException("Unexpected properties for cache invalidation: " + StringUtils.join(mapCopy.keySet(), ", "));
+    }
+  }
+
+  public Boolean getEnableTTL() {
+    return this.enableTTL;
+  }
+
+  public Integer getStatfileslevel() {
+    return this.statfileslevel;
+  }
+
+  public Integer getGracePeriod() {
+    return this.gracePeriod;
+  }
+
+  public List<DispatcherGlobRule> getInvalidate() {
+    return this.invalidate;
+  }
+
+  public Integer getContentDepth() {
+    return this.contentDepth;
+  }
+
+  public List<String> getFlushPaths() {
+    return this.flushPaths;
+  }
+
+  /**
+   * Checks the consistency of the settings with content tree depth and flush paths.
+   * @return Warnings
+   */
+  List<String> validate() {
+    List<String> warnings = new ArrayList<>();
+    int level = statfileslevel != null ? statfileslevel : 0;
+
+    if (level == 0) {
+      warnings.add("statfileslevel " + (statfileslevel == null ? "not set (defaults to 0)" : "0")
+          + ": Each activation invalidates the whole cache.");
+    }
+    else if (contentDepth != null && level < contentDepth) {
+      warnings.add("statfileslevel " + level + " is lower than content depth " + contentDepth
+          + ": Each activation invalidates the cached content of all sibling sites.");
+    }
+    else if (contentDepth != null && level > contentDepth) {
+      warnings.add("statfileslevel " + level + " is higher than content depth " + contentDepth
+          + ": Pages referencing content from other branches of the same site may be delivered stale.");
+    }
+
+    for (String flushPath : flushPaths) {
+      int depth = getDepth(flushPath);
+      if (depth < level) {
+        warnings.add("Flush path " + flushPath + " is above statfileslevel " + level
+            + ": Each invalidation of this path invalidates all cached content below it.");
+      }
+    }
+
+    for (DispatcherGlobRule rule : invalidate) {
+      if (rule.getType() == DispatcherFilterType.ALLOW && StringUtils.equals(rule.getGlob(), "*")) {
+        warnings.add("Invalidate rule allows all files: Each activation invalidates static files like "
+            + "client libraries and images as well.");
+      }
+    }
+
+    return warnings;
+  }
+
+  private static int getDepth(String path) {
+    return StringUtils.split(path, '/').length;
+  }
+
+  @SuppressWarnings("java:S2447") // null means not set
+  private static Boolean getBoolean(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Boolean) {
+      return (Boolean)value;
+    }
+    return BooleanUtils.toBoolean(value.toString());
+  }
+
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static Integer getNonNegativeInteger(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return null;
+    }
+    int intValue;
+    if (value instanceof Number) {
+      intValue = ((Number)value).intValue();
+    }
+    else {
+      try {
+        intValue = Integer.parseInt(value.toString());
+      }
+      catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid number for '" + key + "': " + value);
+      }
+    }
+    if (intValue < 0) {
+      throw new IllegalArgumentException("Invalid number for '" + key + "': " + value + " - must not be negative.");
+    }
+    return intValue;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<DispatcherGlobRule> getRules(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    if (!(value instanceof List)) {
+      throw new IllegalArgumentException("Expected list of rules for '" + key + "'.");
+    }
+    List<DispatcherGlobRule> rules = new ArrayList<>();
+    for (Object item : (List<?>)value) {
+      if (!(item instanceof Map)) {
+        throw new IllegalArgumentException("Expected map object for rule in '" + key + "'.");
+      }
+      rules.add(new DispatcherGlobRule((Map<String, Object>)item));
+    }
+    return rules;
+  }
+
+  private static List<String> getStringList(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    if (!(value instanceof List)) {
+      throw new IllegalArgumentException("Expected list of strings for '" + key + "'.");
+    }
+    List<String> result = new ArrayList<>();
+    for (Object item : (List<?>)value) {
+      result.add(item.toString());
+    }
+    return result;
+  }
+
+}
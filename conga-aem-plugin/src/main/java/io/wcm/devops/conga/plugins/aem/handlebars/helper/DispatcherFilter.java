@@ -20,6 +20,8 @@
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,6 +30,12 @@ import java.util.Map;
  */
 final class DispatcherFilter extends AbstractFilter {
 
+  /**
+   * Names of all filter properties except type, in the order they are rendered.
+   */
+  static final List<String> PROPERTY_NAMES = List.of("method", "url", "query", "protocol",
+      "path", "selectors", "extension", "suffix", "glob");
+
   /*
    * The /type indicates whether to allow or deny access for the requests that match the pattern.
    * The value can be either allow or deny.
@@ -128,4 +136,49 @@ final class DispatcherFilter extends AbstractFilter {
     return this.glob;
   }
 
+  /**
+   * @param name Property name
+   * @return Property value or null if not set
+   */
+  @SuppressWarnings("java:S1479") // one case per property
+  String getProperty(String name) {
+    switch (name) {
+      case "method":
+        return this.method;
+      case "url":
+        return this.url;
+      case "query":
+        return this.query;
+      case "protocol":
+        return this.protocol;
+      case "path":
+        return this.path;
+      case "selectors":
+        return this.selectors;
+      case "extension":
+        return this.extension;
+      case "suffix":
+        return this.suffix;
+      case "glob":
+        return this.glob;
+      default:
+        throw new IllegalArgumentException("Invalid filter property: " + name);
+    }
+  }
+
+  /**
+   * @return Map with filter definition, can be used to construct a new filter rule
+   */
+  Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("type", type.toString());
+    for (String name : PROPERTY_NAMES) {
+      String value = getProperty(name);
+      if (value != null) {
+        map.put(name, value);
+      }
+    }
+    return map;
+  }
+
 }
@@ -0,0 +1,239 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compiles a list of dispatcher filter rules into a shorter, equivalent list.
+ * <p>
+ * The dispatcher evaluates all filter rules for each request, and the last matching rule wins. The optimizer
+ * applies these steps:
+ * </p>
+ * <ul>
+ * <li>Rules fully covered by a later rule are removed, because they can never decide on a request.</li>
+ * <li>Rules fully covered by an earlier rule of the same type are removed, if there is no rule of the other
+ * type in between.</li>
+ * <li>Adjacent rules of the same type that differ only in the value of one regex property are merged into
+ * a single rule with an alternation.</li>
+ * </ul>
+ * <p>
+ * A rule covers another rule if each property it defines is either a match-all expression or has exactly the same
+ * value as in the other rule. Regular expressions are not analyzed any further, so the optimization is
+ * conservative and never changes the filter result. Rules without any property are rejected.
+ * </p>
+ */
+final class DispatcherFilterOptimizer {
+
+  private static final String MATCH_ALL_REGEX = ".*";
+  private static final String MATCH_ALL_GLOB = "*";
+  private static final String GLOB_PROPERTY = "glob";
+
+  private final List<String> report = new ArrayList<>();
+
+  /**
+   * Optimizes the given list of filter rules.
+   * @param filters Filter rules in the order of evaluation
+   * @return Optimized filter rules
+   */
+  public List<DispatcherFilter> optimize(List<DispatcherFilter> filters) {
+    report.clear();
+    List<Rule> rules = new ArrayList<>();
+    for (int i = 0; i < filters.size(); i++) {
+      rules.add(new Rule(filters.get(i), i));
+    }
+    return merge(removeCovered(rules)).stream()
+        .map(rule -> rule.filter)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return Messages describing all rules removed or merged by the last optimization
+   */
+  public List<String> getReport() {
+    return report;
+  }
+
+  private List<Rule> removeCovered(List<Rule> rules) {
+    List<Rule> result = new ArrayList<>();
+    for (int i = 0; i < rules.size(); i++) {
+      Rule rule = rules.get(i);
+      Rule shadowedBy = getShadowingRule(rules, i);
+      if (shadowedBy != null) {
+        report.add("Rule " + rule + " removed: Shadowed by rule " + shadowedBy);
+        continue;
+      }
+      Rule redundantTo = getRedundantToRule(result, rule);
+      if (redundantTo != null) {
+        report.add("Rule " + rule + " removed: Redundant to rule " + redundantTo);
+        continue;
+      }
+      result.add(rule);
+    }
+    return result;
+  }
+
+  private static Rule getShadowingRule(List<Rule> rules, int index) {
+    Rule rule = rules.get(index);
+    for (int i = rules.size() - 1; i > index; i--) {
+      if (covers(rules.get(i).filter, rule.filter)) {
+        return rules.get(i);
+      }
+    }
+    return null;
+  }
+
+  private static Rule getRedundantToRule(List<Rule> previousRules, Rule rule) {
+    for (int i = previousRules.size() - 1; i >= 0; i--) {
+      Rule previousRule = previousRules.get(i);
+      if (previousRule.filter.getType() != rule.filter.getType()) {
+        // a rule of the other type may overlap with the rule - keep it
+        return null;
+      }
+      if (covers(previousRule.filter, rule.filter)) {
+        return previousRule;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks if a filter rule matches all requests the other filter rule matches.
+   * @throws IllegalArgumentException if the filter rule does not define any property
+   */
+  static boolean covers(DispatcherFilter filter, DispatcherFilter other) {
+    boolean hasProperty = false;
+    boolean result = true;
+    for (String name : DispatcherFilter.PROPERTY_NAMES) {
+      String value = filter.getProperty(name);
+      if (value == null) {
+        continue;
+      }
+      hasProperty = true;
+      if (!isMatchAll(name, value) && !StringUtils.equals(value, other.getProperty(name))) {
+        result = false;
+      }
+    }
+    // a rule without properties must not be treated as match-all
+    if (!hasProperty) {
+      throw new IllegalArgumentException("Filter rule without any property: " + AemDispatcherFilterHelper.toAny(filter));
+    }
+    return result;
+  }
+
+  private static boolean isMatchAll(String name, String value) {
+    if (StringUtils.equals(name, GLOB_PROPERTY)) {
+      return StringUtils.equals(value, MATCH_ALL_GLOB);
+    }
+    return StringUtils.equals(value, MATCH_ALL_REGEX);
+  }
+
+  private List<Rule> merge(List<Rule> rules) {
+    List<Rule> result = new ArrayList<>();
+    int index = 0;
+    while (index < rules.size()) {
+      Rule first = rules.get(index);
+      List<Rule> group = new ArrayList<>();
+      group.add(first);
+      String mergeProperty = null;
+      int next = index + 1;
+      while (next < rules.size()) {
+        String differentProperty = getSingleDifferentProperty(first.filter, rules.get(next).filter);
+        if (differentProperty == null
+            || (mergeProperty != null && !StringUtils.equals(mergeProperty, differentProperty))) {
+          break;
+        }
+        mergeProperty = differentProperty;
+        group.add(rules.get(next));
+        next++;
+      }
+      if (group.size() > 1) {
+        result.add(mergeGroup(group, mergeProperty));
+      }
+      else {
+        result.add(first);
+      }
+      index = next;
+    }
+    return result;
+  }
+
+  /**
+   * Gets the name of the only property that has a different value in both filter rules.
+   * @return Property name or null if the rules differ in type, in more than one property, or only in a property
+   *         that cannot be merged
+   */
+  private static String getSingleDifferentProperty(DispatcherFilter filter, DispatcherFilter other) {
+    if (filter.getType() != other.getType()) {
+      return null;
+    }
+    String differentProperty = null;
+    for (String name : DispatcherFilter.PROPERTY_NAMES) {
+      String value = filter.getProperty(name);
+      String otherValue = other.getProperty(name);
+      if (StringUtils.equals(value, otherValue)) {
+        continue;
+      }
+      // glob is no regex, and an undefined property cannot be merged with a defined one
+      if (differentProperty != null || StringUtils.equals(name, GLOB_PROPERTY)
+          || value == null || otherValue == null) {
+        return null;
+      }
+      differentProperty = name;
+    }
+    return differentProperty;
+  }
+
+  private Rule mergeGroup(List<Rule> group, String mergeProperty) {
+    String alternation = group.stream()
+        .map(rule -> rule.filter.getProperty(mergeProperty))
+        .distinct()
+        .collect(Collectors.joining("|", "(", ")"));
+    Map<String, Object> map = group.get(0).filter.toMap();
+    map.put(mergeProperty, alternation);
+    Rule mergedRule = new Rule(new DispatcherFilter(map), group.get(0).index);
+    report.add("Rules " + group.stream().map(Rule::toString).collect(Collectors.joining(", "))
+        + " merged: Alternation for /" + mergeProperty);
+    return mergedRule;
+  }
+
+  private static final class Rule {
+
+    private final DispatcherFilter filter;
+    private final int index;
+
+    Rule(DispatcherFilter filter, int index) {
+      this.filter = filter;
+      this.index = index;
+    }
+
+    @Override
+    public String toString() {
+      return "/" + index;
+    }
+
+  }
+
+}
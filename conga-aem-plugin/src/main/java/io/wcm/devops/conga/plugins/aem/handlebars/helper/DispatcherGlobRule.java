@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Java bean that describes a AEM dispatcher rule consisting of a type and a glob pattern, as used in
+ * <code>/cache /rules</code>, <code>/cache /invalidate</code> and <code>/cache /ignoreUrlParams</code> as defined in
+ * https://experienceleague.adobe.com/docs/experience-manager-dispatcher/using/configuring/dispatcher-configuration.html
+ */
+final class DispatcherGlobRule extends AbstractFilter {
+
+  /*
+   * The /type indicates whether the rule allows or denies the matching paths or parameters.
+   * The value can be either allow or deny.
+   */
+  private final DispatcherFilterType type;
+
+  /*
+   * Glob pattern with wildcards * and ? matched against the document path or the URL parameter name.
+   */
+  private final String glob;
+
+  /**
+   * Construct rule from map
+   * @param map Map with rule definition
+   */
+  DispatcherGlobRule(Map<String, Object> map) {
+    Map<String, Object> mapCopy = new HashMap<>(map);
+    this.type = getFilterType(mapCopy, DispatcherFilterType.class);
+    this.glob = getGlobValue(mapCopy, "glob");
+
+    // validate
+    ensureNoMoreParams(mapCopy);
+    if (glob == null) {
+      throw new IllegalArgumentException("Glob expression missing.");
+    }
+  }
+
+  public DispatcherFilterType getType() {
+    return this.type;
+  }
+
+  public String getGlob() {
+    return this.glob;
+  }
+
+  /**
+   * Checks if this rule matches everything the other rule matches. This is the case if the glob patterns are
+   * equal, or if the glob pattern of this rule matches the glob pattern of the other rule taken literally. The
+   * latter is only respected if this glob pattern contains no <code>?</code> wildcard, which could stand for a
+   * <code>*</code> wildcard of the other pattern.
+   * @param other Other rule
+   * @return true if the other rule is covered by this rule
+   */
+  boolean covers(DispatcherGlobRule other) {
+    if (StringUtils.equals(glob, other.glob)) {
+      return true;
+    }
+    return !StringUtils.contains(glob, '?') && FilenameUtils.wildcardMatch(other.glob, glob, IOCase.SENSITIVE);
+  }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Java bean that describes a class of resources identified by path prefix and file extensions, with the HTTP
+ * caching headers to send for them.
+ */
+final class HttpdCacheHeaderClass extends AbstractFilter {
+
+  private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+
+  /*
+   * Path prefix (no regex). Optional.
+   */
+  private final String path;
+
+  /*
+   * File extensions without dot. Optional.
+   */
+  private final List<String> extensions;
+
+  /*
+   * Cache-Control max-age in seconds, also used for the Expires header.
+   */
+  private final int maxAge;
+
+  /*
+   * Cache-Control s-maxage in seconds for shared caches like CDNs. Optional.
+   */
+  private final Integer sMaxAge;
+
+  /*
+   * Cache-Control stale-while-revalidate in seconds. Optional.
+   */
+  private final Integer staleWhileRevalidate;
+
+  /*
+   * Cache-Control immutable flag for resources that never change under the same URL.
+   */
+  private final boolean immutable;
+
+  /**
+   * Construct cache header class from map
+   * @param map Map with cache header class definition
+   */
+  HttpdCacheHeaderClass(Map<String, Object> map) {
+    Map<String, Object> mapCopy = new HashMap<>(map);
+    this.path = getValue(mapCopy, "path");
+    this.extensions = getExtensions(mapCopy.remove("extensions"));
+    Integer maxAgeValue = getSeconds(mapCopy, "maxAge");
+    this.sMaxAge = getSeconds(mapCopy, "sMaxAge");
+    this.staleWhileRevalidate = getSeconds(mapCopy, "staleWhileRevalidate");
+    Object immutableValue = mapCopy.remove("immutable");
+    this.immutable = immutableValue != null && BooleanUtils.toBoolean(immutableValue.toString());
+
+    // validate
+    ensureNoMoreParams(mapCopy);
+    if (maxAgeValue == null) {
+      throw new IllegalArgumentException("maxAge missing.");
+    }
+    this.maxAge = maxAgeValue;
+    if (path == null && extensions.isEmpty()) {
+      throw new IllegalArgumentException("Require any definition of: path, extensions");
+    }
+    if (path != null && !StringUtils.startsWith(path, "/")) {
+      throw new IllegalArgumentException("Path must start with '/': " + path);
+    }
+  }
+
+  private static List<String> getExtensions(Object value) {
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>();
+    if (value instanceof List) {
+      for (Object item : (List<?>)value) {
+        result.add(item.toString());
+      }
+    }
+    else {
+      result.add(value.toString());
+    }
+    for (String extension : result) {
+      if (!extension.matches("[A-Za-z0-9_\\-]+")) {
+        throw new IllegalArgumentException("Invalid extension: " + extension);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static Integer getSeconds(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return null;
+    }
+    try {
+      int seconds = value instanceof Number ? ((Number)value).intValue() : Integer.parseInt(value.toString());
+      if (seconds < 0) {
+        throw new IllegalArgumentException("Invalid seconds for '" + key + "': " + value);
+      }
+      return seconds;
+    }
+    catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid seconds for '" + key + "': " + value);
+    }
+  }
+
+  public String getPath() {
+    return this.path;
+  }
+
+  public List<String> getExtensions() {
+    return this.extensions;
+  }
+
+  public int getMaxAge() {
+    return this.maxAge;
+  }
+
+  public Integer getSMaxAge() {
+    return this.sMaxAge;
+  }
+
+  public Integer getStaleWhileRevalidate() {
+    return this.staleWhileRevalidate;
+  }
+
+  public boolean isImmutable() {
+    return this.immutable;
+  }
+
+  /**
+   * @return Cache-Control header value
+   */
+  String getCacheControl() {
+    StringBuilder sb = new StringBuilder().append("max-age=").append(maxAge);
+    if (sMaxAge != null) {
+      sb.append(", s-maxage=").append(sMaxAge);
+    }
+    if (staleWhileRevalidate != null) {
+      sb.append(", stale-while-revalidate=").append(staleWhileRevalidate);
+    }
+    if (immutable) {
+      sb.append(", immutable");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return Regular expression matching the URL path of all resources of this class
+   */
+  String getLocationMatch() {
+    StringBuilder sb = new StringBuilder();
+    if (path != null) {
+      sb.append('^').append(escapeRegex(path));
+    }
+    if (!extensions.isEmpty()) {
+      if (path != null) {
+        sb.append(".*");
+      }
+      sb.append("\\.");
+      if (extensions.size() == 1) {
+        sb.append(extensions.get(0));
+      }
+      else {
+        sb.append(extensions.stream().collect(Collectors.joining("|", "(", ")")));
+      }
+      sb.append('$');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Checks if there may be an URL path matching both this and the other class.
+   * @param other Other class
+   * @return true if both classes overlap
+   */
+  boolean overlaps(HttpdCacheHeaderClass other) {
+    boolean pathOverlaps = path == null || other.path == null
+        || StringUtils.startsWith(path, other.path) || StringUtils.startsWith(other.path, path);
+    boolean extensionsOverlap = extensions.isEmpty() || other.extensions.isEmpty()
+        || extensions.stream().anyMatch(other.extensions::contains);
+    return pathOverlaps && extensionsOverlap;
+  }
+
+  private static String escapeRegex(String value) {
+    StringBuilder sb = new StringBuilder();
+    for (char c : value.toCharArray()) {
+      if (REGEX_SPECIAL_CHARS.indexOf(c) >= 0) {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Java bean that describes the HTTPd response compression settings.
+ */
+final class HttpdCompression {
+
+  /**
+   * MIME types that are already compressed. Compressing them again costs CPU without reducing the size.
+   */
+  static final List<String> COMPRESSED_MIME_TYPES = List.of(
+      "image/gif", "image/jpeg", "image/png", "image/webp", "image/avif", "image/heic",
+      "video/*", "audio/*",
+      "font/woff", "font/woff2", "application/font-woff", "application/font-woff2",
+      "application/zip", "application/gzip", "application/x-gzip", "application/x-bzip2",
+      "application/x-7z-compressed", "application/x-rar-compressed", "application/x-xz", "application/zstd",
+      "application/octet-stream");
+
+  /*
+   * MIME types to compress.
+   */
+  private final List<String> mimeTypes;
+
+  /*
+   * Minimum size of the response in bytes to compress. Optional.
+   */
+  private final Integer minSize;
+
+  /*
+   * Path prefixes excluded from compression (no regex). Optional.
+   */
+  private final List<String> excludedPaths;
+
+  /**
+   * Construct compression settings from map
+   * @param map Map with compression definition
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  HttpdCompression(Map<String, Object> map) {
+    Map<String, Object> mapCopy = new HashMap<>(map);
+    this.mimeTypes = getStringList(mapCopy, "mimeTypes");
+    this.excludedPaths = getStringList(mapCopy, "excludedPaths");
+    Object minSizeValue = mapCopy.remove("minSize");
+    if (minSizeValue != null) {
+      try {
+        this.minSize = minSizeValue instanceof Number ? ((Number)minSizeValue).intValue() : Integer.parseInt(minSizeValue.toString());
+      }
+      catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid number for 'minSize': " + minSizeValue);
+      }
+    }
+    else {
+      this.minSize = null;
+    }
+
+    // validate
+    if (!mapCopy.isEmpty()) {
+      throw new IllegalArgumentException("Unexpected properties for compression: " + StringUtils.join(mapCopy.keySet(), ", "));
+    }
+    if (mimeTypes.isEmpty()) {
+      throw new IllegalArgumentException("mimeTypes missing.");
+    }
+    for (String mimeType : mimeTypes) {
+      if (!mimeType.matches("[a-z0-9][a-z0-9.+\\-]*/[a-z0-9][a-z0-9.+\\-]*")) {
+        throw new IllegalArgumentException("Invalid MIME type: " + mimeType);
+      }
+      if (isCompressed(mimeType)) {
+        throw new IllegalArgumentException("MIME type is already compressed and must not be compressed again: " + mimeType);
+      }
+    }
+    for (String path : excludedPaths) {
+      if (!StringUtils.startsWith(path, "/")) {
+        throw new IllegalArgumentException("Excluded path must start with '/': " + path);
+      }
+    }
+  }
+
+  /**
+   * @param mimeType MIME type
+   * @return true if the MIME type is an already compressed format
+   */
+  static boolean isCompressed(String mimeType) {
+    for (String compressedMimeType : COMPRESSED_MIME_TYPES) {
+      if (StringUtils.endsWith(compressedMimeType, "/*")) {
+        if (StringUtils.startsWith(mimeType, StringUtils.removeEnd(compressedMimeType, "*"))) {
+          return true;
+        }
+      }
+      else if (StringUtils.equals(mimeType, compressedMimeType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> getStringList(Map<String, Object> map, String key) {
+    Object value = map.remove(key);
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>();
+    if (value instanceof List) {
+      for (Object item : (List<?>)value) {
+        result.add(item.toString());
+      }
+    }
+    else {
+      result.add(value.toString());
+    }
+    return result;
+  }
+
+  public List<String> getMimeTypes() {
+    return this.mimeTypes;
+  }
+
+  public Integer getMinSize() {
+    return this.minSize;
+  }
+
+  public List<String> getExcludedPaths() {
+    return this.excludedPaths;
+  }
+
+}
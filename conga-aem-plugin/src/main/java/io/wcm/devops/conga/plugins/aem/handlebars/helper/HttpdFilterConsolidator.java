@@ -0,0 +1,373 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Consolidates a list of HTTPd filter rules into groups of consecutive rules with the same filter type.
+ * Each group with more than one rule is rendered as a single <code>LocationMatch</code> block with an alternation of
+ * the regular expressions of all rules, converting <code>Location</code> paths to equivalent expressions.
+ * <p>
+ * HTTPd processes <code>Location</code> and <code>LocationMatch</code> blocks together in order of appearance, and
+ * the last matching block decides on access. Thus merging consecutive rules with the same type does not change the
+ * result for any request. This is additionally verified for a set of probe paths derived from the rules.
+ * </p>
+ */
+final class HttpdFilterConsolidator {
+
+  private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+
+  private HttpdFilterConsolidator() {
+    // static methods only
+  }
+
+  /**
+   * Group of consecutive filter rules with the same type.
+   */
+  static final class Group {
+
+    private final HttpdFilterType type;
+    private final List<HttpdFilter> filters = new ArrayList<>();
+    private Pattern pattern;
+
+    Group(HttpdFilterType type) {
+      this.type = type;
+    }
+
+    HttpdFilterType getType() {
+      return this.type;
+    }
+
+    List<HttpdFilter> getFilters() {
+      return this.filters;
+    }
+
+    /**
+     * @return Combined regular expression of all rules in this group
+     */
+    String getLocationMatch() {
+      return filters.stream()
+          .map(HttpdFilterConsolidator::toRegex)
+          .distinct()
+          .collect(Collectors.joining("|"));
+    }
+
+    boolean matches(String path) {
+      if (pattern == null) {
+        pattern = Pattern.compile(getLocationMatch());
+      }
+      return pattern.matcher(path).find();
+    }
+
+  }
+
+  /**
+   * Groups consecutive filter rules with the same type.
+   * @param filters Filter rules
+   * @return Groups
+   */
+  static List<Group> group(List<HttpdFilter> filters) {
+    List<Group> groups = new ArrayList<>();
+    Group current = null;
+    for (HttpdFilter filter : filters) {
+      if (current == null || current.getType() != filter.getType()) {
+        current = new Group(filter.getType());
+        groups.add(current);
+      }
+      current.getFilters().add(filter);
+    }
+    return groups;
+  }
+
+  /**
+   * Verifies that the groups result in the same filter decision as the original rules for a set of probe paths.
+   * @param filters Original filter rules
+   * @param groups Consolidated groups
+   * @throws IllegalStateException if a decision differs
+   */
+  static void verify(List<HttpdFilter> filters, List<Group> groups) {
+    for (String path : getProbePaths(filters)) {
+      HttpdFilterType expected = null;
+      for (HttpdFilter filter : filters) {
+        if (matches(filter, path)) {
+          expected = filter.getType();
+        }
+      }
+      HttpdFilterType actual = null;
+      for (Group group : groups) {
+        if (group.matches(path)) {
+          actual = group.getType();
+        }
+      }
+      if (expected != actual) {
+        throw new IllegalStateException("Consolidated filter rules result in '" + actual + "' instead of '"
+            + expected + "' for path: " + path);
+      }
+    }
+  }
+
+  /**
+   * Converts a rule to a regular expression for <code>LocationMatch</code>.
+   * A <code>Location</code> path without wildcards matches the path itself and all paths below it. A
+   * <code>Location</code> path with wildcards has to match the whole path, wildcards <code>*</code>, <code>?</code>
+   * and <code>[...]</code> match within a path segment.
+   * @param filter Filter rule
+   * @return Regular expression
+   */
+  static String toRegex(HttpdFilter filter) {
+    if (StringUtils.isNotBlank(filter.getLocationMatch())) {
+      String regex = filter.getLocationMatch();
+      // isolate inline flags from other alternatives
+      return StringUtils.contains(regex, "(?") ? "(?:" + regex + ")" : regex;
+    }
+    String location = filter.getLocation();
+    boolean wildcard = isWildcard(location);
+    StringBuilder sb = new StringBuilder("^");
+    int index = 0;
+    while (index < location.length()) {
+      char c = location.charAt(index);
+      int bracketEnd = getBracketEnd(location, index);
+      if (wildcard && c == '*') {
+        sb.append("[^/]*");
+      }
+      else if (wildcard && c == '?') {
+        sb.append("[^/]");
+      }
+      else if (wildcard && bracketEnd > 0) {
+        appendCharacterClass(sb, location.substring(index + 1, bracketEnd));
+        index = bracketEnd;
+      }
+      else {
+        if (wildcard && c == '\\' && index + 1 < location.length()) {
+          index++;
+          c = location.charAt(index);
+        }
+        if (REGEX_SPECIAL_CHARS.indexOf(c) >= 0) {
+          sb.append('\\');
+        }
+        sb.append(c);
+      }
+      index++;
+    }
+    if (wildcard) {
+      sb.append('$');
+    }
+    else if (!StringUtils.endsWith(location, "/")) {
+      sb.append("(/|$)");
+    }
+    return sb.toString();
+  }
+
+  private static void appendCharacterClass(StringBuilder sb, String content) {
+    boolean negate = StringUtils.startsWithAny(content, "!", "^");
+    String chars = negate ? content.substring(1) : content;
+    // a character class never matches the path separator
+    sb.append(negate ? "[^/" : "(?!/)[");
+    for (char c : chars.toCharArray()) {
+      if (c == '-') {
+        sb.append(c);
+      }
+      else {
+        if (!Character.isLetterOrDigit(c)) {
+          sb.append('\\');
+        }
+        sb.append(c);
+      }
+    }
+    sb.append(']');
+  }
+
+  /**
+   * Matches a path against a single rule as HTTPd does, independent of the conversion to regular expressions:
+   * <code>LocationMatch</code> expressions match any part of the path. <code>Location</code> paths with wildcards
+   * are matched against the whole path with fnmatch semantics, without wildcards matching a path separator.
+   * Other <code>Location</code> paths match the path itself and all paths below it.
+   */
+  static boolean matches(HttpdFilter filter, String path) {
+    if (StringUtils.isNotBlank(filter.getLocationMatch())) {
+      return Pattern.compile(filter.getLocationMatch()).matcher(path).find();
+    }
+    String location = filter.getLocation();
+    if (isWildcard(location)) {
+      return fnmatch(location, path);
+    }
+    if (StringUtils.endsWith(location, "/")) {
+      return StringUtils.startsWith(path, location);
+    }
+    return StringUtils.equals(path, location) || StringUtils.startsWith(path, location + "/");
+  }
+
+  /**
+   * Checks if the location contains wildcards, which makes HTTPd match it with fnmatch.
+   */
+  private static boolean isWildcard(String location) {
+    for (int i = 0; i < location.length(); i++) {
+      char c = location.charAt(i);
+      if (c == '\\') {
+        i++;
+      }
+      else if (c == '*' || c == '?' || getBracketEnd(location, i) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return Index of the closing bracket if a character class starts at the given index, otherwise -1
+   */
+  private static int getBracketEnd(String pattern, int index) {
+    if (pattern.charAt(index) != '[') {
+      return -1;
+    }
+    int i = index + 1;
+    if (i < pattern.length() && (pattern.charAt(i) == '!' || pattern.charAt(i) == '^')) {
+      i++;
+    }
+    // a closing bracket directly after the opening bracket is part of the class
+    if (i < pattern.length() && pattern.charAt(i) == ']') {
+      i++;
+    }
+    int end = pattern.indexOf(']', i);
+    return end > index ? end : -1;
+  }
+
+  /**
+   * Matches the whole path against a wildcard pattern like fnmatch with <code>FNM_PATHNAME</code>:
+   * <code>*</code>, <code>?</code> and character classes do not match <code>/</code>.
+   */
+  static boolean fnmatch(String pattern, String path) {
+    int p = 0;
+    int v = 0;
+    int starPattern = -1;
+    int starPath = -1;
+    while (v < path.length()) {
+      int next = p < pattern.length() ? matchChar(pattern, p, path.charAt(v)) : -1;
+      if (p < pattern.length() && pattern.charAt(p) == '*') {
+        starPattern = p;
+        starPath = v;
+        p++;
+      }
+      else if (next >= 0) {
+        p = next;
+        v++;
+      }
+      else if (starPattern >= 0 && path.charAt(starPath) != '/') {
+        // let the last star consume one more character within the current path segment
+        starPath++;
+        v = starPath;
+        p = starPattern + 1;
+      }
+      else {
+        return false;
+      }
+    }
+    while (p < pattern.length() && pattern.charAt(p) == '*') {
+      p++;
+    }
+    return p == pattern.length();
+  }
+
+  /**
+   * Matches a single character against the pattern element at the given index.
+   * @return Index of the next pattern element if the character matches, otherwise -1
+   */
+  private static int matchChar(String pattern, int index, char c) {
+    char p = pattern.charAt(index);
+    if (p == '?') {
+      return c != '/' ? index + 1 : -1;
+    }
+    int bracketEnd = getBracketEnd(pattern, index);
+    if (bracketEnd > 0) {
+      return c != '/' && matchCharacterClass(pattern.substring(index + 1, bracketEnd), c) ? bracketEnd + 1 : -1;
+    }
+    if (p == '\\' && index + 1 < pattern.length()) {
+      return pattern.charAt(index + 1) == c ? index + 2 : -1;
+    }
+    return p == c ? index + 1 : -1;
+  }
+
+  private static boolean matchCharacterClass(String content, char c) {
+    boolean negate = StringUtils.startsWithAny(content, "!", "^");
+    String chars = negate ? content.substring(1) : content;
+    boolean match = false;
+    for (int i = 0; i < chars.length(); i++) {
+      if (i + 2 < chars.length() && chars.charAt(i + 1) == '-') {
+        match |= c >= chars.charAt(i) && c <= chars.charAt(i + 2);
+        i += 2;
+      }
+      else {
+        match |= c == chars.charAt(i);
+      }
+    }
+    return match != negate;
+  }
+
+  /**
+   * Builds probe paths at the boundaries of each rule.
+   */
+  private static Set<String> getProbePaths(List<HttpdFilter> filters) {
+    Set<String> paths = new LinkedHashSet<>();
+    paths.add("/");
+    for (HttpdFilter filter : filters) {
+      String base;
+      if (StringUtils.isNotBlank(filter.getLocationMatch())) {
+        base = getLiteralPrefix(filter.getLocationMatch());
+      }
+      else {
+        base = StringUtils.substringBefore(StringUtils.substringBefore(StringUtils.substringBefore(
+            filter.getLocation(), "*"), "?"), "[");
+      }
+      if (!StringUtils.startsWith(base, "/")) {
+        base = "/" + base;
+      }
+      String baseWithoutSlash = StringUtils.removeEnd(base, "/");
+      paths.add(base);
+      paths.add(baseWithoutSlash);
+      paths.add(baseWithoutSlash + "/");
+      paths.add(baseWithoutSlash + "/page.html");
+      paths.add(baseWithoutSlash + "/page/child.html");
+      paths.add(baseWithoutSlash + "other");
+    }
+    paths.remove("");
+    return paths;
+  }
+
+  private static String getLiteralPrefix(String regex) {
+    String value = StringUtils.removeStart(regex, "^");
+    StringBuilder sb = new StringBuilder();
+    for (char c : value.toCharArray()) {
+      if (REGEX_SPECIAL_CHARS.indexOf(c) >= 0) {
+        break;
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+}
@@ -19,10 +19,23 @@
  */
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET;
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PLUGIN_NAME;
+
 import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.oak.spi.security.ConfigurationParameters;
+import org.apache.jackrabbit.oak.spi.security.user.UserConstants;
 import org.apache.jackrabbit.oak.spi.security.user.util.PasswordUtil;
 
 import com.github.jknack.handlebars.Options;
@@ -32,6 +45,11 @@ import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
 
 /**
  * Handlebars helper that builds a password hash for a given password string of an Oak JCR user.
+ * Hashes are memoized per generation run, see {@link PasswordHashCache}.
+ * <p>
+ * If a salt secret is configured, the salt is derived from the password via HMAC-SHA256 with this secret instead of
+ * using a random salt. This way unchanged passwords produce identical hashes across builds.
+ * </p>
  */
 public final class OakPasswordHashHelper implements HelperPlugin<Object> {
 
@@ -40,6 +58,16 @@ public final class OakPasswordHashHelper implements HelperPlugin<Object> {
    */
   public static final String NAME = "oakPasswordHash";
 
+  /**
+   * Secret for deriving a reproducible salt. Overrides the plugin configuration parameter
+   * {@value io.wcm.devops.conga.plugins.aem.AemPluginConfig#PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET}.
+   */
+  public static final String HASH_SALT_SECRET = "saltSecret";
+
+  private static final String SALT_HMAC_ALGORITHM = "HmacSHA256";
+  private static final String PBKDF2_PREFIX = "PBKDF2";
+  private static final int NO_ITERATIONS = 1;
+
   @Override
   public String getName() {
     return NAME;
@@ -58,13 +86,92 @@ public final class OakPasswordHashHelper implements HelperPlugin<Object> {
       return password;
     }
 
-    ConfigurationParameters config = ConfigurationParameters.of(options.hash);
+    Map<String, Object> hashOptions = new TreeMap<>(options.hash);
+    String saltSecret = Objects.toString(hashOptions.remove(HASH_SALT_SECRET), null);
+    if (StringUtils.isEmpty(saltSecret) && pluginContext != null) {
+      Map<String, Object> aemPluginConfig = pluginContext.getGenericPluginConfig().get(PLUGIN_NAME);
+      if (aemPluginConfig != null) {
+        saltSecret = Objects.toString(aemPluginConfig.get(PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET), null);
+      }
+    }
+
+    ConfigurationParameters config = ConfigurationParameters.of(hashOptions);
+    Object cacheScope = pluginContext != null ? pluginContext.getUrlFileManager() : null;
+    String cacheKey = password + "\n" + hashOptions + "\n" + StringUtils.defaultString(saltSecret);
+    String secret = saltSecret;
     try {
-      return PasswordUtil.buildPasswordHash(password, config);
+      return PasswordHashCache.get(cacheScope, cacheKey, () -> {
+        if (StringUtils.isEmpty(secret)) {
+          return PasswordUtil.buildPasswordHash(password, config);
+        }
+        return buildReproduciblePasswordHash(password, config, secret);
+      });
     }
-    catch (NoSuchAlgorithmException ex) {
+    catch (GeneralSecurityException ex) {
       throw new IOException("Unable build password hash.", ex);
     }
   }
 
+  /**
+   * Builds a password hash in the same format and with the same configuration parameters as
+   * {@link PasswordUtil#buildPasswordHash(String, ConfigurationParameters)}, but with a salt derived from the password.
+   */
+  private static String buildReproduciblePasswordHash(String password, ConfigurationParameters config, String saltSecret)
+      throws GeneralSecurityException {
+    String algorithm = config.getConfigValue(UserConstants.PARAM_PASSWORD_HASH_ALGORITHM, PasswordUtil.DEFAULT_ALGORITHM);
+    int iterations = config.getConfigValue(UserConstants.PARAM_PASSWORD_HASH_ITERATIONS, PasswordUtil.DEFAULT_ITERATIONS);
+    int saltSize = config.getConfigValue(UserConstants.PARAM_PASSWORD_SALT_SIZE, PasswordUtil.DEFAULT_SALT_SIZE);
+    if (StringUtils.startsWith(algorithm, PBKDF2_PREFIX)) {
+      throw new IllegalArgumentException("Reproducible password hashes are not supported for algorithm: " + algorithm);
+    }
+    if (iterations < NO_ITERATIONS) {
+      iterations = PasswordUtil.DEFAULT_ITERATIONS;
+    }
+    if (saltSize < PasswordUtil.DEFAULT_SALT_SIZE) {
+      saltSize = PasswordUtil.DEFAULT_SALT_SIZE;
+    }
+
+    String salt = toHex(deriveSalt(password, saltSecret, saltSize));
+    byte[] digest = (salt + password).getBytes(StandardCharsets.UTF_8);
+    MessageDigest md = MessageDigest.getInstance(algorithm);
+    for (int i = 0; i < iterations; i++) {
+      md.reset();
+      digest = md.digest(digest);
+    }
+
+    StringBuilder hash = new StringBuilder()
+        .append('{').append(algorithm).append('}')
+        .append(salt).append('-');
+    if (iterations > NO_ITERATIONS) {
+      hash.append(iterations).append('-');
+    }
+    return hash.append(toHex(digest)).toString();
+  }
+
+  private static byte[] deriveSalt(String password, String saltSecret, int saltSize) throws GeneralSecurityException {
+    Mac mac = Mac.getInstance(SALT_HMAC_ALGORITHM);
+    mac.init(new SecretKeySpec(saltSecret.getBytes(StandardCharsets.UTF_8), SALT_HMAC_ALGORITHM));
+    byte[] passwordData = password.getBytes(StandardCharsets.UTF_8);
+    byte[] salt = new byte[saltSize];
+    int offset = 0;
+    for (int block = 0; offset < saltSize; block++) {
+      mac.update(passwordData);
+      mac.update((byte)block);
+      byte[] blockData = mac.doFinal();
+      int length = Math.min(blockData.length, saltSize - offset);
+      System.arraycopy(blockData, 0, salt, offset, length);
+      offset += length;
+    }
+    return salt;
+  }
+
+  private static String toHex(byte[] data) {
+    StringBuilder hex = new StringBuilder(data.length * 2);
+    for (byte item : data) {
+      hex.append(Character.forDigit((item >> 4) & 0xf, 16))
+          .append(Character.forDigit(item & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
 }
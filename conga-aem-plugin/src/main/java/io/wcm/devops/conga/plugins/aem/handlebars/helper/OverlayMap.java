@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.wcm.devops.conga.model.util.MapMerger;
+
+/**
+ * Read-only view of an overlay map deep-merged over a base map, with the same result as
+ * {@link MapMerger#merge(Map, Map)}. Values are merged lazily when they are read and memoized, nested maps
+ * present in both maps are returned as overlay views as well. Neither map is copied or modified.
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class OverlayMap extends AbstractMap<String, Object> {
+
+  private final Map<String, Object> overlay;
+  private final Map<String, Object> base;
+  private final Set<String> hiddenBaseKeys;
+  private final Map<String, Object> resolved = new HashMap<>();
+  private Set<Map.Entry<String, Object>> entrySet;
+
+  /**
+   * @param overlay Overlay map, has precedence
+   * @param base Base map
+   * @param hiddenBaseKeys Keys of the base map that are ignored
+   */
+  OverlayMap(Map<String, Object> overlay, Map<String, Object> base, Set<String> hiddenBaseKeys) {
+    this.overlay = overlay;
+    this.base = base;
+    this.hiddenBaseKeys = hiddenBaseKeys;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return overlay.containsKey(key) || containsBaseKey(key);
+  }
+
+  private boolean containsBaseKey(Object key) {
+    return base.containsKey(key) && !hiddenBaseKeys.contains(key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (!(key instanceof String) || !containsKey(key)) {
+      return null;
+    }
+    String name = (String)key;
+    if (resolved.containsKey(name)) {
+      return resolved.get(name);
+    }
+    Object value = resolve(name);
+    resolved.put(name, value);
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object resolve(String key) {
+    if (!containsBaseKey(key)) {
+      return overlay.get(key);
+    }
+    if (!overlay.containsKey(key)) {
+      return base.get(key);
+    }
+    Object overlayValue = overlay.get(key);
+    Object baseValue = base.get(key);
+    if (overlayValue instanceof Map && baseValue instanceof Map) {
+      return new OverlayMap((Map<String, Object>)overlayValue, (Map<String, Object>)baseValue, Collections.emptySet());
+    }
+    // lists and values: apply merge rules of map merger
+    return MapMerger.merge(Collections.singletonMap(key, overlayValue), Collections.singletonMap(key, baseValue)).get(key);
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      Set<String> keys = new LinkedHashSet<>();
+      base.keySet().stream()
+          .filter(this::containsBaseKey)
+          .forEach(keys::add);
+      keys.addAll(overlay.keySet());
+      Map<String, Object> entries = new LinkedHashMap<>();
+      for (String key : keys) {
+        entries.put(key, get(key));
+      }
+      entrySet = Collections.unmodifiableMap(entries).entrySet();
+    }
+    return entrySet;
+  }
+
+}
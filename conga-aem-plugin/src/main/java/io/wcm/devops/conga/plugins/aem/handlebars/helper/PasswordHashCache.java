@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoizes password hashes per password and hash options, so each distinct password is hashed only once per
+ * generation run. Cached hashes are bound to a scope object of the generation run (the URL file manager) and are
+ * garbage collected together with it.
+ */
+final class PasswordHashCache {
+
+  private static final Map<Object, Map<String, String>> HASHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private PasswordHashCache() {
+    // static methods only
+  }
+
+  /**
+   * Builds password hashes.
+   */
+  @FunctionalInterface
+  interface HashFunction {
+
+    /**
+     * @return Password hash
+     * @throws GeneralSecurityException Security exception
+     */
+    String hash() throws GeneralSecurityException;
+
+  }
+
+  /**
+   * Get password hash from cache, or build it with the given hash function.
+   * @param scope Scope object of the generation run. If null, the hash is not cached.
+   * @param key Cache key including password and all options affecting the hash
+   * @param hashFunction Builds the hash on cache miss
+   * @return Password hash
+   * @throws GeneralSecurityException Security exception
+   */
+  static String get(Object scope, String key, HashFunction hashFunction) throws GeneralSecurityException {
+    if (scope == null) {
+      return hashFunction.hash();
+    }
+    Map<String, String> hashes = HASHES.computeIfAbsent(scope, item -> new ConcurrentHashMap<>());
+    String hash = hashes.get(key);
+    if (hash == null) {
+      hash = hashFunction.hash();
+      hashes.put(key, hash);
+    }
+    return hash;
+  }
+
+  /**
+   * Removes all cached hashes.
+   */
+  static void invalidateAll() {
+    HASHES.clear();
+  }
+
+}
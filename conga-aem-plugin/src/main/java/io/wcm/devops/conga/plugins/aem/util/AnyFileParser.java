@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+import org.apache.commons.io.IOUtils;
+import org.xml.sax.InputSource;
+
+import com.day.any.BaseHandler;
+import com.day.any.Parser;
+
+/**
+ * Parses Day ANY files for validation. Include directives are not resolved, so each file can be validated
+ * on its own.
+ */
+public final class AnyFileParser {
+
+  private AnyFileParser() {
+    // static methods only
+  }
+
+  /**
+   * Parses ANY file content.
+   * @param anyFileContent ANY file content
+   * @throws Exception if the content is not a valid ANY file
+   */
+  @SuppressWarnings("java:S112") // parser throws generic exceptions
+  public static void parse(String anyFileContent) throws Exception {
+    parse(new StringReader(anyFileContent));
+  }
+
+  /**
+   * Parses ANY file content. Ticks are replaced while streaming, so the content is never held in memory as a whole.
+   * @param reader Reader with ANY file content, is closed after parsing
+   * @throws Exception if the content is not a valid ANY file
+   */
+  @SuppressWarnings("java:S112") // parser throws generic exceptions
+  public static void parse(Reader reader) throws Exception {
+    Parser parser = new Parser(new BaseHandler());
+
+    // set resource expander and entity resolver that do not resolve anything
+    // just make sure they are in place to allow any parser parsing files with include directives
+    parser.setResourceExpander(arg -> new String[0]);
+    parser.setEnitiyResolver((publicId, systemId) -> null);
+
+    try (Reader tickNormalizingReader = new TickNormalizingReader(reader)) {
+      parser.parse(new InputSource(tickNormalizingReader));
+    }
+  }
+
+  /**
+   * Replace ticks (') for properties with quotes (") because the old java ANY file parser implementation
+   * does not support them.
+   * @param anyFileContent Any file content
+   * @return Content with ticks replaces
+   */
+  public static String replaceTicks(String anyFileContent) {
+    try (Reader reader = new TickNormalizingReader(new StringReader(anyFileContent))) {
+      return IOUtils.toString(reader);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Node of a parsed ANY file structure. A node is either a named block with children, a named property with a
+ * value, or an unnamed value (e.g. a virtual host in <code>/virtualhosts</code>).
+ */
+public final class AnyNode {
+
+  private final String name;
+  private final String value;
+  private final String sourcePath;
+  private final boolean regex;
+  private final List<AnyNode> children = new ArrayList<>();
+
+  public AnyNode(@Nullable String name, @Nullable String value, @NotNull String sourcePath) {
+    this(name, value, sourcePath, false);
+  }
+
+  public AnyNode(@Nullable String name, @Nullable String value, @NotNull String sourcePath, boolean regex) {
+    this.name = name;
+    this.value = value;
+    this.sourcePath = sourcePath;
+    this.regex = regex;
+  }
+
+  public void addChild(@NotNull AnyNode child) {
+    children.add(child);
+  }
+
+  /**
+   * @return Name without leading slash, or null for unnamed values
+   */
+  public @Nullable String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return Value, or null for blocks
+   */
+  public @Nullable String getValue() {
+    return this.value;
+  }
+
+  /**
+   * @return true if the value was enclosed in single quotes, which marks a regular expression in filter and
+   *         cache rules. Values in double quotes are glob patterns.
+   */
+  public boolean isRegex() {
+    return this.regex;
+  }
+
+  /**
+   * @return Path of the file this node was defined in
+   */
+  public @NotNull String getSourcePath() {
+    return this.sourcePath;
+  }
+
+  /**
+   * @return Child nodes in definition order
+   */
+  public @NotNull List<AnyNode> getChildren() {
+    return Collections.unmodifiableList(children);
+  }
+
+  /**
+   * @param childName Child name
+   * @return First child with the given name, or null
+   */
+  public @Nullable AnyNode getChild(@NotNull String childName) {
+    return children.stream()
+        .filter(child -> StringUtils.equals(child.getName(), childName))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * @return Values of all unnamed children
+   */
+  public @NotNull List<String> getValues() {
+    return children.stream()
+        .filter(child -> child.getName() == null)
+        .map(AnyNode::getValue)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public String toString() {
+    return StringUtils.defaultString(name, "") + (value != null ? " " + value : " {" + children.size() + "}");
+  }
+
+}
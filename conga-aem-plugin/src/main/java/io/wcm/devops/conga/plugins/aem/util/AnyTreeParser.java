@@ -0,0 +1,311 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parses the structure of ANY files into a tree of {@link AnyNode}. Syntax errors are not reported - validate
+ * the syntax with {@link AnyFileParser} first. <code>$include</code> and <code>$include_glob</code> directives
+ * are passed to an {@link IncludeHandler}.
+ */
+public final class AnyTreeParser {
+
+  private static final String INCLUDE = "$include";
+  private static final String INCLUDE_GLOB = "$include_glob";
+
+  /**
+   * Handles include directives found while parsing.
+   */
+  @FunctionalInterface
+  public interface IncludeHandler {
+
+    /**
+     * @param parent Node the included content belongs to
+     * @param path Path of the file containing the include directive
+     * @param includePath Include path as defined in the directive
+     * @param glob true for <code>$include_glob</code>
+     */
+    void include(@NotNull AnyNode parent, @NotNull String path, @NotNull String includePath, boolean glob);
+
+  }
+
+  /**
+   * Decides which blocks are parsed, to keep only the relevant parts of large files in memory.
+   */
+  @FunctionalInterface
+  public interface BlockFilter {
+
+    /**
+     * @param names Names of the block and all its parent blocks, starting at root level
+     * @return true to parse the content of the block, false to skip it - the block node is added without children
+     */
+    boolean readContent(@NotNull List<String> names);
+
+  }
+
+  private AnyTreeParser() {
+    // static methods only
+  }
+
+  /**
+   * Parses ANY file content.
+   * @param content ANY file content
+   * @param path Path of the file, used as source path of the nodes
+   * @param includeHandler Include handler, or null to ignore include directives
+   * @return Root node
+   */
+  public static @NotNull AnyNode parse(@NotNull String content, @NotNull String path, @Nullable IncludeHandler includeHandler) {
+    AnyNode root = new AnyNode(null, null, path);
+    parseInto(root, content, path, includeHandler);
+    return root;
+  }
+
+  /**
+   * Parses ANY file content from a reader, without reading the whole content into memory.
+   * @param reader Reader with ANY file content
+   * @param path Path of the file, used as source path of the nodes
+   * @param includeHandler Include handler, or null to ignore include directives
+   * @return Root node
+   * @throws IOException I/O exception
+   */
+  public static @NotNull AnyNode parse(@NotNull Reader reader, @NotNull String path, @Nullable IncludeHandler includeHandler)
+      throws IOException {
+    return parse(reader, path, includeHandler, null);
+  }
+
+  /**
+   * Parses ANY file content from a reader, without reading the whole content into memory. Only blocks accepted
+   * by the block filter are added to the tree with their content, the content of all other blocks is skipped.
+   * Include directives in skipped blocks are not passed to the include handler.
+   * @param reader Reader with ANY file content
+   * @param path Path of the file, used as source path of the nodes
+   * @param includeHandler Include handler, or null to ignore include directives
+   * @param blockFilter Block filter, or null to parse all blocks
+   * @return Root node
+   * @throws IOException I/O exception
+   */
+  public static @NotNull AnyNode parse(@NotNull Reader reader, @NotNull String path, @Nullable IncludeHandler includeHandler,
+      @Nullable BlockFilter blockFilter) throws IOException {
+    AnyNode root = new AnyNode(null, null, path);
+    new TreeBuilder(path, new Tokenizer(reader), includeHandler, blockFilter).readBlock(root);
+    return root;
+  }
+
+  /**
+   * Parses ANY file content and adds the nodes to the given parent node.
+   * @param parent Parent node
+   * @param content ANY file content
+   * @param path Path of the file, used as source path of the nodes
+   * @param includeHandler Include handler, or null to ignore include directives
+   */
+  public static void parseInto(@NotNull AnyNode parent, @NotNull String content, @NotNull String path,
+      @Nullable IncludeHandler includeHandler) {
+    try {
+      new TreeBuilder(path, new Tokenizer(new StringReader(content)), includeHandler, null).readBlock(parent);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static String unquote(String value) {
+    if (value != null && value.length() >= 2
+        && ((value.startsWith("\"") && value.endsWith("\"")) || (value.startsWith("'") && value.endsWith("'")))) {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  /**
+   * Builds the node tree from the tokens of a single file.
+   */
+  private static final class TreeBuilder {
+
+    private final String path;
+    private final Tokenizer tokenizer;
+    private final IncludeHandler includeHandler;
+    private final BlockFilter blockFilter;
+    private final List<String> names = new ArrayList<>();
+
+    TreeBuilder(String path, Tokenizer tokenizer, IncludeHandler includeHandler, BlockFilter blockFilter) {
+      this.path = path;
+      this.tokenizer = tokenizer;
+      this.includeHandler = includeHandler;
+      this.blockFilter = blockFilter;
+    }
+
+    void readBlock(AnyNode parent) throws IOException {
+      String token;
+      while ((token = tokenizer.next()) != null) {
+        if (StringUtils.equals(token, "}")) {
+          return;
+        }
+        if (StringUtils.equals(token, "{")) {
+          // unnamed block - not used in dispatcher configuration, read and ignore content
+          readBlock(new AnyNode(null, null, path));
+        }
+        else if (StringUtils.equalsAny(token, INCLUDE, INCLUDE_GLOB)) {
+          include(parent, token);
+        }
+        else if (StringUtils.startsWith(token, "/")) {
+          readNamedNode(parent, unquote(token.substring(1)));
+        }
+        else {
+          parent.addChild(new AnyNode(null, unquote(token), path));
+        }
+      }
+    }
+
+    private void readNamedNode(AnyNode parent, String name) throws IOException {
+      String token = tokenizer.next();
+      if (token == null) {
+        return;
+      }
+      if (StringUtils.equals(token, "{")) {
+        AnyNode node = new AnyNode(name, null, path);
+        parent.addChild(node);
+        names.add(name);
+        if (blockFilter == null || blockFilter.readContent(Collections.unmodifiableList(names))) {
+          readBlock(node);
+        }
+        else {
+          skipBlock();
+        }
+        names.remove(names.size() - 1);
+      }
+      else if (StringUtils.equalsAny(token, INCLUDE, INCLUDE_GLOB)) {
+        // included content is the value of the node
+        AnyNode node = new AnyNode(name, null, path);
+        parent.addChild(node);
+        include(node, token);
+      }
+      else {
+        parent.addChild(new AnyNode(name, unquote(token), path, StringUtils.startsWith(token, "'")));
+      }
+    }
+
+    private void skipBlock() throws IOException {
+      int depth = 1;
+      String token;
+      while (depth > 0 && (token = tokenizer.next()) != null) {
+        if (StringUtils.equals(token, "{")) {
+          depth++;
+        }
+        else if (StringUtils.equals(token, "}")) {
+          depth--;
+        }
+      }
+    }
+
+    private void include(AnyNode parent, String directive) throws IOException {
+      String includePath = unquote(tokenizer.next());
+      if (includePath != null && includeHandler != null) {
+        includeHandler.include(parent, path, includePath, StringUtils.equals(directive, INCLUDE_GLOB));
+      }
+    }
+
+  }
+
+  /**
+   * Splits ANY file content into braces, quoted strings and words, skipping comments.
+   */
+  private static final class Tokenizer {
+
+    private final PushbackReader reader;
+
+    Tokenizer(Reader reader) {
+      this.reader = new PushbackReader(reader);
+    }
+
+    String next() throws IOException {
+      int c = skipWhitespaceAndComments();
+      if (c < 0) {
+        return null;
+      }
+      if (c == '{' || c == '}') {
+        return String.valueOf((char)c);
+      }
+      StringBuilder token = new StringBuilder().append((char)c);
+      if (c == '"' || c == '\'') {
+        readQuoted(token, (char)c);
+        return token.toString();
+      }
+      // word, optionally with quoted part (e.g. /"name")
+      int current;
+      while ((current = reader.read()) >= 0) {
+        if (Character.isWhitespace(current) || current == '{' || current == '}') {
+          reader.unread(current);
+          break;
+        }
+        token.append((char)current);
+        if (current == '"' || current == '\'') {
+          readQuoted(token, (char)current);
+        }
+      }
+      return token.toString();
+    }
+
+    private int skipWhitespaceAndComments() throws IOException {
+      int c;
+      while ((c = reader.read()) >= 0) {
+        if (c == '#') {
+          while (c >= 0 && c != '\n') {
+            c = reader.read();
+          }
+        }
+        else if (!Character.isWhitespace(c)) {
+          return c;
+        }
+      }
+      return -1;
+    }
+
+    private void readQuoted(StringBuilder token, char quote) throws IOException {
+      int current;
+      while ((current = reader.read()) >= 0) {
+        token.append((char)current);
+        if (current == '\\') {
+          int escaped = reader.read();
+          if (escaped < 0) {
+            return;
+          }
+          token.append((char)escaped);
+        }
+        else if (current == quote) {
+          return;
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader that replaces ticks (') for property values with quotes (") while streaming ANY file content, because
+ * the old java ANY file parser implementation does not support them. A value is replaced if it directly follows a
+ * name starting with a slash, e.g. <code>/prop 'value'</code>. Only the value of such a property is buffered.
+ */
+final class TickNormalizingReader extends Reader {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private enum State {
+    /** Outside of a property value */
+    TEXT,
+    /** Whitespace after a name starting with a slash */
+    AFTER_NAME,
+    /** Within a property value enclosed in ticks */
+    VALUE
+  }
+
+  private final Reader in;
+  private final char[] inBuffer = new char[BUFFER_SIZE];
+  private final StringBuilder out = new StringBuilder();
+  private final StringBuilder value = new StringBuilder();
+  private int outPos;
+  private boolean eof;
+
+  private State state = State.TEXT;
+  private boolean slashInWord;
+  private boolean nameAfterSlash;
+
+  /**
+   * @param in Reader with ANY file content
+   */
+  TickNormalizingReader(Reader in) {
+    this.in = in;
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (outPos >= out.length()) {
+      out.setLength(0);
+      outPos = 0;
+      if (eof) {
+        return -1;
+      }
+      fill();
+    }
+    int count = Math.min(len, out.length() - outPos);
+    out.getChars(outPos, outPos + count, cbuf, off);
+    outPos += count;
+    return count;
+  }
+
+  private void fill() throws IOException {
+    int count = in.read(inBuffer, 0, inBuffer.length);
+    if (count < 0) {
+      eof = true;
+      if (state == State.VALUE) {
+        // no closing tick - keep content as it is
+        out.append('\'').append(value);
+        value.setLength(0);
+      }
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      process(inBuffer[i]);
+    }
+  }
+
+  private void process(char c) {
+    switch (state) {
+      case VALUE:
+        if (c == '\'') {
+          out.append('"').append(value).append('"');
+          value.setLength(0);
+          resetWord();
+          state = State.TEXT;
+        }
+        else {
+          value.append(c);
+        }
+        break;
+      case AFTER_NAME:
+        if (c == '\'') {
+          state = State.VALUE;
+          break;
+        }
+        if (Character.isWhitespace(c)) {
+          out.append(c);
+          break;
+        }
+        state = State.TEXT;
+        processText(c);
+        break;
+      default:
+        processText(c);
+        break;
+    }
+  }
+
+  private void processText(char c) {
+    if (Character.isWhitespace(c)) {
+      if (nameAfterSlash) {
+        state = State.AFTER_NAME;
+      }
+      resetWord();
+    }
+    else if (slashInWord) {
+      nameAfterSlash = true;
+    }
+    else if (c == '/') {
+      slashInWord = true;
+    }
+    out.append(c);
+  }
+
+  private void resetWord() {
+    slashInWord = false;
+    nameAfterSlash = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+}
@@ -19,28 +19,28 @@
  */
 package io.wcm.devops.conga.plugins.aem.validator;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import org.apache.commons.io.FileUtils;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import com.day.any.BaseHandler;
-import com.day.any.Parser;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import io.wcm.devops.conga.generator.spi.ValidationException;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
 import io.wcm.devops.conga.generator.spi.context.ValidatorContext;
 import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.model.util.MapExpander;
+import io.wcm.devops.conga.plugins.aem.util.AnyFileParser;
 
 /**
- * Validates Day ANY files.
+ * Validates Day ANY files and dispatcher farm files (<code>.farm</code>). Dispatcher farm configurations are
+ * additionally checked for performance anti-patterns, see {@link DispatcherLinter}. Findings with severity ERROR fail
+ * the validation, all others are logged.
  */
 public class AnyValidator implements ValidatorPlugin {
 
@@ -50,8 +50,9 @@ public class AnyValidator implements ValidatorPlugin {
   public static final String NAME = "any";
 
   private static final String FILE_EXTENSION = "any";
+  private static final String FARM_FILE_EXTENSION = "farm";
 
-  private static final Pattern TICK_PROPERTY = Pattern.compile("/(\\S+)\\s+'([^']*)'");
+  private static final String OPTION_LINT = "any.lint";
 
   @Override
   public String getName() {
@@ -60,37 +61,66 @@ public class AnyValidator implements ValidatorPlugin {
 
   @Override
   public boolean accepts(FileContext file, ValidatorContext context) {
-    return FileUtil.matchesExtension(file, FILE_EXTENSION);
+    return FileUtil.matchesExtension(file, FILE_EXTENSION)
+        || FileUtil.matchesExtension(file, FARM_FILE_EXTENSION);
   }
 
   @Override
   public Void apply(FileContext file, ValidatorContext context) throws ValidationException {
-    Parser parser = new Parser(new BaseHandler());
-
-    // set resource expander and entity resolver that do not resolve anything
-    // just make sure they are in place to allow any parser parsing files with include directives
-    parser.setResourceExpander(arg -> new String[0]);
-    parser.setEnitiyResolver(new EntityResolver() {
-      @Override
-      public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-        return null;
-      }
-    });
-
-    // read any file
-    try {
-      String anyFileContent = FileUtils.readFileToString(file.getFile(), file.getCharset());
-      anyFileContent = replaceTicks(anyFileContent);
-      try (Reader reader = new StringReader(anyFileContent)) {
-        parser.parse(new InputSource(reader));
-      }
+    try (Reader reader = openReader(file)) {
+      AnyFileParser.parse(reader);
     }
     /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
       throw new ValidationException("ANY file is not valid: " + ex.getMessage(), ex);
     }
+    lint(file, context);
     return null;
   }
 
+  private static Reader openReader(FileContext file) throws IOException {
+    return new BufferedReader(new InputStreamReader(Files.newInputStream(file.getFile().toPath()), file.getCharset()));
+  }
+
+  private void lint(FileContext file, ValidatorContext context) throws ValidationException {
+    List<DispatcherLinter.Finding> findings;
+    try (Reader reader = openReader(file)) {
+      findings = new DispatcherLinter(getLintOptions(context)).lint(reader, file.getFile().getName());
+    }
+    catch (IllegalArgumentException ex) {
+      throw new ValidationException("Invalid lint options: " + ex.getMessage(), ex);
+    }
+    catch (IOException ex) {
+      throw new ValidationException("Unable to read ANY file: " + ex.getMessage(), ex);
+    }
+
+    if (context != null) {
+      findings.stream()
+          .filter(finding -> finding.getSeverity() == DispatcherLinter.Severity.WARN)
+          .forEach(finding -> context.getLogger().warn("{}: {}", file.getFile().getName(), finding));
+      findings.stream()
+          .filter(finding -> finding.getSeverity() == DispatcherLinter.Severity.INFO)
+          .forEach(finding -> context.getLogger().info("{}: {}", file.getFile().getName(), finding));
+    }
+    List<String> errors = findings.stream()
+        .filter(finding -> finding.getSeverity() == DispatcherLinter.Severity.ERROR)
+        .map(DispatcherLinter.Finding::toString)
+        .collect(Collectors.toList());
+    if (!errors.isEmpty()) {
+      throw new ValidationException("ANY file violates dispatcher lint rules:\n" + String.join("\n", errors));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getLintOptions(ValidatorContext context) {
+    if (context != null) {
+      Object options = MapExpander.getDeep(context.getOptions(), OPTION_LINT);
+      if (options instanceof Map) {
+        return (Map<String, Object>)options;
+      }
+    }
+    return Collections.emptyMap();
+  }
+
   /**
    * Replace ticks (') for properties with quotes (") because the old java ANY file parser implementation
    * does not support them.
@@ -98,13 +128,7 @@ public class AnyValidator implements ValidatorPlugin {
    * @return Content with ticks replaces
    */
   static String replaceTicks(String anyFileContent) {
-    StringBuffer result = new StringBuffer();
-    Matcher matcher = TICK_PROPERTY.matcher(anyFileContent);
-    while (matcher.find()) {
-      matcher.appendReplacement(result, "/" + Matcher.quoteReplacement(matcher.group(1)) + " \"" + Matcher.quoteReplacement(matcher.group(2)) + "\"");
-    }
-    matcher.appendTail(result);
-    return result.toString();
+    return AnyFileParser.replaceTicks(anyFileContent);
   }
 
 }
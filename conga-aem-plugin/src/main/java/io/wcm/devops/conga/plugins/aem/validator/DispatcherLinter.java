@@ -0,0 +1,396 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.validator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.wcm.devops.conga.plugins.aem.util.AnyNode;
+import io.wcm.devops.conga.plugins.aem.util.AnyTreeParser;
+
+/**
+ * Checks dispatcher farm configurations in ANY files for performance anti-patterns. Include directives are not
+ * resolved, checks for missing definitions are skipped for sections containing includes and reported with severity
+ * INFO instead.
+ */
+final class DispatcherLinter {
+
+  /**
+   * Severity of a finding.
+   */
+  enum Severity {
+    /** Fails the validation */
+    ERROR,
+    /** Logged as warning */
+    WARN,
+    /** Logged as info */
+    INFO,
+    /** Rule is disabled */
+    OFF
+  }
+
+  /**
+   * Lint rules.
+   */
+  enum Rule {
+
+    /**
+     * Farm without cache - all requests hit the publish instance.
+     */
+    MISSING_CACHE("missingCache", Severity.WARN) {
+      @Override
+      String check(Farm farm) {
+        if (farm.cache == null && !farm.hasIncludes(farm.node)) {
+          return "No /cache section, all requests are passed to the backend.";
+        }
+        return null;
+      }
+
+      @Override
+      String getUncheckedDefinition(Farm farm) {
+        return farm.cache == null && farm.hasIncludes(farm.node) ? "/cache" : null;
+      }
+    },
+
+    /**
+     * Stat file level 0 - each activation invalidates the whole cache.
+     */
+    STATFILES_LEVEL("statfilesLevel", Severity.WARN) {
+      @Override
+      String check(Farm farm) {
+        if (farm.cache == null || (farm.contentDepth != null && farm.contentDepth <= 1)) {
+          return null;
+        }
+        AnyNode statfileslevel = farm.cache.getChild("statfileslevel");
+        if ((statfileslevel == null && !farm.hasIncludes(farm.cache))
+            || (statfileslevel != null && StringUtils.equals(statfileslevel.getValue(), "0"))) {
+          return "/statfileslevel is 0" + (farm.contentDepth != null ? " for content depth " + farm.contentDepth : "")
+              + ", each activation invalidates the whole cache.";
+        }
+        return null;
+      }
+
+      @Override
+      String getUncheckedDefinition(Farm farm) {
+        if (farm.cache == null || (farm.contentDepth != null && farm.contentDepth <= 1)) {
+          return null;
+        }
+        return farm.cache.getChild("statfileslevel") == null && farm.hasIncludes(farm.cache) ? "/statfileslevel" : null;
+      }
+    },
+
+    /**
+     * Cache rules allowing everything without ignoring URL parameters - requests with query strings are not cached.
+     */
+    CACHE_RULES_WITHOUT_IGNORE_URL_PARAMS("cacheRulesWithoutIgnoreUrlParams", Severity.WARN) {
+      @Override
+      String check(Farm farm) {
+        if (farm.cache == null || farm.cache.getChild("ignoreUrlParams") != null || farm.hasIncludes(farm.cache)) {
+          return null;
+        }
+        AnyNode rules = farm.cache.getChild("rules");
+        if (rules == null) {
+          return null;
+        }
+        for (AnyNode rule : rules.getChildren()) {
+          if (StringUtils.equals(getValue(rule, "type"), "allow") && StringUtils.equals(getValue(rule, "glob"), "*")) {
+            return "/cache /rules allow all content but /ignoreUrlParams is not defined, "
+                + "requests with query parameters are never cached.";
+          }
+        }
+        return null;
+      }
+
+      @Override
+      String getUncheckedDefinition(Farm farm) {
+        if (farm.cache == null || farm.cache.getChild("ignoreUrlParams") != null) {
+          return null;
+        }
+        return farm.hasIncludes(farm.cache) ? "/ignoreUrlParams" : null;
+      }
+    },
+
+    /**
+     * Caching of authorized requests on publish.
+     */
+    ALLOW_AUTHORIZED("allowAuthorized", Severity.WARN) {
+      @Override
+      String check(Farm farm) {
+        if (farm.cache == null || StringUtils.containsIgnoreCase(farm.name, "author")) {
+          return null;
+        }
+        if (StringUtils.equals(getValue(farm.cache, "allowAuthorized"), "1")) {
+          return "/allowAuthorized is enabled on a publish farm, personalized responses may be cached and served to other users.";
+        }
+        return null;
+      }
+    },
+
+    /**
+     * No grace period - invalidations cause request bursts to the backend.
+     */
+    MISSING_GRACE_PERIOD("missingGracePeriod", Severity.WARN) {
+      @Override
+      String check(Farm farm) {
+        if (farm.cache != null && farm.cache.getChild("gracePeriod") == null && !farm.hasIncludes(farm.cache)) {
+          return "No /gracePeriod defined, each invalidation causes a burst of requests to the backend.";
+        }
+        return null;
+      }
+
+      @Override
+      String getUncheckedDefinition(Farm farm) {
+        return farm.cache != null && farm.cache.getChild("gracePeriod") == null && farm.hasIncludes(farm.cache)
+            ? "/gracePeriod" : null;
+      }
+    };
+
+    private final String id;
+    private final Severity defaultSeverity;
+
+    Rule(String id, Severity defaultSeverity) {
+      this.id = id;
+      this.defaultSeverity = defaultSeverity;
+    }
+
+    String getId() {
+      return this.id;
+    }
+
+    Severity getDefaultSeverity() {
+      return this.defaultSeverity;
+    }
+
+    /**
+     * @param farm Farm
+     * @return Message if the rule is violated, or null
+     */
+    abstract String check(Farm farm);
+
+    /**
+     * @param farm Farm
+     * @return Definition that was not checked because it may be defined in an included file, or null
+     */
+    String getUncheckedDefinition(Farm farm) {
+      return null;
+    }
+
+  }
+
+  /**
+   * Lint finding.
+   */
+  static final class Finding {
+
+    private final Rule rule;
+    private final Severity severity;
+    private final String message;
+
+    Finding(Rule rule, Severity severity, String message) {
+      this.rule = rule;
+      this.severity = severity;
+      this.message = message;
+    }
+
+    Rule getRule() {
+      return this.rule;
+    }
+
+    Severity getSeverity() {
+      return this.severity;
+    }
+
+    String getMessage() {
+      return this.message;
+    }
+
+    @Override
+    public String toString() {
+      return message + " [" + rule.getId() + "]";
+    }
+
+  }
+
+  private static final Set<String> FARM_SECTIONS = Set.of("cache", "renders", "filter", "virtualhosts");
+
+  private final Map<Rule, Severity> severities;
+  private final Integer contentDepth;
+
+  /**
+   * @param options Lint options with optional <code>contentDepth</code> and <code>rules</code> (map of rule ID to
+   *          severity)
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  DispatcherLinter(Map<String, Object> options) {
+    this.severities = new EnumMap<>(Rule.class);
+    Map<String, Object> ruleSeverities = toMap(options.get("rules"));
+    for (Rule rule : Rule.values()) {
+      Object value = ruleSeverities.get(rule.getId());
+      if (value == null) {
+        severities.put(rule, rule.getDefaultSeverity());
+      }
+      else {
+        try {
+          severities.put(rule, Severity.valueOf(value.toString().toUpperCase(Locale.ENGLISH)));
+        }
+        catch (IllegalArgumentException ex) {
+          throw new IllegalArgumentException("Invalid severity for lint rule " + rule.getId() + ": " + value);
+        }
+      }
+    }
+    Object contentDepthValue = options.get("contentDepth");
+    if (contentDepthValue != null) {
+      try {
+        this.contentDepth = Integer.valueOf(contentDepthValue.toString());
+      }
+      catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid content depth: " + contentDepthValue);
+      }
+    }
+    else {
+      this.contentDepth = null;
+    }
+  }
+
+  /**
+   * Checks all farms defined in the given ANY file content.
+   * @param anyFileContent ANY file content
+   * @param path File path
+   * @return Findings in order of farm definition, disabled rules are not included
+   */
+  List<Finding> lint(String anyFileContent, String path) {
+    try {
+      return lint(new StringReader(anyFileContent), path);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Checks all farms defined in the given ANY file content.
+   * @param reader Reader with ANY file content
+   * @param path File path
+   * @return Findings in order of farm definition, disabled rules are not included
+   * @throws IOException I/O exception
+   */
+  List<Finding> lint(Reader reader, String path) throws IOException {
+    Set<AnyNode> nodesWithIncludes = Collections.newSetFromMap(new IdentityHashMap<>());
+    AnyNode root = AnyTreeParser.parse(reader, path,
+        (parent, includingPath, includePath, glob) -> nodesWithIncludes.add(parent),
+        DispatcherLinter::isFarmStructure);
+
+    List<Finding> findings = new ArrayList<>();
+    for (AnyNode farmNode : getFarms(root)) {
+      Farm farm = new Farm(farmNode, contentDepth, nodesWithIncludes);
+      for (Rule rule : Rule.values()) {
+        Severity severity = severities.get(rule);
+        if (severity == Severity.OFF) {
+          continue;
+        }
+        String message = rule.check(farm);
+        if (message != null) {
+          findings.add(new Finding(rule, severity, "Farm /" + farm.name + ": " + message));
+        }
+        else {
+          String uncheckedDefinition = rule.getUncheckedDefinition(farm);
+          if (uncheckedDefinition != null) {
+            findings.add(new Finding(rule, Severity.INFO, "Farm /" + farm.name + ": "
+                + uncheckedDefinition + " not checked: includes are not resolved."));
+          }
+        }
+      }
+    }
+    return findings;
+  }
+
+  /**
+   * The checks need only farm nodes with their sections, and the content of /cache sections. Content of all other
+   * sections (e.g. filter rules or virtual hosts) is skipped while parsing, so it is not held in memory.
+   */
+  static boolean isFarmStructure(List<String> names) {
+    int farmLevel = StringUtils.equals(names.get(0), "farms") ? 1 : 0;
+    return names.size() <= farmLevel + 1 || StringUtils.equals(names.get(farmLevel + 1), "cache");
+  }
+
+  /**
+   * Farms are either defined in a /farms section (dispatcher.any), or on root level (farm files).
+   */
+  private static List<AnyNode> getFarms(AnyNode root) {
+    AnyNode farms = root.getChild("farms");
+    List<AnyNode> candidates = farms != null ? farms.getChildren() : root.getChildren();
+    return candidates.stream()
+        .filter(node -> node.getName() != null && node.getValue() == null)
+        .filter(node -> farms != null || node.getChildren().stream().anyMatch(child -> FARM_SECTIONS.contains(child.getName())))
+        .collect(Collectors.toList());
+  }
+
+  private static String getValue(AnyNode node, String name) {
+    AnyNode child = node.getChild(name);
+    return child != null ? child.getValue() : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> toMap(Object value) {
+    if (value instanceof Map) {
+      return (Map<String, Object>)value;
+    }
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Farm to check.
+   */
+  static final class Farm {
+
+    private final String name;
+    private final AnyNode node;
+    private final AnyNode cache;
+    private final Integer contentDepth;
+    private final Set<AnyNode> nodesWithIncludes;
+
+    Farm(AnyNode node, Integer contentDepth, Set<AnyNode> nodesWithIncludes) {
+      this.name = node.getName();
+      this.node = node;
+      this.cache = node.getChild("cache");
+      this.contentDepth = contentDepth;
+      this.nodesWithIncludes = nodesWithIncludes;
+    }
+
+    boolean hasIncludes(AnyNode section) {
+      return nodesWithIncludes.contains(section);
+    }
+
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.crypto;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark comparing the table-driven {@link CryptoString} codec with the previous implementation based on
+ * {@link Integer#toHexString(int)} and {@link Integer#parseInt(String, int)}.
+ * Executed via {@link CryptoStringBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@SuppressWarnings("java:S2245") // random data only
+public class CryptoStringBenchmark {
+
+  @Param({ "32", "1024" })
+  public int size;
+
+  private byte[] data;
+  private String text;
+  private char[] charBuffer;
+  private byte[] byteBuffer;
+
+  @Setup
+  public void setUp() {
+    data = new byte[size];
+    new Random(0).nextBytes(data);
+    text = CryptoString.toString(data);
+    charBuffer = new char[CryptoString.getCryptoStringLength(data)];
+    byteBuffer = new byte[size];
+  }
+
+  @Benchmark
+  public String encodeLegacy() {
+    return legacyToString(data);
+  }
+
+  @Benchmark
+  public String encode() {
+    return CryptoString.toString(data);
+  }
+
+  @Benchmark
+  public char[] encodeToBuffer() {
+    CryptoString.toCryptoString(data, charBuffer, 0);
+    return charBuffer;
+  }
+
+  @Benchmark
+  public byte[] decodeLegacy() {
+    return legacyToByteArray(text);
+  }
+
+  @Benchmark
+  public byte[] decode() {
+    return CryptoString.toByteArray(text);
+  }
+
+  @Benchmark
+  public byte[] decodeToBuffer() {
+    CryptoString.toByteArray(text, byteBuffer, 0);
+    return byteBuffer;
+  }
+
+  private static String legacyToString(byte[] data) {
+    StringBuilder text = new StringBuilder(data.length * 2 + 2);
+    text.append("{");
+    for (int i = 0; i < data.length; i++) {
+      String hex = Integer.toHexString(data[i] & 0xff);
+      if (hex.length() < 2) {
+        text.append("0");
+      }
+      text.append(hex);
+    }
+    text.append("}");
+    return text.toString();
+  }
+
+  private static byte[] legacyToByteArray(String text) {
+    String rawText = text.substring(1, text.length() - 1);
+    byte[] data = new byte[rawText.length() / 2];
+    for (int i = 0; i < data.length; i++) {
+      int pos = i * 2;
+      String hex = rawText.substring(pos, pos + 2);
+      int val = Integer.parseInt(hex, 16);
+      data[i] = (byte)val;
+    }
+    return data;
+  }
+
+}
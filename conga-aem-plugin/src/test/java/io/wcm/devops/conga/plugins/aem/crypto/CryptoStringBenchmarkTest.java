@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the {@link CryptoStringBenchmark} JMH benchmark.
+ * Disabled by default, run with:
+ * <pre>
+ * mvn test -Dtest=CryptoStringBenchmarkTest -Dconga.benchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "conga.benchmark", matches = "true")
+class CryptoStringBenchmarkTest {
+
+  @Test
+  void testBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(CryptoStringBenchmark.class.getName())
+        // run within the surefire JVM, a forked JVM does not see the test classpath reliably
+        .forks(0)
+        .warmupIterations(3)
+        .warmupTime(TimeValue.seconds(1))
+        .measurementIterations(5)
+        .measurementTime(TimeValue.seconds(1))
+        .build();
+    new Runner(options).run();
+  }
+
+}
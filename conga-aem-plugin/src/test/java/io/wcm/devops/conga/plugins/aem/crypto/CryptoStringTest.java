@@ -20,10 +20,14 @@
 package io.wcm.devops.conga.plugins.aem.crypto;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.CharBuffer;
+import java.util.Locale;
+
 import org.junit.jupiter.api.Test;
 
 class CryptoStringTest {
@@ -51,6 +55,42 @@ class CryptoStringTest {
     assertArrayEquals(input, output);
   }
 
+  @Test
+  void testConversionAllByteValues() {
+    byte[] input = new byte[256];
+    StringBuilder expected = new StringBuilder("{");
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte)i;
+      expected.append(String.format(Locale.ROOT, "%02x", i));
+    }
+    expected.append("}");
+
+    assertEquals(expected.toString(), CryptoString.toString(input));
+    assertArrayEquals(input, CryptoString.toByteArray(expected.toString()));
+    assertArrayEquals(input, CryptoString.toByteArray(expected.toString().toUpperCase(Locale.ROOT)));
+  }
+
+  @Test
+  void testConversionBuffers() throws Exception {
+    byte[] input = new byte[] { 0x01, (byte)0xab, (byte)0xFF };
+
+    char[] chars = new char[12];
+    assertEquals(8, CryptoString.toCryptoString(input, chars, 2));
+    assertEquals("{01abff}", new String(chars, 2, 8));
+    assertArrayEquals(input, CryptoString.toByteArray(chars, 2, 8));
+
+    StringBuilder sb = new StringBuilder("x=");
+    CryptoString.toCryptoString(input, sb);
+    assertEquals("x={01abff}", sb.toString());
+
+    CharBuffer charBuffer = CharBuffer.allocate(8);
+    CryptoString.toCryptoString(input, charBuffer);
+    charBuffer.flip();
+    byte[] bytes = new byte[5];
+    assertEquals(3, CryptoString.toByteArray(charBuffer, bytes, 1));
+    assertArrayEquals(new byte[] { 0x00, 0x01, (byte)0xab, (byte)0xFF, 0x00 }, bytes);
+  }
+
 
   @Test
   void testToByteArrayNull() throws Exception {
@@ -66,6 +106,33 @@ class CryptoStringTest {
     });
   }
 
+  @Test
+  void testToByteArrayOddLength() throws Exception {
+    assertThrows(IllegalArgumentException.class, () -> {
+      CryptoString.toByteArray("{abc}");
+    });
+  }
+
+  @Test
+  void testToByteArrayInvalidHexDigit() throws Exception {
+    assertThrows(IllegalArgumentException.class, () -> {
+      CryptoString.toByteArray("{0g}");
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      CryptoString.toByteArray("{+f}");
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      CryptoString.toByteArray("{0\u00e9}");
+    });
+  }
+
+  @Test
+  void testToByteArrayTargetTooSmall() throws Exception {
+    assertThrows(IllegalArgumentException.class, () -> {
+      CryptoString.toByteArray("{0102}", new byte[2], 1);
+    });
+  }
+
   @Test
   void testToStringNull() throws Exception {
     assertThrows(IllegalArgumentException.class, () -> {
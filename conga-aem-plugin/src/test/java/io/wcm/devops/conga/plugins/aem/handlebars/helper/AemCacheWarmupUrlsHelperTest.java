@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.AbstractHostHelper.HASH_OPTION_PORT;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.AemCacheWarmupUrlsHelper.HASH_OPTION_PATHS;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.AemCacheWarmupUrlsHelper.HASH_OPTION_ROOT_PATH;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.AemCacheWarmupUrlsHelper.HASH_OPTION_SSL;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+@SuppressWarnings("java:S5778")
+class AemCacheWarmupUrlsHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemCacheWarmupUrlsHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testSingleHost() throws Exception {
+    assertHelper("http://www.example.com/content/site/en.html\n"
+        + "http://www.example.com/content/site/en/products.html\n",
+        helper, "www.example.com", new MockOptions()
+            .withHash(HASH_OPTION_PATHS, List.of("/content/site/en", "/content/site/en/products")));
+  }
+
+  @Test
+  void testMultipleHostsSslRootPath() throws Exception {
+    assertHelper("https://www.example.com/\n"
+        + "https://www.example.com/products.html\n"
+        + "https://www.example.com/sitemap.xml\n"
+        + "https://www.example.org/\n"
+        + "https://www.example.org/products.html\n"
+        + "https://www.example.org/sitemap.xml\n",
+        helper, List.of("www.example.com", "www.example.org"), new MockOptions()
+            .withHash(HASH_OPTION_PATHS, List.of("/content/site/en", "/content/site/en/products", "/sitemap.xml"))
+            .withHash(HASH_OPTION_ROOT_PATH, "/content/site/en/")
+            .withHash(HASH_OPTION_SSL, true));
+  }
+
+  @Test
+  void testSslString() throws Exception {
+    assertHelper("https://www.example.com/content/site/en.html\n",
+        helper, "www.example.com", new MockOptions()
+            .withHash(HASH_OPTION_PATHS, "/content/site/en")
+            .withHash(HASH_OPTION_SSL, "true"));
+  }
+
+  @Test
+  void testPort() throws Exception {
+    assertHelper("http://localhost:8080/content/site/en.html\n",
+        helper, "localhost", new MockOptions()
+            .withHash(HASH_OPTION_PATHS, "/content/site/en")
+            .withHash(HASH_OPTION_PORT, 8080));
+  }
+
+  @Test
+  void testNoPaths() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply("www.example.com", new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testInvalidPath() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply("www.example.com", new MockOptions().withHash(HASH_OPTION_PATHS, "content/site"), null);
+    });
+  }
+
+}
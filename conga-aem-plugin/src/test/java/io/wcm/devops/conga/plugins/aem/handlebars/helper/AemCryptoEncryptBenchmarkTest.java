@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PARAMETER_CRYPTO_AES_KEY_URL;
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PLUGIN_NAME;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.executeHelper;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import io.wcm.devops.conga.generator.UrlFileManager;
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+import io.wcm.devops.conga.generator.util.PluginManager;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+/**
+ * Measures throughput of the aemCryptoEncrypt helper with and without crypto key cache.
+ * Disabled by default, run with:
+ * <pre>
+ * mvn test -Dtest=AemCryptoEncryptBenchmarkTest -Dconga.benchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "conga.benchmark", matches = "true")
+class AemCryptoEncryptBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 2000;
+  private static final int ITERATIONS = 20000;
+
+  private HelperPlugin<Object> helper;
+  private HelperContext pluginContext;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    PluginManager pluginManager = new PluginManagerImpl();
+    helper = pluginManager.get(AemCryptoEncryptHelper.NAME, HelperPlugin.class);
+
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(pluginManager)
+        .urlFileManager(new UrlFileManager(pluginManager, new UrlFilePluginContext()));
+    pluginContext = new HelperContext()
+        .pluginContextOptions(pluginContextOptions);
+    pluginContext.getGenericPluginConfig().put(PLUGIN_NAME,
+        Map.of(PARAMETER_CRYPTO_AES_KEY_URL, "classpath:/crypto/master"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    CryptoKeyCache.invalidateAll();
+  }
+
+  @Test
+  void testWithoutKeyCache() throws Exception {
+    run("without-key-cache", true);
+  }
+
+  @Test
+  void testWithKeyCache() throws Exception {
+    run("with-key-cache", false);
+  }
+
+  @SuppressWarnings("java:S106") // benchmark output
+  private void run(String name, boolean invalidateKeyCache) throws Exception {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      encrypt(i, invalidateKeyCache);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      encrypt(i, invalidateKeyCache);
+    }
+    long durationNs = System.nanoTime() - start;
+
+    System.out.println(String.format(Locale.ROOT, "Benchmark %s: %d encryptions in %d ms (%.0f ops/s)",
+        name, ITERATIONS, durationNs / 1_000_000, ITERATIONS * 1e9d / durationNs));
+  }
+
+  private void encrypt(int index, boolean invalidateKeyCache) throws Exception {
+    if (invalidateKeyCache) {
+      CryptoKeyCache.invalidateAll();
+    }
+    executeHelper(helper, "secret" + index, new MockOptions(), pluginContext);
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+@SuppressWarnings("java:S5778")
+class AemDispatcherCacheInvalidationHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemDispatcherCacheInvalidationHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testAll() throws Exception {
+    assertHelper("/enableTTL \"1\"\n"
+        + "/statfileslevel \"3\"\n"
+        + "/gracePeriod \"2\"\n"
+        + "/invalidate {\n"
+        + "  /0 { /type \"deny\" /glob \"*\" }\n"
+        + "  /1 { /type \"allow\" /glob \"*.html\" }\n"
+        + "}\n",
+        helper, Map.of(
+            "enableTTL", true,
+            "statfileslevel", 3,
+            "gracePeriod", 2,
+            "invalidate", List.of(
+                Map.of("type", "deny", "glob", "*"),
+                Map.of("type", "allow", "glob", "*.html")),
+            "contentDepth", 3,
+            "flushPaths", List.of("/content/tenant1")),
+        new MockOptions());
+  }
+
+  @Test
+  void testStatfileslevelOnly() throws Exception {
+    assertHelper("/statfileslevel \"2\"\n",
+        helper, Map.of("statfileslevel", "2"), new MockOptions());
+  }
+
+  @Test
+  void testInvalidNumber() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("statfileslevel", -1), new MockOptions(), null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("gracePeriod", "abc"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testInvalidProperty() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("statfilelevel", 2), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testConflictingInvalidateRules() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("invalidate", List.of(
+          Map.of("type", "allow", "glob", "*.html"),
+          Map.of("type", "deny", "glob", "*"))), new MockOptions(), null);
+    });
+  }
+
+}
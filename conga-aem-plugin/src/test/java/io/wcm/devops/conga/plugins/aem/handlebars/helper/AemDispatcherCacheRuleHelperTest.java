@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+@SuppressWarnings("java:S5778")
+class AemDispatcherCacheRuleHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemDispatcherCacheRuleHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testRule() throws Exception {
+    assertHelper("{ /type \"allow\" /glob \"*.html\" }",
+        helper, Map.of("type", "allow", "glob", "*.html"), new MockOptions());
+  }
+
+  @Test
+  void testRuleList() throws Exception {
+    assertHelper("/0 { /type \"deny\" /glob \"*\" }\n"
+        + "/1 { /type \"allow\" /glob \"*.html\" }\n"
+        + "/2 { /type \"deny\" /glob \"/content/*/search.html\" }\n",
+        helper, List.of(
+            Map.of("type", "deny", "glob", "*"),
+            Map.of("type", "allow", "glob", "*.html"),
+            Map.of("type", "deny", "glob", "/content/*/search.html")),
+        new MockOptions());
+  }
+
+  @Test
+  void testRuleList_Unreachable() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(
+          Map.of("type", "allow", "glob", "/content/*.html"),
+          Map.of("type", "deny", "glob", "*.html")), new MockOptions(), null);
+    });
+    assertEquals("Invalid rules:\n"
+        + "Rule /0 { /type \"allow\" /glob \"/content/*.html\" } is unreachable, "
+        + "overridden by rule /1 { /type \"deny\" /glob \"*.html\" }", ex.getMessage());
+  }
+
+  @Test
+  void testRuleList_Conflict() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(
+          Map.of("type", "allow", "glob", "*.json"),
+          Map.of("type", "deny", "glob", "*.json")), new MockOptions(), null);
+    });
+    assertEquals("Invalid rules:\n"
+        + "Rule /0 { /type \"allow\" /glob \"*.json\" } conflicts with "
+        + "rule /1 { /type \"deny\" /glob \"*.json\" }", ex.getMessage());
+  }
+
+  @Test
+  void testRuleList_Duplicate() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(
+          Map.of("type", "allow", "glob", "*.json"),
+          Map.of("type", "allow", "glob", "*.json")), new MockOptions(), null);
+    });
+    assertEquals("Invalid rules:\n"
+        + "Rule /0 { /type \"allow\" /glob \"*.json\" } is duplicate of "
+        + "rule /1 { /type \"allow\" /glob \"*.json\" }", ex.getMessage());
+  }
+
+  @Test
+  void testInvalidGlob() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("type", "allow", "glob", "*.html *.json"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testMissingGlob() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("type", "allow"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testInvalidProperty() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("type", "allow", "url", "/content/.*")), new MockOptions(), null);
+    });
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+class AemDispatcherFiltersHelperTest {
+
+  private static final List<Map<String, Object>> FILTERS = List.of(
+      Map.of("type", "allow", "url", "/content/.*"),
+      Map.of("type", "deny", "url", ".*"),
+      Map.of("type", "allow", "path", "/content/.*", "extension", "html"),
+      Map.of("type", "allow", "path", "/content/.*", "extension", "json"));
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemDispatcherFiltersHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testFilters() throws Exception {
+    assertHelper("# Rule /0 removed: Shadowed by rule /1\n"
+        + "# Rules /2, /3 merged: Alternation for /extension\n"
+        + "/0 { /type \"deny\" /url '.*' }\n"
+        + "/1 { /type \"allow\" /path '/content/.*' /extension '(html|json)' }\n",
+        helper, FILTERS, new MockOptions());
+  }
+
+  @Test
+  void testFilters_NoReport() throws Exception {
+    assertHelper("/0 { /type \"deny\" /url '.*' }\n"
+        + "/1 { /type \"allow\" /path '/content/.*' /extension '(html|json)' }\n",
+        helper, FILTERS, new MockOptions().withHash(AemDispatcherFiltersHelper.HASH_REPORT, false));
+  }
+
+  @Test
+  void testFilters_NoReportString() throws Exception {
+    assertHelper("/0 { /type \"deny\" /url '.*' }\n"
+        + "/1 { /type \"allow\" /path '/content/.*' /extension '(html|json)' }\n",
+        helper, FILTERS, new MockOptions().withHash(AemDispatcherFiltersHelper.HASH_REPORT, "false"));
+  }
+
+  @Test
+  @SuppressWarnings("java:S5778")
+  void testInvalidContext() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("type", "allow", "url", "/abc"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  @SuppressWarnings("java:S5778")
+  void testInvalidRule() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("type", "allow")), new MockOptions(), null);
+    });
+  }
+
+}
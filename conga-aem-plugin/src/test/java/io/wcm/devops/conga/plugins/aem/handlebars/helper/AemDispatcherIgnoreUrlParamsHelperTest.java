@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+class AemDispatcherIgnoreUrlParamsHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemDispatcherIgnoreUrlParamsHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testRuleList() throws Exception {
+    assertHelper("/0 { /type \"deny\" /glob \"*\" }\n"
+        + "/1 { /type \"allow\" /glob \"utm_*\" }\n"
+        + "/2 { /type \"allow\" /glob \"gclid\" }\n",
+        helper, List.of(
+            Map.of("type", "deny", "glob", "*"),
+            Map.of("type", "allow", "glob", "utm_*"),
+            Map.of("type", "allow", "glob", "gclid")),
+        new MockOptions());
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+@SuppressWarnings("java:S5778")
+class AemHttpdCacheHeadersHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemHttpdCacheHeadersHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testMergedClasses() throws Exception {
+    assertHelper("<LocationMatch \"^/etc\\.clientlibs/.*\\.(js|css)$|^/content/dam/.*\\.(jpg|png)$\">\n"
+        + "  <IfModule mod_expires.c>\n"
+        + "    ExpiresActive On\n"
+        + "    ExpiresDefault \"access plus 31536000 seconds\"\n"
+        + "  </IfModule>\n"
+        + "  <IfModule mod_headers.c>\n"
+        + "    Header set Cache-Control \"max-age=31536000, immutable\"\n"
+        + "  </IfModule>\n"
+        + "</LocationMatch>\n"
+        + "<LocationMatch \"\\.html$\">\n"
+        + "  <IfModule mod_expires.c>\n"
+        + "    ExpiresActive On\n"
+        + "    ExpiresDefault \"access plus 300 seconds\"\n"
+        + "  </IfModule>\n"
+        + "  <IfModule mod_headers.c>\n"
+        + "    Header set Cache-Control \"max-age=300, s-maxage=3600, stale-while-revalidate=60\"\n"
+        + "  </IfModule>\n"
+        + "</LocationMatch>\n",
+        helper, List.of(
+            Map.of("path", "/etc.clientlibs/", "extensions", List.of("js", "css"), "maxAge", 31536000, "immutable", true),
+            Map.of("extensions", "html", "maxAge", 300, "sMaxAge", 3600, "staleWhileRevalidate", 60),
+            Map.of("path", "/content/dam/", "extensions", List.of("jpg", "png"), "maxAge", 31536000, "immutable", true)),
+        new MockOptions());
+  }
+
+  @Test
+  void testOverlappingClasses() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(
+          Map.of("path", "/content/", "extensions", List.of("html", "json"), "maxAge", 300),
+          Map.of("path", "/content/site/", "extensions", "json", "maxAge", 60)), new MockOptions(), null);
+    });
+    assertEquals("Overlapping cache header classes:\n"
+        + "Class 0 (^/content/.*\\.(html|json)$) overlaps with class 1 (^/content/site/.*\\.json$)", ex.getMessage());
+  }
+
+  @Test
+  void testNonOverlappingClasses() throws Exception {
+    helper.apply(List.of(
+        Map.of("path", "/content/", "extensions", "html", "maxAge", 300),
+        Map.of("path", "/content/", "extensions", "json", "maxAge", 60),
+        Map.of("path", "/etc.clientlibs/", "maxAge", 3600)), new MockOptions(), null);
+  }
+
+  @Test
+  void testInvalidClasses() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("path", "/content/")), new MockOptions(), null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("maxAge", 300)), new MockOptions(), null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("path", "content", "maxAge", 300)), new MockOptions(), null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("extensions", "h.tml", "maxAge", 300)), new MockOptions(), null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(List.of(Map.of("extensions", "html", "maxAge", 300, "other", "value")), new MockOptions(), null);
+    });
+  }
+
+}
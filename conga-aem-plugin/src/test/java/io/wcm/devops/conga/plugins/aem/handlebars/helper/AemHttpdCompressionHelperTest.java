@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+@SuppressWarnings("java:S5778")
+class AemHttpdCompressionHelperTest {
+
+  private HelperPlugin<Object> helper;
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setUp() {
+    helper = new PluginManagerImpl().get(AemHttpdCompressionHelper.NAME, HelperPlugin.class);
+  }
+
+  @Test
+  void testMimeTypes() throws Exception {
+    String expression = "%{CONTENT_TYPE} =~ m#^(text/html|image/svg\\+xml)(;|$)#";
+    assertHelper("<IfVersion < 2.4>\n"
+        + "  <IfModule mod_deflate.c>\n"
+        + "    AddOutputFilterByType DEFLATE text/html image/svg+xml\n"
+        + "  </IfModule>\n"
+        + "</IfVersion>\n"
+        + "<IfVersion >= 2.4>\n"
+        + "  <IfModule mod_filter.c>\n"
+        + "    FilterDeclare COMPRESS CONTENT_SET\n"
+        + "    <IfModule mod_brotli.c>\n"
+        + "      FilterProvider COMPRESS BROTLI_COMPRESS \"" + expression + " && %{HTTP:Accept-Encoding} =~ /\\bbr\\b/\"\n"
+        + "    </IfModule>\n"
+        + "    <IfModule mod_deflate.c>\n"
+        + "      FilterProvider COMPRESS DEFLATE \"" + expression + "\"\n"
+        + "    </IfModule>\n"
+        + "    FilterChain COMPRESS\n"
+        + "    FilterProtocol COMPRESS change=yes;byteranges=no\n"
+        + "  </IfModule>\n"
+        + "</IfVersion>\n",
+        helper, Map.of("mimeTypes", List.of("text/html", "image/svg+xml")), new MockOptions());
+  }
+
+  @Test
+  void testMinSizeExcludedPaths() throws Exception {
+    String expression = "%{CONTENT_TYPE} =~ m#^(text/css)(;|$)#"
+        + " && (-z resp('Content-Length') || resp('Content-Length') -ge 1024)"
+        + " && !(%{REQUEST_URI} =~ m#^(/bin/stream/|/content/dam/)#)";
+    assertHelper("<IfVersion < 2.4>\n"
+        + "  <IfModule mod_deflate.c>\n"
+        + "    SetEnvIf Request_URI \"^(/bin/stream/|/content/dam/)\" no-gzip\n"
+        + "    AddOutputFilterByType DEFLATE text/css\n"
+        + "  </IfModule>\n"
+        + "</IfVersion>\n"
+        + "<IfVersion >= 2.4>\n"
+        + "  <IfModule mod_filter.c>\n"
+        + "    FilterDeclare COMPRESS CONTENT_SET\n"
+        + "    <IfModule mod_brotli.c>\n"
+        + "      FilterProvider COMPRESS BROTLI_COMPRESS \"" + expression + " && %{HTTP:Accept-Encoding} =~ /\\bbr\\b/\"\n"
+        + "    </IfModule>\n"
+        + "    <IfModule mod_deflate.c>\n"
+        + "      FilterProvider COMPRESS DEFLATE \"" + expression + "\"\n"
+        + "    </IfModule>\n"
+        + "    FilterChain COMPRESS\n"
+        + "    FilterProtocol COMPRESS change=yes;byteranges=no\n"
+        + "  </IfModule>\n"
+        + "</IfVersion>\n",
+        helper, Map.of("mimeTypes", "text/css", "minSize", 1024, "excludedPaths", List.of("/bin/stream/", "/content/dam/")),
+        new MockOptions());
+  }
+
+  @Test
+  void testCompressedMimeType() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("mimeTypes", List.of("text/html", "font/woff2")), new MockOptions(), null);
+    });
+    assertEquals("Invalid compression: MIME type is already compressed and must not be compressed again: font/woff2", ex.getMessage());
+  }
+
+  @Test
+  void testCompressedMimeTypeWildcard() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("mimeTypes", "video/mp4"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testInvalidExcludedPath() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("mimeTypes", "text/html", "excludedPaths", "content/dam"), new MockOptions(), null);
+    });
+  }
+
+  @Test
+  void testMissingMimeTypes() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      helper.apply(Map.of("minSize", 512), new MockOptions(), null);
+    });
+  }
+
+}
@@ -21,6 +21,7 @@ package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
 import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
 
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -102,4 +103,31 @@ class AemHttpdFilterHelperTest {
             .withProperty("allowFromHost", "myhost"));
   }
 
+  @Test
+  void testList() throws Exception {
+    assertHelper("<LocationMatch \"^/abc(/|$)|^/def/|/ghi(/.*)?\">\n" +
+        "  <IfVersion < 2.4>\n" +
+        "    Order Deny,Allow\n" +
+        "    Deny from all\n" +
+        "  </IfVersion>\n" +
+        "  <IfVersion >= 2.4>\n" +
+        "    Require all denied\n" +
+        "  </IfVersion>\n" +
+        "</LocationMatch>\n" +
+        "<Location \"/abc/public\">\n" +
+        "  <IfVersion < 2.4>\n" +
+        "    Allow from all\n" +
+        "  </IfVersion>\n" +
+        "  <IfVersion >= 2.4>\n" +
+        "    Require all granted\n" +
+        "  </IfVersion>\n" +
+        "</Location>",
+        helper, List.of(
+            Map.of("type", "deny", "location", "/abc"),
+            Map.of("type", "deny", "location", "/def/"),
+            Map.of("type", "deny", "locationMatch", "/ghi(/.*)?"),
+            Map.of("type", "allow", "location", "/abc/public")),
+        new MockOptions());
+  }
+
 }
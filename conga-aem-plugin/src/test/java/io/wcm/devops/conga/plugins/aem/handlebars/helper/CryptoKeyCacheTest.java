@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.security.Key;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.generator.UrlFileManager;
+import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
+import io.wcm.devops.conga.generator.util.PluginManager;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+import io.wcm.devops.conga.plugins.aem.crypto.CryptoKeySupport;
+import io.wcm.devops.conga.plugins.aem.crypto.impl.AesCryptoSupport;
+
+class CryptoKeyCacheTest {
+
+  private static final String KEY_URL = "classpath:/crypto/master";
+
+  private PluginManager pluginManager;
+  private UrlFileManager urlFileManager;
+  private CryptoKeySupport keySupport;
+
+  @BeforeEach
+  void setUp() {
+    pluginManager = new PluginManagerImpl();
+    urlFileManager = new UrlFileManager(pluginManager, new UrlFilePluginContext());
+    keySupport = new AesCryptoSupport();
+  }
+
+  @AfterEach
+  void tearDown() {
+    CryptoKeyCache.invalidateAll();
+  }
+
+  @Test
+  void testCached() throws Exception {
+    Key key = CryptoKeyCache.getKey(urlFileManager, KEY_URL, keySupport);
+    assertSame(key, CryptoKeyCache.getKey(urlFileManager, KEY_URL, keySupport));
+  }
+
+  @Test
+  void testInvalidate() throws Exception {
+    Key key = CryptoKeyCache.getKey(urlFileManager, KEY_URL, keySupport);
+    CryptoKeyCache.invalidate(KEY_URL);
+
+    Key key2 = CryptoKeyCache.getKey(urlFileManager, KEY_URL, keySupport);
+    assertNotSame(key, key2);
+    assertEquals(key, key2);
+  }
+
+  @Test
+  void testSeparateUrlFileManager() throws Exception {
+    Key key = CryptoKeyCache.getKey(urlFileManager, KEY_URL, keySupport);
+    UrlFileManager otherUrlFileManager = new UrlFileManager(pluginManager, new UrlFilePluginContext());
+    assertNotSame(key, CryptoKeyCache.getKey(otherUrlFileManager, KEY_URL, keySupport));
+  }
+
+  @Test
+  void testInvalidUrl() {
+    assertThrows(IOException.class, () -> CryptoKeyCache.getKey(urlFileManager, "classpath:/crypto/invalid", keySupport));
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DispatcherCacheInvalidationTest {
+
+  @Test
+  void testValid() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of(
+        "statfileslevel", 3,
+        "contentDepth", 3,
+        "flushPaths", List.of("/content/tenant1/en", "/content/tenant2/de"),
+        "invalidate", List.of(
+            Map.of("type", "deny", "glob", "*"),
+            Map.of("type", "allow", "glob", "*.html"))));
+    assertEquals(List.of(), underTest.validate());
+  }
+
+  @Test
+  void testStatfileslevelNotSet() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of("enableTTL", true));
+    assertEquals(List.of("statfileslevel not set (defaults to 0): Each activation invalidates the whole cache."),
+        underTest.validate());
+  }
+
+  @Test
+  void testStatfileslevelZero() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of("statfileslevel", 0));
+    assertEquals(List.of("statfileslevel 0: Each activation invalidates the whole cache."),
+        underTest.validate());
+  }
+
+  @Test
+  void testStatfileslevelLowerThanContentDepth() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of(
+        "statfileslevel", 1,
+        "contentDepth", 3));
+    assertEquals(List.of("statfileslevel 1 is lower than content depth 3: "
+        + "Each activation invalidates the cached content of all sibling sites."),
+        underTest.validate());
+  }
+
+  @Test
+  void testStatfileslevelHigherThanContentDepth() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of(
+        "statfileslevel", 5,
+        "contentDepth", 3));
+    assertEquals(List.of("statfileslevel 5 is higher than content depth 3: "
+        + "Pages referencing content from other branches of the same site may be delivered stale."),
+        underTest.validate());
+  }
+
+  @Test
+  void testFlushPathAndInvalidateAll() {
+    DispatcherCacheInvalidation underTest = new DispatcherCacheInvalidation(Map.of(
+        "statfileslevel", 3,
+        "flushPaths", List.of("/content"),
+        "invalidate", List.of(Map.of("type", "allow", "glob", "*"))));
+    assertEquals(List.of("Flush path /content is above statfileslevel 3: "
+        + "Each invalidation of this path invalidates all cached content below it.",
+        "Invalidate rule allows all files: Each activation invalidates static files like "
+            + "client libraries and images as well."),
+        underTest.validate());
+  }
+
+}
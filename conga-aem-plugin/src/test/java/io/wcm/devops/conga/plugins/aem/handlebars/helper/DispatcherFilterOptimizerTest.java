@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DispatcherFilterOptimizerTest {
+
+  private DispatcherFilterOptimizer underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new DispatcherFilterOptimizer();
+  }
+
+  @Test
+  void testCovers() {
+    assertTrue(DispatcherFilterOptimizer.covers(filter("deny", "url", ".*"), filter("allow", "url", "/abc")));
+    assertTrue(DispatcherFilterOptimizer.covers(filter("deny", "glob", "*"), filter("allow", "url", "/abc")));
+    assertTrue(DispatcherFilterOptimizer.covers(filter("deny", "url", "/abc"), filter("allow", "url", "/abc", "extension", "html")));
+    assertFalse(DispatcherFilterOptimizer.covers(filter("deny", "url", "/abc", "extension", "html"), filter("allow", "url", "/abc")));
+    assertFalse(DispatcherFilterOptimizer.covers(filter("deny", "url", "/abc"), filter("allow", "url", "/def")));
+  }
+
+  @Test
+  void testShadowed() {
+    List<DispatcherFilter> result = underTest.optimize(List.of(
+        filter("allow", "url", "/content/.*"),
+        filter("deny", "url", ".*"),
+        filter("allow", "url", "/content/.*", "extension", "html")));
+
+    assertEquals(List.of("{ /type \"deny\" /url '.*' }",
+        "{ /type \"allow\" /url '/content/.*' /extension 'html' }"), toAny(result));
+    assertEquals(List.of("Rule /0 removed: Shadowed by rule /1"), underTest.getReport());
+  }
+
+  @Test
+  void testRedundant() {
+    List<DispatcherFilter> result = underTest.optimize(List.of(
+        filter("deny", "url", ".*"),
+        filter("allow", "path", "/content/.*"),
+        filter("allow", "path", "/content/.*", "extension", "json"),
+        filter("deny", "selectors", "infinity"),
+        filter("allow", "path", "/content/.*", "extension", "html")));
+
+    assertEquals(List.of("{ /type \"deny\" /url '.*' }",
+        "{ /type \"allow\" /path '/content/.*' }",
+        "{ /type \"deny\" /selectors 'infinity' }",
+        "{ /type \"allow\" /path '/content/.*' /extension 'html' }"), toAny(result));
+    assertEquals(List.of("Rule /2 removed: Redundant to rule /1"), underTest.getReport());
+  }
+
+  @Test
+  void testMerge() {
+    List<DispatcherFilter> result = underTest.optimize(List.of(
+        filter("deny", "url", ".*"),
+        filter("allow", "path", "/content/.*", "extension", "html"),
+        filter("allow", "path", "/content/.*", "extension", "json"),
+        filter("allow", "path", "/content/.*", "extension", "png"),
+        filter("allow", "path", "/etc.clientlibs/.*", "extension", "js"),
+        filter("deny", "path", "/content/.*", "selectors", "infinity")));
+
+    assertEquals(List.of("{ /type \"deny\" /url '.*' }",
+        "{ /type \"allow\" /path '/content/.*' /extension '(html|json|png)' }",
+        "{ /type \"allow\" /path '/etc.clientlibs/.*' /extension 'js' }",
+        "{ /type \"deny\" /path '/content/.*' /selectors 'infinity' }"), toAny(result));
+    assertEquals(List.of("Rules /1, /2, /3 merged: Alternation for /extension"), underTest.getReport());
+  }
+
+  @Test
+  void testNoMergeDifferentType() {
+    List<DispatcherFilter> filters = List.of(
+        filter("allow", "url", "/a"),
+        filter("deny", "url", "/b"),
+        filter("allow", "glob", "/c*"),
+        filter("allow", "glob", "/d*"));
+    List<DispatcherFilter> result = underTest.optimize(filters);
+
+    assertEquals(toAny(filters), toAny(result));
+    assertEquals(List.of(), underTest.getReport());
+  }
+
+  private static DispatcherFilter filter(String type, String... properties) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("type", type);
+    for (int i = 0; i < properties.length; i += 2) {
+      map.put(properties[i], properties[i + 1]);
+    }
+    return new DispatcherFilter(map);
+  }
+
+  private static List<String> toAny(List<DispatcherFilter> filters) {
+    return filters.stream()
+        .map(AemDispatcherFilterHelper::toAny)
+        .collect(Collectors.toList());
+  }
+
+}
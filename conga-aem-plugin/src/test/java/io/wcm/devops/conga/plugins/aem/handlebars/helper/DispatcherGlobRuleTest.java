@@ -0,0 +1,46 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DispatcherGlobRuleTest {
+
+  @Test
+  void testCovers() {
+    assertTrue(rule("*").covers(rule("/content/*.html")));
+    assertTrue(rule("*.html").covers(rule("/content/*.html")));
+    assertTrue(rule("/content/*").covers(rule("/content/page.html")));
+    assertTrue(rule("/content/?.html").covers(rule("/content/?.html")));
+    assertFalse(rule("/content/*.html").covers(rule("*.html")));
+    assertFalse(rule("/content/?.html").covers(rule("/content/*.html")));
+    assertFalse(rule("*.json").covers(rule("*.html")));
+  }
+
+  private static DispatcherGlobRule rule(String glob) {
+    return new DispatcherGlobRule(Map.of("type", "allow", "glob", glob));
+  }
+
+}
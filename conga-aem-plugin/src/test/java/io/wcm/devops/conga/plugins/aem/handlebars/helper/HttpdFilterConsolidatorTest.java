@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class HttpdFilterConsolidatorTest {
+
+  @Test
+  void testToRegex() {
+    assertEquals("^/abc(/|$)", HttpdFilterConsolidator.toRegex(filter("location", "/abc")));
+    assertEquals("^/abc/", HttpdFilterConsolidator.toRegex(filter("location", "/abc/")));
+    assertEquals("^/etc\\.clientlibs/[^/]*/x[^/]$", HttpdFilterConsolidator.toRegex(filter("location", "/etc.clientlibs/*/x?")));
+    assertEquals("^/a(?!/)[bc]/[^/bc]$", HttpdFilterConsolidator.toRegex(filter("location", "/a[bc]/[!bc]")));
+    assertEquals("/abc(/.*)?", HttpdFilterConsolidator.toRegex(filter("locationMatch", "/abc(/.*)?")));
+    assertEquals("(?:(?i)/abc)", HttpdFilterConsolidator.toRegex(filter("locationMatch", "(?i)/abc")));
+  }
+
+  @Test
+  void testMatches() {
+    // plain paths match segment prefixes
+    assertTrue(HttpdFilterConsolidator.matches(filter("location", "/abc"), "/abc"));
+    assertTrue(HttpdFilterConsolidator.matches(filter("location", "/abc"), "/abc/page.html"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/abc"), "/abcd"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/abc/"), "/abc"));
+
+    // wildcards match the whole path and do not cross path segments
+    assertTrue(HttpdFilterConsolidator.matches(filter("location", "/etc/*.html"), "/etc/page.html"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/etc/*.html"), "/etc/sub/page.html"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/etc/*"), "/etc/page/child.html"));
+    assertTrue(HttpdFilterConsolidator.matches(filter("location", "/a?c"), "/abc"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/a?c"), "/a/c"));
+    assertTrue(HttpdFilterConsolidator.matches(filter("location", "/a[a-c]d"), "/abd"));
+    assertFalse(HttpdFilterConsolidator.matches(filter("location", "/a[!a-c]d"), "/abd"));
+
+    assertTrue(HttpdFilterConsolidator.matches(filter("locationMatch", "\\.json$"), "/content/page.json"));
+  }
+
+  @Test
+  void testGroup_Wildcards() {
+    List<HttpdFilter> filters = List.of(
+        filter("location", "/etc/*"),
+        new HttpdFilter(Map.of("type", "allow", "location", "/etc/public")),
+        filter("location", "/content/[a-c]*"),
+        filter("location", "/content/*.json"));
+    List<HttpdFilterConsolidator.Group> groups = HttpdFilterConsolidator.group(filters);
+
+    assertEquals("^/content/(?!/)[a-c][^/]*$|^/content/[^/]*\\.json$", groups.get(2).getLocationMatch());
+    HttpdFilterConsolidator.verify(filters, groups);
+  }
+
+  @Test
+  void testGroup() {
+    List<HttpdFilter> filters = List.of(
+        filter("location", "/a"),
+        filter("location", "/b"),
+        new HttpdFilter(Map.of("type", "allow", "location", "/a/public")),
+        filter("location", "/c"));
+    List<HttpdFilterConsolidator.Group> groups = HttpdFilterConsolidator.group(filters);
+
+    assertEquals(3, groups.size());
+    assertEquals("^/a(/|$)|^/b(/|$)", groups.get(0).getLocationMatch());
+    assertEquals(HttpdFilterType.ALLOW, groups.get(1).getType());
+    assertEquals("^/c(/|$)", groups.get(2).getLocationMatch());
+
+    HttpdFilterConsolidator.verify(filters, groups);
+  }
+
+  @Test
+  @SuppressWarnings("java:S5778")
+  void testVerify_Different() {
+    List<HttpdFilter> filters = List.of(
+        filter("location", "/a"),
+        new HttpdFilter(Map.of("type", "allow", "location", "/a/public")));
+    // reordered groups change the decision for /a/public
+    List<HttpdFilterConsolidator.Group> groups = HttpdFilterConsolidator.group(List.of(filters.get(1), filters.get(0)));
+
+    assertThrows(IllegalStateException.class, () -> HttpdFilterConsolidator.verify(filters, groups));
+  }
+
+  private static HttpdFilter filter(String key, String value) {
+    return new HttpdFilter(Map.of("type", "deny", key, value));
+  }
+
+}
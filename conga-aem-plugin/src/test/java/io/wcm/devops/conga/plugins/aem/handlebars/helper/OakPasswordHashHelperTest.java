@@ -19,29 +19,58 @@
  */
 package io.wcm.devops.conga.plugins.aem.handlebars.helper;
 
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET;
+import static io.wcm.devops.conga.plugins.aem.AemPluginConfig.PLUGIN_NAME;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.OakPasswordHashHelper.HASH_SALT_SECRET;
+import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.assertHelper;
 import static io.wcm.devops.conga.plugins.aem.handlebars.helper.TestUtils.executeHelper;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Map;
+
 import org.apache.jackrabbit.oak.spi.security.user.util.PasswordUtil;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import io.wcm.devops.conga.generator.UrlFileManager;
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
 import io.wcm.devops.conga.generator.spi.handlebars.HelperPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.HelperContext;
+import io.wcm.devops.conga.generator.util.PluginManager;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
 
 class OakPasswordHashHelperTest {
 
   private static final String PASSWORD_PLAIN = "mypassword";
   private static final String PASSWORD_HASH = "{SHA-256}c274ffe336bfc0dd-1000-f7673915a3cf354742c70e5aa11744589c0e22d66861ce4f65e84592ea67f7f1";
+  private static final String SALT_SECRET = "mysecret";
+  private static final String PASSWORD_HASH_REPRODUCIBLE = "{SHA-256}9c856ed9640effe7-1000-a61566c6db8c168ba11cac4e51aae35fad584263de3fc2c3c1a565d0b9c7517a";
 
   private HelperPlugin<Object> helper;
+  private HelperContext pluginContext;
 
   @SuppressWarnings("unchecked")
   @BeforeEach
   void setUp() {
-    helper = new PluginManagerImpl().get(OakPasswordHashHelper.NAME, HelperPlugin.class);
+    PluginManager pluginManager = new PluginManagerImpl();
+    helper = pluginManager.get(OakPasswordHashHelper.NAME, HelperPlugin.class);
+
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(pluginManager)
+        .urlFileManager(new UrlFileManager(pluginManager, new UrlFilePluginContext()));
+    pluginContext = new HelperContext()
+        .pluginContextOptions(pluginContextOptions);
+  }
+
+  @AfterEach
+  void tearDown() {
+    PasswordHashCache.invalidateAll();
   }
 
   @Test
@@ -63,4 +92,54 @@ class OakPasswordHashHelperTest {
     assertEquals(PASSWORD_HASH, passwordHash);
   }
 
+  @Test
+  void testHashMemoized() throws Exception {
+    Object passwordHash = executeHelper(helper, PASSWORD_PLAIN, new MockOptions(), pluginContext);
+    assertTrue(PasswordUtil.isSame(passwordHash.toString(), PASSWORD_PLAIN));
+    assertHelper(passwordHash.toString(), helper, PASSWORD_PLAIN, new MockOptions(), pluginContext);
+
+    // different hash options are not served from cache
+    Object passwordHash2 = executeHelper(helper, PASSWORD_PLAIN,
+        new MockOptions().withHash("passwordHashIterations", 500), pluginContext);
+    assertNotEquals(passwordHash, passwordHash2);
+    assertTrue(PasswordUtil.isSame(passwordHash2.toString(), PASSWORD_PLAIN));
+  }
+
+  @Test
+  void testHashReproducible() throws Exception {
+    assertHelper(PASSWORD_HASH_REPRODUCIBLE, helper, PASSWORD_PLAIN, new MockOptions().withHash(HASH_SALT_SECRET, SALT_SECRET));
+    assertTrue(PasswordUtil.isSame(PASSWORD_HASH_REPRODUCIBLE, PASSWORD_PLAIN));
+
+    Object passwordHash = executeHelper(helper, PASSWORD_PLAIN, new MockOptions().withHash(HASH_SALT_SECRET, "othersecret"));
+    assertNotEquals(PASSWORD_HASH_REPRODUCIBLE, passwordHash);
+    assertTrue(PasswordUtil.isSame(passwordHash.toString(), PASSWORD_PLAIN));
+  }
+
+  @Test
+  void testHashReproducible_PluginConfig() throws Exception {
+    pluginContext.getGenericPluginConfig().put(PLUGIN_NAME,
+        Map.of(PARAMETER_OAK_PASSWORD_HASH_SALT_SECRET, SALT_SECRET));
+
+    assertHelper(PASSWORD_HASH_REPRODUCIBLE, helper, PASSWORD_PLAIN, new MockOptions(), pluginContext);
+  }
+
+  @Test
+  void testHashReproducible_Options() throws Exception {
+    Object passwordHash = executeHelper(helper, PASSWORD_PLAIN, new MockOptions()
+        .withHash(HASH_SALT_SECRET, SALT_SECRET)
+        .withHash("passwordHashAlgorithm", "SHA-512")
+        .withHash("passwordHashIterations", 10)
+        .withHash("passwordSaltSize", 16));
+    assertTrue(passwordHash.toString().startsWith("{SHA-512}"));
+    assertTrue(PasswordUtil.isSame(passwordHash.toString(), PASSWORD_PLAIN));
+  }
+
+  @Test
+  @SuppressWarnings("java:S5778")
+  void testHashReproducible_Pbkdf2() {
+    assertThrows(IllegalArgumentException.class, () -> executeHelper(helper, PASSWORD_PLAIN, new MockOptions()
+        .withHash(HASH_SALT_SECRET, SALT_SECRET)
+        .withHash("passwordHashAlgorithm", "PBKDF2WithHmacSHA1")));
+  }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.handlebars.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.model.util.MapMerger;
+
+class OverlayMapTest {
+
+  private static final Map<String, Object> BASE = Map.of(
+      "a", "a0",
+      "b", Map.of("b1", "b1-0", "b2", "b2-0"),
+      "c", List.of("c1", "c2"),
+      "hidden", "h0");
+
+  @Test
+  void testEqualsMapMerger() {
+    Map<String, Object> overlay = Map.of(
+        "b", Map.of("b2", "b2-1", "b3", "b3-1"),
+        "c", List.of("c3"),
+        "d", "d1");
+
+    assertEquals(MapMerger.merge(overlay, BASE), new OverlayMap(overlay, BASE, Set.of()));
+  }
+
+  @Test
+  void testHiddenBaseKeys() {
+    Map<String, Object> underTest = new OverlayMap(Map.of("a", "a1"), BASE, Set.of("hidden"));
+
+    assertEquals("a1", underTest.get("a"));
+    assertFalse(underTest.containsKey("hidden"));
+    assertNull(underTest.get("hidden"));
+    assertEquals(Set.of("a", "b", "c"), underTest.keySet());
+  }
+
+  @Test
+  void testUnmergedValuesNotCopied() {
+    Map<String, Object> underTest = new OverlayMap(Map.of("d", "d1"), BASE, Set.of());
+
+    assertSame(BASE.get("b"), underTest.get("b"));
+    assertSame(BASE.get("c"), underTest.get("c"));
+  }
+
+  @Test
+  void testNestedMapsMemoized() {
+    Map<String, Object> underTest = new OverlayMap(Map.of("b", Map.of("b1", "b1-1")), BASE, Set.of());
+
+    assertSame(underTest.get("b"), underTest.get("b"));
+    assertEquals(Map.of("b1", "b1-1", "b2", "b2-0"), underTest.get("b"));
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AnyTreeParserTest {
+
+  private static final String CONTENT = "/farms { /publish { /filter { /0001 { /type \"deny\" /url \"*\" } } "
+      + "/cache { /rules { /0000 { /glob \"*\" /type \"allow\" } } } } }";
+
+  @Test
+  void testParse() throws IOException {
+    AnyNode root = AnyTreeParser.parse(new StringReader(CONTENT), "test.any", null);
+    AnyNode publish = root.getChild("farms").getChild("publish");
+    assertEquals(1, publish.getChild("filter").getChildren().size());
+    assertEquals("allow", publish.getChild("cache").getChild("rules").getChild("0000").getChild("type").getValue());
+  }
+
+  @Test
+  void testParse_BlockFilter() throws IOException {
+    List<String> includes = new ArrayList<>();
+    AnyNode root = AnyTreeParser.parse(new StringReader(CONTENT + " /other { $include \"other.any\" }"), "test.any",
+        (parent, path, includePath, glob) -> includes.add(includePath),
+        names -> !names.contains("filter") && !names.contains("other"));
+
+    // content of skipped blocks is not parsed, following blocks are parsed
+    AnyNode publish = root.getChild("farms").getChild("publish");
+    assertTrue(publish.getChild("filter").getChildren().isEmpty());
+    assertEquals("allow", publish.getChild("cache").getChild("rules").getChild("0000").getChild("type").getValue());
+    assertTrue(root.getChild("other").getChildren().isEmpty());
+    assertEquals(List.of(), includes);
+  }
+
+}
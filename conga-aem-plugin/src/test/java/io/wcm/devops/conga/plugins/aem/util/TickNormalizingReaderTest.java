@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+class TickNormalizingReaderTest {
+
+  @Test
+  void testReplaceTicks() throws IOException {
+    assertEquals("/prop1 \"value1\"", normalize("/prop1 'value1'"));
+    assertEquals("/group { /p1 \"v1\"\n/p2 \"v2\" /p3 \"v3\" }", normalize("/group { /p1 'v1'\n/p2 \"v2\" /p3 'v3' }"));
+    assertEquals("/glob \"*.html\"\n  /type \"allow\"", normalize("/glob '*.html'\n  /type \"allow\""));
+  }
+
+  @Test
+  void testMultiLineValue() throws IOException {
+    assertEquals("/prop1\n  \"line1\nline2\"", normalize("/prop1\n  'line1\nline2'"));
+  }
+
+  @Test
+  void testNoProperty() throws IOException {
+    assertEquals("'value1' / 'value2' prop 'value3'", normalize("'value1' / 'value2' prop 'value3'"));
+  }
+
+  @Test
+  void testUnterminatedTick() throws IOException {
+    assertEquals("/prop1 \"value1\" /prop2 'value2", normalize("/prop1 'value1' /prop2 'value2"));
+  }
+
+  @Test
+  void testLargeContent() throws IOException {
+    StringBuilder content = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      content.append("/").append(i).append(" { /glob '/content/page").append(i).append(".html' /type \"allow\" }\n");
+      expected.append("/").append(i).append(" { /glob \"/content/page").append(i).append(".html\" /type \"allow\" }\n");
+    }
+    assertEquals(expected.toString(), normalize(content.toString()));
+  }
+
+  private static String normalize(String content) throws IOException {
+    try (Reader reader = new TickNormalizingReader(new StringReader(content))) {
+      return IOUtils.toString(reader);
+    }
+  }
+
+}
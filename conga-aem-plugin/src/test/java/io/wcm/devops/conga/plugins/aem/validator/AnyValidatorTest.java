@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import io.wcm.devops.conga.generator.spi.ValidationException;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
+import io.wcm.devops.conga.generator.spi.context.ValidatorContext;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
 
 class AnyValidatorTest {
@@ -60,6 +62,36 @@ class AnyValidatorTest {
     underTest.apply(fileContext, null);
   }
 
+  @Test
+  void testValidFarmFile() throws Exception {
+    File file = new File(getClass().getResource("/any/publish.farm").toURI());
+    FileContext fileContext = new FileContext().file(file).charset(StandardCharsets.ISO_8859_1);
+    assertTrue(underTest.accepts(fileContext, null));
+    underTest.apply(fileContext, null);
+  }
+
+  @Test
+  void testLintWarning() throws Exception {
+    File file = new File(getClass().getResource("/any/publish_allowAuthorized.any").toURI());
+    FileContext fileContext = new FileContext().file(file).charset(StandardCharsets.ISO_8859_1);
+    // all rules only warn by default
+    underTest.apply(fileContext, null);
+  }
+
+  @Test
+  void testLintError() throws Exception {
+    File file = new File(getClass().getResource("/any/publish_allowAuthorized.any").toURI());
+    FileContext fileContext = new FileContext().file(file).charset(StandardCharsets.ISO_8859_1);
+    ValidatorContext context = new ValidatorContext()
+        .options(Map.of("any.lint", Map.of("rules", Map.of("allowAuthorized", "error"))));
+    ValidationException ex = assertThrows(ValidationException.class, () -> {
+      underTest.apply(fileContext, context);
+    });
+    assertEquals("ANY file violates dispatcher lint rules:\n"
+        + "Farm /publish: /allowAuthorized is enabled on a publish farm, personalized responses may be cached "
+        + "and served to other users. [allowAuthorized]", ex.getMessage());
+  }
+
   @Test
   void testInvalid() throws Exception {
     File file = new File(getClass().getResource("/any/invalidAny.any").toURI());
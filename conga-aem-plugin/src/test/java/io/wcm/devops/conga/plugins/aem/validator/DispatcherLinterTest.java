@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.validator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("java:S5778")
+class DispatcherLinterTest {
+
+  @Test
+  void testMissingCache() {
+    assertFindings(List.of("WARN Farm /publish: No /cache section, all requests are passed to the backend. [missingCache]"),
+        Map.of(), "/farms { /publish { /renders { /rend01 { /hostname \"localhost\" } } } }");
+  }
+
+  @Test
+  void testCacheSectionChecks() {
+    assertFindings(List.of(
+        "WARN Farm /publish: /statfileslevel is 0, each activation invalidates the whole cache. [statfilesLevel]",
+        "WARN Farm /publish: /cache /rules allow all content but /ignoreUrlParams is not defined, "
+            + "requests with query parameters are never cached. [cacheRulesWithoutIgnoreUrlParams]",
+        "WARN Farm /publish: /allowAuthorized is enabled on a publish farm, "
+            + "personalized responses may be cached and served to other users. [allowAuthorized]",
+        "WARN Farm /publish: No /gracePeriod defined, each invalidation causes a burst of requests to the backend. [missingGracePeriod]"),
+        Map.of(), "/farms { /publish { /cache { /statfileslevel \"0\" /allowAuthorized \"1\" "
+            + "/rules { /0 { /glob \"*\" /type \"allow\" } } } } }");
+  }
+
+  @Test
+  void testAuthorFarm() {
+    assertFindings(List.of(),
+        Map.of(), "/farms { /author { /cache { /statfileslevel \"2\" /allowAuthorized \"1\" /gracePeriod \"2\" } } }");
+  }
+
+  @Test
+  void testFarmFile() {
+    assertFindings(List.of("WARN Farm /publishfarm: No /gracePeriod defined, each invalidation causes a burst of requests to the backend. [missingGracePeriod]"),
+        Map.of(), "/publishfarm { /virtualhosts { \"*\" } /cache { /statfileslevel \"2\" } }");
+  }
+
+  @Test
+  void testIncludesSkipMissingChecks() {
+    assertFindings(List.of(
+        "INFO Farm /publish: /statfileslevel not checked: includes are not resolved. [statfilesLevel]",
+        "INFO Farm /publish: /ignoreUrlParams not checked: includes are not resolved. [cacheRulesWithoutIgnoreUrlParams]",
+        "INFO Farm /publish: /gracePeriod not checked: includes are not resolved. [missingGracePeriod]"),
+        Map.of(), "/farms { /publish { /cache { $include \"cache.any\" } } }");
+  }
+
+  @Test
+  void testIncludesSkipMissingCache() {
+    assertFindings(List.of("INFO Farm /publish: /cache not checked: includes are not resolved. [missingCache]"),
+        Map.of(), "/farms { /publish { $include \"renders.any\" } }");
+  }
+
+  @Test
+  void testConfiguredSeverities() {
+    assertFindings(List.of("ERROR Farm /publish: No /gracePeriod defined, each invalidation causes a burst of requests to the backend. [missingGracePeriod]"),
+        Map.of("contentDepth", 1, "rules", Map.of("missingGracePeriod", "error", "allowAuthorized", "off")),
+        "/farms { /publish { /cache { /allowAuthorized \"1\" } } }");
+  }
+
+  @Test
+  void testIsFarmStructure() {
+    assertTrue(DispatcherLinter.isFarmStructure(List.of("farms")));
+    assertTrue(DispatcherLinter.isFarmStructure(List.of("farms", "publish")));
+    assertTrue(DispatcherLinter.isFarmStructure(List.of("farms", "publish", "cache", "rules")));
+    assertFalse(DispatcherLinter.isFarmStructure(List.of("farms", "publish", "filter")));
+    assertTrue(DispatcherLinter.isFarmStructure(List.of("publishfarm", "cache")));
+    assertFalse(DispatcherLinter.isFarmStructure(List.of("publishfarm", "virtualhosts")));
+  }
+
+  @Test
+  void testInvalidSeverity() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new DispatcherLinter(Map.of("rules", Map.of("missingCache", "fatal")));
+    });
+  }
+
+  private static void assertFindings(List<String> expected, Map<String, Object> options, String content) {
+    List<String> actual = new DispatcherLinter(options).lint(content, "test.any").stream()
+        .map(finding -> finding.getSeverity() + " " + finding)
+        .collect(Collectors.toList());
+    assertEquals(expected, actual);
+  }
+
+}
@@ -32,6 +32,9 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 
+import io.wcm.devops.conga.plugins.aem.maven.install.AdaptivePolling;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstanceHttpClient;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstanceStatusCheck;
 import io.wcm.tooling.commons.packmgr.PackageManagerProperties;
 import io.wcm.tooling.commons.packmgr.install.VendorInstallerFactory;
 import io.wcm.tooling.commons.packmgr.install.VendorInstallerFactory.Service;
@@ -42,6 +45,8 @@ import io.wcm.tooling.commons.packmgr.install.VendorInstallerFactory.Service;
 abstract class AbstractContentPackageMojo extends AbstractMojo {
 
   private static final String CONSOLE_URL = "/system/console";
+  // interval of status checks without adaptive polling, as used by the package manager client before
+  private static final long FIXED_POLLING_DELAY_MS = 5000;
 
   /**
    * <p>
@@ -206,6 +211,42 @@ abstract class AbstractContentPackageMojo extends AbstractMojo {
   @Parameter(property = "vault.httpSocketTimeoutSec", defaultValue = "60")
   private int httpSocketTimeout;
 
+  /**
+   * <p>
+   * Use adaptive polling for the bundle status and package manager install status checks instead of checking the
+   * status every 5 seconds.
+   * </p>
+   * <p>
+   * The status is checked before each installed file and once after the last file. If the first check is positive,
+   * installation continues immediately. Otherwise it is checked again after {@link #pollingInitialDelayMs}, and the
+   * delay is doubled after each further check up to {@link #pollingMaxDelayMs}. A random jitter is subtracted from
+   * each delay. Waiting ends as soon as the status was positive for {@link #pollingStableCount} consecutive checks.
+   * The wait limits defined by {@link #bundleStatusWaitLimit} and {@link #packageManagerInstallStatusWaitLimit}
+   * still apply.
+   * </p>
+   */
+  @Parameter(property = "vault.adaptivePolling", defaultValue = "false")
+  private boolean adaptivePolling;
+
+  /**
+   * Initial delay between status checks (in milliseconds) when adaptive polling is active.
+   */
+  @Parameter(property = "vault.pollingInitialDelayMs", defaultValue = "250")
+  private int pollingInitialDelayMs;
+
+  /**
+   * Maximum delay between status checks (in milliseconds) when adaptive polling is active.
+   */
+  @Parameter(property = "vault.pollingMaxDelayMs", defaultValue = "10000")
+  private int pollingMaxDelayMs;
+
+  /**
+   * Number of consecutive positive status checks required to consider the status as stable when adaptive polling is
+   * active.
+   */
+  @Parameter(property = "vault.pollingStableCount", defaultValue = "2")
+  private int pollingStableCount;
+
   /**
    * Log level to be used to log responses from package manager (which may get huge for large packages).
    * Possible values are INFO (default) or DEBUG.
@@ -219,6 +260,8 @@ abstract class AbstractContentPackageMojo extends AbstractMojo {
   @Component(role = SettingsDecrypter.class)
   private SettingsDecrypter decrypter;
 
+  private InstanceHttpClient instanceHttpClient;
+
   protected final boolean isSkip() {
     return this.skip;
   }
@@ -235,22 +278,73 @@ abstract class AbstractContentPackageMojo extends AbstractMojo {
     props.setConsoleOAuth2AccessToken(this.consoleOauth2AccessToken);
     props.setRetryCount(this.retryCount);
     props.setRetryDelaySec(this.retryDelay);
-    props.setBundleStatusUrl(buildBundleStatusUrl());
-    props.setBundleStatusWaitLimitSec(this.bundleStatusWaitLimit);
-    props.setBundleStatusBlacklistBundleNames(List.of(this.bundleStatusBlacklistBundleNames));
-    props.setBundleStatusWhitelistBundleNames(List.of(this.bundleStatusWhitelistBundleNames));
-    props.setPackageManagerInstallStatusURL(buildPackageManagerInstallStatusUrl());
-    props.setPackageManagerInstallStatusWaitLimitSec(this.packageManagerInstallStatusWaitLimit);
     props.setRelaxedSSLCheck(this.relaxedSSLCheck);
     props.setHttpConnectTimeoutSec(this.httpConnectTimeoutSec);
     props.setHttpSocketTimeoutSec(this.httpSocketTimeout);
     props.setProxies(ProxySupport.getMavenProxies(session, decrypter));
     props.setPackageManagerOutputLogLevel(this.packageManagerOutputLogLevel);
 
+    // status checks are done by InstanceStatusCheck instead, sharing the HTTP client with other requests
+    props.setBundleStatusUrl(null);
+    props.setPackageManagerInstallStatusURL(null);
+
     return props;
   }
 
-  private String buildPackageManagerUrl() throws MojoExecutionException {
+  /**
+   * @return Status check with adaptive polling, or with a status check every 5 seconds if adaptive polling is
+   *         not active
+   * @throws MojoExecutionException Mojo execution exception
+   */
+  protected InstanceStatusCheck getInstanceStatusCheck() throws MojoExecutionException {
+    AdaptivePolling polling;
+    if (this.adaptivePolling) {
+      polling = new AdaptivePolling()
+          .initialDelayMs(this.pollingInitialDelayMs)
+          .maxDelayMs(this.pollingMaxDelayMs)
+          .stableCount(this.pollingStableCount);
+    }
+    else {
+      polling = AdaptivePolling.fixedDelay(FIXED_POLLING_DELAY_MS);
+    }
+    polling.logger(getLog());
+    return new InstanceStatusCheck(getInstanceHttpClient(), polling)
+        .bundleStatus(buildBundleStatusUrl(), buildConsoleAuthorization(), this.bundleStatusWaitLimit,
+            List.of(this.bundleStatusBlacklistBundleNames), List.of(this.bundleStatusWhitelistBundleNames))
+        .packageManagerInstallStatus(buildPackageManagerInstallStatusUrl(), buildPackageManagerAuthorization(),
+            this.packageManagerInstallStatusWaitLimit);
+  }
+
+  /**
+   * Gets the HTTP client that is shared by all status checks and bundle installations of this execution.
+   * @return HTTP client
+   */
+  protected InstanceHttpClient getInstanceHttpClient() {
+    if (this.instanceHttpClient == null) {
+      this.instanceHttpClient = new InstanceHttpClient(this.httpConnectTimeoutSec, this.httpSocketTimeout,
+          this.relaxedSSLCheck,
+          ProxySupport.getProxySelector(session, decrypter),
+          ProxySupport.getProxyAuthenticator(session, decrypter));
+    }
+    return this.instanceHttpClient;
+  }
+
+  private String buildPackageManagerAuthorization() {
+    return InstanceHttpClient.authorization(this.userId, this.password, this.oauth2AccessToken);
+  }
+
+  protected int getHttpSocketTimeoutSec() {
+    return this.httpSocketTimeout;
+  }
+
+  protected String buildConsoleAuthorization() {
+    return InstanceHttpClient.authorization(
+        StringUtils.defaultIfEmpty(this.consoleUserId, this.userId),
+        StringUtils.defaultIfEmpty(this.consolePassword, this.password),
+        StringUtils.defaultIfEmpty(this.consoleOauth2AccessToken, this.oauth2AccessToken));
+  }
+
+  protected String buildPackageManagerUrl() throws MojoExecutionException {
     String serviceUrl = this.serviceURL;
     switch (VendorInstallerFactory.identify(serviceUrl)) {
       case CRX:
@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ProxySelector;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.settings.crypto.SettingsDecrypter;
+
+import io.wcm.devops.conga.plugins.aem.maven.install.InstanceHttpClient;
+import io.wcm.devops.conga.plugins.aem.maven.warmup.CacheWarmer;
+import io.wcm.devops.conga.plugins.aem.maven.warmup.CacheWarmupResult;
+
+/**
+ * Warms up the dispatcher and CDN caches after a deployment and cache flush by requesting a list of URLs,
+ * e.g. generated with the <code>aemCacheWarmupUrls</code> Handlebars helper. Reports cache-hit and latency
+ * statistics.
+ */
+@Mojo(name = "cache-warmup", requiresProject = false, threadSafe = true)
+public final class CacheWarmupMojo extends AbstractMojo {
+
+  /**
+   * File with one URL per line. Empty lines and lines starting with # are ignored.
+   */
+  @Parameter(property = "conga.cacheWarmup.urlsFile", required = true)
+  private File urlsFile;
+
+  /**
+   * Target URL (scheme, host and port) of a single dispatcher, e.g. to warm up each dispatcher directly instead of
+   * via load balancer or CDN. All URLs are sent to this target as to an HTTP proxy: the request line contains the
+   * absolute URL, so the dispatcher resolves the virtual host from the original host name. Only plain HTTP is
+   * supported for the target, HTTPS URLs are requested via HTTP.
+   */
+  @Parameter(property = "conga.cacheWarmup.targetUrl")
+  private String targetUrl;
+
+  /**
+   * Number of concurrent requests.
+   */
+  @Parameter(property = "conga.cacheWarmup.concurrency", defaultValue = "4")
+  private int concurrency;
+
+  /**
+   * Maximum number of requests per second. 0 = unlimited.
+   */
+  @Parameter(property = "conga.cacheWarmup.requestsPerSecond", defaultValue = "0")
+  private double requestsPerSecond;
+
+  /**
+   * HTTP connection timeout (in seconds).
+   */
+  @Parameter(property = "conga.cacheWarmup.httpConnectTimeoutSec", defaultValue = "10")
+  private int httpConnectTimeoutSec;
+
+  /**
+   * HTTP request timeout (in seconds).
+   */
+  @Parameter(property = "conga.cacheWarmup.httpSocketTimeoutSec", defaultValue = "30")
+  private int httpSocketTimeoutSec;
+
+  /**
+   * If set to true also self-signed certificates are accepted.
+   */
+  @Parameter(property = "conga.cacheWarmup.relaxedSSLCheck", defaultValue = "false")
+  private boolean relaxedSSLCheck;
+
+  /**
+   * Fail the build if any request fails with HTTP status 4xx, 5xx or an I/O error.
+   */
+  @Parameter(property = "conga.cacheWarmup.failOnErrors", defaultValue = "false")
+  private boolean failOnErrors;
+
+  /**
+   * Set this to "true" to skip the cache warm-up.
+   */
+  @Parameter(property = "conga.cacheWarmup.skip", defaultValue = "false")
+  private boolean skip;
+
+  @Parameter(property = "session", defaultValue = "${session}", readonly = true)
+  private MavenSession session;
+
+  @Component(role = SettingsDecrypter.class)
+  private SettingsDecrypter decrypter;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      return;
+    }
+    List<String> urls = readUrls();
+    if (urls.isEmpty()) {
+      getLog().warn("No URLs found in " + getCanonicalPath(urlsFile));
+      return;
+    }
+
+    getLog().info("Warm up caches with " + urls.size() + " URLs from " + getCanonicalPath(urlsFile));
+    CacheWarmupResult result;
+    try {
+      InstanceHttpClient httpClient;
+      if (StringUtils.isNotBlank(targetUrl)) {
+        getLog().info("Send all requests to " + targetUrl);
+        ProxySelector targetProxySelector = CacheWarmer.getTargetProxySelector(targetUrl);
+        httpClient = new InstanceHttpClient(httpConnectTimeoutSec, httpSocketTimeoutSec, relaxedSSLCheck,
+            targetProxySelector, null);
+      }
+      else {
+        httpClient = new InstanceHttpClient(httpConnectTimeoutSec, httpSocketTimeoutSec, relaxedSSLCheck,
+            ProxySupport.getProxySelector(session, decrypter),
+            ProxySupport.getProxyAuthenticator(session, decrypter));
+      }
+      result = new CacheWarmer(httpClient)
+          .concurrency(concurrency)
+          .requestsPerSecond(requestsPerSecond)
+          .targetUrl(targetUrl)
+          .logger(getLog())
+          .run(urls);
+    }
+    catch (IllegalArgumentException ex) {
+      throw new MojoExecutionException("Invalid cache warm-up configuration: " + ex.getMessage(), ex);
+    }
+
+    getLog().info(String.format(Locale.ENGLISH,
+        "Requested %d URLs in %d ms: %d successful, %d failed, %d cache hits (%.1f%%)",
+        result.getRequestCount(), result.getDurationMs(), result.getSuccessCount(), result.getFailureCount(),
+        result.getCacheHitCount(), result.getCacheHitRatio() * 100));
+    getLog().info(String.format(Locale.ENGLISH,
+        "Latency: avg %d ms, p50 %d ms, p95 %d ms, p99 %d ms, max %d ms",
+        result.getAverageLatencyMs(), result.getLatencyMs(50), result.getLatencyMs(95), result.getLatencyMs(99),
+        result.getLatencyMs(100)));
+
+    if (failOnErrors && result.getFailureCount() > 0) {
+      throw new MojoFailureException("Cache warm-up failed for " + result.getFailureCount() + " URL(s).");
+    }
+  }
+
+  private List<String> readUrls() throws MojoExecutionException {
+    if (!urlsFile.isFile()) {
+      throw new MojoExecutionException("URLs file not found: " + getCanonicalPath(urlsFile));
+    }
+    try {
+      return Files.readAllLines(urlsFile.toPath(), StandardCharsets.UTF_8).stream()
+          .map(StringUtils::trim)
+          .filter(line -> StringUtils.isNotEmpty(line) && !StringUtils.startsWith(line, "#"))
+          .collect(Collectors.toList());
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to read URLs file " + getCanonicalPath(urlsFile), ex);
+    }
+  }
+
+}
@@ -19,11 +19,12 @@
  */
 package io.wcm.devops.conga.plugins.aem.maven;
 
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -37,7 +38,8 @@ import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
 import org.codehaus.plexus.archiver.zip.ZipArchiver;
 
-import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherConfigEntry;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherConfigScanner;
 import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
 
 /**
@@ -48,7 +50,7 @@ import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
 @Mojo(name = "cloudmanager-dispatcher-config", threadSafe = true)
 public final class CloudManagerDispatcherConfigMojo extends AbstractCloudManagerMojo {
 
-  private static final String ROLE_AEM_DISPATCHER_CLOUD = "aem-dispatcher-cloud";
+  static final String ROLE_AEM_DISPATCHER_CLOUD = "aem-dispatcher-cloud";
 
   /**
    * Set this to "true" to skip installing packages to CRX although configured in the POM.
@@ -62,6 +64,14 @@ public final class CloudManagerDispatcherConfigMojo extends AbstractCloudManager
   @Parameter(defaultValue = "${project.build.outputTimestamp}")
   private String outputTimestamp;
 
+  /**
+   * Skip building the dispatcher configuration ZIP file if it exists already and no file in the node directory
+   * was added, removed or modified since it was built. Changes are detected by a fingerprint of all file paths,
+   * file contents and symlink targets, which is stored next to the ZIP file.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.incremental", defaultValue = "false")
+  private boolean incremental;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     if (skip) {
@@ -88,11 +98,26 @@ public final class CloudManagerDispatcherConfigMojo extends AbstractCloudManager
   }
 
   private void buildDispatcherConfig(File environmentDir, File nodeDir) throws MojoExecutionException {
-    File targetFile = new File(getTargetDir(), environmentDir.getName() + "." + nodeDir.getName() + ".dispatcher-config.zip");
+    File targetFile = getDispatcherConfigFile(getTargetDir(), environmentDir, nodeDir);
+    File fingerprintFile = new File(targetFile.getPath() + ".fingerprint");
 
     try {
-      String basePath = toZipDirectoryPath(nodeDir);
-      addZipDirectory(basePath, nodeDir, Collections.singleton(ModelParser.MODEL_FILE));
+      List<DispatcherConfigEntry> entries = new DispatcherConfigScanner(nodeDir, Set.of(ModelParser.MODEL_FILE)).scan();
+      String fingerprint = DispatcherConfigScanner.getFingerprint(entries, outputTimestamp);
+      if (incremental && targetFile.exists() && StringUtils.equals(fingerprint, readFingerprint(fingerprintFile))) {
+        getLog().info("Dispatcher configuration unchanged, skip building " + getCanonicalPath(targetFile));
+        return;
+      }
+      Files.deleteIfExists(fingerprintFile.toPath());
+
+      for (DispatcherConfigEntry entry : entries) {
+        if (entry.isSymlink()) {
+          zipArchiver.addSymlink(entry.getPath(), entry.getSymlinkTarget());
+        }
+        else {
+          zipArchiver.addFile(entry.getFile(), entry.getPath());
+        }
+      }
       zipArchiver.setDestFile(targetFile);
 
       BuildOutputTimestamp buildOutputTimestamp = new BuildOutputTimestamp(outputTimestamp);
@@ -101,55 +126,25 @@ public final class CloudManagerDispatcherConfigMojo extends AbstractCloudManager
       }
 
       zipArchiver.createArchive();
+
+      if (incremental) {
+        Files.writeString(fingerprintFile.toPath(), fingerprint, StandardCharsets.UTF_8);
+      }
     }
     catch (ArchiverException | IOException ex) {
       throw new MojoExecutionException("Unable to build file " + targetFile.getPath() + ": " + ex.getMessage(), ex);
     }
   }
 
-  /**
-   * Recursive through all directory and add file to zipArchiver.
-   * This method has special support for symlinks which are required for dispatcher configuration.
-   * @param basePath Base path
-   * @param directory Directory to include
-   * @param excludeFiles Exclude filenames
-   * @throws IOException I/O exception
-   */
-  @SuppressWarnings("java:S3776") // ignore complexity
-  private void addZipDirectory(String basePath, File directory, Set<String> excludeFiles) throws IOException {
-    String directoryPath = toZipDirectoryPath(directory);
-    if (StringUtils.startsWith(directoryPath, basePath)) {
-      String relativeDirectoryPath = StringUtils.substring(directoryPath, basePath.length());
-      File[] files = directory.listFiles();
-      if (files != null) {
-        for (File file : files) {
-          if (excludeFiles.contains(file.getName())) {
-            continue;
-          }
-          if (file.isDirectory()) {
-            addZipDirectory(basePath, file, Collections.emptySet());
-          }
-          else if (Files.isSymbolicLink(file.toPath())) {
-            Path linkPath = file.toPath();
-            Path targetPath = linkPath.toRealPath();
-            Path symlinkPath = file.getParentFile().toPath().relativize(targetPath);
-            zipArchiver.addSymlink(relativeDirectoryPath + file.getName(), sanitizePathSeparators(symlinkPath.toString()));
-          }
-          else {
-            zipArchiver.addFile(file, relativeDirectoryPath + file.getName());
-          }
-        }
-      }
-    }
-  }
-
-  private String toZipDirectoryPath(File directory) {
-    String canoncialPath = FileUtil.getCanonicalPath(directory);
-    return sanitizePathSeparators(canoncialPath) + "/";
+  static File getDispatcherConfigFile(File targetDir, File environmentDir, File nodeDir) {
+    return new File(targetDir, environmentDir.getName() + "." + nodeDir.getName() + ".dispatcher-config.zip");
   }
 
-  private String sanitizePathSeparators(String path) {
-    return StringUtils.replace(path, "\\", "/");
+  private static String readFingerprint(File fingerprintFile) throws IOException {
+    if (!fingerprintFile.exists()) {
+      return null;
+    }
+    return StringUtils.trim(Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8));
   }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherConfigArchive;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherConfigValidator;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+/**
+ * Validates the Dispatcher configuration ZIP file built by the <code>cloudmanager-dispatcher-config</code> goal
+ * locally and offline: Syntax of all ANY files, resolution of <code>$include</code> and <code>$include_glob</code>
+ * directives, required farm sections and modifications of immutable files.
+ * Only nodes with role <code>aem-dispatcher-cloud</code> are respected.
+ */
+@Mojo(name = "cloudmanager-dispatcher-config-validate", threadSafe = true)
+public final class CloudManagerDispatcherConfigValidateMojo extends AbstractCloudManagerMojo {
+
+  /**
+   * Set this to "true" to skip validating the dispatcher configuration.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.validate.skip", defaultValue = "false")
+  private boolean skip;
+
+  /**
+   * Directory with the original immutable files of the AEM as a Cloud Service dispatcher SDK
+   * (<code>src</code> folder of the SDK). If set, the validation fails if any of the immutable files was modified.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.validate.immutableFilesDirectory")
+  private File immutableFilesDirectory;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      return;
+    }
+
+    if (immutableFilesDirectory == null) {
+      getLog().info("No immutable files directory configured, skip checking immutable files.");
+    }
+    else if (!immutableFilesDirectory.isDirectory()) {
+      throw new MojoExecutionException("Immutable files directory not found: " + getCanonicalPath(immutableFilesDirectory));
+    }
+
+    int problemCount = 0;
+    for (File environmentDir : getEnvironmentDir()) {
+      for (File nodeDir : getNodeDirs(environmentDir)) {
+        ModelParser modelParser = new ModelParser(nodeDir);
+        if (modelParser.hasRole(CloudManagerDispatcherConfigMojo.ROLE_AEM_DISPATCHER_CLOUD)) {
+          File zipFile = CloudManagerDispatcherConfigMojo.getDispatcherConfigFile(getTargetDir(), environmentDir, nodeDir);
+          problemCount += validateDispatcherConfig(zipFile);
+        }
+      }
+    }
+
+    if (problemCount > 0) {
+      throw new MojoFailureException("Dispatcher configuration is not valid: " + problemCount + " problem(s) found.");
+    }
+  }
+
+  private int validateDispatcherConfig(File zipFile) throws MojoExecutionException {
+    if (!zipFile.exists()) {
+      throw new MojoExecutionException("Dispatcher configuration not found: " + getCanonicalPath(zipFile)
+          + " - execute goal cloudmanager-dispatcher-config first.");
+    }
+    long startTime = System.currentTimeMillis();
+    List<String> problems;
+    try {
+      DispatcherConfigArchive archive = DispatcherConfigArchive.read(zipFile);
+      problems = new DispatcherConfigValidator(archive)
+          .immutableFilesDirectory(immutableFilesDirectory)
+          .validate();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to validate " + getCanonicalPath(zipFile) + ": " + ex.getMessage(), ex);
+    }
+
+    problems.forEach(problem -> getLog().error(problem));
+    getLog().info("Validated " + getCanonicalPath(zipFile) + " in " + (System.currentTimeMillis() - startTime) + "ms: "
+        + (problems.isEmpty() ? "No problems found." : problems.size() + " problem(s) found."));
+    return problems.size();
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherConfigArchive;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterEngine;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterSimulation;
+import io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterSimulationResult;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+/**
+ * Evaluates a corpus of request lines (e.g. from an access log) against the filter rules of all farms in the
+ * Dispatcher configuration ZIP file built by the <code>cloudmanager-dispatcher-config</code> goal, without
+ * running a dispatcher. If a reference directory with Dispatcher configuration ZIP files (e.g. of the last
+ * release) is given, the goal fails if any request gets a different allow/deny decision than with the reference
+ * configuration.
+ * Only nodes with role <code>aem-dispatcher-cloud</code> are respected.
+ */
+@Mojo(name = "cloudmanager-dispatcher-filter-simulate", threadSafe = true)
+public final class CloudManagerDispatcherFilterSimulateMojo extends AbstractCloudManagerMojo {
+
+  /**
+   * File with one request line (e.g. <code>GET /content/page.html HTTP/1.1</code>) or access log line per line.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.filterSimulation.requestsFile", required = true)
+  private File requestsFile;
+
+  /**
+   * Directory with reference Dispatcher configuration ZIP files with the same file names. If set, the decisions
+   * are compared with the decisions of the filter rules of the same farm in the reference configuration.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.filterSimulation.referenceDirectory")
+  private File referenceDirectory;
+
+  /**
+   * Maximum number of requests with different decisions that are logged per farm.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.filterSimulation.maxDifferences", defaultValue = "20")
+  private int maxDifferences;
+
+  /**
+   * Set this to "true" to skip the filter simulation.
+   */
+  @Parameter(property = "conga.cloudManager.dispatcherConfig.filterSimulation.skip", defaultValue = "false")
+  private boolean skip;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      return;
+    }
+    if (!requestsFile.isFile()) {
+      throw new MojoExecutionException("Requests file not found: " + getCanonicalPath(requestsFile));
+    }
+
+    // collect filter rules of all farms, and evaluate the requests against all of them in a single pass
+    DispatcherFilterSimulation simulation = new DispatcherFilterSimulation()
+        .maxDifferences(maxDifferences);
+    for (File environmentDir : getEnvironmentDir()) {
+      for (File nodeDir : getNodeDirs(environmentDir)) {
+        ModelParser modelParser = new ModelParser(nodeDir);
+        if (modelParser.hasRole(CloudManagerDispatcherConfigMojo.ROLE_AEM_DISPATCHER_CLOUD)) {
+          File zipFile = CloudManagerDispatcherConfigMojo.getDispatcherConfigFile(getTargetDir(), environmentDir, nodeDir);
+          addFarmFilters(simulation, zipFile);
+        }
+      }
+    }
+
+    Map<String, DispatcherFilterSimulationResult> results;
+    try {
+      results = simulation.run(requestsFile.toPath());
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to read requests file " + getCanonicalPath(requestsFile), ex);
+    }
+
+    long differenceCount = 0;
+    for (Map.Entry<String, DispatcherFilterSimulationResult> entry : results.entrySet()) {
+      String name = entry.getKey();
+      DispatcherFilterSimulationResult result = entry.getValue();
+      getLog().info(name + ": " + result);
+      if (result.getDifferenceCount() > 0) {
+        getLog().error(name + ": " + result.getDifferenceCount()
+            + " request(s) with different decision than reference configuration:");
+        result.getDifferences().forEach(difference -> getLog().error("  " + difference));
+      }
+      differenceCount += result.getDifferenceCount();
+    }
+
+    if (differenceCount > 0) {
+      throw new MojoFailureException("Dispatcher filter decisions differ from reference configuration for "
+          + differenceCount + " request(s).");
+    }
+  }
+
+  private void addFarmFilters(DispatcherFilterSimulation simulation, File zipFile) throws MojoExecutionException {
+    if (!zipFile.exists()) {
+      throw new MojoExecutionException("Dispatcher configuration not found: " + getCanonicalPath(zipFile)
+          + " - execute goal cloudmanager-dispatcher-config first.");
+    }
+    Map<String, DispatcherFilterEngine> referenceFilters = null;
+    if (referenceDirectory != null) {
+      File referenceZipFile = new File(referenceDirectory, zipFile.getName());
+      if (referenceZipFile.exists()) {
+        referenceFilters = readFarmFilters(referenceZipFile);
+      }
+      else {
+        getLog().warn("No reference dispatcher configuration found: " + getCanonicalPath(referenceZipFile));
+      }
+    }
+
+    for (Map.Entry<String, DispatcherFilterEngine> entry : readFarmFilters(zipFile).entrySet()) {
+      String name = zipFile.getName() + " /" + entry.getKey();
+      DispatcherFilterEngine referenceEngine = null;
+      if (referenceFilters != null) {
+        referenceEngine = referenceFilters.get(entry.getKey());
+        if (referenceEngine == null) {
+          getLog().warn(name + ": Farm not found in reference configuration.");
+        }
+      }
+      simulation.add(name, entry.getValue(), referenceEngine);
+    }
+  }
+
+  private static Map<String, DispatcherFilterEngine> readFarmFilters(File zipFile) throws MojoExecutionException {
+    try {
+      return DispatcherFilterEngine.fromDispatcherConfig(DispatcherConfigArchive.read(zipFile));
+    }
+    catch (IOException | IllegalArgumentException ex) {
+      throw new MojoExecutionException("Unable to read dispatcher filter rules from " + getCanonicalPath(zipFile)
+          + ":\n" + ex.getMessage(), ex);
+    }
+  }
+
+}
@@ -22,8 +22,11 @@ package io.wcm.devops.conga.plugins.aem.maven;
 import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.BuildPluginManager;
@@ -41,7 +44,18 @@ import org.codehaus.plexus.configuration.PlexusConfiguration;
 import org.codehaus.plexus.configuration.PlexusConfigurationException;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 
-import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.install.ActiveBundleCheck;
+import io.wcm.devops.conga.plugins.aem.maven.install.BundleInstaller;
+import io.wcm.devops.conga.plugins.aem.maven.install.ChangedFileDetector;
+import io.wcm.devops.conga.plugins.aem.maven.install.ContainerPackageCombiner;
+import io.wcm.devops.conga.plugins.aem.maven.install.DeploymentJournal;
+import io.wcm.devops.conga.plugins.aem.maven.install.FelixBundleInstaller;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstallHistory;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstallMetrics;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstallMetricsReport;
+import io.wcm.devops.conga.plugins.aem.maven.install.InstallPlan;
+import io.wcm.devops.conga.plugins.aem.maven.install.NodeDirectoryWatcher;
+import io.wcm.devops.conga.plugins.aem.maven.install.NodeInstaller;
 import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
 import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
 import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
@@ -97,11 +111,120 @@ public final class InstallPackagesMojo extends AbstractContentPackageMojo {
   private boolean replicate;
 
   /**
-   * Version of Sling plugin
+   * Install OSGi bundles by executing the sling-maven-plugin for each bundle (default). If set to false, bundles are
+   * installed directly via the Felix Web Console, sharing the HTTP connections with the status checks.
+   */
+  @Parameter(property = "conga.packageInstall.slingPluginBundleInstall", defaultValue = "true")
+  private boolean slingPluginBundleInstall;
+
+  /**
+   * Version of Sling plugin. Only used if <code>slingPluginBundleInstall</code> is set to true.
    */
   @Parameter(property = "sling.plugin.version", required = true, defaultValue = "2.4.2")
   private String slingPluginVersion;
 
+  /**
+   * Skip installing OSGi bundles that are already active on the target instance with the same symbolic name and
+   * version. The bundle list is fetched from the Felix Web Console, and fetched again after each installed content
+   * package. SNAPSHOT bundles are only skipped if their build timestamp (<code>Bnd-LastModified</code> header)
+   * matches as well.
+   */
+  @Parameter(property = "conga.packageInstall.skipActiveBundles", defaultValue = "false")
+  private boolean skipActiveBundles;
+
+  /**
+   * Record timing metrics for each installed file. A JSON report and an OpenMetrics text file are written
+   * to the metrics directory, and a summary table is logged after the installation.
+   */
+  @Parameter(property = "conga.packageInstall.metrics", defaultValue = "false")
+  private boolean metrics;
+
+  /**
+   * Directory the timing metrics files are written to.
+   */
+  @Parameter(property = "conga.packageInstall.metricsDirectory", defaultValue = "${project.build.directory}")
+  private File metricsDirectory;
+
+  /**
+   * <p>
+   * Combine consecutive content packages of the node into container packages which are installed with a single
+   * upload each. OSGi bundles, packages with install or recursive set to false, packages not installed with force
+   * (see {@link #force}), packages with individual delayAfterInstallSec, packages without valid package type and
+   * packages larger than <code>containerPackageMaxFileSizeMb</code> are installed separately.
+   * </p>
+   * <p>
+   * Limitation: The combined packages are installed by the JCR installer from install folders inside the container
+   * package. On AEM 6.5 this happens asynchronously after the container package was installed, so waiting for the
+   * bundle and package manager status after each individual package is not possible. Do not use this option if
+   * the packages depend on each other being fully installed one after another.
+   * </p>
+   */
+  @Parameter(property = "conga.packageInstall.containerPackage", defaultValue = "false")
+  private boolean containerPackage;
+
+  /**
+   * Content packages larger than this size (in MB) are not combined into container packages.
+   */
+  @Parameter(property = "conga.packageInstall.containerPackageMaxFileSizeMb", defaultValue = "10")
+  private int containerPackageMaxFileSizeMb;
+
+  /**
+   * After installing all files, keep watching the node directory for changes and install changed content packages
+   * and OSGi bundles, until the Maven process is stopped. Intended for local development.
+   */
+  @Parameter(property = "conga.packageInstall.watch", defaultValue = "false")
+  private boolean watch;
+
+  /**
+   * Time without further changes in the node directory after which changed files are installed (in milliseconds).
+   */
+  @Parameter(property = "conga.packageInstall.watchDebounceMs", defaultValue = "1000")
+  private long watchDebounceMs;
+
+  /**
+   * Record each successfully installed file with its hash in a local deployment journal, which is stored per
+   * target instance URL and node directory. Has to be enabled for the deployment that should be resumed with
+   * <code>resume</code>. The journal is always updated when resuming.
+   */
+  @Parameter(property = "conga.packageInstall.journal", defaultValue = "false")
+  private boolean journal;
+
+  /**
+   * Directory the deployment journal files are stored in. It is located outside the build directory by default,
+   * so the journal of a failed deployment is not lost when the project is cleaned before resuming.
+   */
+  @Parameter(property = "conga.packageInstall.journalDirectory", defaultValue = "${user.home}/.conga-aem/install-journal")
+  private File journalDirectory;
+
+  /**
+   * Resume a previously failed deployment: Skip all files that were installed successfully by the previous deployment
+   * to the same target instance from the same node directory, as long as they have not changed since.
+   */
+  @Parameter(property = "conga.packageInstall.resume", defaultValue = "false")
+  private boolean resume;
+
+  /**
+   * Do not install anything, only log the installation plan with the effective install settings and an estimated
+   * duration for each file, and write it as JSON to the metrics directory. The target instance is not contacted.
+   */
+  @Parameter(property = "conga.packageInstall.dryRun", defaultValue = "false")
+  private boolean dryRun;
+
+  /**
+   * Record the install timings of each installation in the <code>historyFile</code>, which is used for estimating
+   * the duration in the installation plan of a <code>dryRun</code>.
+   */
+  @Parameter(property = "conga.packageInstall.history", defaultValue = "false")
+  private boolean history;
+
+  /**
+   * File with install timings of previous installations per target instance, used for estimating the duration in
+   * the installation plan. It is located outside the build directory by default, so it is kept when the project is
+   * cleaned.
+   */
+  @Parameter(property = "conga.packageInstall.historyFile", defaultValue = "${user.home}/.conga-aem/install-history.json")
+  private File historyFile;
+
   @Parameter(defaultValue = "${project}", readonly = true)
   private MavenProject project;
   @Parameter(defaultValue = "${session}", readonly = true)
@@ -111,6 +234,8 @@ public final class InstallPackagesMojo extends AbstractContentPackageMojo {
   @Component(role = BuildPluginManager.class)
   private BuildPluginManager buildPluginManager;
 
+  private DeploymentJournal deploymentJournal;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     if (isSkip()) {
@@ -130,28 +255,247 @@ public final class InstallPackagesMojo extends AbstractContentPackageMojo {
     // ensure any file exist
     if (items.isEmpty()) {
       getLog().warn("No file found for installing.");
+      if (!this.watch) {
+        return;
+      }
+    }
+
+    // skip files that were installed by a previous deployment
+    List<InstallableFile> pendingItems = items;
+    initDeploymentJournal();
+    if (this.resume) {
+      pendingItems = deploymentJournal.getPendingFiles(items);
+      getLog().info("Resume deployment from " + getCanonicalPath(deploymentJournal.getJournalFile()) + ": "
+          + (items.size() - pendingItems.size()) + " of " + items.size() + " files were installed before.");
+    }
+
+    if (this.dryRun) {
+      planInstallation(pendingItems);
       return;
     }
 
+    if (!pendingItems.isEmpty()) {
+      installFiles(pendingItems);
+    }
+
+    if (this.watch) {
+      ChangedFileDetector changedFileDetector = new ChangedFileDetector();
+      changedFileDetector.installed(items);
+      watchNodeDirectory(changedFileDetector);
+    }
+  }
+
+  private void installFiles(List<InstallableFile> files) throws MojoExecutionException {
+    List<InstallableFile> items = files;
+
+    // combine content packages
+    File containerPackageDir = isCombineContainerPackages() ? createContainerPackageDir() : null;
+    ContainerPackageCombiner combiner = containerPackageDir != null ? createContainerPackageCombiner(containerPackageDir) : null;
+    if (combiner != null) {
+      items = combineToContainerPackages(combiner, items, containerPackageDir);
+    }
+
     // install files
     PackageInstaller installer = new PackageInstaller(getPackageManagerProperties());
     installer.setReplicate(this.replicate);
+    InstallMetrics installMetrics = new InstallMetrics(nodeDirectory, buildPackageManagerUrl());
+    NodeInstaller nodeInstaller = new NodeInstaller(installer, this::toPackageFile, getBundleInstaller())
+        .statusCheck(getInstanceStatusCheck())
+        .activeBundleCheck(getActiveBundleCheck())
+        .installedListener(item -> {
+          // packages contained in a container package are installed asynchronously by the JCR installer,
+          // so their installation is not confirmed and they are not recorded in the deployment journal
+          if (combiner == null || !combiner.isContainerPackage(item)) {
+            recordInstalled(item);
+          }
+        })
+        .logger(getLog());
+    try {
+      nodeInstaller.install(items, installMetrics);
+    }
+    finally {
+      if (this.metrics) {
+        writeMetrics(installMetrics);
+      }
+      if (this.history) {
+        recordHistory(installMetrics);
+      }
+      if (containerPackageDir != null) {
+        FileUtils.deleteQuietly(containerPackageDir);
+      }
+    }
+  }
+
+  private void watchNodeDirectory(ChangedFileDetector changedFileDetector) throws MojoExecutionException {
+    getLog().info("Watching " + getCanonicalPath(nodeDirectory) + " for changes...");
+    try {
+      new NodeDirectoryWatcher(nodeDirectory)
+          .debounceMs(this.watchDebounceMs)
+          .logger(getLog())
+          .watch(() -> installChangedFiles(changedFileDetector));
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to watch " + getCanonicalPath(nodeDirectory), ex);
+    }
+  }
 
-    for (InstallableFile item : items) {
-      if (item instanceof ModelContentPackageFile) {
-        PackageFile packageFile = toPackageFile((ModelContentPackageFile)item);
-        installer.installFile(packageFile);
+  private void installChangedFiles(ChangedFileDetector changedFileDetector) {
+    try {
+      List<InstallableFile> changedFiles = changedFileDetector.getChangedFiles(
+          new ModelParser(nodeDirectory).getInstallableFilesForNode());
+      if (changedFiles.isEmpty()) {
+        getLog().debug("No changed files found.");
+        return;
       }
-      else if (item instanceof BundleFile) {
-        BundleFile bundleFile = (BundleFile)item;
-        if (bundleFile.getInstall() == null || bundleFile.getInstall()) {
-          installBundleViaSlingPlugin(bundleFile.getFile());
-        }
+      getLog().info("Install " + changedFiles.size() + " changed file(s)...");
+      installFiles(changedFiles);
+      changedFileDetector.installed(changedFiles);
+      getLog().info("Watching " + getCanonicalPath(nodeDirectory) + " for changes...");
+    }
+    catch (MojoExecutionException | RuntimeException ex) {
+      // keep watching - the next change may fix the problem
+      getLog().error("Unable to install changed files: " + ex.getMessage(), ex);
+    }
+  }
+
+  private void initDeploymentJournal() throws MojoExecutionException {
+    if (!this.resume && (!this.journal || this.dryRun)) {
+      return;
+    }
+    deploymentJournal = new DeploymentJournal(journalDirectory, nodeDirectory, buildPackageManagerUrl());
+    try {
+      if (this.resume) {
+        deploymentJournal.load();
       }
       else {
-        getLog().warn("Unsupported file: " + getCanonicalPath(item.getFile()));
+        deploymentJournal.reset();
       }
     }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to initialize deployment journal " + getCanonicalPath(deploymentJournal.getJournalFile()), ex);
+    }
+  }
+
+  private void recordInstalled(InstallableFile item) {
+    if (deploymentJournal == null) {
+      return;
+    }
+    try {
+      deploymentJournal.installed(item);
+    }
+    catch (IOException ex) {
+      getLog().warn("Unable to write deployment journal " + getCanonicalPath(deploymentJournal.getJournalFile()) + ": " + ex.getMessage());
+    }
+  }
+
+  private boolean isCombineContainerPackages() {
+    return this.containerPackage && this.install;
+  }
+
+  private ContainerPackageCombiner createContainerPackageCombiner(File containerPackageDir) {
+    return new ContainerPackageCombiner(containerPackageDir, nodeDirectory.getName())
+        .maxFileSizeBytes(this.containerPackageMaxFileSizeMb * FileUtils.ONE_MB)
+        .defaultForce(this.force)
+        .logger(getLog());
+  }
+
+  private File createContainerPackageDir() throws MojoExecutionException {
+    try {
+      return Files.createTempDirectory("conga-aem-install").toFile();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to create temporary directory for container packages.", ex);
+    }
+  }
+
+  private List<InstallableFile> combineToContainerPackages(ContainerPackageCombiner combiner,
+      List<InstallableFile> items, File containerPackageDir) throws MojoExecutionException {
+    try {
+      return combiner.combine(items);
+    }
+    catch (IOException | IllegalArgumentException ex) {
+      FileUtils.deleteQuietly(containerPackageDir);
+      throw new MojoExecutionException("Unable to build container packages for " + getCanonicalPath(nodeDirectory), ex);
+    }
+  }
+
+  private BundleInstaller getBundleInstaller() {
+    if (this.slingPluginBundleInstall) {
+      return this::installBundleViaSlingPlugin;
+    }
+    return new FelixBundleInstaller(getInstanceHttpClient(), buildConsoleUrl(), buildConsoleAuthorization());
+  }
+
+  private void planInstallation(List<InstallableFile> files) throws MojoExecutionException {
+    // plan the same items that are installed, including combined container packages
+    List<InstallableFile> items = files;
+    File containerPackageDir = null;
+    if (isCombineContainerPackages()) {
+      containerPackageDir = createContainerPackageDir();
+      items = combineToContainerPackages(createContainerPackageCombiner(containerPackageDir), items, containerPackageDir);
+    }
+    InstallPlan plan;
+    try {
+      plan = new InstallPlan(nodeDirectory, buildPackageManagerUrl(), items, this::toPackageFile, getHttpSocketTimeoutSec(), loadHistory());
+    }
+    finally {
+      if (containerPackageDir != null) {
+        FileUtils.deleteQuietly(containerPackageDir);
+      }
+    }
+    getLog().info("Installation plan (dry run):");
+    plan.getSummary().forEach(line -> getLog().info("  " + line));
+    try {
+      getLog().info("Written " + getCanonicalPath(plan.write(metricsDirectory)));
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to write installation plan to " + getCanonicalPath(metricsDirectory), ex);
+    }
+  }
+
+  private InstallHistory loadHistory() {
+    InstallHistory history = new InstallHistory(historyFile);
+    try {
+      history.load();
+    }
+    catch (IOException ex) {
+      getLog().warn("Unable to read install history " + getCanonicalPath(historyFile) + ": " + ex.getMessage());
+    }
+    return history;
+  }
+
+  private void recordHistory(InstallMetrics installMetrics) {
+    InstallHistory history = loadHistory();
+    history.record(installMetrics);
+    try {
+      history.write();
+    }
+    catch (IOException ex) {
+      getLog().warn("Unable to write install history " + getCanonicalPath(historyFile) + ": " + ex.getMessage());
+    }
+  }
+
+  private ActiveBundleCheck getActiveBundleCheck() {
+    if (!this.skipActiveBundles) {
+      return null;
+    }
+    return new ActiveBundleCheck(getInstanceHttpClient(), buildConsoleUrl(), buildConsoleAuthorization())
+        .logger(getLog());
+  }
+
+  private void writeMetrics(InstallMetrics installMetrics) {
+    InstallMetricsReport report = new InstallMetricsReport(installMetrics);
+    getLog().info("Install metrics:");
+    report.getSummary().forEach(line -> getLog().info("  " + line));
+    try {
+      for (File file : report.write(metricsDirectory)) {
+        getLog().info("Written " + getCanonicalPath(file));
+      }
+    }
+    catch (IOException ex) {
+      // called from finally block - never hide the result of the installation
+      getLog().warn("Unable to write install metrics to " + getCanonicalPath(metricsDirectory) + ": " + ex.getMessage());
+    }
   }
 
   private PackageFile toPackageFile(ModelContentPackageFile item) {
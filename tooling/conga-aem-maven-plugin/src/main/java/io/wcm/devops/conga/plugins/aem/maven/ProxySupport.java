@@ -19,10 +19,20 @@
  */
 package io.wcm.devops.conga.plugins.aem.maven;
 
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.crypto.DefaultSettingsDecryptionRequest;
@@ -39,6 +49,62 @@ final class ProxySupport {
   }
 
   static List<io.wcm.tooling.commons.packmgr.Proxy> getMavenProxies(MavenSession mavenSession, SettingsDecrypter decrypter) {
+    return getActiveMavenProxies(mavenSession, decrypter).stream()
+        .map(proxy -> new io.wcm.tooling.commons.packmgr.Proxy(proxy.getId(),
+            proxy.getProtocol(),
+            proxy.getHost(),
+            proxy.getPort(),
+            proxy.getUsername(),
+            proxy.getPassword(),
+            proxy.getNonProxyHosts()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Builds a proxy selector for Java HTTP client from maven proxy settings.
+   * @param mavenSession Maven session
+   * @param decrypter Settings decrypter
+   * @return Proxy selector or null if no active proxies are configured
+   */
+  static ProxySelector getProxySelector(MavenSession mavenSession, SettingsDecrypter decrypter) {
+    List<Proxy> proxies = getActiveMavenProxies(mavenSession, decrypter);
+    if (proxies.isEmpty()) {
+      return null;
+    }
+    return new MavenProxySelector(proxies);
+  }
+
+  /**
+   * Builds an authenticator for Java HTTP client that provides credentials for proxies from maven proxy settings.
+   * @param mavenSession Maven session
+   * @param decrypter Settings decrypter
+   * @return Authenticator or null if no active proxies with credentials are configured
+   */
+  static Authenticator getProxyAuthenticator(MavenSession mavenSession, SettingsDecrypter decrypter) {
+    List<Proxy> proxies = getActiveMavenProxies(mavenSession, decrypter).stream()
+        .filter(proxy -> StringUtils.isNotBlank(proxy.getUsername()))
+        .collect(Collectors.toList());
+    if (proxies.isEmpty()) {
+      return null;
+    }
+    return new Authenticator() {
+      @Override
+      protected PasswordAuthentication getPasswordAuthentication() {
+        if (getRequestorType() != RequestorType.PROXY) {
+          return null;
+        }
+        return proxies.stream()
+            .filter(proxy -> StringUtils.equalsIgnoreCase(proxy.getHost(), getRequestingHost())
+                && proxy.getPort() == getRequestingPort())
+            .findFirst()
+            .map(proxy -> new PasswordAuthentication(proxy.getUsername(),
+                StringUtils.defaultString(proxy.getPassword()).toCharArray()))
+            .orElse(null);
+      }
+    };
+  }
+
+  private static List<Proxy> getActiveMavenProxies(MavenSession mavenSession, SettingsDecrypter decrypter) {
     if (mavenSession == null ||
         mavenSession.getSettings() == null ||
         mavenSession.getSettings().getProxies() == null ||
@@ -48,18 +114,11 @@ final class ProxySupport {
     else {
       final List<Proxy> mavenProxies = mavenSession.getSettings().getProxies();
 
-      final List<io.wcm.tooling.commons.packmgr.Proxy> proxies = new ArrayList<>(mavenProxies.size());
+      final List<Proxy> proxies = new ArrayList<>(mavenProxies.size());
 
       for (Proxy mavenProxy : mavenProxies) {
         if (mavenProxy.isActive()) {
-          Proxy decryptedMavenProxy = decryptProxy(mavenProxy, decrypter);
-          proxies.add(new io.wcm.tooling.commons.packmgr.Proxy(decryptedMavenProxy.getId(),
-              decryptedMavenProxy.getProtocol(),
-              decryptedMavenProxy.getHost(),
-              decryptedMavenProxy.getPort(),
-              decryptedMavenProxy.getUsername(),
-              decryptedMavenProxy.getPassword(),
-              decryptedMavenProxy.getNonProxyHosts()));
+          proxies.add(decryptProxy(mavenProxy, decrypter));
         }
       }
 
@@ -73,4 +132,47 @@ final class ProxySupport {
     return decryptedResult.getProxy();
   }
 
+  /**
+   * Selects the first active maven proxy matching the protocol of the URI, respecting non-proxy hosts.
+   */
+  private static final class MavenProxySelector extends ProxySelector {
+
+    private final List<Proxy> proxies;
+
+    MavenProxySelector(List<Proxy> proxies) {
+      this.proxies = proxies;
+    }
+
+    @Override
+    public List<java.net.Proxy> select(URI uri) {
+      for (Proxy proxy : proxies) {
+        if (StringUtils.equalsIgnoreCase(proxy.getProtocol(), uri.getScheme())
+            && !isNonProxyHost(proxy.getNonProxyHosts(), uri.getHost())) {
+          return List.of(new java.net.Proxy(java.net.Proxy.Type.HTTP,
+              InetSocketAddress.createUnresolved(proxy.getHost(), proxy.getPort())));
+        }
+      }
+      return List.of(java.net.Proxy.NO_PROXY);
+    }
+
+    @Override
+    public void connectFailed(URI uri, SocketAddress sa, IOException ex) {
+      // nothing to do
+    }
+
+    private static boolean isNonProxyHost(String nonProxyHosts, String host) {
+      if (StringUtils.isBlank(nonProxyHosts) || host == null) {
+        return false;
+      }
+      for (String nonProxyHost : StringUtils.split(nonProxyHosts, "|,")) {
+        String regex = Pattern.quote(StringUtils.trim(nonProxyHost)).replace("*", "\\E.*\\Q");
+        if (Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(host).matches()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+  }
+
 }
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import io.wcm.devops.conga.plugins.aem.util.AnyNode;
+import io.wcm.devops.conga.plugins.aem.util.AnyTreeParser;
+
+/**
+ * Reads the structure of ANY files from a {@link DispatcherConfigArchive}, resolving <code>$include</code> and
+ * <code>$include_glob</code> directives relative to the including file. Wildcards are expanded for both directives.
+ * Syntax errors are not reported - validate the syntax with the ANY parser first. Include directives that cannot be
+ * resolved are collected as problems.
+ */
+public final class AnyTreeReader {
+
+  private final DispatcherConfigArchive archive;
+  private final List<String> problems = new ArrayList<>();
+  private final Deque<String> includeStack = new ArrayDeque<>();
+
+  /**
+   * @param archive Dispatcher configuration archive
+   */
+  public AnyTreeReader(@NotNull DispatcherConfigArchive archive) {
+    this.archive = archive;
+  }
+
+  /**
+   * Reads an ANY file with all includes.
+   * @param path Path of ANY file in archive
+   * @return Root node, or null if the file does not exist
+   */
+  public AnyNode read(@NotNull String path) {
+    String content = archive.getContentAsString(path);
+    if (content == null) {
+      return null;
+    }
+    AnyNode root = new AnyNode(null, null, path);
+    readInto(root, path, content);
+    return root;
+  }
+
+  /**
+   * @return Problems found when resolving includes, prefixed with the path of the including file
+   */
+  public @NotNull List<String> getProblems() {
+    return problems;
+  }
+
+  private void readInto(AnyNode parent, String path, String content) {
+    if (includeStack.contains(path)) {
+      problems.add(path + ": Recursive include");
+      return;
+    }
+    includeStack.push(path);
+    try {
+      AnyTreeParser.parseInto(parent, content, path, this::include);
+    }
+    finally {
+      includeStack.pop();
+    }
+  }
+
+  private void include(AnyNode parent, String path, String includePath, boolean glob) {
+    String resolvedPath = DispatcherConfigArchive.resolve(path, includePath);
+    if (resolvedPath == null) {
+      problems.add(path + ": Include points outside of configuration: " + includePath);
+      return;
+    }
+    // the dispatcher expands wildcards for both $include and $include_glob
+    List<String> includedPaths = glob || DispatcherConfigArchive.isGlob(resolvedPath)
+        ? archive.glob(resolvedPath) : List.of(resolvedPath);
+    for (String includedPath : includedPaths) {
+      String content = archive.getContentAsString(includedPath);
+      if (content == null) {
+        problems.add(path + ": Unresolved include: " + includePath);
+      }
+      else {
+        readInto(parent, includedPath, content);
+      }
+    }
+  }
+
+}
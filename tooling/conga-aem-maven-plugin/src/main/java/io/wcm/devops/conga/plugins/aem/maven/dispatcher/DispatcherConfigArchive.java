@@ -0,0 +1,168 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * In-memory view of a packaged dispatcher configuration ZIP file. Symlinks are resolved to the content of their
+ * targets within the archive.
+ */
+public final class DispatcherConfigArchive {
+
+  private final Map<String, byte[]> files;
+  private final Map<String, String> symlinks;
+
+  DispatcherConfigArchive(@NotNull Map<String, byte[]> files, @NotNull Map<String, String> symlinks) {
+    this.files = new TreeMap<>(files);
+    this.symlinks = new TreeMap<>(symlinks);
+  }
+
+  /**
+   * Reads a dispatcher configuration ZIP file.
+   * @param zipFile ZIP file
+   * @return Archive
+   * @throws IOException I/O exception
+   */
+  public static @NotNull DispatcherConfigArchive read(@NotNull File zipFile) throws IOException {
+    Map<String, byte[]> files = new TreeMap<>();
+    Map<String, String> symlinks = new TreeMap<>();
+    try (ZipFile zip = new ZipFile.Builder().setFile(zipFile).get()) {
+      Enumeration<? extends ZipArchiveEntry> entries = zip.getEntries();
+      while (entries.hasMoreElements()) {
+        ZipArchiveEntry entry = entries.nextElement();
+        if (entry.isDirectory()) {
+          continue;
+        }
+        if (entry.isUnixSymlink()) {
+          symlinks.put(entry.getName(), zip.getUnixSymlink(entry));
+        }
+        else {
+          try (InputStream is = zip.getInputStream(entry)) {
+            files.put(entry.getName(), is.readAllBytes());
+          }
+        }
+      }
+    }
+    return new DispatcherConfigArchive(files, symlinks);
+  }
+
+  /**
+   * @return Paths of all files and symlinks
+   */
+  public @NotNull Set<String> getPaths() {
+    Set<String> paths = new TreeSet<>(files.keySet());
+    paths.addAll(symlinks.keySet());
+    return Collections.unmodifiableSet(paths);
+  }
+
+  /**
+   * @param path Path
+   * @return true if the path is a symlink
+   */
+  public boolean isSymlink(@NotNull String path) {
+    return symlinks.containsKey(path);
+  }
+
+  /**
+   * @param path Path of file or symlink
+   * @return File content, or null if the file does not exist or the symlink target is not part of the archive
+   */
+  @Nullable
+  public byte[] getContent(@NotNull String path) {
+    String resolvedPath = resolveSymlinks(path);
+    return resolvedPath != null ? files.get(resolvedPath) : null;
+  }
+
+  /**
+   * @param path Path of file or symlink
+   * @return File content as string, or null if the file does not exist
+   */
+  public @Nullable String getContentAsString(@NotNull String path) {
+    byte[] content = getContent(path);
+    return content != null ? new String(content, StandardCharsets.UTF_8) : null;
+  }
+
+  /**
+   * @param pattern Path with wildcards (<code>*</code>, <code>?</code> and character classes like <code>[a-z]</code>)
+   *          in the file name
+   * @return Matching paths, sorted alphabetically
+   */
+  public @NotNull List<String> glob(@NotNull String pattern) {
+    PathMatcher nameMatcher = FileSystems.getDefault().getPathMatcher("glob:" + FilenameUtils.getName(pattern));
+    return getPaths().stream()
+        .filter(path -> StringUtils.equals(FilenameUtils.getPath(path), FilenameUtils.getPath(pattern)))
+        .filter(path -> nameMatcher.matches(Path.of(FilenameUtils.getName(path))))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @param path Path
+   * @return true if the path contains wildcards that are expanded by {@link #glob(String)}
+   */
+  public static boolean isGlob(@NotNull String path) {
+    return StringUtils.containsAny(path, '*', '?', '[');
+  }
+
+  /**
+   * Resolves a path relative to the directory of another file.
+   * @param basePath Path of the file the relative path is used in
+   * @param relativePath Relative path
+   * @return Normalized path, or null if it points outside the archive
+   */
+  public static @Nullable String resolve(@NotNull String basePath, @NotNull String relativePath) {
+    return FilenameUtils.normalize(FilenameUtils.getPath(basePath) + relativePath, true);
+  }
+
+  private String resolveSymlinks(String path) {
+    String resolvedPath = path;
+    // limit number of hops to detect symlink loops
+    for (int i = 0; i < 10 && resolvedPath != null; i++) {
+      String target = symlinks.get(resolvedPath);
+      if (target == null) {
+        return resolvedPath;
+      }
+      resolvedPath = resolve(resolvedPath, target);
+    }
+    return null;
+  }
+
+}
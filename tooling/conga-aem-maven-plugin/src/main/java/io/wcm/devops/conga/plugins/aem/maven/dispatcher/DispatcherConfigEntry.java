@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.io.File;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * File or symlink within a dispatcher configuration directory.
+ */
+public final class DispatcherConfigEntry {
+
+  private final String path;
+  private final File file;
+  private final String symlinkTarget;
+  private final long sizeBytes;
+  private final String sha256;
+
+  private DispatcherConfigEntry(String path, File file, String symlinkTarget, long sizeBytes, String sha256) {
+    this.path = path;
+    this.file = file;
+    this.symlinkTarget = symlinkTarget;
+    this.sizeBytes = sizeBytes;
+    this.sha256 = sha256;
+  }
+
+  static DispatcherConfigEntry file(@NotNull String path, @NotNull File file, long sizeBytes, @NotNull String sha256) {
+    return new DispatcherConfigEntry(path, file, null, sizeBytes, sha256);
+  }
+
+  static DispatcherConfigEntry symlink(@NotNull String path, @NotNull String symlinkTarget) {
+    return new DispatcherConfigEntry(path, null, symlinkTarget, 0, null);
+  }
+
+  /**
+   * @return Path relative to the configuration directory, using "/" as separator
+   */
+  public @NotNull String getPath() {
+    return this.path;
+  }
+
+  /**
+   * @return File, or null for symlinks
+   */
+  public @Nullable File getFile() {
+    return this.file;
+  }
+
+  /**
+   * @return Relative symlink target, or null for regular files
+   */
+  public @Nullable String getSymlinkTarget() {
+    return this.symlinkTarget;
+  }
+
+  /**
+   * @return true if entry is a symlink
+   */
+  public boolean isSymlink() {
+    return this.symlinkTarget != null;
+  }
+
+  /**
+   * @return File size
+   */
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return SHA-256 hash of file content (hex-encoded), or null for symlinks
+   */
+  public @Nullable String getSha256() {
+    return this.sha256;
+  }
+
+  @Override
+  public String toString() {
+    return isSymlink() ? path + " -> " + symlinkTarget : path;
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import io.wcm.devops.conga.generator.util.FileUtil;
+
+/**
+ * Collects all files and symlinks of a dispatcher configuration directory. Subdirectories are scanned and files
+ * are hashed in parallel. Symlinks to files are resolved to relative symlink targets, symlinks to directories are
+ * followed if they point to a directory within the configuration directory.
+ */
+public final class DispatcherConfigScanner {
+
+  private final String basePath;
+  private final File directory;
+  private final Set<String> excludeFiles;
+  private final Set<String> visitedDirectories = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param directory Configuration directory
+   * @param excludeFiles File names in the configuration directory (not in subdirectories) that are excluded
+   */
+  public DispatcherConfigScanner(@NotNull File directory, @NotNull Set<String> excludeFiles) {
+    this.directory = directory;
+    this.basePath = toDirectoryPath(directory);
+    this.excludeFiles = excludeFiles;
+  }
+
+  /**
+   * @return All files and symlinks, sorted by path
+   * @throws IOException I/O exception
+   */
+  public @NotNull List<DispatcherConfigEntry> scan() throws IOException {
+    visitedDirectories.clear();
+    List<DispatcherConfigEntry> entries;
+    try {
+      entries = scanDirectory(directory, excludeFiles);
+    }
+    catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    // sort for reproducible order, and remove duplicates from symlinked directories
+    Map<String, DispatcherConfigEntry> sorted = new LinkedHashMap<>();
+    entries.stream()
+        .sorted(Comparator.comparing(DispatcherConfigEntry::getPath))
+        .forEach(entry -> sorted.putIfAbsent(entry.getPath(), entry));
+    return List.copyOf(sorted.values());
+  }
+
+  private List<DispatcherConfigEntry> scanDirectory(File dir, Set<String> exclude) {
+    String directoryPath = toDirectoryPath(dir);
+    // skip directories outside configuration directory, and directories reached a second time via symlink
+    if (!StringUtils.startsWith(directoryPath, basePath) || !visitedDirectories.add(directoryPath)) {
+      return List.of();
+    }
+    String relativeDirectoryPath = StringUtils.substring(directoryPath, basePath.length());
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return List.of();
+    }
+    return Arrays.stream(files)
+        .parallel()
+        .filter(file -> !exclude.contains(file.getName()))
+        .flatMap(file -> toEntries(relativeDirectoryPath, file).stream())
+        .collect(Collectors.toList());
+  }
+
+  private List<DispatcherConfigEntry> toEntries(String relativeDirectoryPath, File file) {
+    if (file.isDirectory()) {
+      return scanDirectory(file, Set.of());
+    }
+    String path = relativeDirectoryPath + file.getName();
+    try {
+      Path filePath = file.toPath();
+      if (Files.isSymbolicLink(filePath)) {
+        Path targetPath = filePath.toRealPath();
+        Path symlinkPath = file.getParentFile().toPath().relativize(targetPath);
+        return List.of(DispatcherConfigEntry.symlink(path, sanitizePathSeparators(symlinkPath.toString())));
+      }
+      // hash file content - modification dates are not reliable, e.g. after a fresh checkout or when files are
+      // regenerated with the same content
+      String sha256 = Hashing.sha256().hashBytes(Files.readAllBytes(filePath)).toString();
+      return List.of(DispatcherConfigEntry.file(path, file, file.length(), sha256));
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Builds a fingerprint over paths, content hashes and symlink targets of all entries.
+   * @param entries Entries sorted by path
+   * @param settings Additional settings that affect the result
+   * @return Fingerprint (hex-encoded SHA-256)
+   */
+  public static @NotNull String getFingerprint(@NotNull List<DispatcherConfigEntry> entries, String... settings) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String setting : settings) {
+      hasher.putString(StringUtils.defaultString(setting), StandardCharsets.UTF_8).putByte((byte)0);
+    }
+    for (DispatcherConfigEntry entry : entries) {
+      hasher.putString(entry.getPath(), StandardCharsets.UTF_8).putByte((byte)0);
+      if (entry.isSymlink()) {
+        hasher.putString(entry.getSymlinkTarget(), StandardCharsets.UTF_8).putByte((byte)0);
+      }
+      else {
+        hasher.putString(entry.getSha256(), StandardCharsets.UTF_8).putByte((byte)0);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private static String toDirectoryPath(File dir) {
+    return sanitizePathSeparators(FileUtil.getCanonicalPath(dir)) + "/";
+  }
+
+  private static String sanitizePathSeparators(String path) {
+    return StringUtils.replace(path, "\\", "/");
+  }
+
+}
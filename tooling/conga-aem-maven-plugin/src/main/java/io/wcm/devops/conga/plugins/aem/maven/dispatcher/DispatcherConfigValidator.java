@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.devops.conga.plugins.aem.util.AnyFileParser;
+import io.wcm.devops.conga.plugins.aem.util.AnyNode;
+
+/**
+ * Validates a packaged dispatcher configuration for AEM as a Cloud Service offline: Syntax of all ANY files,
+ * resolution of include directives, required farm sections and modifications of immutable files.
+ * This covers the most frequent reasons for failing dispatcher validations in the Cloud Manager pipeline,
+ * but does not replace the validation of the dispatcher SDK.
+ */
+public final class DispatcherConfigValidator {
+
+  /**
+   * Path of the main dispatcher configuration file defining the farms
+   */
+  public static final String DISPATCHER_ANY = "conf.dispatcher.d/dispatcher.any";
+
+  static final List<String> REQUIRED_FARM_SECTIONS = List.of("virtualhosts", "renders", "filter", "cache");
+
+  /**
+   * Files that are defined by the AEM as a Cloud Service dispatcher SDK and must not be modified.
+   */
+  static final List<String> IMMUTABLE_FILES = List.of(
+      "conf.d/available_vhosts/default.vhost",
+      "conf.d/dispatcher_vhost.conf",
+      "conf.d/rewrites/default_rewrite.rules",
+      "conf.dispatcher.d/available_farms/default.farm",
+      "conf.dispatcher.d/cache/default_invalidate.any",
+      "conf.dispatcher.d/cache/default_rules.any",
+      "conf.dispatcher.d/clientheaders/default_clientheaders.any",
+      "conf.dispatcher.d/dispatcher.any",
+      "conf.dispatcher.d/filters/default_filters.any",
+      "conf.dispatcher.d/renders/default_renders.any",
+      "conf.dispatcher.d/virtualhosts/default_virtualhosts.any");
+
+  private static final String[] ANY_FILE_EXTENSIONS = { ".any", ".farm" };
+
+  private final DispatcherConfigArchive archive;
+  private File immutableFilesDirectory;
+
+  /**
+   * @param archive Dispatcher configuration archive
+   */
+  public DispatcherConfigValidator(@NotNull DispatcherConfigArchive archive) {
+    this.archive = archive;
+  }
+
+  /**
+   * @param value Directory with the original immutable files of the dispatcher SDK (<code>src</code> folder).
+   *          If not set, immutable files are not checked.
+   * @return this
+   */
+  public DispatcherConfigValidator immutableFilesDirectory(@Nullable File value) {
+    this.immutableFilesDirectory = value;
+    return this;
+  }
+
+  /**
+   * Validates the dispatcher configuration.
+   * @return Problems, each prefixed with the path of the affected file. Empty list if the configuration is valid.
+   * @throws IOException I/O exception reading immutable files
+   */
+  public @NotNull List<String> validate() throws IOException {
+    List<String> problems = new ArrayList<>();
+    validateAnySyntax(problems);
+    validateFarms(problems);
+    validateImmutableFiles(problems);
+    return problems;
+  }
+
+  private void validateAnySyntax(List<String> problems) {
+    for (String path : archive.getPaths()) {
+      if (!StringUtils.endsWithAny(path, ANY_FILE_EXTENSIONS) || archive.isSymlink(path)) {
+        continue;
+      }
+      try {
+        AnyFileParser.parse(archive.getContentAsString(path));
+      }
+      /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
+        problems.add(path + ": ANY file is not valid: " + ex.getMessage());
+      }
+    }
+  }
+
+  private void validateFarms(List<String> problems) {
+    AnyTreeReader reader = new AnyTreeReader(archive);
+    AnyNode dispatcher = reader.read(DISPATCHER_ANY);
+    if (dispatcher == null) {
+      problems.add(DISPATCHER_ANY + ": File missing");
+      return;
+    }
+    problems.addAll(reader.getProblems());
+
+    AnyNode farms = dispatcher.getChild("farms");
+    if (farms == null || farms.getChildren().isEmpty()) {
+      problems.add(DISPATCHER_ANY + ": No farms defined");
+      return;
+    }
+    for (AnyNode farm : farms.getChildren()) {
+      if (farm.getName() == null || farm.getValue() != null) {
+        continue;
+      }
+      for (String section : REQUIRED_FARM_SECTIONS) {
+        if (farm.getChild(section) == null) {
+          problems.add(farm.getSourcePath() + ": Farm /" + farm.getName() + " has no /" + section + " section");
+        }
+      }
+    }
+  }
+
+  private void validateImmutableFiles(List<String> problems) throws IOException {
+    if (immutableFilesDirectory == null) {
+      return;
+    }
+    for (String path : IMMUTABLE_FILES) {
+      File originalFile = new File(immutableFilesDirectory, path);
+      byte[] content = archive.getContent(path);
+      if (content == null || !originalFile.exists()) {
+        continue;
+      }
+      if (!StringUtils.equals(normalizeLineEndings(new String(content, StandardCharsets.UTF_8)),
+          normalizeLineEndings(Files.readString(originalFile.toPath(), StandardCharsets.UTF_8)))) {
+        problems.add(path + ": Immutable file was modified");
+      }
+    }
+  }
+
+  private static String normalizeLineEndings(String value) {
+    return StringUtils.remove(value, '\r');
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Result of evaluating a request against dispatcher filter rules.
+ */
+public enum DispatcherFilterDecision {
+
+  /**
+   * Last matching rule allows access
+   */
+  ALLOW,
+
+  /**
+   * Last matching rule denies access
+   */
+  DENY,
+
+  /**
+   * No rule matches the request
+   */
+  NO_MATCH;
+
+  @Override
+  public String toString() {
+    return StringUtils.lowerCase(name());
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.devops.conga.plugins.aem.util.AnyNode;
+
+/**
+ * Evaluates requests against a list of compiled dispatcher filter rules. As in the dispatcher, the last matching
+ * rule decides. Rules are checked from last to first, so evaluation stops at the first matching rule.
+ * Instances are immutable and can be used concurrently.
+ */
+public final class DispatcherFilterEngine {
+
+  private final DispatcherFilterRule[] rules;
+
+  /**
+   * @param rules Compiled filter rules in order of definition
+   */
+  public DispatcherFilterEngine(@NotNull List<DispatcherFilterRule> rules) {
+    this.rules = rules.toArray(new DispatcherFilterRule[0]);
+  }
+
+  /**
+   * @param filter ANY node of <code>/filter</code> section of a farm
+   * @return Filter engine
+   */
+  public static @NotNull DispatcherFilterEngine fromAny(@NotNull AnyNode filter) {
+    List<DispatcherFilterRule> rules = new ArrayList<>();
+    for (AnyNode rule : filter.getChildren()) {
+      if (rule.getName() != null && rule.getValue() == null) {
+        rules.add(DispatcherFilterRule.fromAny(rule));
+      }
+    }
+    return new DispatcherFilterEngine(rules);
+  }
+
+  /**
+   * Reads the filter rules of all farms of a dispatcher configuration.
+   * @param archive Dispatcher configuration archive
+   * @return Filter engines by farm name, in order of definition
+   * @throws IllegalArgumentException if includes cannot be resolved or a filter rule is invalid
+   */
+  public static @NotNull Map<String, DispatcherFilterEngine> fromDispatcherConfig(@NotNull DispatcherConfigArchive archive) {
+    AnyTreeReader reader = new AnyTreeReader(archive);
+    AnyNode dispatcher = reader.read(DispatcherConfigValidator.DISPATCHER_ANY);
+    // filter rules from unresolved includes would be missing silently
+    if (!reader.getProblems().isEmpty()) {
+      throw new IllegalArgumentException(String.join("\n", reader.getProblems()));
+    }
+    Map<String, DispatcherFilterEngine> result = new LinkedHashMap<>();
+    AnyNode farms = dispatcher != null ? dispatcher.getChild("farms") : null;
+    if (farms != null) {
+      for (AnyNode farm : farms.getChildren()) {
+        AnyNode filter = farm.getChild("filter");
+        if (farm.getName() != null && filter != null) {
+          result.put(farm.getName(), fromAny(filter));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param definitions Filter rule definitions as used for the <code>aemDispatcherFilter</code> Handlebars helper.
+   *          The rules are named by their index.
+   * @return Filter engine
+   */
+  public static @NotNull DispatcherFilterEngine fromDefinitions(@NotNull List<Map<String, Object>> definitions) {
+    List<DispatcherFilterRule> rules = new ArrayList<>();
+    for (int i = 0; i < definitions.size(); i++) {
+      rules.add(DispatcherFilterRule.fromDefinition(Integer.toString(i), definitions.get(i)));
+    }
+    return new DispatcherFilterEngine(rules);
+  }
+
+  /**
+   * @return Filter rules
+   */
+  public @NotNull List<DispatcherFilterRule> getRules() {
+    return List.of(rules);
+  }
+
+  /**
+   * @param request Request
+   * @return Last rule matching the request, or null if no rule matches
+   */
+  public @Nullable DispatcherFilterRule getMatchingRule(@NotNull DispatcherRequest request) {
+    for (int i = rules.length - 1; i >= 0; i--) {
+      if (rules[i].matches(request)) {
+        return rules[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param request Request
+   * @return Filter decision
+   */
+  public @NotNull DispatcherFilterDecision evaluate(@NotNull DispatcherRequest request) {
+    return toDecision(getMatchingRule(request));
+  }
+
+  /**
+   * @param requestLine Request line, e.g. <code>GET /content/page.html HTTP/1.1</code>
+   * @return Filter decision
+   */
+  public @NotNull DispatcherFilterDecision evaluate(@NotNull String requestLine) {
+    DispatcherRequest request = DispatcherRequest.parse(requestLine);
+    if (request == null) {
+      throw new IllegalArgumentException("Invalid request line: " + requestLine);
+    }
+    return evaluate(request);
+  }
+
+  static DispatcherFilterDecision toDecision(@Nullable DispatcherFilterRule rule) {
+    if (rule == null) {
+      return DispatcherFilterDecision.NO_MATCH;
+    }
+    return rule.isAllow() ? DispatcherFilterDecision.ALLOW : DispatcherFilterDecision.DENY;
+  }
+
+}
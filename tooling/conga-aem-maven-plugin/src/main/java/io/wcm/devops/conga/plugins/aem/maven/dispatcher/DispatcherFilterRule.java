@@ -0,0 +1,248 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import io.wcm.devops.conga.plugins.aem.util.AnyNode;
+
+/**
+ * Dispatcher filter rule with pre-compiled patterns for all request elements it defines.
+ */
+public final class DispatcherFilterRule {
+
+  /**
+   * Request elements supported in filter rules.
+   */
+  enum Property {
+    METHOD("method", DispatcherRequest::getMethod),
+    URL("url", DispatcherRequest::getUrl),
+    QUERY("query", DispatcherRequest::getQuery),
+    PROTOCOL("protocol", DispatcherRequest::getProtocol),
+    PATH("path", DispatcherRequest::getPath),
+    SELECTORS("selectors", DispatcherRequest::getSelectors),
+    EXTENSION("extension", DispatcherRequest::getExtension),
+    SUFFIX("suffix", DispatcherRequest::getSuffix),
+    GLOB("glob", DispatcherRequest::getRequestLine);
+
+    private final String propertyName;
+    private final Function<DispatcherRequest, String> accessor;
+
+    Property(String propertyName, Function<DispatcherRequest, String> accessor) {
+      this.propertyName = propertyName;
+      this.accessor = accessor;
+    }
+
+    static Property forName(String propertyName) {
+      for (Property property : values()) {
+        if (StringUtils.equals(property.propertyName, propertyName)) {
+          return property;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported filter property: " + propertyName);
+    }
+  }
+
+  private final String name;
+  private final boolean allow;
+  private final Matcher[] matchers;
+
+  private DispatcherFilterRule(String name, boolean allow, Matcher[] matchers) {
+    this.name = name;
+    this.allow = allow;
+    this.matchers = matchers;
+  }
+
+  /**
+   * Compiles a filter rule from a filter rule definition in ANY file.
+   * Values in single quotes are interpreted as regular expressions, values in double quotes as glob patterns.
+   * @param rule ANY node of filter rule
+   * @return Compiled filter rule
+   */
+  public static @NotNull DispatcherFilterRule fromAny(@NotNull AnyNode rule) {
+    String type = null;
+    List<Matcher> matchers = new ArrayList<>();
+    for (AnyNode child : rule.getChildren()) {
+      if (StringUtils.equals(child.getName(), "type")) {
+        type = child.getValue();
+      }
+      else if (child.getName() != null && child.getValue() != null) {
+        Property property = Property.forName(child.getName());
+        matchers.add(new Matcher(property, child.getValue(), child.isRegex()));
+      }
+    }
+    return create(rule.getName(), type, matchers);
+  }
+
+  /**
+   * Compiles a filter rule from a filter rule definition as used for the <code>aemDispatcherFilter</code>
+   * Handlebars helper. All values are interpreted as regular expressions, as the helper renders them in
+   * single quotes.
+   * @param name Rule name
+   * @param definition Filter rule definition
+   * @return Compiled filter rule
+   */
+  public static @NotNull DispatcherFilterRule fromDefinition(@NotNull String name, @NotNull Map<String, Object> definition) {
+    String type = null;
+    List<Matcher> matchers = new ArrayList<>();
+    for (Map.Entry<String, Object> entry : definition.entrySet()) {
+      String value = entry.getValue() != null ? entry.getValue().toString() : null;
+      if (StringUtils.equals(entry.getKey(), "type")) {
+        type = value;
+      }
+      else if (value != null) {
+        Property property = Property.forName(entry.getKey());
+        matchers.add(new Matcher(property, value, true));
+      }
+    }
+    return create(name, type, matchers);
+  }
+
+  private static DispatcherFilterRule create(String name, String type, List<Matcher> matchers) {
+    boolean allow;
+    if (StringUtils.equalsIgnoreCase(type, "allow")) {
+      allow = true;
+    }
+    else if (StringUtils.equalsIgnoreCase(type, "deny")) {
+      allow = false;
+    }
+    else {
+      throw new IllegalArgumentException("Invalid type for filter rule /" + name + ": " + type);
+    }
+    if (matchers.isEmpty()) {
+      throw new IllegalArgumentException("No request elements defined for filter rule /" + name);
+    }
+    return new DispatcherFilterRule(name, allow, matchers.toArray(new Matcher[0]));
+  }
+
+  /**
+   * @return Rule name
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return true if the rule allows access, false if it denies access
+   */
+  public boolean isAllow() {
+    return this.allow;
+  }
+
+  /**
+   * @param request Request
+   * @return true if all request elements defined by this rule match
+   */
+  public boolean matches(@NotNull DispatcherRequest request) {
+    for (Matcher matcher : matchers) {
+      if (!matcher.matches(request)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "/" + name + " { /type \"" + (allow ? "allow" : "deny") + "\" "
+        + StringUtils.join(matchers, ' ') + " }";
+  }
+
+  /**
+   * Matches a single request element against a regular expression or glob pattern.
+   * Expressions without any special characters are compared as plain strings.
+   */
+  private static final class Matcher {
+
+    private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+    private static final String GLOB_SPECIAL_CHARS = "*?";
+
+    private final Property property;
+    private final String expression;
+    private final boolean regex;
+    private final String literal;
+    private final Pattern pattern;
+
+    @SuppressWarnings("PMD.PreserveStackTrace")
+    Matcher(Property property, String expression, boolean regex) {
+      this.property = property;
+      this.expression = expression;
+      this.regex = regex;
+      if (!StringUtils.containsAny(expression, regex ? REGEX_SPECIAL_CHARS : GLOB_SPECIAL_CHARS)) {
+        this.literal = expression;
+        this.pattern = null;
+      }
+      else {
+        this.literal = null;
+        try {
+          this.pattern = Pattern.compile(regex ? expression : globToRegex(expression));
+        }
+        catch (PatternSyntaxException ex) {
+          throw new IllegalArgumentException("Invalid regex for '" + property.propertyName + "': " + ex.getMessage());
+        }
+      }
+    }
+
+    boolean matches(DispatcherRequest request) {
+      String value = property.accessor.apply(request);
+      if (literal != null) {
+        return literal.equals(value);
+      }
+      return pattern.matcher(value).matches();
+    }
+
+    private static String globToRegex(String glob) {
+      StringBuilder regex = new StringBuilder();
+      StringBuilder literalPart = new StringBuilder();
+      for (char c : glob.toCharArray()) {
+        if (c == '*' || c == '?') {
+          if (literalPart.length() > 0) {
+            regex.append(Pattern.quote(literalPart.toString()));
+            literalPart.setLength(0);
+          }
+          regex.append(c == '*' ? ".*" : ".");
+        }
+        else {
+          literalPart.append(c);
+        }
+      }
+      if (literalPart.length() > 0) {
+        regex.append(Pattern.quote(literalPart.toString()));
+      }
+      return regex.toString();
+    }
+
+    @Override
+    public String toString() {
+      char quote = regex ? '\'' : '"';
+      return "/" + property.propertyName + " " + quote + expression + quote;
+    }
+
+  }
+
+}
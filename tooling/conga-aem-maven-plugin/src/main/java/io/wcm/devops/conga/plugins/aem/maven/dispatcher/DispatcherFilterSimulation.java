@@ -0,0 +1,183 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Evaluates a corpus of request lines (e.g. from an access log) against one or multiple sets of dispatcher filter
+ * rules, and optionally compares each decision with the decision of a reference set of filter rules.
+ * Lines are evaluated in parallel, each line is parsed only once and evaluated against all filter rule sets.
+ */
+public final class DispatcherFilterSimulation {
+
+  /**
+   * Default number of differences that are collected as samples.
+   */
+  public static final int DEFAULT_MAX_DIFFERENCES = 20;
+
+  private final Map<String, Target> targets = new LinkedHashMap<>();
+  private int maxDifferences = DEFAULT_MAX_DIFFERENCES;
+
+  /**
+   * Adds filter rules to evaluate.
+   * @param name Name of the filter rules, e.g. the farm name
+   * @param engine Filter rules to evaluate
+   * @param referenceEngine Reference filter rules to compare decisions with, or null
+   * @return this
+   */
+  public DispatcherFilterSimulation add(@NotNull String name, @NotNull DispatcherFilterEngine engine,
+      @Nullable DispatcherFilterEngine referenceEngine) {
+    targets.put(name, new Target(engine, referenceEngine));
+    return this;
+  }
+
+  /**
+   * @param value Maximum number of differences collected as samples per filter rules
+   * @return this
+   */
+  public DispatcherFilterSimulation maxDifferences(int value) {
+    this.maxDifferences = value;
+    return this;
+  }
+
+  /**
+   * @param requestsFile File with one request line or access log line per line
+   * @return Simulation result per name of filter rules, in the order they were added
+   * @throws IOException I/O exception
+   */
+  public @NotNull Map<String, DispatcherFilterSimulationResult> run(@NotNull Path requestsFile) throws IOException {
+    // ISO-8859-1 maps every byte to a character, so malformed log lines do not break reading the file
+    try (Stream<String> lines = Files.lines(requestsFile, StandardCharsets.ISO_8859_1)) {
+      return run(lines);
+    }
+  }
+
+  /**
+   * @param lines Request lines or access log lines
+   * @return Simulation result per name of filter rules, in the order they were added
+   */
+  public @NotNull Map<String, DispatcherFilterSimulationResult> run(@NotNull Stream<String> lines) {
+    long startTime = System.currentTimeMillis();
+    targets.values().forEach(Target::reset);
+    LongAdder invalid = new LongAdder();
+
+    lines.parallel().forEach(line -> {
+      DispatcherRequest request = DispatcherRequest.parse(line);
+      if (request == null) {
+        invalid.increment();
+        return;
+      }
+      for (Target target : targets.values()) {
+        target.evaluate(request, maxDifferences);
+      }
+    });
+
+    long durationMs = System.currentTimeMillis() - startTime;
+    Map<String, DispatcherFilterSimulationResult> result = new LinkedHashMap<>();
+    targets.forEach((name, target) -> result.put(name, target.toResult(invalid.sum(), maxDifferences, durationMs)));
+    return result;
+  }
+
+  private static String toString(DispatcherFilterDecision decision, DispatcherFilterRule rule) {
+    if (rule == null) {
+      return decision.toString();
+    }
+    return decision + " (/" + rule.getName() + ")";
+  }
+
+  /**
+   * Filter rules with decision counters.
+   */
+  private static final class Target {
+
+    private final DispatcherFilterEngine engine;
+    private final DispatcherFilterEngine referenceEngine;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder noMatch = new LongAdder();
+    private final LongAdder differenceCount = new LongAdder();
+    private final Collection<String> differences = new ConcurrentLinkedQueue<>();
+
+    Target(DispatcherFilterEngine engine, DispatcherFilterEngine referenceEngine) {
+      this.engine = engine;
+      this.referenceEngine = referenceEngine;
+    }
+
+    void reset() {
+      allowed.reset();
+      denied.reset();
+      noMatch.reset();
+      differenceCount.reset();
+      differences.clear();
+    }
+
+    void evaluate(DispatcherRequest request, int maxDifferences) {
+      DispatcherFilterRule rule = engine.getMatchingRule(request);
+      DispatcherFilterDecision decision = DispatcherFilterEngine.toDecision(rule);
+      switch (decision) {
+        case ALLOW:
+          allowed.increment();
+          break;
+        case DENY:
+          denied.increment();
+          break;
+        default:
+          noMatch.increment();
+      }
+      if (referenceEngine != null) {
+        DispatcherFilterRule referenceRule = referenceEngine.getMatchingRule(request);
+        DispatcherFilterDecision referenceDecision = DispatcherFilterEngine.toDecision(referenceRule);
+        if (decision != referenceDecision) {
+          differenceCount.increment();
+          if (differences.size() < maxDifferences) {
+            differences.add(request + ": " + DispatcherFilterSimulation.toString(referenceDecision, referenceRule)
+                + " -> " + DispatcherFilterSimulation.toString(decision, rule));
+          }
+        }
+      }
+    }
+
+    DispatcherFilterSimulationResult toResult(long invalidCount, int maxDifferences, long durationMs) {
+      List<String> differenceSamples = new ArrayList<>(differences);
+      if (differenceSamples.size() > maxDifferences) {
+        differenceSamples = differenceSamples.subList(0, maxDifferences);
+      }
+      return new DispatcherFilterSimulationResult(allowed.sum(), denied.sum(), noMatch.sum(), invalidCount,
+          differenceCount.sum(), differenceSamples, durationMs);
+    }
+
+  }
+
+}
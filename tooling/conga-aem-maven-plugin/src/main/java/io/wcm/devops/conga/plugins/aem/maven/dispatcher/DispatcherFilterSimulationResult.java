@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Result of a dispatcher filter simulation.
+ */
+public final class DispatcherFilterSimulationResult {
+
+  private final long allowedCount;
+  private final long deniedCount;
+  private final long noMatchCount;
+  private final long invalidCount;
+  private final long differenceCount;
+  private final List<String> differences;
+  private final long durationMs;
+
+  @SuppressWarnings("java:S107") // all counters
+  DispatcherFilterSimulationResult(long allowedCount, long deniedCount, long noMatchCount, long invalidCount,
+      long differenceCount, List<String> differences, long durationMs) {
+    this.allowedCount = allowedCount;
+    this.deniedCount = deniedCount;
+    this.noMatchCount = noMatchCount;
+    this.invalidCount = invalidCount;
+    this.differenceCount = differenceCount;
+    this.differences = differences;
+    this.durationMs = durationMs;
+  }
+
+  /**
+   * @return Number of evaluated requests
+   */
+  public long getRequestCount() {
+    return allowedCount + deniedCount + noMatchCount;
+  }
+
+  /**
+   * @return Number of allowed requests
+   */
+  public long getAllowedCount() {
+    return this.allowedCount;
+  }
+
+  /**
+   * @return Number of denied requests
+   */
+  public long getDeniedCount() {
+    return this.deniedCount;
+  }
+
+  /**
+   * @return Number of requests not matched by any rule
+   */
+  public long getNoMatchCount() {
+    return this.noMatchCount;
+  }
+
+  /**
+   * @return Number of lines that do not contain a valid request line
+   */
+  public long getInvalidCount() {
+    return this.invalidCount;
+  }
+
+  /**
+   * @return Number of requests with a different decision than the reference filter rules
+   */
+  public long getDifferenceCount() {
+    return this.differenceCount;
+  }
+
+  /**
+   * @return Sample of requests with different decisions, with reference and actual decision
+   */
+  public @NotNull List<String> getDifferences() {
+    return Collections.unmodifiableList(differences);
+  }
+
+  /**
+   * @return Duration of simulation in milliseconds
+   */
+  public long getDurationMs() {
+    return this.durationMs;
+  }
+
+  @Override
+  public String toString() {
+    return getRequestCount() + " requests in " + durationMs + "ms: "
+        + allowedCount + " allowed, " + deniedCount + " denied, " + noMatchCount + " not matched"
+        + (invalidCount > 0 ? ", " + invalidCount + " invalid lines skipped" : "");
+  }
+
+}
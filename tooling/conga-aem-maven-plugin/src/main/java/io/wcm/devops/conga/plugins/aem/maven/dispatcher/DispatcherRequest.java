@@ -0,0 +1,182 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * HTTP request line decomposed into the request elements evaluated by dispatcher filter rules.
+ * Request elements not present in the request line are represented by an empty string.
+ */
+public final class DispatcherRequest {
+
+  private final String requestLine;
+  private final String method;
+  private final String url;
+  private final String query;
+  private final String protocol;
+  private final String path;
+  private final String selectors;
+  private final String extension;
+  private final String suffix;
+
+  @SuppressWarnings("java:S107") // all request elements
+  private DispatcherRequest(String requestLine, String method, String url, String query, String protocol,
+      String path, String selectors, String extension, String suffix) {
+    this.requestLine = requestLine;
+    this.method = method;
+    this.url = url;
+    this.query = query;
+    this.protocol = protocol;
+    this.path = path;
+    this.selectors = selectors;
+    this.extension = extension;
+    this.suffix = suffix;
+  }
+
+  /**
+   * Parses a request line like <code>GET /content/page.sel.html/suffix?param=1 HTTP/1.1</code>.
+   * If the line contains double quotes (e.g. a line of an access log in common log format), only the quoted part
+   * is used as request line.
+   * <p>
+   * The URL is decomposed like the dispatcher does without knowing about the resources in the repository:
+   * The path ends at the first dot, the suffix starts at the first slash behind it. Selectors and extension are
+   * taken from the part in between, so dots in the suffix do not affect them.
+   * </p>
+   * @param line Request line or access log line
+   * @return Request, or null if the line does not contain a valid request line
+   */
+  public static @Nullable DispatcherRequest parse(@NotNull String line) {
+    String requestLine = line;
+    int quoteStart = line.indexOf('"');
+    if (quoteStart >= 0) {
+      int quoteEnd = line.indexOf('"', quoteStart + 1);
+      if (quoteEnd < 0) {
+        return null;
+      }
+      requestLine = line.substring(quoteStart + 1, quoteEnd);
+    }
+    String[] parts = StringUtils.split(requestLine, ' ');
+    if (parts.length < 2 || parts.length > 3) {
+      return null;
+    }
+    String method = parts[0];
+    String uri = parts[1];
+    String protocol = parts.length > 2 ? parts[2] : "";
+
+    String url = uri;
+    String query = "";
+    int queryStart = uri.indexOf('?');
+    if (queryStart >= 0) {
+      url = uri.substring(0, queryStart);
+      query = uri.substring(queryStart + 1);
+    }
+
+    // the first dot separates the path, the suffix starts at the next slash behind it
+    String normalizedRequestLine = StringUtils.join(parts, ' ');
+    int firstDot = url.indexOf('.');
+    if (firstDot < 0) {
+      return new DispatcherRequest(normalizedRequestLine, method, url, query, protocol, url, "", "", "");
+    }
+    int suffixStart = url.indexOf('/', firstDot);
+    if (suffixStart < 0) {
+      suffixStart = url.length();
+    }
+    int lastDot = url.lastIndexOf('.', suffixStart - 1);
+
+    String path = url.substring(0, firstDot);
+    String selectors = firstDot < lastDot ? url.substring(firstDot + 1, lastDot) : "";
+    String extension = url.substring(lastDot + 1, suffixStart);
+    String suffix = url.substring(suffixStart);
+    return new DispatcherRequest(normalizedRequestLine, method, url, query, protocol,
+        path, selectors, extension, suffix);
+  }
+
+  /**
+   * @return Request line (method, URI and protocol)
+   */
+  public @NotNull String getRequestLine() {
+    return this.requestLine;
+  }
+
+  /**
+   * @return HTTP method
+   */
+  public @NotNull String getMethod() {
+    return this.method;
+  }
+
+  /**
+   * @return URL without query string
+   */
+  public @NotNull String getUrl() {
+    return this.url;
+  }
+
+  /**
+   * @return Query string without leading question mark
+   */
+  public @NotNull String getQuery() {
+    return this.query;
+  }
+
+  /**
+   * @return Protocol
+   */
+  public @NotNull String getProtocol() {
+    return this.protocol;
+  }
+
+  /**
+   * @return Resource path without selectors, extension and suffix
+   */
+  public @NotNull String getPath() {
+    return this.path;
+  }
+
+  /**
+   * @return Selectors separated by dots
+   */
+  public @NotNull String getSelectors() {
+    return this.selectors;
+  }
+
+  /**
+   * @return Extension
+   */
+  public @NotNull String getExtension() {
+    return this.extension;
+  }
+
+  /**
+   * @return Suffix with leading slash
+   */
+  public @NotNull String getSuffix() {
+    return this.suffix;
+  }
+
+  @Override
+  public String toString() {
+    return requestLine;
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.Version;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Checks if an OSGi bundle is already active on the target instance in the same version, so its installation
+ * and the framework refresh triggered by it can be skipped. The bundle list is fetched from the Felix Web Console
+ * on first use and cached until {@link #invalidate()} is called. SNAPSHOT versions are only considered equal if the build timestamp (<code>Bnd-LastModified</code>
+ * header) of the installed bundle matches the local file.
+ */
+public final class ActiveBundleCheck {
+
+  static final String HEADER_BND_LAST_MODIFIED = "Bnd-LastModified";
+
+  private static final String SNAPSHOT_QUALIFIER = "SNAPSHOT";
+  private static final String MANIFEST_HEADERS_PROPERTY = "Manifest Headers";
+
+  private final InstanceHttpClient httpClient;
+  private final String consoleUrl;
+  private final String authorization;
+  private Map<String, JsonObject> activeBundles;
+  private Log log;
+
+  /**
+   * @param httpClient HTTP client
+   * @param consoleUrl Felix Web Console URL, e.g. http://localhost:4502/system/console
+   * @param authorization Value for authorization header or null
+   */
+  public ActiveBundleCheck(@NotNull InstanceHttpClient httpClient, @NotNull String consoleUrl,
+      @Nullable String authorization) {
+    this.httpClient = httpClient;
+    this.consoleUrl = consoleUrl;
+    this.authorization = authorization;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public ActiveBundleCheck logger(@NotNull Log value) {
+    this.log = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * @param file OSGi bundle JAR file
+   * @return Version of the active bundle on the target instance if it matches the given file, otherwise null
+   */
+  public @Nullable String getActiveVersion(@NotNull File file) {
+    Manifest manifest = readManifest(file);
+    if (manifest == null) {
+      return null;
+    }
+    Attributes attributes = manifest.getMainAttributes();
+    String symbolicName = StringUtils.trim(StringUtils.substringBefore(attributes.getValue("Bundle-SymbolicName"), ";"));
+    Version version = parseVersion(attributes.getValue("Bundle-Version"));
+    if (StringUtils.isEmpty(symbolicName) || version == null) {
+      return null;
+    }
+
+    JsonObject bundle = getActiveBundles().get(symbolicName);
+    if (bundle == null
+        || !InstanceStatusCheck.isActive(bundle)
+        || !version.equals(parseVersion(bundle.getString("version", null)))) {
+      return null;
+    }
+    if (StringUtils.contains(version.getQualifier(), SNAPSHOT_QUALIFIER)) {
+      String localLastModified = attributes.getValue(HEADER_BND_LAST_MODIFIED);
+      if (localLastModified == null
+          || !StringUtils.equals(localLastModified, getInstalledLastModified(bundle.getInt("id", -1)))) {
+        return null;
+      }
+    }
+    return version.toString();
+  }
+
+  /**
+   * Discards the cached bundle list, it is fetched again on the next check. Has to be called after a content package
+   * was installed, as it may have installed or updated bundles as well.
+   */
+  public void invalidate() {
+    this.activeBundles = null;
+  }
+
+  private Map<String, JsonObject> getActiveBundles() {
+    if (activeBundles == null) {
+      activeBundles = new HashMap<>();
+      String url = consoleUrl + "/bundles.json";
+      try {
+        JsonArray data = getJson(url).getJsonArray("data");
+        if (data != null) {
+          for (JsonValue item : data) {
+            if (item.getValueType() == JsonValue.ValueType.OBJECT) {
+              JsonObject bundle = item.asJsonObject();
+              activeBundles.put(bundle.getString("symbolicName", ""), bundle);
+            }
+          }
+        }
+      }
+      catch (IOException ex) {
+        getLog().warn("Unable to get bundle list from " + url + ", install all bundles: " + ex.getMessage());
+      }
+    }
+    return activeBundles;
+  }
+
+  private String getInstalledLastModified(int bundleId) {
+    if (bundleId < 0) {
+      return null;
+    }
+    String url = consoleUrl + "/bundles/" + bundleId + ".json";
+    try {
+      return getBundleHeader(getJson(url), HEADER_BND_LAST_MODIFIED);
+    }
+    catch (IOException ex) {
+      getLog().debug("Unable to get bundle details from " + url + ": " + ex.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Gets a manifest header from bundle details JSON from Felix console.
+   * @param details Bundle details JSON
+   * @param name Header name
+   * @return Header value or null
+   */
+  static @Nullable String getBundleHeader(@NotNull JsonObject details, @NotNull String name) {
+    JsonArray data = details.getJsonArray("data");
+    if (data == null || data.isEmpty() || data.get(0).getValueType() != JsonValue.ValueType.OBJECT) {
+      return null;
+    }
+    JsonArray props = data.get(0).asJsonObject().getJsonArray("props");
+    if (props == null) {
+      return null;
+    }
+    for (JsonValue prop : props) {
+      if (prop.getValueType() != JsonValue.ValueType.OBJECT
+          || !StringUtils.equals(prop.asJsonObject().getString("key", null), MANIFEST_HEADERS_PROPERTY)) {
+        continue;
+      }
+      JsonValue value = prop.asJsonObject().get("value");
+      if (value == null || value.getValueType() != JsonValue.ValueType.ARRAY) {
+        return null;
+      }
+      // header values are listed as "Name: value"
+      for (JsonValue header : value.asJsonArray()) {
+        if (header instanceof JsonString
+            && StringUtils.equals(StringUtils.substringBefore(((JsonString)header).getString(), ":"), name)) {
+          return StringUtils.trim(StringUtils.substringAfter(((JsonString)header).getString(), ":"));
+        }
+      }
+    }
+    return null;
+  }
+
+  private JsonObject getJson(String url) throws IOException {
+    String body = httpClient.get(url, authorization);
+    try (JsonReader reader = Json.createReader(new StringReader(body))) {
+      return reader.readObject();
+    }
+    catch (JsonException | IllegalStateException ex) {
+      throw new IOException("Invalid JSON response from " + url + ": " + ex.getMessage(), ex);
+    }
+  }
+
+  private Manifest readManifest(File file) {
+    try (JarFile jarFile = new JarFile(file)) {
+      return jarFile.getManifest();
+    }
+    catch (IOException ex) {
+      getLog().debug("Unable to read manifest from " + getCanonicalPath(file) + ": " + ex.getMessage());
+      return null;
+    }
+  }
+
+  private static Version parseVersion(String value) {
+    if (StringUtils.isBlank(value)) {
+      return null;
+    }
+    try {
+      return Version.parseVersion(value.trim());
+    }
+    catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Polls a status check with adaptive delays.
+ * <p>
+ * The first check is done immediately. If it is positive, polling ends without further delay. Otherwise the delay
+ * between further checks starts with a short initial delay and is increased exponentially up to a maximum delay.
+ * A random jitter is subtracted from each delay to avoid that parallel deployments poll the instances in lock step.
+ * Once the status turned positive, polling ends as soon as it was positive for the configured number of consecutive
+ * checks, or when the wait limit is reached.
+ * </p>
+ */
+public final class AdaptivePolling {
+
+  static final long DEFAULT_INITIAL_DELAY_MS = 250;
+  static final long DEFAULT_MAX_DELAY_MS = 10000;
+  static final int DEFAULT_STABLE_COUNT = 2;
+  static final double DEFAULT_MULTIPLIER = 2.0d;
+  static final double DEFAULT_JITTER = 0.5d;
+
+  private long initialDelayMs = DEFAULT_INITIAL_DELAY_MS;
+  private long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+  private int stableCount = DEFAULT_STABLE_COUNT;
+  private double multiplier = DEFAULT_MULTIPLIER;
+  private double jitter = DEFAULT_JITTER;
+  private Log log;
+
+  private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+  private LongSupplier clock = System::nanoTime;
+  private Sleeper sleeper = Thread::sleep;
+
+  /**
+   * Creates a polling strategy that checks in a fixed interval without jitter, and ends with the first positive check.
+   * @param delayMs Delay between two checks (in milliseconds)
+   * @return Polling strategy
+   */
+  public static AdaptivePolling fixedDelay(long delayMs) {
+    return new AdaptivePolling()
+        .initialDelayMs(delayMs)
+        .maxDelayMs(delayMs)
+        .multiplier(1.0d)
+        .jitter(0.0d)
+        .stableCount(1);
+  }
+
+  /**
+   * @param value Delay after the first negative check (in milliseconds).
+   * @return this
+   */
+  public AdaptivePolling initialDelayMs(long value) {
+    this.initialDelayMs = Math.max(value, 1);
+    return this;
+  }
+
+  /**
+   * @param value Maximum delay between two checks (in milliseconds).
+   * @return this
+   */
+  public AdaptivePolling maxDelayMs(long value) {
+    this.maxDelayMs = Math.max(value, 1);
+    return this;
+  }
+
+  /**
+   * @param value Number of consecutive positive checks required to consider the status as stable after a negative check.
+   * @return this
+   */
+  public AdaptivePolling stableCount(int value) {
+    this.stableCount = Math.max(value, 1);
+    return this;
+  }
+
+  /**
+   * @param value Factor the delay is multiplied with after each negative check.
+   * @return this
+   */
+  public AdaptivePolling multiplier(double value) {
+    this.multiplier = Math.max(value, 1.0d);
+    return this;
+  }
+
+  /**
+   * @param value Maximum share of the delay (0..1) that is randomly subtracted from each delay.
+   * @return this
+   */
+  public AdaptivePolling jitter(double value) {
+    this.jitter = Math.min(Math.max(value, 0.0d), 1.0d);
+    return this;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public AdaptivePolling logger(Log value) {
+    this.log = value;
+    return this;
+  }
+
+  AdaptivePolling random(DoubleSupplier value) {
+    this.random = value;
+    return this;
+  }
+
+  AdaptivePolling clock(LongSupplier nanoTime) {
+    this.clock = nanoTime;
+    return this;
+  }
+
+  AdaptivePolling sleeper(Sleeper value) {
+    this.sleeper = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * Polls the given status check until it is stable or the wait limit is reached.
+   * @param name Name of the status check used for logging
+   * @param check Status check
+   * @param waitLimitSec Maximum number of seconds to wait
+   * @return Polling result
+   */
+  public PollingResult waitFor(String name, StatusCheck check, int waitLimitSec) {
+    long startTime = clock.getAsLong();
+    long waitLimitNanos = TimeUnit.SECONDS.toNanos(Math.max(waitLimitSec, 0));
+    int checks = 0;
+    int negativeChecks = 0;
+    int positiveChecks = 0;
+    long delayTotalMs = 0;
+
+    while (true) {
+      String pendingState = executeCheck(name, check);
+      checks++;
+
+      long delayMs;
+      if (pendingState == null) {
+        positiveChecks++;
+        // no confirmation required if the status was positive from the beginning
+        if (negativeChecks == 0 || positiveChecks >= stableCount) {
+          return new PollingResult(true, checks, delayTotalMs, elapsedMs(startTime));
+        }
+        // confirm stable state with short delay
+        delayMs = applyJitter(initialDelayMs);
+      }
+      else {
+        positiveChecks = 0;
+        delayMs = getDelayMs(negativeChecks);
+        negativeChecks++;
+      }
+
+      long remainingNanos = waitLimitNanos - (clock.getAsLong() - startTime);
+      if (remainingNanos <= 0) {
+        getLog().warn(name + ": Wait limit of " + waitLimitSec + " sec reached, continue anyway.");
+        return new PollingResult(false, checks, delayTotalMs, elapsedMs(startTime));
+      }
+      delayMs = Math.min(delayMs, Math.max(TimeUnit.NANOSECONDS.toMillis(remainingNanos), 1));
+
+      if (pendingState != null) {
+        getLog().info(name + ": " + pendingState + " - wait " + delayMs + "ms (max. " + waitLimitSec + " sec) ...");
+      }
+      try {
+        sleeper.sleep(delayMs);
+      }
+      catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return new PollingResult(false, checks, delayTotalMs, elapsedMs(startTime));
+      }
+      delayTotalMs += delayMs;
+    }
+  }
+
+  private String executeCheck(String name, StatusCheck check) {
+    try {
+      return check.getPendingState();
+    }
+    catch (IOException ex) {
+      // instance may be restarting or temporarily not reachable - treat as not ready
+      getLog().debug(name + ": Status check failed: " + ex.getMessage(), ex);
+      return "Status not available (" + ex.getMessage() + ")";
+    }
+  }
+
+  private long elapsedMs(long startTime) {
+    return TimeUnit.NANOSECONDS.toMillis(clock.getAsLong() - startTime);
+  }
+
+  /**
+   * Calculates the delay after the given number of negative checks, including jitter.
+   * @param attempt Number of preceding negative checks (starting with 0)
+   * @return Delay in milliseconds
+   */
+  long getDelayMs(int attempt) {
+    double delay = initialDelayMs * Math.pow(multiplier, attempt);
+    return applyJitter((long)Math.min(delay, maxDelayMs));
+  }
+
+  private long applyJitter(long delayMs) {
+    long jitterMs = (long)(delayMs * jitter * random.getAsDouble());
+    return Math.max(delayMs - jitterMs, 1);
+  }
+
+  /**
+   * Status check to poll.
+   */
+  @FunctionalInterface
+  public interface StatusCheck {
+
+    /**
+     * @return null if the status is positive, otherwise a short description of the pending state
+     * @throws IOException If status could not be retrieved
+     */
+    String getPendingState() throws IOException;
+
+  }
+
+  /**
+   * Abstraction for sleeping between checks.
+   */
+  @FunctionalInterface
+  interface Sleeper {
+
+    void sleep(long millis) throws InterruptedException;
+
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.google.common.hash.HashCode;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+
+/**
+ * Detects installable files that have changed since they were installed, by comparing their hash codes.
+ */
+public final class ChangedFileDetector {
+
+  private final Map<File, HashCode> installedHashCodes = new HashMap<>();
+
+  /**
+   * Gets all files that were not installed yet, or have changed since they were installed.
+   * @param items Content packages and OSGi bundles in model order
+   * @return Changed files in model order
+   */
+  public @NotNull List<InstallableFile> getChangedFiles(@NotNull List<InstallableFile> items) {
+    return items.stream()
+        .filter(item -> !item.getHashCode().equals(installedHashCodes.get(item.getFile().getAbsoluteFile())))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Remembers the hash codes of installed files.
+   * @param items Installed content packages and OSGi bundles
+   */
+  public void installed(@NotNull List<InstallableFile> items) {
+    items.forEach(item -> installedHashCodes.put(item.getFile().getAbsoluteFile(), item.getHashCode()));
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jackrabbit.vault.packaging.PackageType;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jetbrains.annotations.NotNull;
+
+import io.wcm.devops.conga.plugins.aem.maven.AutoDependenciesMode;
+import io.wcm.devops.conga.plugins.aem.maven.PackageTypeValidation;
+import io.wcm.devops.conga.plugins.aem.maven.allpackage.AllPackageBuilder;
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.postprocessor.ContentPackagePropertiesPostProcessor;
+
+/**
+ * Combines consecutive content packages of a node into container packages, so they can be installed with a single
+ * upload. The container packages are built with {@link AllPackageBuilder}, the order of the packages is preserved
+ * by a dependency chain spanning all packages in the container.
+ * <p>
+ * Excluded are OSGi bundles, packages larger than the configured maximum size, packages with <code>install</code> or
+ * <code>recursive</code> set to false, packages that are not installed with <code>force</code>, packages with
+ * individual <code>delayAfterInstallSec</code> and packages without a valid package type. They are installed
+ * separately and split the sequence of combined packages. Packages without explicit <code>force</code> flag use the
+ * default force flag, if this is not set either only packages with "-SNAPSHOT" in their file name are installed with
+ * force - the same rule as applied by the package manager.
+ * </p>
+ * <p>
+ * The contained packages are put in <code>install</code> folders below <code>/apps</code> and are installed by the
+ * JCR installer, not by the package manager. On AEM 6.5 the JCR installer installs them asynchronously after the
+ * container package was installed, so the status checks and the delay after each package only apply to the
+ * container package as a whole.
+ * </p>
+ */
+public final class ContainerPackageCombiner {
+
+  /**
+   * Group name of the generated container packages.
+   */
+  public static final String CONTAINER_PACKAGE_GROUP = "conga-install";
+
+  private static final Set<String> ALLOWED_PACKAGE_TYPES = Set.of(
+      PackageType.APPLICATION.name().toLowerCase(),
+      PackageType.CONTAINER.name().toLowerCase(),
+      PackageType.CONTENT.name().toLowerCase());
+
+  private final File targetDir;
+  private final String nodeName;
+  private long maxFileSizeBytes = Long.MAX_VALUE;
+  private Boolean defaultForce;
+  private Log log;
+  private int containerPackageCount;
+  private final Set<File> containerPackageFiles = new HashSet<>();
+
+  /**
+   * @param targetDir Directory to write container packages to
+   * @param nodeName Node name, used in the container package names
+   */
+  public ContainerPackageCombiner(@NotNull File targetDir, @NotNull String nodeName) {
+    this.targetDir = targetDir;
+    this.nodeName = nodeName;
+  }
+
+  /**
+   * @param value Packages larger than this are not combined
+   * @return this
+   */
+  public ContainerPackageCombiner maxFileSizeBytes(long value) {
+    this.maxFileSizeBytes = value;
+    return this;
+  }
+
+  /**
+   * @param value Force flag for packages without explicit force flag. If null, only packages with "-SNAPSHOT" in
+   *          their file name are installed with force.
+   * @return this
+   */
+  public ContainerPackageCombiner defaultForce(Boolean value) {
+    this.defaultForce = value;
+    return this;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public ContainerPackageCombiner logger(@NotNull Log value) {
+    this.log = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * Replaces each sequence of at least two combinable content packages with a container package.
+   * @param items Content packages and OSGi bundles in install order
+   * @return Content packages and OSGi bundles in install order
+   * @throws IOException I/O exception
+   */
+  public @NotNull List<InstallableFile> combine(@NotNull List<InstallableFile> items) throws IOException {
+    List<InstallableFile> result = new ArrayList<>();
+    List<ModelContentPackageFile> combinable = new ArrayList<>();
+    for (InstallableFile item : items) {
+      if (isCombinable(item)) {
+        combinable.add((ModelContentPackageFile)item);
+      }
+      else {
+        flush(combinable, result);
+        result.add(item);
+      }
+    }
+    flush(combinable, result);
+    return result;
+  }
+
+  private void flush(List<ModelContentPackageFile> combinable, List<InstallableFile> result) throws IOException {
+    if (combinable.size() < 2) {
+      result.addAll(combinable);
+    }
+    else {
+      result.add(buildContainerPackage(combinable, ++containerPackageCount));
+    }
+    combinable.clear();
+  }
+
+  private InstallableFile buildContainerPackage(List<ModelContentPackageFile> packages, int index) throws IOException {
+    String packageName = nodeName + "-" + index;
+    File targetFile = new File(targetDir, packageName + ".zip");
+    AllPackageBuilder builder = new AllPackageBuilder(targetFile, CONTAINER_PACKAGE_GROUP, packageName)
+        .autoDependenciesMode(AutoDependenciesMode.IMMUTABLE_MUTABLE_COMBINED)
+        .packageTypeValidation(PackageTypeValidation.STRICT)
+        .logger(getLog());
+    builder.add(new ArrayList<>(packages), Collections.emptySet());
+    builder.build(null);
+
+    getLog().info("Combined " + packages.size() + " content packages to " + getCanonicalPath(targetFile));
+    Map<String, Object> fileData = Map.of(
+        "force", true,
+        "recursive", true,
+        ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of(
+            "group", CONTAINER_PACKAGE_GROUP,
+            "name", packageName,
+            "packageType", PackageType.CONTAINER.name().toLowerCase()));
+    containerPackageFiles.add(targetFile);
+    return new ModelContentPackageFile(targetFile, fileData, List.of());
+  }
+
+  /**
+   * @param item Content package or OSGi bundle returned by {@link #combine(List)}
+   * @return true if the item is a container package generated by this combiner
+   */
+  public boolean isContainerPackage(@NotNull InstallableFile item) {
+    return containerPackageFiles.contains(item.getFile());
+  }
+
+  boolean isCombinable(InstallableFile item) {
+    if (!(item instanceof ModelContentPackageFile)) {
+      return false;
+    }
+    ModelContentPackageFile pkg = (ModelContentPackageFile)item;
+    return !Boolean.FALSE.equals(pkg.getInstall())
+        && !Boolean.FALSE.equals(pkg.getRecursive())
+        // the container package is always installed with force, packages meant to be installed only once are excluded
+        && isForce(pkg)
+        && pkg.getDelayAfterInstallSec() == null
+        && pkg.getPackageType() != null
+        && ALLOWED_PACKAGE_TYPES.contains(pkg.getPackageType())
+        && pkg.getFile().length() <= maxFileSizeBytes;
+  }
+
+  private boolean isForce(ModelContentPackageFile pkg) {
+    Boolean force = pkg.getForce() != null ? pkg.getForce() : defaultForce;
+    if (force != null) {
+      return force;
+    }
+    return StringUtils.contains(pkg.getFile().getName(), "-SNAPSHOT");
+  }
+
+}
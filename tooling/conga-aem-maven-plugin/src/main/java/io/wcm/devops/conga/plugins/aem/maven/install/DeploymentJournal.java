@@ -0,0 +1,196 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import com.google.common.hash.Hashing;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Local journal of files installed successfully from a node directory to a target instance. The journal is
+ * written after each installed file, so a failed deployment can be resumed by skipping all files that were
+ * installed before and have not changed since.
+ */
+public final class DeploymentJournal {
+
+  private final File journalFile;
+  private final File nodeDirectory;
+  private final String instanceUrl;
+  private final Map<String, String> installedFiles = new LinkedHashMap<>();
+
+  /**
+   * @param journalDirectory Directory to store journal files in
+   * @param nodeDirectory Node directory
+   * @param instanceUrl Package manager URL of target instance
+   */
+  public DeploymentJournal(@NotNull File journalDirectory, @NotNull File nodeDirectory, @NotNull String instanceUrl) {
+    this.nodeDirectory = nodeDirectory;
+    this.instanceUrl = instanceUrl;
+    this.journalFile = new File(journalDirectory, getJournalFileName(nodeDirectory, instanceUrl));
+  }
+
+  /**
+   * Journal file name is derived from target instance URL and node directory.
+   * @param nodeDirectory Node directory
+   * @param instanceUrl Package manager URL of target instance
+   * @return File name
+   */
+  static String getJournalFileName(File nodeDirectory, String instanceUrl) {
+    String key = instanceUrl + "|" + getCanonicalPath(nodeDirectory);
+    return "conga-aem-install-journal-"
+        + Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString().substring(0, 16) + ".json";
+  }
+
+  /**
+   * Loads the journal of a previous deployment, if it exists.
+   * @throws IOException I/O exception
+   */
+  public void load() throws IOException {
+    installedFiles.clear();
+    if (!journalFile.exists()) {
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      JsonObject json = jsonReader.readObject();
+      // ignore journals that belong to another target (hash collision)
+      if (!StringUtils.equals(json.getString("instanceUrl", null), instanceUrl)
+          || !StringUtils.equals(json.getString("nodeDirectory", null), getCanonicalPath(nodeDirectory))) {
+        return;
+      }
+      JsonArray files = json.getJsonArray("files");
+      if (files == null) {
+        return;
+      }
+      for (JsonObject file : files.getValuesAs(JsonObject.class)) {
+        String path = file.getString("path", null);
+        String hash = file.getString("sha256", null);
+        if (path != null && hash != null) {
+          installedFiles.put(path, hash);
+        }
+      }
+    }
+    catch (JsonException | ClassCastException ex) {
+      throw new IOException("Invalid deployment journal: " + getCanonicalPath(journalFile), ex);
+    }
+  }
+
+  /**
+   * Starts a new journal, removing all entries of a previous deployment.
+   * @throws IOException I/O exception
+   */
+  public void reset() throws IOException {
+    installedFiles.clear();
+    Files.deleteIfExists(journalFile.toPath());
+  }
+
+  /**
+   * @param item Content package or OSGi bundle
+   * @return true if the file was installed before and has not changed since
+   */
+  public boolean isInstalled(@NotNull InstallableFile item) {
+    String hash = installedFiles.get(getPath(item));
+    return hash != null && StringUtils.equals(hash, item.getHashCode().toString());
+  }
+
+  /**
+   * @param items Content packages and OSGi bundles
+   * @return Files that were not installed before or have changed since
+   */
+  public @NotNull List<InstallableFile> getPendingFiles(@NotNull List<InstallableFile> items) {
+    return items.stream()
+        .filter(item -> !isInstalled(item))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Records a successfully installed file and writes the journal.
+   * @param item Content package or OSGi bundle
+   * @throws IOException I/O exception
+   */
+  public void installed(@NotNull InstallableFile item) throws IOException {
+    String path = getPath(item);
+    // keep journal in install order
+    installedFiles.remove(path);
+    installedFiles.put(path, item.getHashCode().toString());
+    write();
+  }
+
+  private void write() throws IOException {
+    JsonArrayBuilder files = Json.createArrayBuilder();
+    installedFiles.forEach((path, hash) -> files.add(Json.createObjectBuilder()
+        .add("path", path)
+        .add("sha256", hash)));
+    JsonObject json = Json.createObjectBuilder()
+        .add("instanceUrl", instanceUrl)
+        .add("nodeDirectory", getCanonicalPath(nodeDirectory))
+        .add("files", files)
+        .build();
+
+    // write to temp file first, so an interrupted deployment does not leave a corrupt journal
+    File dir = journalFile.getParentFile();
+    if (!dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Unable to create directory: " + getCanonicalPath(dir));
+    }
+    File tempFile = new File(dir, journalFile.getName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8);
+        JsonWriter jsonWriter = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true)).createWriter(writer)) {
+      jsonWriter.writeObject(json);
+    }
+    Files.move(tempFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private String getPath(InstallableFile item) {
+    return InstallMetrics.getRelativePath(nodeDirectory, item.getFile());
+  }
+
+  /**
+   * @return Journal file
+   */
+  public File getJournalFile() {
+    return this.journalFile;
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Installs OSGi bundles via the Felix Web Console, using a shared {@link InstanceHttpClient}.
+ */
+public final class FelixBundleInstaller implements BundleInstaller {
+
+  private final InstanceHttpClient httpClient;
+  private final String consoleUrl;
+  private final String authorization;
+  private int bundleStartLevel = 20;
+
+  /**
+   * @param httpClient HTTP client
+   * @param consoleUrl Felix Web Console URL, e.g. http://localhost:4502/system/console
+   * @param authorization Value for authorization header or null
+   */
+  public FelixBundleInstaller(@NotNull InstanceHttpClient httpClient, @NotNull String consoleUrl,
+      @Nullable String authorization) {
+    this.httpClient = httpClient;
+    this.consoleUrl = consoleUrl;
+    this.authorization = authorization;
+  }
+
+  /**
+   * @param value Start level of installed bundles
+   * @return this
+   */
+  public FelixBundleInstaller bundleStartLevel(int value) {
+    this.bundleStartLevel = value;
+    return this;
+  }
+
+  @Override
+  public void installBundle(File file) throws MojoExecutionException {
+    Map<String, String> fields = new LinkedHashMap<>();
+    fields.put("action", "install");
+    fields.put("_noredir_", "_noredir_");
+    fields.put("bundlestart", "start");
+    fields.put("bundlestartlevel", Integer.toString(bundleStartLevel));
+    fields.put("refreshPackages", "true");
+    try {
+      httpClient.postMultipart(consoleUrl + "/install", authorization, fields, "bundlefile", file);
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to install bundle " + getCanonicalPath(file), ex);
+    }
+  }
+
+}
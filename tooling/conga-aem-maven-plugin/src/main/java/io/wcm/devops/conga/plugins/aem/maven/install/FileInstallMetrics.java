@@ -0,0 +1,216 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Timing metrics for a single installable file.
+ */
+public final class FileInstallMetrics {
+
+  /**
+   * Type for content packages.
+   */
+  public static final String TYPE_CONTENT_PACKAGE = "content-package";
+
+  /**
+   * Type for OSGi bundles.
+   */
+  public static final String TYPE_BUNDLE = "bundle";
+
+  private final String path;
+  private final String historyKey;
+  private final String type;
+  private final long sizeBytes;
+  private final String sha256;
+
+  private boolean skipped;
+  private boolean success;
+  private long installStartNanos;
+  private boolean installRunning;
+  private long uploadInstallMs;
+  private long bundleStatusWaitMs;
+  private long installStatusWaitMs;
+  private int statusChecks;
+  private long statusDelayMs;
+
+  FileInstallMetrics(@NotNull String path, @NotNull String historyKey, @NotNull String type, long sizeBytes,
+      @Nullable String sha256) {
+    this.path = path;
+    this.historyKey = historyKey;
+    this.type = type;
+    this.sizeBytes = sizeBytes;
+    this.sha256 = sha256;
+  }
+
+  /**
+   * Marks start of upload and installation.
+   */
+  public void installStarted() {
+    this.installStartNanos = System.nanoTime();
+    this.installRunning = true;
+  }
+
+  /**
+   * Marks end of upload and installation.
+   * @param successful true if the file was installed successfully
+   */
+  public void installFinished(boolean successful) {
+    this.uploadInstallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - installStartNanos);
+    this.success = successful;
+    this.installRunning = false;
+  }
+
+  /**
+   * Marks a still running installation as failed.
+   */
+  void installAborted() {
+    if (installRunning) {
+      installFinished(false);
+    }
+  }
+
+  /**
+   * Marks file as skipped (not installed).
+   */
+  public void skipped() {
+    this.skipped = true;
+    this.success = true;
+  }
+
+  /**
+   * Adds the results of the status checks waiting for a stable instance after installing this file.
+   * @param bundleStatus Bundle status polling result
+   * @param installStatus Package manager install status polling result
+   */
+  public void addStatusWait(@NotNull PollingResult bundleStatus, @NotNull PollingResult installStatus) {
+    this.bundleStatusWaitMs += bundleStatus.getDurationMs();
+    this.installStatusWaitMs += installStatus.getDurationMs();
+    this.statusChecks += bundleStatus.getChecks() + installStatus.getChecks();
+    this.statusDelayMs += bundleStatus.getDelayMs() + installStatus.getDelayMs();
+  }
+
+  /**
+   * @return File path relative to node directory
+   */
+  public String getPath() {
+    return this.path;
+  }
+
+  /**
+   * @return Key of file in install history
+   */
+  public String getHistoryKey() {
+    return this.historyKey;
+  }
+
+  /**
+   * @return File type
+   */
+  public String getType() {
+    return this.type;
+  }
+
+  /**
+   * @return File size in bytes
+   */
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return SHA-256 hash of file
+   */
+  public @Nullable String getSha256() {
+    return this.sha256;
+  }
+
+  /**
+   * @return true if file was not installed
+   */
+  public boolean isSkipped() {
+    return this.skipped;
+  }
+
+  /**
+   * @return true if file was installed successfully
+   */
+  public boolean isSuccess() {
+    return this.success;
+  }
+
+  /**
+   * @return Duration of upload and installation including the delay after install, without the status waits
+   *         (in milliseconds)
+   */
+  public long getUploadInstallMs() {
+    return this.uploadInstallMs;
+  }
+
+  /**
+   * @return Upload throughput in bytes per second, measured over upload and installation
+   */
+  public long getThroughputBytesPerSec() {
+    if (uploadInstallMs <= 0) {
+      return 0;
+    }
+    return sizeBytes * 1000 / uploadInstallMs;
+  }
+
+  /**
+   * @return Time waited for active bundles after installation (in milliseconds)
+   */
+  public long getBundleStatusWaitMs() {
+    return this.bundleStatusWaitMs;
+  }
+
+  /**
+   * @return Time waited for finished package manager installation after installation (in milliseconds)
+   */
+  public long getInstallStatusWaitMs() {
+    return this.installStatusWaitMs;
+  }
+
+  /**
+   * @return Number of status checks after installation
+   */
+  public int getStatusChecks() {
+    return this.statusChecks;
+  }
+
+  /**
+   * @return Sum of delays between status checks after installation (in milliseconds)
+   */
+  public long getStatusDelayMs() {
+    return this.statusDelayMs;
+  }
+
+  /**
+   * @return Overall time spent for this file (in milliseconds)
+   */
+  public long getTotalMs() {
+    return uploadInstallMs + bundleStatusWaitMs + installStatusWaitMs;
+  }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Historical install timings per target instance, node and file, collected from previous installations. Used to estimate the duration
+ * of an installation. Each value is averaged over the last {@value #AVERAGE_WINDOW} installations of a file.
+ */
+public final class InstallHistory {
+
+  static final int AVERAGE_WINDOW = 5;
+  private static final String KEY_SEPARATOR = "|";
+
+  private final File historyFile;
+  private final Map<String, InstallHistoryEntry> entries = new TreeMap<>();
+
+  /**
+   * @param historyFile History file
+   */
+  public InstallHistory(@NotNull File historyFile) {
+    this.historyFile = historyFile;
+  }
+
+  /**
+   * Loads the history file, if it exists.
+   * @throws IOException I/O exception
+   */
+  public void load() throws IOException {
+    entries.clear();
+    if (!historyFile.exists()) {
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(historyFile.toPath(), StandardCharsets.UTF_8);
+        JsonReader jsonReader = Json.createReader(reader)) {
+      JsonObject files = jsonReader.readObject().getJsonObject("files");
+      if (files == null) {
+        return;
+      }
+      for (Map.Entry<String, JsonValue> file : files.entrySet()) {
+        if (file.getValue().getValueType() != JsonValue.ValueType.OBJECT) {
+          continue;
+        }
+        JsonObject item = file.getValue().asJsonObject();
+        entries.put(file.getKey(), new InstallHistoryEntry(
+            getLong(item, "count"),
+            getLong(item, "sizeBytes"),
+            getLong(item, "uploadInstallMs"),
+            getLong(item, "statusWaitMs")));
+      }
+    }
+    catch (JsonException | ClassCastException ex) {
+      throw new IOException("Invalid install history: " + getCanonicalPath(historyFile), ex);
+    }
+  }
+
+  private static long getLong(JsonObject item, String name) {
+    JsonNumber value = item.getJsonNumber(name);
+    return value != null ? value.longValue() : 0L;
+  }
+
+  /**
+   * Adds the timings of all successfully installed files.
+   * @param metrics Install metrics
+   */
+  public void record(@NotNull InstallMetrics metrics) {
+    for (FileInstallMetrics file : metrics.getFiles()) {
+      if (file.isSkipped() || !file.isSuccess()) {
+        continue;
+      }
+      record(file.getHistoryKey(), file.getSizeBytes(), file.getUploadInstallMs(),
+          file.getBundleStatusWaitMs() + file.getInstallStatusWaitMs());
+    }
+  }
+
+  void record(String key, long sizeBytes, long uploadInstallMs, long statusWaitMs) {
+    InstallHistoryEntry entry = entries.get(key);
+    if (entry == null) {
+      entry = new InstallHistoryEntry(1, sizeBytes, uploadInstallMs, statusWaitMs);
+    }
+    else {
+      entry = entry.add(sizeBytes, uploadInstallMs, statusWaitMs, AVERAGE_WINDOW);
+    }
+    entries.put(key, entry);
+  }
+
+  /**
+   * Writes the history file.
+   * @throws IOException I/O exception
+   */
+  public void write() throws IOException {
+    JsonObjectBuilder files = Json.createObjectBuilder();
+    entries.forEach((key, entry) -> files.add(key, Json.createObjectBuilder()
+        .add("count", entry.getCount())
+        .add("sizeBytes", entry.getSizeBytes())
+        .add("uploadInstallMs", entry.getUploadInstallMs())
+        .add("statusWaitMs", entry.getStatusWaitMs())));
+
+    // write to temp file first, so parallel or interrupted installations do not leave a corrupt history
+    File dir = historyFile.getAbsoluteFile().getParentFile();
+    if (!dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Unable to create directory: " + getCanonicalPath(dir));
+    }
+    Path tempFile = Files.createTempFile(dir.toPath(), historyFile.getName(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8);
+          JsonWriter jsonWriter = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true)).createWriter(writer)) {
+        jsonWriter.writeObject(Json.createObjectBuilder().add("files", files).build());
+      }
+      Files.move(tempFile, historyFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * @param instanceUrl Package manager URL of target instance
+   * @param nodeName Node name
+   * @param item Content package or OSGi bundle
+   * @return History entry for the same file installed to the same node and target instance, or null
+   */
+  public @Nullable InstallHistoryEntry get(@NotNull String instanceUrl, @NotNull String nodeName, @NotNull InstallableFile item) {
+    return entries.get(getKey(instanceUrl, nodeName, item));
+  }
+
+  /**
+   * @param instanceUrl Package manager URL of target instance
+   * @return Average throughput over all files installed to the target instance, or 0 if no history exists
+   */
+  public long getThroughputBytesPerSec(@NotNull String instanceUrl) {
+    long sizeBytes = 0;
+    long uploadInstallMs = 0;
+    for (InstallHistoryEntry entry : getEntries(instanceUrl)) {
+      sizeBytes += entry.getSizeBytes();
+      uploadInstallMs += entry.getUploadInstallMs();
+    }
+    if (uploadInstallMs <= 0) {
+      return 0;
+    }
+    return sizeBytes * 1000 / uploadInstallMs;
+  }
+
+  /**
+   * @param instanceUrl Package manager URL of target instance
+   * @return Average status wait time after installing a file over all files installed to the target instance
+   */
+  public long getStatusWaitMs(@NotNull String instanceUrl) {
+    List<InstallHistoryEntry> instanceEntries = getEntries(instanceUrl);
+    if (instanceEntries.isEmpty()) {
+      return 0;
+    }
+    return instanceEntries.stream()
+        .mapToLong(InstallHistoryEntry::getStatusWaitMs)
+        .sum() / instanceEntries.size();
+  }
+
+  private List<InstallHistoryEntry> getEntries(String instanceUrl) {
+    String keyPrefix = instanceUrl + KEY_SEPARATOR;
+    return entries.entrySet().stream()
+        .filter(entry -> StringUtils.startsWith(entry.getKey(), keyPrefix))
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return History file
+   */
+  public File getHistoryFile() {
+    return this.historyFile;
+  }
+
+  /**
+   * Builds the history key of a file: Content packages are identified by target instance, node name, package group
+   * and name, OSGi bundles and content packages without package properties by target instance, node name and file
+   * name. The version is not part of the key, so timings of previous versions are used for estimating the next
+   * version.
+   * @param instanceUrl Package manager URL of target instance
+   * @param nodeName Node name
+   * @param item Content package or OSGi bundle
+   * @return History key
+   */
+  static @NotNull String getKey(@NotNull String instanceUrl, @NotNull String nodeName, @NotNull InstallableFile item) {
+    String prefix = instanceUrl + KEY_SEPARATOR + nodeName + "/";
+    if (item instanceof ModelContentPackageFile) {
+      ModelContentPackageFile pkg = (ModelContentPackageFile)item;
+      if (StringUtils.isNotEmpty(pkg.getName())) {
+        return prefix + Objects.toString(pkg.getGroup(), "") + ":" + pkg.getName();
+      }
+    }
+    return prefix + item.getFile().getName();
+  }
+
+}
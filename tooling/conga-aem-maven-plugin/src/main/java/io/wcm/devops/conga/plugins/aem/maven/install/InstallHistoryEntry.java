@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+/**
+ * Averaged install timings of a file from previous installations.
+ */
+public final class InstallHistoryEntry {
+
+  private final long count;
+  private final long sizeBytes;
+  private final long uploadInstallMs;
+  private final long statusWaitMs;
+
+  InstallHistoryEntry(long count, long sizeBytes, long uploadInstallMs, long statusWaitMs) {
+    this.count = count;
+    this.sizeBytes = sizeBytes;
+    this.uploadInstallMs = uploadInstallMs;
+    this.statusWaitMs = statusWaitMs;
+  }
+
+  /**
+   * Adds a new measurement to the moving averages.
+   * @param newSizeBytes File size
+   * @param newUploadInstallMs Duration of upload and installation
+   * @param newStatusWaitMs Time waited for status after installation
+   * @param window Maximum number of measurements the averages are built of
+   * @return New entry
+   */
+  InstallHistoryEntry add(long newSizeBytes, long newUploadInstallMs, long newStatusWaitMs, int window) {
+    long newCount = count + 1;
+    long divisor = Math.min(newCount, window);
+    return new InstallHistoryEntry(newCount,
+        newSizeBytes,
+        uploadInstallMs + (newUploadInstallMs - uploadInstallMs) / divisor,
+        statusWaitMs + (newStatusWaitMs - statusWaitMs) / divisor);
+  }
+
+  /**
+   * @return Number of recorded installations
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * @return File size of last installation
+   */
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return Average duration of upload and installation
+   */
+  public long getUploadInstallMs() {
+    return this.uploadInstallMs;
+  }
+
+  /**
+   * @return Average time waited for bundle and package manager status after installation
+   */
+  public long getStatusWaitMs() {
+    return this.statusWaitMs;
+  }
+
+}
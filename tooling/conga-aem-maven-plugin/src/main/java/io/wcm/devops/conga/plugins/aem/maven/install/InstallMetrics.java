@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+
+/**
+ * Collects timing metrics for all files installed for a node.
+ */
+public final class InstallMetrics {
+
+  private final File nodeDirectory;
+  private final String instanceUrl;
+  private final long startTimeMillis;
+  private final long startNanos;
+  private long durationMs;
+  private FileInstallMetrics initialStatusWait;
+  private final List<FileInstallMetrics> files = new ArrayList<>();
+
+  /**
+   * @param nodeDirectory Node directory
+   * @param instanceUrl Package manager URL of target instance
+   */
+  public InstallMetrics(@NotNull File nodeDirectory, @NotNull String instanceUrl) {
+    this.nodeDirectory = nodeDirectory;
+    this.instanceUrl = instanceUrl;
+    this.startTimeMillis = System.currentTimeMillis();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts recording metrics for a file.
+   * @param item Installable file
+   * @return File metrics
+   */
+  public @NotNull FileInstallMetrics add(@NotNull InstallableFile item) {
+    String type = (item instanceof BundleFile) ? FileInstallMetrics.TYPE_BUNDLE : FileInstallMetrics.TYPE_CONTENT_PACKAGE;
+    FileInstallMetrics metrics = new FileInstallMetrics(getRelativePath(nodeDirectory, item.getFile()),
+        InstallHistory.getKey(instanceUrl, getNodeName(), item), type, item.getFile().length(), item.getHashCode().toString());
+    files.add(metrics);
+    return metrics;
+  }
+
+  /**
+   * Gets metrics to which status check results are added: The last added file, or metrics for the initial status
+   * check if no file was added yet.
+   * @return File metrics
+   */
+  public @NotNull FileInstallMetrics getCurrentStatusWait() {
+    if (!files.isEmpty()) {
+      return files.get(files.size() - 1);
+    }
+    if (initialStatusWait == null) {
+      initialStatusWait = new FileInstallMetrics("", "", "", 0, null);
+    }
+    return initialStatusWait;
+  }
+
+  /**
+   * Marks end of installation. A file installation that was started but not finished is marked as failed.
+   */
+  public void finished() {
+    files.forEach(FileInstallMetrics::installAborted);
+    this.durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * @param nodeDirectory Node directory
+   * @param file File
+   * @return Path of file relative to node directory, or absolute path if the file is outside the node directory
+   */
+  static String getRelativePath(File nodeDirectory, File file) {
+    String nodePath = StringUtils.replace(FileUtil.getCanonicalPath(nodeDirectory), "\\", "/") + "/";
+    String filePath = StringUtils.replace(FileUtil.getCanonicalPath(file), "\\", "/");
+    return StringUtils.removeStart(filePath, nodePath);
+  }
+
+  /**
+   * @return Node name
+   */
+  public String getNodeName() {
+    return nodeDirectory.getName();
+  }
+
+  /**
+   * @return Package manager URL of target instance
+   */
+  public String getInstanceUrl() {
+    return this.instanceUrl;
+  }
+
+  /**
+   * @return Start time (epoch milliseconds)
+   */
+  public long getStartTimeMillis() {
+    return this.startTimeMillis;
+  }
+
+  /**
+   * @return Overall duration (in milliseconds)
+   */
+  public long getDurationMs() {
+    return this.durationMs;
+  }
+
+  /**
+   * @return Time waited for a stable instance before installing the first file (in milliseconds)
+   */
+  public long getInitialStatusWaitMs() {
+    return initialStatusWait != null ? initialStatusWait.getTotalMs() : 0;
+  }
+
+  /**
+   * @return Metrics for all files
+   */
+  public List<FileInstallMetrics> getFiles() {
+    return Collections.unmodifiableList(files);
+  }
+
+}
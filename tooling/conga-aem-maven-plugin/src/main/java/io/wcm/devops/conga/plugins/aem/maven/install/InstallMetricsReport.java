@@ -0,0 +1,237 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Writes install timing metrics as JSON report, OpenMetrics text file and summary table.
+ */
+public final class InstallMetricsReport {
+
+  /**
+   * File name of JSON report.
+   */
+  public static final String JSON_FILE_NAME = "conga-aem-install-metrics.json";
+
+  /**
+   * File name of OpenMetrics text file.
+   */
+  public static final String OPENMETRICS_FILE_NAME = "conga-aem-install-metrics.txt";
+
+  private static final String METRIC_PREFIX = "conga_aem_install_";
+  private static final int PATH_COLUMN_MAX_LENGTH = 60;
+
+  private final InstallMetrics metrics;
+
+  /**
+   * @param metrics Install metrics
+   */
+  public InstallMetricsReport(@NotNull InstallMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Writes JSON report and OpenMetrics text file to the given directory.
+   * @param directory Target directory
+   * @return Written files
+   * @throws IOException I/O exception
+   */
+  public List<File> write(@NotNull File directory) throws IOException {
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Unable to create directory: " + getCanonicalPath(directory));
+    }
+    File jsonFile = new File(directory, JSON_FILE_NAME);
+    try (Writer writer = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8)) {
+      writeJson(writer);
+    }
+    File openMetricsFile = new File(directory, OPENMETRICS_FILE_NAME);
+    try (Writer writer = Files.newBufferedWriter(openMetricsFile.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(toOpenMetrics());
+    }
+    return List.of(jsonFile, openMetricsFile);
+  }
+
+  /**
+   * Writes JSON report.
+   * @param writer Writer
+   */
+  public void writeJson(@NotNull Writer writer) {
+    try (JsonWriter jsonWriter = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true))
+        .createWriter(writer)) {
+      jsonWriter.writeObject(toJson());
+    }
+  }
+
+  JsonObject toJson() {
+    JsonArrayBuilder files = Json.createArrayBuilder();
+    for (FileInstallMetrics file : metrics.getFiles()) {
+      JsonObjectBuilder item = Json.createObjectBuilder()
+          .add("path", file.getPath())
+          .add("type", file.getType())
+          .add("sizeBytes", file.getSizeBytes());
+      if (file.getSha256() != null) {
+        item.add("sha256", file.getSha256());
+      }
+      item.add("skipped", file.isSkipped())
+          .add("success", file.isSuccess())
+          .add("uploadInstallMs", file.getUploadInstallMs())
+          .add("throughputBytesPerSec", file.getThroughputBytesPerSec())
+          .add("bundleStatusWaitMs", file.getBundleStatusWaitMs())
+          .add("installStatusWaitMs", file.getInstallStatusWaitMs())
+          .add("statusChecks", file.getStatusChecks())
+          .add("statusDelayMs", file.getStatusDelayMs())
+          .add("totalMs", file.getTotalMs());
+      files.add(item);
+    }
+    return Json.createObjectBuilder()
+        .add("node", metrics.getNodeName())
+        .add("instanceUrl", metrics.getInstanceUrl())
+        .add("startTime", metrics.getStartTimeMillis())
+        .add("durationMs", metrics.getDurationMs())
+        .add("initialStatusWaitMs", metrics.getInitialStatusWaitMs())
+        .add("files", files)
+        .build();
+  }
+
+  /**
+   * @return Metrics in OpenMetrics text format
+   */
+  public String toOpenMetrics() {
+    StringBuilder sb = new StringBuilder();
+    String runLabels = "node=\"" + escapeLabelValue(metrics.getNodeName()) + "\""
+        + ",instance=\"" + escapeLabelValue(metrics.getInstanceUrl()) + "\"";
+
+    appendFamily(sb, "duration_seconds", "seconds", "Overall duration of package installation.");
+    appendSample(sb, "duration_seconds", runLabels, metrics.getDurationMs() / 1000d);
+    appendFamily(sb, "initial_status_wait_seconds", "seconds", "Time waited for a stable instance before installing the first file.");
+    appendSample(sb, "initial_status_wait_seconds", runLabels, metrics.getInitialStatusWaitMs() / 1000d);
+
+    appendFileFamily(sb, runLabels, "file_size_bytes", "bytes", "File size.",
+        FileInstallMetrics::getSizeBytes);
+    appendFileFamily(sb, runLabels, "upload_install_duration_seconds", "seconds", "Duration of upload and installation.",
+        file -> file.getUploadInstallMs() / 1000d);
+    appendFileFamily(sb, runLabels, "throughput_bytes_per_second", null, "Upload throughput measured over upload and installation.",
+        FileInstallMetrics::getThroughputBytesPerSec);
+    appendFileFamily(sb, runLabels, "bundle_status_wait_seconds", "seconds", "Time waited for active bundles after installation.",
+        file -> file.getBundleStatusWaitMs() / 1000d);
+    appendFileFamily(sb, runLabels, "install_status_wait_seconds", "seconds", "Time waited for finished package manager installation after installation.",
+        file -> file.getInstallStatusWaitMs() / 1000d);
+    appendFileFamily(sb, runLabels, "status_checks", null, "Number of status checks after installation.",
+        FileInstallMetrics::getStatusChecks);
+    appendFileFamily(sb, runLabels, "status_delay_seconds", "seconds", "Sum of delays between status checks after installation.",
+        file -> file.getStatusDelayMs() / 1000d);
+    appendFileFamily(sb, runLabels, "success", null, "1 if file was installed successfully or skipped, 0 otherwise.",
+        file -> file.isSuccess() ? 1 : 0);
+
+    sb.append("# EOF\n");
+    return sb.toString();
+  }
+
+  private void appendFileFamily(StringBuilder sb, String runLabels, String name, String unit, String help,
+      ToDoubleFunction<FileInstallMetrics> value) {
+    appendFamily(sb, name, unit, help);
+    for (FileInstallMetrics file : metrics.getFiles()) {
+      String labels = runLabels
+          + ",file=\"" + escapeLabelValue(file.getPath()) + "\""
+          + ",type=\"" + escapeLabelValue(file.getType()) + "\"";
+      appendSample(sb, name, labels, value.applyAsDouble(file));
+    }
+  }
+
+  private static void appendFamily(StringBuilder sb, String name, String unit, String help) {
+    sb.append("# TYPE ").append(METRIC_PREFIX).append(name).append(" gauge\n");
+    if (unit != null) {
+      sb.append("# UNIT ").append(METRIC_PREFIX).append(name).append(' ').append(unit).append('\n');
+    }
+    sb.append("# HELP ").append(METRIC_PREFIX).append(name).append(' ').append(help).append('\n');
+  }
+
+  private static void appendSample(StringBuilder sb, String name, String labels, double value) {
+    sb.append(METRIC_PREFIX).append(name).append('{').append(labels).append("} ");
+    if (value == Math.rint(value)) {
+      sb.append((long)value);
+    }
+    else {
+      sb.append(String.format(Locale.ROOT, "%.3f", value));
+    }
+    sb.append('\n');
+  }
+
+  static String escapeLabelValue(String value) {
+    return StringUtils.replaceEach(value,
+        new String[] { "\\", "\"", "\n" },
+        new String[] { "\\\\", "\\\"", "\\n" });
+  }
+
+  /**
+   * Builds a summary table with all files, sorted by overall time spent descending.
+   * @return Table lines
+   */
+  public List<String> getSummary() {
+    List<String> lines = new ArrayList<>();
+    String format = "%-" + PATH_COLUMN_MAX_LENGTH + "s %10s %12s %12s %7s %12s";
+    lines.add(String.format(Locale.ROOT, format, "File", "Size", "Upload+Inst.", "Status wait", "Checks", "Throughput"));
+    List<FileInstallMetrics> sorted = metrics.getFiles().stream()
+        .sorted(Comparator.comparingLong(FileInstallMetrics::getTotalMs).reversed())
+        .collect(Collectors.toList());
+    for (FileInstallMetrics file : sorted) {
+      lines.add(String.format(Locale.ROOT, format,
+          StringUtils.abbreviateMiddle(file.getPath(), "...", PATH_COLUMN_MAX_LENGTH),
+          FileUtils.byteCountToDisplaySize(file.getSizeBytes()),
+          file.isSkipped() ? "skipped" : formatDuration(file.getUploadInstallMs()) + (file.isSuccess() ? "" : " !"),
+          formatDuration(file.getBundleStatusWaitMs() + file.getInstallStatusWaitMs()),
+          file.getStatusChecks(),
+          file.isSkipped() ? "" : FileUtils.byteCountToDisplaySize(file.getThroughputBytesPerSec()) + "/s"));
+    }
+    lines.add(String.format(Locale.ROOT, "Total: %d files in %s (initial status wait: %s)",
+        metrics.getFiles().size(), formatDuration(metrics.getDurationMs()), formatDuration(metrics.getInitialStatusWaitMs())));
+    return lines;
+  }
+
+  private static String formatDuration(long durationMs) {
+    return String.format(Locale.ROOT, "%.1fs", durationMs / 1000d);
+  }
+
+}
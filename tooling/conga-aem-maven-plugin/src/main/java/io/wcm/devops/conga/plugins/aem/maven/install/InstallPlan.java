@@ -0,0 +1,246 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.tooling.commons.packmgr.install.PackageFile;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Installation plan of a node with effective install settings and estimated duration for each file,
+ * built without contacting the target instance.
+ */
+public final class InstallPlan {
+
+  /**
+   * File name of JSON plan.
+   */
+  public static final String JSON_FILE_NAME = "conga-aem-install-plan.json";
+
+  // defaults for files without install history
+  static final long DEFAULT_OVERHEAD_MS = 2000;
+  static final long DEFAULT_THROUGHPUT_BYTES_PER_SEC = 2 * FileUtils.ONE_MB;
+
+  private static final int PATH_COLUMN_MAX_LENGTH = 60;
+
+  private final File nodeDirectory;
+  private final String instanceUrl;
+  private final List<InstallPlanStep> steps = new ArrayList<>();
+
+  /**
+   * @param nodeDirectory Node directory
+   * @param instanceUrl Package manager URL of target instance
+   * @param items Content packages and OSGi bundles
+   * @param packageFileFactory Builds the package file with effective install options for a content package
+   * @param httpSocketTimeoutSec HTTP socket timeout used for files without individual timeout
+   * @param history Install history
+   */
+  public InstallPlan(@NotNull File nodeDirectory, @NotNull String instanceUrl, @NotNull List<InstallableFile> items,
+      @NotNull Function<ModelContentPackageFile, PackageFile> packageFileFactory, int httpSocketTimeoutSec,
+      @NotNull InstallHistory history) {
+    this.nodeDirectory = nodeDirectory;
+    this.instanceUrl = instanceUrl;
+    for (InstallableFile item : items) {
+      if (item instanceof ModelContentPackageFile) {
+        PackageFile packageFile = packageFileFactory.apply((ModelContentPackageFile)item);
+        steps.add(toStep(item, FileInstallMetrics.TYPE_CONTENT_PACKAGE, packageFile.isInstall(),
+            packageFile.isForce(), packageFile.isRecursive(), packageFile.getDelayAfterInstallSec(),
+            ObjectUtils.defaultIfNull(packageFile.getHttpSocketTimeoutSec(), httpSocketTimeoutSec), history));
+      }
+      else if (item instanceof BundleFile) {
+        Boolean install = ((BundleFile)item).getInstall();
+        steps.add(toStep(item, FileInstallMetrics.TYPE_BUNDLE, install == null || install,
+            null, null, 0, httpSocketTimeoutSec, history));
+      }
+    }
+  }
+
+  @SuppressWarnings("java:S107") // effective settings of file
+  private InstallPlanStep toStep(InstallableFile item, String type, boolean install, Boolean force, Boolean recursive,
+      int delayAfterInstallSec, int httpSocketTimeoutSec, InstallHistory history) {
+    String path = InstallMetrics.getRelativePath(nodeDirectory, item.getFile());
+    long sizeBytes = item.getFile().length();
+    long estimatedMs;
+    String estimateSource;
+    InstallHistoryEntry entry = history.get(instanceUrl, nodeDirectory.getName(), item);
+    long throughput = history.getThroughputBytesPerSec(instanceUrl);
+    if (!install) {
+      estimatedMs = 0;
+      estimateSource = InstallPlanStep.ESTIMATE_SKIPPED;
+    }
+    else if (entry != null) {
+      // measured duration already includes the delay after install
+      estimatedMs = entry.getUploadInstallMs() + entry.getStatusWaitMs();
+      estimateSource = InstallPlanStep.ESTIMATE_HISTORY;
+    }
+    else if (throughput > 0) {
+      estimatedMs = sizeBytes * 1000 / throughput + delayAfterInstallSec * 1000L + history.getStatusWaitMs(instanceUrl);
+      estimateSource = InstallPlanStep.ESTIMATE_THROUGHPUT;
+    }
+    else {
+      estimatedMs = DEFAULT_OVERHEAD_MS + sizeBytes * 1000 / DEFAULT_THROUGHPUT_BYTES_PER_SEC
+          + delayAfterInstallSec * 1000L;
+      estimateSource = InstallPlanStep.ESTIMATE_DEFAULT;
+    }
+    return new InstallPlanStep(path, type, sizeBytes, item.getHashCode().toString(), install, force, recursive,
+        delayAfterInstallSec, httpSocketTimeoutSec, estimatedMs, estimateSource);
+  }
+
+  /**
+   * @return Plan steps in install order
+   */
+  public List<InstallPlanStep> getSteps() {
+    return this.steps;
+  }
+
+  /**
+   * @return Estimated duration of whole installation
+   */
+  public long getEstimatedDurationMs() {
+    return steps.stream()
+        .mapToLong(InstallPlanStep::getEstimatedMs)
+        .sum();
+  }
+
+  /**
+   * @return Sum of delays after installation of all files that are installed
+   */
+  public long getDelayAfterInstallSec() {
+    return steps.stream()
+        .filter(InstallPlanStep::isInstall)
+        .mapToLong(InstallPlanStep::getDelayAfterInstallSec)
+        .sum();
+  }
+
+  /**
+   * Writes JSON plan to the given directory.
+   * @param directory Target directory
+   * @return Written file
+   * @throws IOException I/O exception
+   */
+  public File write(@NotNull File directory) throws IOException {
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Unable to create directory: " + getCanonicalPath(directory));
+    }
+    File jsonFile = new File(directory, JSON_FILE_NAME);
+    try (Writer writer = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8)) {
+      writeJson(writer);
+    }
+    return jsonFile;
+  }
+
+  /**
+   * Writes JSON plan.
+   * @param writer Writer
+   */
+  public void writeJson(@NotNull Writer writer) {
+    try (JsonWriter jsonWriter = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true))
+        .createWriter(writer)) {
+      jsonWriter.writeObject(toJson());
+    }
+  }
+
+  JsonObject toJson() {
+    JsonArrayBuilder files = Json.createArrayBuilder();
+    for (InstallPlanStep step : steps) {
+      JsonObjectBuilder item = Json.createObjectBuilder()
+          .add("path", step.getPath())
+          .add("type", step.getType())
+          .add("sizeBytes", step.getSizeBytes())
+          .add("sha256", step.getSha256())
+          .add("install", step.isInstall());
+      if (step.getForce() != null) {
+        item.add("force", step.getForce());
+      }
+      if (step.getRecursive() != null) {
+        item.add("recursive", step.getRecursive());
+      }
+      item.add("delayAfterInstallSec", step.getDelayAfterInstallSec())
+          .add("httpSocketTimeoutSec", step.getHttpSocketTimeoutSec())
+          .add("estimatedMs", step.getEstimatedMs())
+          .add("estimateSource", step.getEstimateSource());
+      files.add(item);
+    }
+    return Json.createObjectBuilder()
+        .add("node", nodeDirectory.getName())
+        .add("instanceUrl", instanceUrl)
+        .add("estimatedDurationMs", getEstimatedDurationMs())
+        .add("delayAfterInstallSec", getDelayAfterInstallSec())
+        .add("files", files)
+        .build();
+  }
+
+  /**
+   * Builds a table with all files in install order.
+   * @return Table lines
+   */
+  public List<String> getSummary() {
+    List<String> lines = new ArrayList<>();
+    String format = "%-" + PATH_COLUMN_MAX_LENGTH + "s %10s %-7s %-5s %-9s %6s %8s %10s %-10s";
+    lines.add(String.format(Locale.ROOT, format, "File", "Size", "Install", "Force", "Recursive", "Delay", "Timeout",
+        "Estimate", "Source"));
+    for (InstallPlanStep step : steps) {
+      lines.add(String.format(Locale.ROOT, format,
+          StringUtils.abbreviateMiddle(step.getPath(), "...", PATH_COLUMN_MAX_LENGTH),
+          FileUtils.byteCountToDisplaySize(step.getSizeBytes()),
+          step.isInstall(),
+          StringUtils.defaultString(Objects.toString(step.getForce(), null), "-"),
+          StringUtils.defaultString(Objects.toString(step.getRecursive(), null), "-"),
+          step.getDelayAfterInstallSec() + "s",
+          step.getHttpSocketTimeoutSec() + "s",
+          formatDuration(step.getEstimatedMs()),
+          step.getEstimateSource()));
+    }
+    lines.add(String.format(Locale.ROOT, "Total: %d files, estimated duration %s (thereof %ds delay after install)",
+        steps.size(), formatDuration(getEstimatedDurationMs()), getDelayAfterInstallSec()));
+    return lines;
+  }
+
+  private static String formatDuration(long durationMs) {
+    return String.format(Locale.ROOT, "%.1fs", durationMs / 1000d);
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Single file of an {@link InstallPlan} with its effective install settings and estimated duration.
+ */
+public final class InstallPlanStep {
+
+  /**
+   * Estimate is based on install history of the same file.
+   */
+  public static final String ESTIMATE_HISTORY = "history";
+
+  /**
+   * Estimate is based on file size and average throughput of all files in the install history.
+   */
+  public static final String ESTIMATE_THROUGHPUT = "throughput";
+
+  /**
+   * No install history available, estimate is based on file size and default values.
+   */
+  public static final String ESTIMATE_DEFAULT = "default";
+
+  /**
+   * File is not installed.
+   */
+  public static final String ESTIMATE_SKIPPED = "skipped";
+
+  private final String path;
+  private final String type;
+  private final long sizeBytes;
+  private final String sha256;
+  private final boolean install;
+  private final Boolean force;
+  private final Boolean recursive;
+  private final int delayAfterInstallSec;
+  private final int httpSocketTimeoutSec;
+  private final long estimatedMs;
+  private final String estimateSource;
+
+  @SuppressWarnings("java:S107") // plain value object
+  InstallPlanStep(@NotNull String path, @NotNull String type, long sizeBytes, @NotNull String sha256,
+      boolean install, @Nullable Boolean force, @Nullable Boolean recursive, int delayAfterInstallSec,
+      int httpSocketTimeoutSec, long estimatedMs, @NotNull String estimateSource) {
+    this.path = path;
+    this.type = type;
+    this.sizeBytes = sizeBytes;
+    this.sha256 = sha256;
+    this.install = install;
+    this.force = force;
+    this.recursive = recursive;
+    this.delayAfterInstallSec = delayAfterInstallSec;
+    this.httpSocketTimeoutSec = httpSocketTimeoutSec;
+    this.estimatedMs = estimatedMs;
+    this.estimateSource = estimateSource;
+  }
+
+  /**
+   * @return Path relative to node directory
+   */
+  public String getPath() {
+    return this.path;
+  }
+
+  /**
+   * @return File type
+   */
+  public String getType() {
+    return this.type;
+  }
+
+  /**
+   * @return File size
+   */
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return SHA-256 hash of file content
+   */
+  public String getSha256() {
+    return this.sha256;
+  }
+
+  /**
+   * @return true if file is installed
+   */
+  public boolean isInstall() {
+    return this.install;
+  }
+
+  /**
+   * @return Force flag for content packages, null for OSGi bundles
+   */
+  public @Nullable Boolean getForce() {
+    return this.force;
+  }
+
+  /**
+   * @return Recursive flag for content packages, null for OSGi bundles
+   */
+  public @Nullable Boolean getRecursive() {
+    return this.recursive;
+  }
+
+  /**
+   * @return Delay after installation in seconds
+   */
+  public int getDelayAfterInstallSec() {
+    return this.delayAfterInstallSec;
+  }
+
+  /**
+   * @return HTTP socket timeout in seconds
+   */
+  public int getHttpSocketTimeoutSec() {
+    return this.httpSocketTimeoutSec;
+  }
+
+  /**
+   * @return Estimated duration of installation including status wait
+   */
+  public long getEstimatedMs() {
+    return this.estimatedMs;
+  }
+
+  /**
+   * @return Source of estimate
+   */
+  public String getEstimateSource() {
+    return this.estimateSource;
+  }
+
+}
@@ -0,0 +1,282 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * HTTP client for accessing status information and installing bundles on AEM instances.
+ * <p>
+ * One instance should be shared for all requests to the same instance: Connections are pooled and kept alive, TLS
+ * sessions are reused. HTTPS requests use HTTP/2 if the target supports it (negotiated via ALPN during the TLS
+ * handshake), otherwise HTTP/1.1. Plain HTTP requests always use HTTP/1.1 - HTTP/2 would attempt an h2c upgrade for
+ * each request, including large multipart uploads.
+ * </p>
+ */
+public final class InstanceHttpClient {
+
+  private final HttpClient httpClient;
+  private final Duration requestTimeout;
+
+  /**
+   * @param connectTimeoutSec HTTP connection timeout (in seconds)
+   * @param socketTimeoutSec HTTP request timeout (in seconds)
+   * @param relaxedSSLCheck If set to true also self-signed certificates are accepted
+   * @param proxySelector Proxy selector or null if no proxies are configured
+   * @param proxyAuthenticator Authenticator for proxy authentication or null
+   */
+  public InstanceHttpClient(int connectTimeoutSec, int socketTimeoutSec, boolean relaxedSSLCheck,
+      @Nullable ProxySelector proxySelector, @Nullable Authenticator proxyAuthenticator) {
+    HttpClient.Builder builder = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(Duration.ofSeconds(connectTimeoutSec))
+        .followRedirects(HttpClient.Redirect.NORMAL);
+    if (proxySelector != null) {
+      builder.proxy(proxySelector);
+    }
+    if (proxyAuthenticator != null) {
+      builder.authenticator(proxyAuthenticator);
+    }
+    if (relaxedSSLCheck) {
+      builder.sslContext(createRelaxedSslContext());
+    }
+    this.httpClient = builder.build();
+    this.requestTimeout = Duration.ofSeconds(socketTimeoutSec);
+  }
+
+  /**
+   * Executes a GET request and returns the response body.
+   * @param url URL
+   * @param authorization Value for authorization header or null
+   * @return Response body
+   * @throws IOException If the request fails or the response status is not 200
+   */
+  public String get(String url, @Nullable String authorization) throws IOException {
+    HttpRequest.Builder request = newRequest(url)
+        .GET();
+    if (authorization != null) {
+      request.header("Authorization", authorization);
+    }
+    HttpResponse<String> response = send(request.build(), BodyHandlers.ofString(StandardCharsets.UTF_8));
+    if (response.statusCode() != 200) {
+      throw new IOException("Unexpected HTTP status " + response.statusCode() + " from " + url);
+    }
+    return response.body();
+  }
+
+  /**
+   * Executes a GET request and discards the response body, e.g. to fill caches.
+   * @param url URL
+   * @return Response with status and headers
+   * @throws IOException If the request fails
+   */
+  public HttpResponse<Void> getDiscardBody(String url) throws IOException {
+    HttpRequest request = newRequest(url)
+        .GET()
+        .build();
+    return send(request, BodyHandlers.discarding());
+  }
+
+  /**
+   * Executes a multipart form POST request with the given fields and a file. The file is streamed from disk.
+   * @param url URL
+   * @param authorization Value for authorization header or null
+   * @param fields Form fields
+   * @param fileFieldName Name of form field for file
+   * @param file File
+   * @return Response body
+   * @throws IOException If the request fails or the response status is not 2xx
+   */
+  public String postMultipart(String url, @Nullable String authorization, Map<String, String> fields,
+      String fileFieldName, File file) throws IOException {
+    String boundary = "conga-" + UUID.randomUUID();
+    StringBuilder head = new StringBuilder();
+    for (Map.Entry<String, String> field : fields.entrySet()) {
+      head.append("--").append(boundary).append("\r\n")
+          .append("Content-Disposition: form-data; name=\"").append(field.getKey()).append("\"\r\n\r\n")
+          .append(field.getValue()).append("\r\n");
+    }
+    head.append("--").append(boundary).append("\r\n")
+        .append("Content-Disposition: form-data; name=\"").append(fileFieldName)
+        .append("\"; filename=\"").append(file.getName()).append("\"\r\n")
+        .append("Content-Type: application/octet-stream\r\n\r\n");
+    byte[] headBytes = head.toString().getBytes(StandardCharsets.UTF_8);
+    byte[] tailBytes = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    long contentLength = headBytes.length + file.length() + tailBytes.length;
+
+    BodyPublisher body = BodyPublishers.fromPublisher(BodyPublishers.ofInputStream(() -> {
+      try {
+        return new SequenceInputStream(Collections.enumeration(List.of(
+            new ByteArrayInputStream(headBytes),
+            Files.newInputStream(file.toPath()),
+            new ByteArrayInputStream(tailBytes))));
+      }
+      catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }), contentLength);
+
+    HttpRequest.Builder request = newRequest(url)
+        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+        .POST(body);
+    if (authorization != null) {
+      request.header("Authorization", authorization);
+    }
+    HttpResponse<String> response = send(request.build(), BodyHandlers.ofString(StandardCharsets.UTF_8));
+    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+      throw new IOException("Unexpected HTTP status " + response.statusCode() + " from " + url);
+    }
+    return response.body();
+  }
+
+  private HttpRequest.Builder newRequest(String url) {
+    URI uri = URI.create(url);
+    return HttpRequest.newBuilder(uri)
+        .version(getVersion(uri))
+        .timeout(requestTimeout);
+  }
+
+  /**
+   * @param uri Request URI
+   * @return HTTP/2 for HTTPS requests (falls back to HTTP/1.1 if not supported by the target), HTTP/1.1 otherwise
+   */
+  static HttpClient.Version getVersion(URI uri) {
+    return StringUtils.equalsIgnoreCase(uri.getScheme(), "https") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+  }
+
+  private <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> bodyHandler) throws IOException {
+    try {
+      return httpClient.send(request, bodyHandler);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Request interrupted: " + request.uri(), ex);
+    }
+  }
+
+  /**
+   * Builds value for authorization header.
+   * @param user User name
+   * @param password Password
+   * @param oauth2AccessToken OAuth 2 access token. If set, user name and password are ignored.
+   * @return Authorization header value or null if no credentials are given
+   */
+  public static @Nullable String authorization(@Nullable String user, @Nullable String password,
+      @Nullable String oauth2AccessToken) {
+    if (StringUtils.isNotBlank(oauth2AccessToken)) {
+      return "Bearer " + oauth2AccessToken;
+    }
+    if (StringUtils.isNotBlank(user)) {
+      String credentials = user + ":" + StringUtils.defaultString(password);
+      return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+    return null;
+  }
+
+  @SuppressWarnings("java:S4423") // relaxed SSL check is only active if configured explicitly
+  private static SSLContext createRelaxedSslContext() {
+    try {
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(null, new TrustManager[] { new TrustAllTrustManager() }, new SecureRandom());
+      return sslContext;
+    }
+    catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("Unable to create SSL context.", ex);
+    }
+  }
+
+  /**
+   * Accepts all certificates and skips host name verification.
+   */
+  @SuppressWarnings("java:S4830") // relaxed SSL check is only active if configured explicitly
+  private static final class TrustAllTrustManager extends X509ExtendedTrustManager {
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) {
+      // accept all
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) {
+      // accept all
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+      // accept all
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+      // accept all
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+      // accept all
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+      // accept all
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+      return new X509Certificate[0];
+    }
+
+  }
+
+}
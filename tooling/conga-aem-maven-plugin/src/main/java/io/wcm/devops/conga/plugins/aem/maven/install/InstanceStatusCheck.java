@@ -0,0 +1,242 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.Bundle;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+
+/**
+ * Checks if an AEM instance is ready for installing further packages: All bundles are active, and the package
+ * manager has finished installing previous packages. Waits for a positive status using {@link AdaptivePolling}.
+ */
+public final class InstanceStatusCheck {
+
+  private static final int MAX_BUNDLE_NAMES_IN_MESSAGE = 3;
+
+  private final InstanceHttpClient httpClient;
+  private final AdaptivePolling polling;
+
+  private String bundleStatusUrl;
+  private String bundleStatusAuthorization;
+  private int bundleStatusWaitLimitSec;
+  private List<Pattern> bundleStatusBlacklistBundleNames = List.of();
+  private List<Pattern> bundleStatusWhitelistBundleNames = List.of();
+
+  private String installStatusUrl;
+  private String installStatusAuthorization;
+  private int installStatusWaitLimitSec;
+
+  /**
+   * @param httpClient HTTP client
+   * @param polling Polling strategy
+   */
+  public InstanceStatusCheck(@NotNull InstanceHttpClient httpClient, @NotNull AdaptivePolling polling) {
+    this.httpClient = httpClient;
+    this.polling = polling;
+  }
+
+  /**
+   * @param url Bundle status JSON URL (Felix console). If null the check is disabled.
+   * @param authorization Authorization header value
+   * @param waitLimitSec Maximum number of seconds to wait for a positive status
+   * @param blacklistBundleNames Patterns for symbolic names of bundles that are expected to be not present
+   * @param whitelistBundleNames Patterns for symbolic names of bundles that are ignored
+   * @return this
+   */
+  public InstanceStatusCheck bundleStatus(@Nullable String url, @Nullable String authorization, int waitLimitSec,
+      @NotNull Collection<String> blacklistBundleNames, @NotNull Collection<String> whitelistBundleNames) {
+    this.bundleStatusUrl = url;
+    this.bundleStatusAuthorization = authorization;
+    this.bundleStatusWaitLimitSec = waitLimitSec;
+    this.bundleStatusBlacklistBundleNames = toPatterns(blacklistBundleNames);
+    this.bundleStatusWhitelistBundleNames = toPatterns(whitelistBundleNames);
+    return this;
+  }
+
+  /**
+   * @param url Package manager install status JSON URL. If null the check is disabled.
+   * @param authorization Authorization header value
+   * @param waitLimitSec Maximum number of seconds to wait for a positive status
+   * @return this
+   */
+  public InstanceStatusCheck packageManagerInstallStatus(@Nullable String url, @Nullable String authorization,
+      int waitLimitSec) {
+    this.installStatusUrl = url;
+    this.installStatusAuthorization = authorization;
+    this.installStatusWaitLimitSec = waitLimitSec;
+    return this;
+  }
+
+  /**
+   * Waits until all bundles are active and the package manager has finished all installations.
+   * If the wait limits are reached processing continues anyway.
+   */
+  public void waitUntilReady() {
+    waitForBundlesActive();
+    waitForPackageManagerInstallFinished();
+  }
+
+  /**
+   * Waits until all bundles are active.
+   * @return Polling result
+   */
+  public PollingResult waitForBundlesActive() {
+    if (bundleStatusUrl == null) {
+      return PollingResult.SKIPPED;
+    }
+    return polling.waitFor("Bundle status", this::getBundlesPendingState, bundleStatusWaitLimitSec);
+  }
+
+  /**
+   * Waits until the package manager has finished all installations.
+   * @return Polling result
+   */
+  public PollingResult waitForPackageManagerInstallFinished() {
+    if (installStatusUrl == null) {
+      return PollingResult.SKIPPED;
+    }
+    return polling.waitFor("Package manager install status", this::getInstallPendingState, installStatusWaitLimitSec);
+  }
+
+  private String getBundlesPendingState() throws IOException {
+    JsonObject status = getJson(bundleStatusUrl, bundleStatusAuthorization);
+    return getBundlesPendingState(status, bundleStatusBlacklistBundleNames, bundleStatusWhitelistBundleNames);
+  }
+
+  private String getInstallPendingState() throws IOException {
+    JsonObject status = getJson(installStatusUrl, installStatusAuthorization);
+    return getInstallPendingState(status);
+  }
+
+  private JsonObject getJson(String url, String authorization) throws IOException {
+    String body = httpClient.get(url, authorization);
+    try (JsonReader reader = Json.createReader(new StringReader(body))) {
+      return reader.readObject();
+    }
+    catch (JsonException | IllegalStateException ex) {
+      throw new IOException("Invalid JSON response from " + url + ": " + ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Evaluates bundle status JSON from Felix console.
+   * @param status Bundle status JSON
+   * @param blacklist Patterns for symbolic names of bundles that are expected to be not present
+   * @param whitelist Patterns for symbolic names of bundles that are ignored
+   * @return null if all bundles are active, otherwise a description of the pending state
+   */
+  static @Nullable String getBundlesPendingState(@NotNull JsonObject status,
+      @NotNull List<Pattern> blacklist, @NotNull List<Pattern> whitelist) {
+    JsonArray data = status.getJsonArray("data");
+    if (data == null) {
+      return "Bundle status not available";
+    }
+    List<String> blacklistedBundles = new ArrayList<>();
+    List<String> inactiveBundles = new ArrayList<>();
+    for (JsonValue item : data) {
+      if (item.getValueType() != JsonValue.ValueType.OBJECT) {
+        continue;
+      }
+      JsonObject bundle = item.asJsonObject();
+      String symbolicName = bundle.getString("symbolicName", "");
+      if (matchesAny(symbolicName, whitelist)) {
+        continue;
+      }
+      if (matchesAny(symbolicName, blacklist)) {
+        blacklistedBundles.add(symbolicName);
+      }
+      else if (!isActive(bundle)) {
+        inactiveBundles.add(symbolicName);
+      }
+    }
+    if (!blacklistedBundles.isEmpty()) {
+      return "Installation in progress (" + toBundleNames(blacklistedBundles) + ")";
+    }
+    if (!inactiveBundles.isEmpty()) {
+      return inactiveBundles.size() + " bundles not active (" + toBundleNames(inactiveBundles) + ")";
+    }
+    return null;
+  }
+
+  static boolean isActive(JsonObject bundle) {
+    int state = bundle.getInt("stateRaw", -1);
+    if (bundle.getBoolean("fragment", false)) {
+      return state == Bundle.RESOLVED || state == Bundle.ACTIVE;
+    }
+    return state == Bundle.ACTIVE;
+  }
+
+  /**
+   * Evaluates package manager install status JSON.
+   * @param status Install status JSON
+   * @return null if the package manager has finished all installations, otherwise a description of the pending state
+   */
+  static @Nullable String getInstallPendingState(@NotNull JsonObject status) {
+    JsonObject statusObject = status.getJsonObject("status");
+    if (statusObject == null) {
+      return "Install status not available";
+    }
+    boolean finished = statusObject.getBoolean("finished", false);
+    int itemCount = statusObject.getInt("itemCount", 0);
+    if (!finished || itemCount > 0) {
+      return "Package installation in progress (" + itemCount + " items)";
+    }
+    return null;
+  }
+
+  private static List<Pattern> toPatterns(Collection<String> values) {
+    return values.stream()
+        .filter(StringUtils::isNotBlank)
+        .map(Pattern::compile)
+        .collect(Collectors.toList());
+  }
+
+  private static boolean matchesAny(String value, List<Pattern> patterns) {
+    return patterns.stream().anyMatch(pattern -> pattern.matcher(value).matches());
+  }
+
+  private static String toBundleNames(List<String> bundleNames) {
+    String names = bundleNames.stream()
+        .limit(MAX_BUNDLE_NAMES_IN_MESSAGE)
+        .collect(Collectors.joining(", "));
+    if (bundleNames.size() > MAX_BUNDLE_NAMES_IN_MESSAGE) {
+      names += ", ...";
+    }
+    return names;
+  }
+
+}
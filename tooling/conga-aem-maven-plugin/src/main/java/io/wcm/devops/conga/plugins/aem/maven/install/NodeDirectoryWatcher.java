@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Watches a node directory including all subdirectories for changes. Changes are debounced: The listener is
+ * notified once no further change was detected within the debounce time. If the node directory is deleted and
+ * re-created (e.g. by a new CONGA run), watching continues once it exists again.
+ */
+public final class NodeDirectoryWatcher {
+
+  private final Path nodeDirectory;
+  private long debounceMs = 1000;
+  private Log log;
+
+  /**
+   * @param nodeDirectory Node directory
+   */
+  public NodeDirectoryWatcher(@NotNull File nodeDirectory) {
+    this.nodeDirectory = nodeDirectory.toPath();
+  }
+
+  /**
+   * @param value Time without further changes after which the listener is notified (in milliseconds)
+   * @return this
+   */
+  public NodeDirectoryWatcher debounceMs(long value) {
+    this.debounceMs = value;
+    return this;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public NodeDirectoryWatcher logger(@NotNull Log value) {
+    this.log = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * Watches the node directory until the current thread is interrupted.
+   * @param listener Is called after each (debounced) change
+   * @throws IOException I/O exception
+   */
+  public void watch(@NotNull Runnable listener) throws IOException {
+    try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+      Map<WatchKey, Path> keys = new HashMap<>();
+      registerTree(watchService, keys, nodeDirectory);
+
+      while (!Thread.currentThread().isInterrupted()) {
+        processEvents(watchService, keys, watchService.take());
+
+        // debounce: wait until no further changes are detected
+        WatchKey key = watchService.poll(debounceMs, TimeUnit.MILLISECONDS);
+        while (key != null) {
+          processEvents(watchService, keys, key);
+          key = watchService.poll(debounceMs, TimeUnit.MILLISECONDS);
+        }
+
+        // node directory was deleted - wait until it is re-created
+        if (keys.isEmpty()) {
+          getLog().debug("Node directory removed, wait for re-creation: " + nodeDirectory);
+          waitForNodeDirectory();
+          registerTree(watchService, keys, nodeDirectory);
+        }
+
+        listener.run();
+      }
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void processEvents(WatchService watchService, Map<WatchKey, Path> keys, WatchKey key) throws IOException {
+    Path dir = keys.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (dir == null || event.kind() == OVERFLOW) {
+        continue;
+      }
+      Path child = dir.resolve((Path)event.context());
+      if (getLog().isDebugEnabled()) {
+        getLog().debug("Detected " + event.kind().name() + ": " + child);
+      }
+      // watch new subdirectories as well
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+        registerTree(watchService, keys, child);
+      }
+    }
+    if (!key.reset()) {
+      keys.remove(key);
+    }
+  }
+
+  private void waitForNodeDirectory() throws InterruptedException {
+    while (!Files.isDirectory(nodeDirectory)) {
+      Thread.sleep(debounceMs);
+    }
+    // wait for the directory content to be written
+    Thread.sleep(debounceMs);
+  }
+
+  private static void registerTree(WatchService watchService, Map<WatchKey, Path> keys, Path root) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        keys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.generator.util.FileUtil.getCanonicalPath;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.tooling.commons.packmgr.install.PackageFile;
+import io.wcm.tooling.commons.packmgr.install.PackageInstaller;
+
+/**
+ * Installs the content packages and OSGi bundles of a node in the order of the model file.
+ */
+public final class NodeInstaller {
+
+  private final PackageInstaller packageInstaller;
+  private final Function<ModelContentPackageFile, PackageFile> packageFileFactory;
+  private final BundleInstaller bundleInstaller;
+  private InstanceStatusCheck statusCheck;
+  private ActiveBundleCheck activeBundleCheck;
+  private Consumer<InstallableFile> installedListener = item -> {
+    // no listener
+  };
+  private Log log;
+
+  /**
+   * @param packageInstaller Package installer
+   * @param packageFileFactory Builds the package file with effective install options for a content package
+   * @param bundleInstaller Bundle installer
+   */
+  public NodeInstaller(@NotNull PackageInstaller packageInstaller,
+      @NotNull Function<ModelContentPackageFile, PackageFile> packageFileFactory,
+      @NotNull BundleInstaller bundleInstaller) {
+    this.packageInstaller = packageInstaller;
+    this.packageFileFactory = packageFileFactory;
+    this.bundleInstaller = bundleInstaller;
+  }
+
+  /**
+   * @param value Status check to wait for a stable instance before each file and after the last file, or null
+   * @return this
+   */
+  public NodeInstaller statusCheck(@Nullable InstanceStatusCheck value) {
+    this.statusCheck = value;
+    return this;
+  }
+
+  /**
+   * @param value Check to skip bundles that are already active in the same version, or null
+   * @return this
+   */
+  public NodeInstaller activeBundleCheck(@Nullable ActiveBundleCheck value) {
+    this.activeBundleCheck = value;
+    return this;
+  }
+
+  /**
+   * @param value Is called after each file that was installed successfully
+   * @return this
+   */
+  public NodeInstaller installedListener(@NotNull Consumer<InstallableFile> value) {
+    this.installedListener = value;
+    return this;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public NodeInstaller logger(@NotNull Log value) {
+    this.log = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * Installs all files in the given order.
+   * @param items Content packages and OSGi bundles
+   * @param metrics Metrics recorder, is marked as finished also if the installation fails
+   * @throws MojoExecutionException Mojo execution exception
+   */
+  public void install(@NotNull List<InstallableFile> items, @NotNull InstallMetrics metrics) throws MojoExecutionException {
+    try {
+      for (InstallableFile item : items) {
+        waitUntilReady(metrics);
+        FileInstallMetrics fileMetrics = metrics.add(item);
+        if (item instanceof ModelContentPackageFile) {
+          PackageFile packageFile = packageFileFactory.apply((ModelContentPackageFile)item);
+          fileMetrics.installStarted();
+          packageInstaller.installFile(packageFile);
+          fileMetrics.installFinished(true);
+          installedListener.accept(item);
+          if (activeBundleCheck != null) {
+            // package may contain bundles as well
+            activeBundleCheck.invalidate();
+          }
+        }
+        else if (item instanceof BundleFile) {
+          BundleFile bundleFile = (BundleFile)item;
+          if ((bundleFile.getInstall() != null && !bundleFile.getInstall()) || isBundleActive(bundleFile)) {
+            fileMetrics.skipped();
+          }
+          else {
+            fileMetrics.installStarted();
+            bundleInstaller.installBundle(bundleFile.getFile());
+            fileMetrics.installFinished(true);
+            installedListener.accept(item);
+          }
+        }
+        else {
+          getLog().warn("Unsupported file: " + getCanonicalPath(item.getFile()));
+          fileMetrics.skipped();
+        }
+      }
+      waitUntilReady(metrics);
+    }
+    finally {
+      metrics.finished();
+    }
+  }
+
+  private boolean isBundleActive(BundleFile bundleFile) {
+    if (activeBundleCheck == null) {
+      return false;
+    }
+    String activeVersion = activeBundleCheck.getActiveVersion(bundleFile.getFile());
+    if (activeVersion == null) {
+      return false;
+    }
+    getLog().info("Skip bundle " + bundleFile.getFile().getName() + ": Already active in version " + activeVersion);
+    return true;
+  }
+
+  private void waitUntilReady(InstallMetrics metrics) {
+    if (statusCheck != null) {
+      PollingResult bundleStatus = statusCheck.waitForBundlesActive();
+      PollingResult installStatus = statusCheck.waitForPackageManagerInstallFinished();
+      metrics.getCurrentStatusWait().addStatusWait(bundleStatus, installStatus);
+    }
+  }
+
+}
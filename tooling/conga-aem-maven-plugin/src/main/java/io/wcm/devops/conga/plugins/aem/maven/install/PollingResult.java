@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+/**
+ * Result of {@link AdaptivePolling}.
+ */
+public final class PollingResult {
+
+  /**
+   * Result for a status check that is not active.
+   */
+  static final PollingResult SKIPPED = new PollingResult(true, 0, 0, 0);
+
+  private final boolean success;
+  private final int checks;
+  private final long delayMs;
+  private final long durationMs;
+
+  PollingResult(boolean success, int checks, long delayMs, long durationMs) {
+    this.success = success;
+    this.checks = checks;
+    this.delayMs = delayMs;
+    this.durationMs = durationMs;
+  }
+
+  /**
+   * @return true if status was positive and stable before the wait limit was reached
+   */
+  public boolean isSuccess() {
+    return this.success;
+  }
+
+  /**
+   * @return Number of status checks executed
+   */
+  public int getChecks() {
+    return this.checks;
+  }
+
+  /**
+   * @return Sum of all delays between status checks (in milliseconds)
+   */
+  public long getDelayMs() {
+    return this.delayMs;
+  }
+
+  /**
+   * @return Overall duration including status checks (in milliseconds)
+   */
+  public long getDurationMs() {
+    return this.durationMs;
+  }
+
+}
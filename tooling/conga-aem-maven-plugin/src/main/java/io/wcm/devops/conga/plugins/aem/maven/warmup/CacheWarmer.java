@@ -0,0 +1,259 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.devops.conga.plugins.aem.maven.install.InstanceHttpClient;
+
+/**
+ * Requests a list of URLs to fill the dispatcher and CDN caches after a deployment and cache flush.
+ * Requests are sent concurrently, optionally limited to a maximum rate. A response counts as cache hit if the
+ * <code>X-Cache</code> header contains "HIT" (as set by most CDNs), or the <code>Age</code> header is greater than 0.
+ * <p>
+ * To warm up a single dispatcher directly, the HTTP client can be configured with
+ * {@link #getTargetProxySelector(String)}: All requests are sent to the target as to an HTTP proxy, so the request
+ * line contains the absolute URL and the dispatcher resolves the virtual host from the original host name.
+ * </p>
+ */
+public final class CacheWarmer {
+
+  private final InstanceHttpClient httpClient;
+  private int concurrency = 4;
+  private double requestsPerSecond;
+  private boolean target;
+  private Log log;
+
+  /**
+   * @param httpClient HTTP client
+   */
+  public CacheWarmer(@NotNull InstanceHttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  /**
+   * @param value Number of concurrent requests
+   * @return this
+   */
+  public CacheWarmer concurrency(int value) {
+    if (value < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1.");
+    }
+    this.concurrency = value;
+    return this;
+  }
+
+  /**
+   * @param value Maximum number of requests per second. 0 = unlimited.
+   * @return this
+   */
+  public CacheWarmer requestsPerSecond(double value) {
+    this.requestsPerSecond = value;
+    return this;
+  }
+
+  /**
+   * @param value Target URL (scheme, host and port) of a single dispatcher the requests are sent to, or null to
+   *          request the URLs as given. The HTTP client has to be configured with
+   *          {@link #getTargetProxySelector(String)} for the same target URL.
+   *          HTTPS URLs are requested via plain HTTP in this case.
+   * @return this
+   */
+  public CacheWarmer targetUrl(@Nullable String value) {
+    this.target = StringUtils.isNotBlank(value);
+    return this;
+  }
+
+  /**
+   * @param value Maven logger
+   * @return this
+   */
+  public CacheWarmer logger(@NotNull Log value) {
+    this.log = value;
+    return this;
+  }
+
+  private Log getLog() {
+    if (this.log == null) {
+      this.log = new SystemStreamLog();
+    }
+    return this.log;
+  }
+
+  /**
+   * Requests all URLs.
+   * @param urls URLs
+   * @return Result with statistics
+   */
+  public @NotNull CacheWarmupResult run(@NotNull List<String> urls) {
+    AtomicInteger successCount = new AtomicInteger();
+    AtomicInteger cacheHitCount = new AtomicInteger();
+    long[] latenciesMs = new long[urls.size()];
+    boolean[] responded = new boolean[urls.size()];
+    List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    RateLimiter rateLimiter = new RateLimiter(requestsPerSecond);
+
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, urls.size())));
+    try {
+      for (int i = 0; i < urls.size(); i++) {
+        int index = i;
+        executor.execute(() -> {
+          String url = urls.get(index);
+          try {
+            rateLimiter.acquire();
+            long requestStart = System.nanoTime();
+            HttpResponse<Void> response = httpClient.getDiscardBody(toRequestUrl(url));
+            latenciesMs[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStart);
+            responded[index] = true;
+            if (isCacheHit(response)) {
+              cacheHitCount.incrementAndGet();
+            }
+            if (response.statusCode() < 400) {
+              successCount.incrementAndGet();
+            }
+            else {
+              failures.add(url + ": HTTP " + response.statusCode());
+            }
+          }
+          catch (IOException | IllegalArgumentException ex) {
+            failures.add(url + ": " + ex.getMessage());
+          }
+          catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failures.add(url + ": Interrupted");
+          }
+        });
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+    awaitTermination(executor);
+    long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // only responses are included in latency statistics
+    int responseCount = 0;
+    for (boolean value : responded) {
+      if (value) {
+        responseCount++;
+      }
+    }
+    long[] responseLatenciesMs = new long[responseCount];
+    int pos = 0;
+    for (int i = 0; i < latenciesMs.length; i++) {
+      if (responded[i]) {
+        responseLatenciesMs[pos++] = latenciesMs[i];
+      }
+    }
+    CacheWarmupResult result = new CacheWarmupResult(urls.size(), successCount.get(), cacheHitCount.get(),
+        durationMs, responseLatenciesMs, new ArrayList<>(failures));
+    failures.forEach(failure -> getLog().warn("Cache warm-up request failed: " + failure));
+    return result;
+  }
+
+  private void awaitTermination(ExecutorService executor) {
+    try {
+      while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+        getLog().debug("Waiting for cache warm-up requests to complete...");
+      }
+    }
+    catch (InterruptedException ex) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  String toRequestUrl(String url) {
+    // the dispatcher is addressed as HTTP proxy, which does not support tunneling HTTPS requests
+    if (target && StringUtils.startsWithIgnoreCase(url, "https://")) {
+      return "http://" + url.substring("https://".length());
+    }
+    return url;
+  }
+
+  /**
+   * Builds a proxy selector that routes all requests to the given target, keeping the host name of the
+   * requested URLs in the request line and the <code>Host</code> header.
+   * @param targetUrl Target URL (scheme, host and port) of a single dispatcher, only HTTP is supported
+   * @return Proxy selector
+   */
+  public static @NotNull ProxySelector getTargetProxySelector(@NotNull String targetUrl) {
+    URI uri = URI.create(StringUtils.trim(targetUrl));
+    if (!StringUtils.equalsIgnoreCase(uri.getScheme(), "http") || StringUtils.isEmpty(uri.getHost())) {
+      throw new IllegalArgumentException("Target URL must be an HTTP URL with host name: " + targetUrl);
+    }
+    int port = uri.getPort() > 0 ? uri.getPort() : 80;
+    return ProxySelector.of(new InetSocketAddress(uri.getHost(), port));
+  }
+
+  static boolean isCacheHit(HttpResponse<?> response) {
+    if (StringUtils.containsIgnoreCase(response.headers().firstValue("X-Cache").orElse(null), "HIT")) {
+      return true;
+    }
+    String age = response.headers().firstValue("Age").orElse(null);
+    return StringUtils.isNumeric(age) && Long.parseLong(age) > 0;
+  }
+
+  /**
+   * Spaces out requests evenly to stay below the maximum request rate.
+   */
+  private static final class RateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+
+    RateLimiter(double requestsPerSecond) {
+      this.intervalNanos = requestsPerSecond > 0 ? (long)(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+    }
+
+    void acquire() throws InterruptedException {
+      if (intervalNanos == 0) {
+        return;
+      }
+      long now = System.nanoTime();
+      long slot = nextSlotNanos.getAndUpdate(next -> Math.max(next, now) + intervalNanos);
+      long waitNanos = slot - now;
+      if (waitNanos > 0) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+    }
+
+  }
+
+}
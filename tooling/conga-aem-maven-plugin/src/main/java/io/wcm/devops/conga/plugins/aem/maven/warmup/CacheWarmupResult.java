@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Result of a cache warm-up run with cache-hit and latency statistics.
+ */
+public final class CacheWarmupResult {
+
+  private final int requestCount;
+  private final int successCount;
+  private final int cacheHitCount;
+  private final long durationMs;
+  private final long[] sortedLatenciesMs;
+  private final List<String> failures;
+
+  CacheWarmupResult(int requestCount, int successCount, int cacheHitCount, long durationMs,
+      long[] latenciesMs, List<String> failures) {
+    this.requestCount = requestCount;
+    this.successCount = successCount;
+    this.cacheHitCount = cacheHitCount;
+    this.durationMs = durationMs;
+    this.sortedLatenciesMs = latenciesMs.clone();
+    Arrays.sort(this.sortedLatenciesMs);
+    this.failures = Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * @return Number of requested URLs
+   */
+  public int getRequestCount() {
+    return this.requestCount;
+  }
+
+  /**
+   * @return Number of requests with HTTP status 2xx or 3xx
+   */
+  public int getSuccessCount() {
+    return this.successCount;
+  }
+
+  /**
+   * @return Number of failed requests (HTTP status 4xx, 5xx or I/O errors)
+   */
+  public int getFailureCount() {
+    return this.requestCount - this.successCount;
+  }
+
+  /**
+   * @return Number of responses that were served from a cache
+   */
+  public int getCacheHitCount() {
+    return this.cacheHitCount;
+  }
+
+  /**
+   * @return Cache hit ratio of all responses between 0 and 1
+   */
+  public double getCacheHitRatio() {
+    return sortedLatenciesMs.length > 0 ? (double)cacheHitCount / sortedLatenciesMs.length : 0d;
+  }
+
+  /**
+   * @return Total duration of the warm-up run in milliseconds
+   */
+  public long getDurationMs() {
+    return this.durationMs;
+  }
+
+  /**
+   * @param percentile Percentile between 0 and 100
+   * @return Latency of responses at the given percentile in milliseconds (nearest rank), 0 if there were no responses
+   */
+  public long getLatencyMs(double percentile) {
+    if (sortedLatenciesMs.length == 0) {
+      return 0;
+    }
+    int rank = (int)Math.ceil(percentile / 100d * sortedLatenciesMs.length);
+    return sortedLatenciesMs[Math.max(0, Math.min(sortedLatenciesMs.length - 1, rank - 1))];
+  }
+
+  /**
+   * @return Average latency of responses in milliseconds, 0 if there were no responses
+   */
+  public long getAverageLatencyMs() {
+    return sortedLatenciesMs.length > 0 ? Math.round(Arrays.stream(sortedLatenciesMs).average().orElse(0)) : 0;
+  }
+
+  /**
+   * @return Failed URLs with HTTP status or error message
+   */
+  public @NotNull List<String> getFailures() {
+    return this.failures;
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class DispatcherConfigArchiveTest {
+
+  private DispatcherConfigArchive underTest;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    File zipFile = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName() + ".zip");
+    zipFile.getParentFile().mkdirs();
+    try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(zipFile)) {
+      addFile(zip, "conf.dispatcher.d/available_farms/author.farm", "/authorfarm {}");
+      addFile(zip, "conf.dispatcher.d/available_farms/publish.farm", "/publishfarm {}");
+      addSymlink(zip, "conf.dispatcher.d/enabled_farms/publish.farm", "../available_farms/publish.farm");
+      addSymlink(zip, "conf.dispatcher.d/enabled_farms/missing.farm", "../available_farms/missing.farm");
+    }
+    underTest = DispatcherConfigArchive.read(zipFile);
+  }
+
+  @Test
+  void testRead() {
+    assertEquals(Set.of("conf.dispatcher.d/available_farms/author.farm",
+        "conf.dispatcher.d/available_farms/publish.farm",
+        "conf.dispatcher.d/enabled_farms/missing.farm",
+        "conf.dispatcher.d/enabled_farms/publish.farm"), underTest.getPaths());
+
+    assertFalse(underTest.isSymlink("conf.dispatcher.d/available_farms/publish.farm"));
+    assertTrue(underTest.isSymlink("conf.dispatcher.d/enabled_farms/publish.farm"));
+    assertEquals("/publishfarm {}", underTest.getContentAsString("conf.dispatcher.d/enabled_farms/publish.farm"));
+    assertNull(underTest.getContentAsString("conf.dispatcher.d/enabled_farms/missing.farm"));
+    assertNull(underTest.getContentAsString("conf.dispatcher.d/dispatcher.any"));
+  }
+
+  @Test
+  void testGlob() {
+    assertEquals(List.of("conf.dispatcher.d/available_farms/author.farm", "conf.dispatcher.d/available_farms/publish.farm"),
+        underTest.glob("conf.dispatcher.d/available_farms/*.farm"));
+    assertEquals(List.of(), underTest.glob("conf.dispatcher.d/*.farm"));
+    assertEquals(List.of("conf.dispatcher.d/available_farms/publish.farm"),
+        underTest.glob("conf.dispatcher.d/available_farms/[p-z]*.farm"));
+  }
+
+  @Test
+  void testIsGlob() {
+    assertTrue(DispatcherConfigArchive.isGlob("enabled_farms/*.farm"));
+    assertTrue(DispatcherConfigArchive.isGlob("enabled_farms/publish?.farm"));
+    assertTrue(DispatcherConfigArchive.isGlob("enabled_farms/[a-z].farm"));
+    assertFalse(DispatcherConfigArchive.isGlob("enabled_farms/publish.farm"));
+  }
+
+  @Test
+  void testResolve() {
+    assertEquals("conf.dispatcher.d/filters/filters.any",
+        DispatcherConfigArchive.resolve("conf.dispatcher.d/enabled_farms/publish.farm", "../filters/filters.any"));
+    assertEquals("conf.dispatcher.d/enabled_farms/*.farm",
+        DispatcherConfigArchive.resolve("conf.dispatcher.d/dispatcher.any", "enabled_farms/*.farm"));
+    assertNull(DispatcherConfigArchive.resolve("dispatcher.any", "../../outside.any"));
+  }
+
+  private static void addFile(ZipArchiveOutputStream zip, String path, String content) throws IOException {
+    zip.putArchiveEntry(new ZipArchiveEntry(path));
+    zip.write(content.getBytes(StandardCharsets.UTF_8));
+    zip.closeArchiveEntry();
+  }
+
+  private static void addSymlink(ZipArchiveOutputStream zip, String path, String target) throws IOException {
+    ZipArchiveEntry entry = new ZipArchiveEntry(path);
+    entry.setUnixMode(UnixStat.LINK_FLAG | UnixStat.DEFAULT_LINK_PERM);
+    zip.putArchiveEntry(entry);
+    zip.write(target.getBytes(StandardCharsets.UTF_8));
+    zip.closeArchiveEntry();
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class DispatcherConfigScannerTest {
+
+  private File nodeDir;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    nodeDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName()).getAbsoluteFile();
+    FileUtils.deleteDirectory(nodeDir);
+    write("model.yaml");
+    write("conf.d/available_vhosts/default.vhost");
+    write("conf.d/rewrites/rewrite.rules");
+    write("conf.d/rewrites/model.yaml");
+    write("conf.dispatcher.d/filters/filters.any");
+  }
+
+  @Test
+  void testScan() throws IOException {
+    List<DispatcherConfigEntry> entries = new DispatcherConfigScanner(nodeDir, Set.of("model.yaml")).scan();
+
+    // model file is excluded only in root directory
+    assertEquals(List.of(
+        "conf.d/available_vhosts/default.vhost",
+        "conf.d/rewrites/model.yaml",
+        "conf.d/rewrites/rewrite.rules",
+        "conf.dispatcher.d/filters/filters.any"),
+        toPaths(entries));
+    assertEquals(new File(nodeDir, "conf.d/available_vhosts/default.vhost"), entries.get(0).getFile());
+  }
+
+  @Test
+  void testScan_Symlinks() throws IOException {
+    assumeTrue(createSymlink("conf.d/enabled_vhosts/default.vhost", "../available_vhosts/default.vhost"));
+    // symlink to parent directory must not result in endless recursion
+    assumeTrue(createSymlink("conf.d/rewrites/loop", ".."));
+
+    List<DispatcherConfigEntry> entries = new DispatcherConfigScanner(nodeDir, Set.of("model.yaml")).scan();
+
+    assertEquals(List.of(
+        "conf.d/available_vhosts/default.vhost",
+        "conf.d/enabled_vhosts/default.vhost",
+        "conf.d/rewrites/model.yaml",
+        "conf.d/rewrites/rewrite.rules",
+        "conf.dispatcher.d/filters/filters.any"),
+        toPaths(entries));
+    DispatcherConfigEntry symlink = entries.get(1);
+    assertTrue(symlink.isSymlink());
+    assertEquals("../available_vhosts/default.vhost", symlink.getSymlinkTarget());
+  }
+
+  @Test
+  void testFingerprint() throws IOException {
+    DispatcherConfigScanner underTest = new DispatcherConfigScanner(nodeDir, Set.of("model.yaml"));
+    String fingerprint = DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-01T00:00:00Z");
+
+    assertEquals(fingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-01T00:00:00Z"));
+    assertNotEquals(fingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-02T00:00:00Z"));
+
+    // excluded file does not affect fingerprint
+    FileUtils.writeStringToFile(new File(nodeDir, "model.yaml"), "changed", StandardCharsets.UTF_8);
+    assertEquals(fingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-01T00:00:00Z"));
+
+    FileUtils.writeStringToFile(new File(nodeDir, "conf.d/rewrites/rewrite.rules"), "changed", StandardCharsets.UTF_8);
+    String changedFingerprint = DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-01T00:00:00Z");
+    assertNotEquals(fingerprint, changedFingerprint);
+
+    write("conf.d/rewrites/new.rules");
+    assertNotEquals(changedFingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan(), "2024-01-01T00:00:00Z"));
+  }
+
+  @Test
+  void testFingerprint_Content() throws IOException {
+    DispatcherConfigScanner underTest = new DispatcherConfigScanner(nodeDir, Set.of("model.yaml"));
+    File file = new File(nodeDir, "conf.d/rewrites/rewrite.rules");
+    long lastModified = file.lastModified();
+    String fingerprint = DispatcherConfigScanner.getFingerprint(underTest.scan());
+
+    // modification date only does not affect fingerprint
+    assertTrue(file.setLastModified(lastModified - 60000));
+    assertEquals(fingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan()));
+
+    // content change with same size and modification date
+    String content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(file, StringUtils.swapCase(content), StandardCharsets.UTF_8);
+    assertTrue(file.setLastModified(lastModified - 60000));
+    assertNotEquals(fingerprint, DispatcherConfigScanner.getFingerprint(underTest.scan()));
+  }
+
+  private void write(String path) throws IOException {
+    FileUtils.writeStringToFile(new File(nodeDir, path), path, StandardCharsets.UTF_8);
+  }
+
+  private boolean createSymlink(String path, String target) {
+    Path link = new File(nodeDir, path).toPath();
+    try {
+      Files.createDirectories(link.getParent());
+      Files.createSymbolicLink(link, Path.of(target));
+      return true;
+    }
+    catch (IOException | UnsupportedOperationException ex) {
+      // symlinks not supported on this platform
+      return false;
+    }
+  }
+
+  private static List<String> toPaths(List<DispatcherConfigEntry> entries) {
+    return entries.stream()
+        .map(DispatcherConfigEntry::getPath)
+        .collect(Collectors.toList());
+  }
+
+}
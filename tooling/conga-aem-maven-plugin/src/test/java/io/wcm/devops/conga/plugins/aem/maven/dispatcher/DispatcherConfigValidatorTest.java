@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class DispatcherConfigValidatorTest {
+
+  // same syntax as the immutable dispatcher.any of the AEM as a Cloud Service dispatcher SDK
+  private static final String DISPATCHER_ANY = "/farms {\n"
+      + "  $include \"enabled_farms/*.farm\"\n"
+      + "}\n";
+
+  private static final String PUBLISH_FARM = "/publishfarm {\n"
+      + "  /clientheaders { $include \"../clientheaders/clientheaders.any\" }\n"
+      + "  /virtualhosts { $include \"../virtualhosts/virtualhosts.any\" }\n"
+      + "  /renders { $include \"../renders/default_renders.any\" }\n"
+      + "  /filter { $include \"../filters/filters.any\" }\n"
+      + "  /cache {\n"
+      + "    /docroot \"${DOCROOT}\"\n"
+      + "    /rules { $include \"../cache/rules.any\" }\n"
+      + "  }\n"
+      + "}\n";
+
+  private Map<String, String> files;
+  private Map<String, String> symlinks;
+
+  @BeforeEach
+  void setUp() {
+    files = new LinkedHashMap<>();
+    files.put("conf.dispatcher.d/dispatcher.any", DISPATCHER_ANY);
+    files.put("conf.dispatcher.d/available_farms/publish.farm", PUBLISH_FARM);
+    files.put("conf.dispatcher.d/clientheaders/clientheaders.any", "\"*\"\n");
+    files.put("conf.dispatcher.d/virtualhosts/virtualhosts.any", "\"*\"\n");
+    files.put("conf.dispatcher.d/renders/default_renders.any", "/0 { /hostname \"${AEM_HOST}\" /port \"${AEM_PORT}\" }\n");
+    files.put("conf.dispatcher.d/filters/filters.any", "/0001 { /type \"deny\" /url \"*\" }\n");
+    files.put("conf.dispatcher.d/cache/rules.any", "/0000 { /glob \"*\" /type 'deny' }\n");
+    files.put("conf.d/available_vhosts/default.vhost", "<VirtualHost *:80>\n</VirtualHost>\n");
+    symlinks = new LinkedHashMap<>();
+    symlinks.put("conf.dispatcher.d/enabled_farms/publish.farm", "../available_farms/publish.farm");
+  }
+
+  @Test
+  void testValid() throws IOException {
+    assertEquals(List.of(), validate(null));
+  }
+
+  @Test
+  void testInvalidSyntax() throws IOException {
+    files.put("conf.dispatcher.d/filters/filters.any", "/0001 { /type \"deny\" /url \"*\" \n");
+    List<String> problems = validate(null);
+    assertEquals(1, problems.size());
+    assertEquals(true, problems.get(0).startsWith("conf.dispatcher.d/filters/filters.any: ANY file is not valid"), problems.get(0));
+  }
+
+  @Test
+  void testUnresolvedInclude() throws IOException {
+    files.remove("conf.dispatcher.d/cache/rules.any");
+    assertEquals(List.of("conf.dispatcher.d/enabled_farms/publish.farm: Unresolved include: ../cache/rules.any"),
+        validate(null));
+  }
+
+  @Test
+  void testMissingFarmSection() throws IOException {
+    files.put("conf.dispatcher.d/available_farms/publish.farm", PUBLISH_FARM.replace("/filter {", "/filters {"));
+    assertEquals(List.of("conf.dispatcher.d/enabled_farms/publish.farm: Farm /publishfarm has no /filter section"),
+        validate(null));
+  }
+
+  @Test
+  void testNoFarms() throws IOException {
+    symlinks.clear();
+    assertEquals(List.of("conf.dispatcher.d/dispatcher.any: No farms defined"), validate(null));
+  }
+
+  @Test
+  void testIncludeGlob() throws IOException {
+    files.put("conf.dispatcher.d/dispatcher.any", DISPATCHER_ANY.replace("$include", "$include_glob"));
+    assertEquals(List.of(), validate(null));
+  }
+
+  @Test
+  void testSymlinkedFarmInZip(TestInfo testInfo) throws IOException {
+    File zipFile = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName() + ".zip");
+    zipFile.getParentFile().mkdirs();
+    try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(zipFile)) {
+      for (Map.Entry<String, String> file : files.entrySet()) {
+        zip.putArchiveEntry(new ZipArchiveEntry(file.getKey()));
+        zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+        zip.closeArchiveEntry();
+      }
+      ZipArchiveEntry symlink = new ZipArchiveEntry("conf.dispatcher.d/enabled_farms/publish.farm");
+      symlink.setUnixMode(UnixStat.LINK_FLAG | UnixStat.DEFAULT_LINK_PERM);
+      zip.putArchiveEntry(symlink);
+      zip.write("../available_farms/publish.farm".getBytes(StandardCharsets.UTF_8));
+      zip.closeArchiveEntry();
+    }
+
+    DispatcherConfigArchive archive = DispatcherConfigArchive.read(zipFile);
+    assertEquals(List.of(), new DispatcherConfigValidator(archive).validate());
+  }
+
+  @Test
+  void testImmutableFiles(TestInfo testInfo) throws IOException {
+    File sdkDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(sdkDir);
+    FileUtils.writeStringToFile(new File(sdkDir, "conf.dispatcher.d/dispatcher.any"),
+        DISPATCHER_ANY.replace("\n", "\r\n"), StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(sdkDir, "conf.d/available_vhosts/default.vhost"),
+        "<VirtualHost *:80>\n  # original\n</VirtualHost>\n", StandardCharsets.UTF_8);
+
+    assertEquals(List.of("conf.d/available_vhosts/default.vhost: Immutable file was modified"), validate(sdkDir));
+  }
+
+  private List<String> validate(File immutableFilesDirectory) throws IOException {
+    Map<String, byte[]> content = new LinkedHashMap<>();
+    files.forEach((path, value) -> content.put(path, value.getBytes(StandardCharsets.UTF_8)));
+    DispatcherConfigArchive archive = new DispatcherConfigArchive(content, symlinks);
+    return new DispatcherConfigValidator(archive)
+        .immutableFilesDirectory(immutableFilesDirectory)
+        .validate();
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterDecision.ALLOW;
+import static io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterDecision.DENY;
+import static io.wcm.devops.conga.plugins.aem.maven.dispatcher.DispatcherFilterDecision.NO_MATCH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DispatcherFilterEngineTest {
+
+  @Test
+  void testFromDefinitions() {
+    DispatcherFilterEngine underTest = DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "deny", "url", ".*"),
+        Map.of("type", "allow", "method", "GET", "path", "/content/.*", "extension", "(html|json)"),
+        Map.of("type", "deny", "selectors", "(feed|rss|infinity|tidy)"),
+        Map.of("type", "deny", "glob", "GET /content/.*\\.json .*")));
+
+    assertEquals(ALLOW, underTest.evaluate("GET /content/page.html HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("POST /content/page.html HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("GET /content/page.infinity.html HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("GET /content/page.model.json HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("GET /bin/querybuilder.json HTTP/1.1"));
+    assertEquals("2", underTest.getMatchingRule(DispatcherRequest.parse("GET /content/page.tidy.html HTTP/1.1")).getName());
+  }
+
+  @Test
+  void testNoMatch() {
+    DispatcherFilterEngine underTest = DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "allow", "path", "/content/.*")));
+    assertEquals(ALLOW, underTest.evaluate("GET /content/page.html HTTP/1.1"));
+    assertEquals(NO_MATCH, underTest.evaluate("GET /libs/page.html HTTP/1.1"));
+  }
+
+  @Test
+  @SuppressWarnings("java:S5778")
+  void testInvalidDefinitions() {
+    assertThrows(IllegalArgumentException.class, () -> DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "allow"))));
+    assertThrows(IllegalArgumentException.class, () -> DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "other", "url", "/abc"))));
+    assertThrows(IllegalArgumentException.class, () -> DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "allow", "unknown", "/abc"))));
+    assertThrows(IllegalArgumentException.class, () -> DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "allow", "url", "(abc"))));
+  }
+
+  @Test
+  void testFromAny() {
+    String filters = "/0001 { /type \"deny\" /glob \"*\" }\n"
+        + "/0002 { /type \"allow\" /path \"/content/*\" /extension '(html|json)' }\n"
+        + "/0003 { /type \"deny\" /selectors '(infinity|tidy)' }\n"
+        + "/0004 { /type \"allow\" /url \"/etc.clientlibs/*\" }\n";
+    DispatcherConfigArchive archive = new DispatcherConfigArchive(
+        Map.of("filters.any", filters.getBytes(StandardCharsets.UTF_8)), Map.of());
+    DispatcherFilterEngine underTest = DispatcherFilterEngine.fromAny(new AnyTreeReader(archive).read("filters.any"));
+
+    assertEquals(4, underTest.getRules().size());
+    assertEquals(DENY, underTest.evaluate("GET /libs/page.html HTTP/1.1"));
+    assertEquals(ALLOW, underTest.evaluate("GET /content/page.html HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("GET /content/page.xml HTTP/1.1"));
+    assertEquals(DENY, underTest.evaluate("GET /content/page.infinity.json HTTP/1.1"));
+    assertEquals(ALLOW, underTest.evaluate("GET /etc.clientlibs/app/site.min.js HTTP/1.1"));
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class DispatcherFilterSimulationTest {
+
+  private static final List<String> REQUESTS = List.of(
+      "GET /content/page.html HTTP/1.1",
+      "GET /content/page.json HTTP/1.1",
+      "GET /content/page.infinity.json HTTP/1.1",
+      "POST /content/page.html HTTP/1.1",
+      "127.0.0.1 - - [10/Oct/2024:13:55:36 +0000] \"GET /content/other.html HTTP/1.1\" 200 2326",
+      "invalid");
+
+  private static final DispatcherFilterEngine ENGINE = DispatcherFilterEngine.fromDefinitions(List.of(
+      Map.of("type", "deny", "url", ".*"),
+      Map.of("type", "allow", "method", "GET", "path", "/content/.*", "extension", "(html|json)"),
+      Map.of("type", "deny", "selectors", "infinity")));
+
+  @Test
+  void testRun(TestInfo testInfo) throws IOException {
+    File requestsFile = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName() + ".log");
+    FileUtils.writeLines(requestsFile, StandardCharsets.UTF_8.name(), REQUESTS);
+
+    DispatcherFilterSimulationResult result = new DispatcherFilterSimulation()
+        .add("farm1", ENGINE, null)
+        .run(requestsFile.toPath()).get("farm1");
+    assertEquals(5, result.getRequestCount());
+    assertEquals(3, result.getAllowedCount());
+    assertEquals(2, result.getDeniedCount());
+    assertEquals(0, result.getNoMatchCount());
+    assertEquals(1, result.getInvalidCount());
+    assertEquals(0, result.getDifferenceCount());
+  }
+
+  @Test
+  void testRunSdkLayoutZip(TestInfo testInfo) throws IOException {
+    File zipFile = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName() + ".zip");
+    zipFile.getParentFile().mkdirs();
+    try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(zipFile)) {
+      addFile(zip, "conf.dispatcher.d/dispatcher.any", "/farms {\n  $include \"enabled_farms/*.farm\"\n}\n");
+      addFile(zip, "conf.dispatcher.d/available_farms/publish.farm",
+          "/publishfarm {\n  /filter { $include \"../filters/filters.any\" }\n}\n");
+      addFile(zip, "conf.dispatcher.d/filters/filters.any", "/0001 { /type \"deny\" /url \"*\" }\n"
+          + "/0002 { /type \"allow\" /method \"GET\" /path \"/content/*\" /extension '(html|json)' }\n"
+          + "/0003 { /type \"deny\" /selectors 'infinity' }\n");
+      ZipArchiveEntry symlink = new ZipArchiveEntry("conf.dispatcher.d/enabled_farms/publish.farm");
+      symlink.setUnixMode(UnixStat.LINK_FLAG | UnixStat.DEFAULT_LINK_PERM);
+      zip.putArchiveEntry(symlink);
+      zip.write("../available_farms/publish.farm".getBytes(StandardCharsets.UTF_8));
+      zip.closeArchiveEntry();
+    }
+
+    Map<String, DispatcherFilterEngine> engines = DispatcherFilterEngine.fromDispatcherConfig(DispatcherConfigArchive.read(zipFile));
+    assertEquals(List.of("publishfarm"), List.copyOf(engines.keySet()));
+
+    DispatcherFilterSimulationResult result = new DispatcherFilterSimulation()
+        .add("publishfarm", engines.get("publishfarm"), ENGINE)
+        .run(REQUESTS.stream()).get("publishfarm");
+    assertEquals(3, result.getAllowedCount());
+    assertEquals(2, result.getDeniedCount());
+    assertEquals(0, result.getDifferenceCount());
+  }
+
+  @Test
+  void testCompareWithReference() {
+    DispatcherFilterEngine reference = DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "deny", "url", ".*"),
+        Map.of("type", "allow", "method", "GET", "path", "/content/.*", "extension", "html"),
+        Map.of("type", "allow", "method", "GET", "path", "/content/.*", "extension", "json"),
+        Map.of("type", "deny", "selectors", "infinity")));
+
+    DispatcherFilterSimulationResult result = new DispatcherFilterSimulation()
+        .add("farm1", ENGINE, reference)
+        .run(REQUESTS.stream()).get("farm1");
+    assertEquals(0, result.getDifferenceCount());
+    assertEquals(List.of(), result.getDifferences());
+  }
+
+  @Test
+  void testCompareWithReference_Differences() {
+    DispatcherFilterEngine reference = DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "deny", "url", ".*"),
+        Map.of("type", "allow", "method", "GET", "path", "/content/.*", "extension", "html"),
+        Map.of("type", "deny", "selectors", "infinity")));
+
+    DispatcherFilterSimulationResult result = new DispatcherFilterSimulation()
+        .add("farm1", ENGINE, reference)
+        .run(REQUESTS.stream()).get("farm1");
+    assertEquals(1, result.getDifferenceCount());
+    assertEquals(List.of("GET /content/page.json HTTP/1.1: deny (/0) -> allow (/1)"), result.getDifferences());
+  }
+
+  @Test
+  void testMultipleEngines() {
+    DispatcherFilterEngine denyAll = DispatcherFilterEngine.fromDefinitions(List.of(
+        Map.of("type", "deny", "url", ".*")));
+
+    Map<String, DispatcherFilterSimulationResult> results = new DispatcherFilterSimulation()
+        .add("farm1", ENGINE, null)
+        .add("farm2", denyAll, ENGINE)
+        .run(REQUESTS.stream());
+    assertEquals(List.of("farm1", "farm2"), List.copyOf(results.keySet()));
+
+    DispatcherFilterSimulationResult farm1 = results.get("farm1");
+    assertEquals(3, farm1.getAllowedCount());
+    assertEquals(2, farm1.getDeniedCount());
+    assertEquals(0, farm1.getDifferenceCount());
+
+    DispatcherFilterSimulationResult farm2 = results.get("farm2");
+    assertEquals(0, farm2.getAllowedCount());
+    assertEquals(5, farm2.getDeniedCount());
+    assertEquals(1, farm2.getInvalidCount());
+    assertEquals(3, farm2.getDifferenceCount());
+  }
+
+  private static void addFile(ZipArchiveOutputStream zip, String path, String content) throws IOException {
+    zip.putArchiveEntry(new ZipArchiveEntry(path));
+    zip.write(content.getBytes(StandardCharsets.UTF_8));
+    zip.closeArchiveEntry();
+  }
+
+}
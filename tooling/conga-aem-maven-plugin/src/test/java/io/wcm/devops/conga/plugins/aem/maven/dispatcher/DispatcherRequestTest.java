@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class DispatcherRequestTest {
+
+  @Test
+  void testFullRequest() {
+    DispatcherRequest request = DispatcherRequest.parse("GET /content/site/en/page.print.a4.html/some/suffix?q=1&p=2 HTTP/1.1");
+    assertEquals("GET /content/site/en/page.print.a4.html/some/suffix?q=1&p=2 HTTP/1.1", request.getRequestLine());
+    assertEquals("GET", request.getMethod());
+    assertEquals("/content/site/en/page.print.a4.html/some/suffix", request.getUrl());
+    assertEquals("q=1&p=2", request.getQuery());
+    assertEquals("HTTP/1.1", request.getProtocol());
+    assertEquals("/content/site/en/page", request.getPath());
+    assertEquals("print.a4", request.getSelectors());
+    assertEquals("html", request.getExtension());
+    assertEquals("/some/suffix", request.getSuffix());
+  }
+
+  @Test
+  void testDottedSuffix() {
+    DispatcherRequest request = DispatcherRequest.parse("GET /content/page.html/suffix.json HTTP/1.1");
+    assertEquals("/content/page", request.getPath());
+    assertEquals("", request.getSelectors());
+    assertEquals("html", request.getExtension());
+    assertEquals("/suffix.json", request.getSuffix());
+  }
+
+  @Test
+  void testDottedSelectorsAndSuffix() {
+    DispatcherRequest request = DispatcherRequest.parse("GET /content/geometrixx/en/products.printable.a4.html/suffix.html HTTP/1.1");
+    assertEquals("/content/geometrixx/en/products", request.getPath());
+    assertEquals("printable.a4", request.getSelectors());
+    assertEquals("html", request.getExtension());
+    assertEquals("/suffix.html", request.getSuffix());
+  }
+
+  @Test
+  void testClientlibs() {
+    // the dispatcher splits at the first dot, that's why clientlibs are usually filtered by /url
+    DispatcherRequest request = DispatcherRequest.parse("GET /etc.clientlibs/app/clientlibs/site.min.js HTTP/1.1");
+    assertEquals("/etc.clientlibs/app/clientlibs/site.min.js", request.getUrl());
+    assertEquals("/etc", request.getPath());
+    assertEquals("", request.getSelectors());
+    assertEquals("clientlibs", request.getExtension());
+    assertEquals("/app/clientlibs/site.min.js", request.getSuffix());
+    assertEquals("", request.getQuery());
+  }
+
+  @Test
+  void testNoExtension() {
+    DispatcherRequest request = DispatcherRequest.parse("POST /bin/servlet");
+    assertEquals("POST", request.getMethod());
+    assertEquals("/bin/servlet", request.getPath());
+    assertEquals("", request.getSelectors());
+    assertEquals("", request.getExtension());
+    assertEquals("", request.getProtocol());
+  }
+
+  @Test
+  void testAccessLogLine() {
+    DispatcherRequest request = DispatcherRequest.parse(
+        "127.0.0.1 - - [10/Oct/2024:13:55:36 +0000] \"GET /content/page.html HTTP/1.1\" 200 2326");
+    assertEquals("GET /content/page.html HTTP/1.1", request.getRequestLine());
+    assertEquals("/content/page", request.getPath());
+  }
+
+  @Test
+  void testInvalid() {
+    assertNull(DispatcherRequest.parse(""));
+    assertNull(DispatcherRequest.parse("GET"));
+    assertNull(DispatcherRequest.parse("127.0.0.1 \"GET /content/page.html"));
+  }
+
+}
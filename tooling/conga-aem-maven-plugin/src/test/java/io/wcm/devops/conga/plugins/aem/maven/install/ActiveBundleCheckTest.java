@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_BUNDLES;
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_BUNDLE_DETAILS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class ActiveBundleCheckTest {
+
+  private File dir;
+  private InstanceHttpClient httpClient;
+  private PackageManagerStandIn standIn;
+  private ActiveBundleCheck underTest;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    dir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(dir);
+    standIn = new PackageManagerStandIn()
+        .activeBundle("bundle.release", "1.2.0", null)
+        .activeBundle("bundle.snapshot", "1.3.0.SNAPSHOT", "1700000000000");
+    httpClient = new InstanceHttpClient(10, 60, false, null, null);
+    underTest = new ActiveBundleCheck(httpClient, standIn.getBaseUrl() + "/system/console", null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    standIn.close();
+  }
+
+  @Test
+  void testRelease() throws IOException {
+    assertEquals("1.2.0", underTest.getActiveVersion(bundle("bundle.release", "1.2.0", null)));
+    assertNull(underTest.getActiveVersion(bundle("bundle.release", "1.2.1", null)));
+    assertNull(underTest.getActiveVersion(bundle("bundle.other", "1.2.0", null)));
+
+    // bundle list is fetched only once
+    assertEquals(1, standIn.getRequestCount(ENDPOINT_BUNDLES));
+    assertEquals(0, standIn.getRequestCount(ENDPOINT_BUNDLE_DETAILS));
+  }
+
+  @Test
+  void testInvalidate() throws IOException {
+    assertEquals("1.2.0", underTest.getActiveVersion(bundle("bundle.release", "1.2.0", null)));
+
+    // bundle updated e.g. by a content package
+    standIn.activeBundle("bundle.release", "1.2.1", null);
+    assertEquals("1.2.0", underTest.getActiveVersion(bundle("bundle.release", "1.2.0", null)));
+    underTest.invalidate();
+    assertNull(underTest.getActiveVersion(bundle("bundle.release", "1.2.0", null)));
+    assertEquals("1.2.1", underTest.getActiveVersion(bundle("bundle.release", "1.2.1", null)));
+
+    assertEquals(2, standIn.getRequestCount(ENDPOINT_BUNDLES));
+  }
+
+  @Test
+  void testSnapshot() throws IOException {
+    assertEquals("1.3.0.SNAPSHOT", underTest.getActiveVersion(bundle("bundle.snapshot", "1.3.0.SNAPSHOT", "1700000000000")));
+    assertNull(underTest.getActiveVersion(bundle("bundle.snapshot", "1.3.0.SNAPSHOT", "1700000099999")));
+    assertNull(underTest.getActiveVersion(bundle("bundle.snapshot", "1.3.0.SNAPSHOT", null)));
+  }
+
+  @Test
+  void testInactiveBundle() throws Exception {
+    // stand-in reports last default bundle as resolved after a bundle installation
+    standIn.bundleRestartMs(60000);
+    new FelixBundleInstaller(httpClient, standIn.getBaseUrl() + "/system/console", null)
+        .installBundle(bundle("bundle.release", "1.2.0", null));
+    assertNull(underTest.getActiveVersion(bundle("standin.bundle9", "1.0.0", null)));
+    assertEquals("1.0.0", underTest.getActiveVersion(bundle("standin.bundle0", "1.0.0", null)));
+  }
+
+  @Test
+  void testBundleListNotAvailable() throws IOException {
+    standIn.close();
+    assertNull(underTest.getActiveVersion(bundle("bundle.release", "1.2.0", null)));
+  }
+
+  private File bundle(String symbolicName, String version, String bndLastModified) throws IOException {
+    File file = new File(dir, symbolicName + "-" + version + "-" + bndLastModified + ".jar");
+    SyntheticNode.writeBundle(file, symbolicName, version, bndLastModified);
+    return file;
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePollingTest {
+
+  private long currentTimeNanos;
+  private List<Long> delays;
+  private AdaptivePolling underTest;
+
+  @BeforeEach
+  void setUp() {
+    currentTimeNanos = 0;
+    delays = new ArrayList<>();
+    underTest = new AdaptivePolling()
+        .initialDelayMs(100)
+        .maxDelayMs(1000)
+        .stableCount(2)
+        .random(() -> 0.0d)
+        .clock(() -> currentTimeNanos)
+        .sleeper(millis -> {
+          delays.add(millis);
+          currentTimeNanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        });
+  }
+
+  @Test
+  void testGetDelayMs() {
+    assertEquals(100, underTest.getDelayMs(0));
+    assertEquals(200, underTest.getDelayMs(1));
+    assertEquals(400, underTest.getDelayMs(2));
+    assertEquals(800, underTest.getDelayMs(3));
+    assertEquals(1000, underTest.getDelayMs(4));
+    assertEquals(1000, underTest.getDelayMs(100));
+  }
+
+  @Test
+  void testGetDelayMsWithJitter() {
+    underTest.random(() -> 1.0d).jitter(0.5d);
+    assertEquals(50, underTest.getDelayMs(0));
+    assertEquals(500, underTest.getDelayMs(10));
+  }
+
+  @Test
+  void testFixedDelay() {
+    underTest = AdaptivePolling.fixedDelay(5000)
+        .random(() -> 1.0d)
+        .clock(() -> currentTimeNanos)
+        .sleeper(millis -> {
+          delays.add(millis);
+          currentTimeNanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        });
+    AtomicInteger count = new AtomicInteger();
+    PollingResult result = underTest.waitFor("test", () -> count.incrementAndGet() <= 3 ? "pending" : null, 60);
+    assertTrue(result.isSuccess());
+    assertEquals(4, result.getChecks());
+    assertEquals(List.of(5000L, 5000L, 5000L), delays);
+  }
+
+  @Test
+  void testImmediatelyStable() {
+    PollingResult result = underTest.waitFor("test", () -> null, 10);
+    assertTrue(result.isSuccess());
+    assertEquals(1, result.getChecks());
+    assertEquals(List.of(), delays);
+  }
+
+  @Test
+  void testBackoffUntilStable() {
+    AtomicInteger count = new AtomicInteger();
+    PollingResult result = underTest.waitFor("test", () -> count.incrementAndGet() <= 4 ? "pending" : null, 10);
+    assertTrue(result.isSuccess());
+    assertEquals(6, result.getChecks());
+    assertEquals(List.of(100L, 200L, 400L, 800L, 100L), delays);
+    assertEquals(1600, result.getDelayMs());
+  }
+
+  @Test
+  void testUnstableResetsStableCount() {
+    AtomicInteger count = new AtomicInteger();
+    PollingResult result = underTest.waitFor("test", () -> {
+      int check = count.incrementAndGet();
+      return check == 1 || check == 3 ? "pending" : null;
+    }, 10);
+    assertTrue(result.isSuccess());
+    assertEquals(5, result.getChecks());
+    assertEquals(List.of(100L, 100L, 200L, 100L), delays);
+  }
+
+  @Test
+  void testWaitLimitReached() {
+    PollingResult result = underTest.waitFor("test", () -> "pending", 5);
+    assertFalse(result.isSuccess());
+    assertEquals(5000, result.getDelayMs());
+    assertEquals(5000, result.getDurationMs());
+  }
+
+  @Test
+  void testCheckFailureTreatedAsPending() {
+    AtomicInteger count = new AtomicInteger();
+    PollingResult result = underTest.waitFor("test", () -> {
+      if (count.incrementAndGet() == 1) {
+        throw new IOException("Connection refused");
+      }
+      return null;
+    }, 10);
+    assertTrue(result.isSuccess());
+    assertEquals(3, result.getChecks());
+  }
+
+}
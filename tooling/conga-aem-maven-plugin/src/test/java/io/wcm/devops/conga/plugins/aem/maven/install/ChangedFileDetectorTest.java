@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+class ChangedFileDetectorTest {
+
+  private File nodeDir;
+  private ChangedFileDetector underTest;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    nodeDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(nodeDir);
+    new SyntheticNode()
+        .packageCount(3)
+        .bundleCount(1)
+        .create(nodeDir);
+    underTest = new ChangedFileDetector();
+  }
+
+  @Test
+  void testGetChangedFiles() throws IOException {
+    List<InstallableFile> items = parse();
+    assertEquals(4, underTest.getChangedFiles(items).size());
+
+    underTest.installed(items);
+    assertTrue(underTest.getChangedFiles(parse()).isEmpty());
+
+    // change content of second package
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/synthetic-package2.zip"), "changed",
+        StandardCharsets.UTF_8, true);
+    List<InstallableFile> changedFiles = underTest.getChangedFiles(parse());
+    assertEquals(1, changedFiles.size());
+    assertEquals("synthetic-package2.zip", changedFiles.get(0).getFile().getName());
+
+    underTest.installed(changedFiles);
+    assertTrue(underTest.getChangedFiles(parse()).isEmpty());
+  }
+
+  @Test
+  void testGetChangedFiles_ModelOrder() throws IOException {
+    underTest.installed(parse());
+
+    FileUtils.writeStringToFile(new File(nodeDir, "bundles/synthetic.bundle1-1.0.0.jar"), "changed",
+        StandardCharsets.UTF_8, true);
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/synthetic-package1.zip"), "changed",
+        StandardCharsets.UTF_8, true);
+    List<InstallableFile> changedFiles = underTest.getChangedFiles(parse());
+    assertEquals(2, changedFiles.size());
+    assertEquals("synthetic-package1.zip", changedFiles.get(0).getFile().getName());
+    assertEquals("synthetic.bundle1-1.0.0.jar", changedFiles.get(1).getFile().getName());
+  }
+
+  private List<InstallableFile> parse() {
+    return new ModelParser(nodeDir).getInstallableFilesForNode();
+  }
+
+}
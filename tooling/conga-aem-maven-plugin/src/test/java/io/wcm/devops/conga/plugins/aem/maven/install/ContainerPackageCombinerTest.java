@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+class ContainerPackageCombinerTest {
+
+  private List<InstallableFile> items;
+  private File targetDir;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    items = new ModelParser(new File("src/test/resources/node/aem-author")).getInstallableFilesForNode();
+    targetDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(targetDir);
+    targetDir.mkdirs();
+  }
+
+  @Test
+  void testCombine() throws Exception {
+    ContainerPackageCombiner underTest = new ContainerPackageCombiner(targetDir, "aem-author")
+        .defaultForce(true);
+    List<InstallableFile> result = underTest.combine(items);
+
+    assertEquals(List.of(
+        "io.wcm.caconfig.editor-1.11.0.jar",
+        "aem-author-1.zip",
+        "aem-cms-author-replicationagents.zip",
+        "aem-author-2.zip",
+        "wcm-io-samples-aem-cms-author-systemusers.zip",
+        "aem-author-3.zip",
+        "io.wcm.wcm.ui.granite-1.9.2.jar"), toFileNames(result));
+
+    ModelContentPackageFile containerPackage = (ModelContentPackageFile)result.get(1);
+    assertTrue(containerPackage.getFile().exists());
+    assertEquals(ContainerPackageCombiner.CONTAINER_PACKAGE_GROUP, containerPackage.getGroup());
+    assertEquals("aem-author-1", containerPackage.getName());
+    assertEquals("container", containerPackage.getPackageType());
+    assertTrue(containerPackage.getForce());
+
+    assertTrue(underTest.isContainerPackage(containerPackage));
+    assertFalse(underTest.isContainerPackage(result.get(0)));
+    assertFalse(underTest.isContainerPackage(result.get(2)));
+  }
+
+  @Test
+  void testCombine_MaxFileSize() throws Exception {
+    List<InstallableFile> result = new ContainerPackageCombiner(targetDir, "aem-author")
+        .maxFileSizeBytes(FileUtils.ONE_MB)
+        .defaultForce(true)
+        .combine(items);
+
+    assertEquals(List.of(
+        "io.wcm.caconfig.editor-1.11.0.jar",
+        "aem-author-1.zip",
+        "core.wcm.components.all-2.17.0.zip",
+        "aem-cms-author-replicationagents.zip",
+        "aem-author-2.zip",
+        "wcm-io-samples-aem-cms-author-systemusers.zip",
+        "aem-author-3.zip",
+        "io.wcm.wcm.ui.granite-1.9.2.jar"), toFileNames(result));
+  }
+
+  @Test
+  void testCombine_DefaultForceSnapshotOnly() throws Exception {
+    List<InstallableFile> result = new ContainerPackageCombiner(targetDir, "aem-author").combine(items);
+
+    assertEquals(List.of(
+        "io.wcm.caconfig.editor-1.11.0.jar",
+        "acs-aem-commons-ui.apps-4.10.0-min.zip",
+        "acs-aem-commons-ui.content-4.10.0-min.zip",
+        "accesscontroltool-package-3.0.0-cloud.zip",
+        "accesscontroltool-oakindex-package-3.0.0-cloud.zip",
+        "core.wcm.components.all-2.17.0.zip",
+        "aem-cms-author-replicationagents.zip",
+        "aem-author-1.zip",
+        "wcm-io-samples-aem-cms-author-systemusers.zip",
+        "aem-author-2.zip",
+        "io.wcm.wcm.ui.granite-1.9.2.jar"), toFileNames(result));
+  }
+
+  @Test
+  void testCombine_DefaultForceFalse() throws Exception {
+    List<InstallableFile> result = new ContainerPackageCombiner(targetDir, "aem-author")
+        .defaultForce(false)
+        .combine(items);
+
+    assertEquals(List.of(
+        "io.wcm.caconfig.editor-1.11.0.jar",
+        "acs-aem-commons-ui.apps-4.10.0-min.zip",
+        "acs-aem-commons-ui.content-4.10.0-min.zip",
+        "accesscontroltool-package-3.0.0-cloud.zip",
+        "accesscontroltool-oakindex-package-3.0.0-cloud.zip",
+        "core.wcm.components.all-2.17.0.zip",
+        "aem-cms-author-replicationagents.zip",
+        "aem-author-1.zip",
+        "wcm-io-samples-aem-cms-author-systemusers.zip",
+        "wcm-io-samples-complete-1.3.1-SNAPSHOT.zip",
+        "wcm-io-samples-sample-content-1.3.1-SNAPSHOT.zip",
+        "io.wcm.wcm.ui.granite-1.9.2.jar"), toFileNames(result));
+  }
+
+  @Test
+  void testCombine_NoCombinablePackages() throws Exception {
+    List<InstallableFile> result = new ContainerPackageCombiner(targetDir, "aem-author")
+        .maxFileSizeBytes(FileUtils.ONE_KB)
+        .combine(items);
+
+    assertEquals(toFileNames(items), toFileNames(result));
+  }
+
+  private static List<String> toFileNames(List<InstallableFile> files) {
+    return files.stream()
+        .map(file -> file.getFile().getName())
+        .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures end-to-end deployment time of a synthetic node to the package manager stand-in.
+ * Disabled by default, run with:
+ * <pre>
+ * mvn test -Dtest=DeploymentBenchmarkTest -Dconga.benchmark=true
+ * </pre>
+ * Metrics reports are written to <code>target/benchmark</code>.
+ */
+@EnabledIfSystemProperty(named = "conga.benchmark", matches = "true")
+class DeploymentBenchmarkTest {
+
+  private static final int PACKAGE_COUNT = 20;
+  private static final int PACKAGE_SIZE_BYTES = 1024 * 1024;
+  private static final int BUNDLE_COUNT = 5;
+
+  private File nodeDir;
+  private File reportDir;
+  private PackageManagerStandIn standIn;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    nodeDir = new File("target/benchmark/node");
+    reportDir = new File("target/benchmark");
+    FileUtils.deleteDirectory(nodeDir);
+    new SyntheticNode()
+        .packageCount(PACKAGE_COUNT)
+        .packageSizeBytes(PACKAGE_SIZE_BYTES)
+        .bundleCount(BUNDLE_COUNT)
+        .create(nodeDir);
+    standIn = new PackageManagerStandIn()
+        .latencyMs(20)
+        .installDurationMs(200)
+        .bundleRestartMs(1500);
+  }
+
+  @AfterEach
+  void tearDown() {
+    standIn.close();
+  }
+
+  @Test
+  void testDefaultPolling() throws Exception {
+    run("default-polling", new StandInDeployment(standIn));
+  }
+
+  @Test
+  void testAdaptivePolling() throws Exception {
+    run("adaptive-polling", new StandInDeployment(standIn).adaptivePolling(true));
+  }
+
+  @Test
+  void testAdaptivePolling_FailureInjection() throws Exception {
+    standIn.failureRate(0.1d);
+    run("adaptive-polling-failures", new StandInDeployment(standIn).adaptivePolling(true));
+  }
+
+  @SuppressWarnings("java:S106") // benchmark output
+  private void run(String name, StandInDeployment deployment) throws Exception {
+    InstallMetrics metrics = deployment.deploy(nodeDir);
+    InstallMetricsReport report = new InstallMetricsReport(metrics);
+    report.write(new File(reportDir, name));
+
+    System.out.println(String.format(Locale.ROOT, "Benchmark %s: %d files in %d ms",
+        name, metrics.getFiles().size(), metrics.getDurationMs()));
+    report.getSummary().forEach(line -> System.out.println("  " + line));
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+class DeploymentJournalTest {
+
+  private static final String INSTANCE_URL = "http://localhost:4502/crx/packmgr/service.jsp";
+
+  private File nodeDir;
+  private File journalDir;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    File baseDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(baseDir);
+    nodeDir = new File(baseDir, "node");
+    journalDir = new File(baseDir, "journal");
+    new SyntheticNode()
+        .packageCount(3)
+        .bundleCount(1)
+        .create(nodeDir);
+  }
+
+  @Test
+  void testResume() throws IOException {
+    List<InstallableFile> items = parse();
+    DeploymentJournal journal = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    journal.reset();
+    journal.installed(items.get(0));
+    journal.installed(items.get(1));
+    assertTrue(journal.getJournalFile().exists());
+
+    // previous deployment failed after second file
+    DeploymentJournal resumed = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    resumed.load();
+    assertTrue(resumed.isInstalled(items.get(0)));
+    assertTrue(resumed.isInstalled(items.get(1)));
+    assertFalse(resumed.isInstalled(items.get(2)));
+    assertEquals(List.of(items.get(2), items.get(3)), resumed.getPendingFiles(items));
+  }
+
+  @Test
+  void testResume_ChangedFile() throws IOException {
+    DeploymentJournal journal = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    for (InstallableFile item : parse()) {
+      journal.installed(item);
+    }
+
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/synthetic-package2.zip"), "changed",
+        StandardCharsets.UTF_8, true);
+
+    DeploymentJournal resumed = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    resumed.load();
+    List<InstallableFile> pendingFiles = resumed.getPendingFiles(parse());
+    assertEquals(1, pendingFiles.size());
+    assertEquals("synthetic-package2.zip", pendingFiles.get(0).getFile().getName());
+  }
+
+  @Test
+  void testReset() throws IOException {
+    DeploymentJournal journal = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    journal.installed(parse().get(0));
+
+    DeploymentJournal fresh = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    fresh.reset();
+    assertFalse(fresh.getJournalFile().exists());
+    fresh.load();
+    assertEquals(4, fresh.getPendingFiles(parse()).size());
+  }
+
+  @Test
+  void testOtherInstance() throws IOException {
+    DeploymentJournal journal = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    journal.installed(parse().get(0));
+
+    DeploymentJournal other = new DeploymentJournal(journalDir, nodeDir, "http://localhost:4503/crx/packmgr/service.jsp");
+    assertNotEquals(journal.getJournalFile(), other.getJournalFile());
+    other.load();
+    assertEquals(4, other.getPendingFiles(parse()).size());
+  }
+
+  @Test
+  void testInvalidJournal() throws IOException {
+    DeploymentJournal journal = new DeploymentJournal(journalDir, nodeDir, INSTANCE_URL);
+    FileUtils.writeStringToFile(journal.getJournalFile(), "{invalid", StandardCharsets.UTF_8);
+    assertThrows(IOException.class, journal::load);
+  }
+
+  private List<InstallableFile> parse() {
+    return new ModelParser(nodeDir).getInstallableFilesForNode();
+  }
+
+}
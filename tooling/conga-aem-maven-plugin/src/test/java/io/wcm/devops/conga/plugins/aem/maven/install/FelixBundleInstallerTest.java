@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_BUNDLE_INSTALL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FelixBundleInstallerTest {
+
+  private static final File BUNDLE_FILE = new File("src/test/resources/node/aem-author/bundles/io.wcm.caconfig.editor-1.11.0.jar");
+  private static final String AUTHORIZATION = InstanceHttpClient.authorization("admin", "admin", null);
+
+  private PackageManagerStandIn standIn;
+  private FelixBundleInstaller underTest;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    standIn = new PackageManagerStandIn();
+    underTest = new FelixBundleInstaller(new InstanceHttpClient(10, 60, false, null, null),
+        standIn.getBaseUrl() + "/system/console", AUTHORIZATION)
+        .bundleStartLevel(25);
+  }
+
+  @AfterEach
+  void tearDown() {
+    standIn.close();
+  }
+
+  @Test
+  void testInstallBundle() throws Exception {
+    underTest.installBundle(BUNDLE_FILE);
+    underTest.installBundle(BUNDLE_FILE);
+
+    assertEquals(2, standIn.getRequestCount(ENDPOINT_BUNDLE_INSTALL));
+    assertEquals(AUTHORIZATION, standIn.getLastAuthorization());
+    String request = standIn.getLastBundleInstallRequest();
+    assertTrue(request.contains("name=\"action\"\r\n\r\ninstall\r\n"));
+    assertTrue(request.contains("name=\"bundlestartlevel\"\r\n\r\n25\r\n"));
+    assertTrue(request.contains("name=\"bundlefile\"; filename=\"io.wcm.caconfig.editor-1.11.0.jar\""));
+    // multipart head + file content + tail
+    assertTrue(request.length() > BUNDLE_FILE.length());
+  }
+
+  @Test
+  void testInstallBundle_Failure() {
+    standIn.failNextRequests(1);
+    assertThrows(MojoExecutionException.class, () -> underTest.installBundle(BUNDLE_FILE));
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.postprocessor.ContentPackagePropertiesPostProcessor;
+
+class InstallHistoryTest {
+
+  private static final File NODE_DIR = new File("src/test/resources/node/aem-author");
+  private static final File PACKAGE_FILE = new File(NODE_DIR, "packages/wcm-io-samples-aem-cms-config.zip");
+  private static final File BUNDLE_FILE = new File(NODE_DIR, "bundles/io.wcm.caconfig.editor-1.11.0.jar");
+  private static final String INSTANCE_URL = "http://localhost:4502/crx/packmgr/service";
+  private static final String OTHER_INSTANCE_URL = "https://author.example.com/crx/packmgr/service";
+
+  private File historyFile;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) {
+    historyFile = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName() + ".json");
+    FileUtils.deleteQuietly(historyFile);
+  }
+
+  @Test
+  void testRecordAndLoad() throws IOException {
+    InstallHistory history = new InstallHistory(historyFile);
+    history.load();
+    assertNull(history.get(INSTANCE_URL, "aem-author", packageFile("package1.zip", "package1")));
+    assertEquals(0, history.getThroughputBytesPerSec(INSTANCE_URL));
+
+    history.record(INSTANCE_URL + "|aem-author/my-group:package1", 10000, 1000, 200);
+    history.record(INSTANCE_URL + "|aem-author/my-group:package1", 10000, 2000, 400);
+    history.record(INSTANCE_URL + "|aem-author/my-group:package2", 20000, 1000, 0);
+    history.record(OTHER_INSTANCE_URL + "|aem-author/my-group:package1", 10000, 100000, 50000);
+    history.write();
+
+    InstallHistory loaded = new InstallHistory(historyFile);
+    loaded.load();
+    // package is identified by group and name, independent of file name and version
+    InstallHistoryEntry entry = loaded.get(INSTANCE_URL, "aem-author", packageFile("package1-2.0.0.zip", "package1"));
+    assertEquals(2, entry.getCount());
+    assertEquals(10000, entry.getSizeBytes());
+    assertEquals(1500, entry.getUploadInstallMs());
+    assertEquals(300, entry.getStatusWaitMs());
+    assertEquals(30000 * 1000 / 2500, loaded.getThroughputBytesPerSec(INSTANCE_URL));
+    assertEquals(150, loaded.getStatusWaitMs(INSTANCE_URL));
+
+    // same package installed to another node or another instance has separate history
+    assertNull(loaded.get(INSTANCE_URL, "aem-publish", packageFile("package1.zip", "package1")));
+    assertEquals(100000, loaded.get(OTHER_INSTANCE_URL, "aem-author", packageFile("package1.zip", "package1")).getUploadInstallMs());
+    assertEquals(10000 * 1000 / 100000, loaded.getThroughputBytesPerSec(OTHER_INSTANCE_URL));
+    assertEquals(50000, loaded.getStatusWaitMs(OTHER_INSTANCE_URL));
+  }
+
+  @Test
+  void testWriteReplacesFile() throws IOException {
+    InstallHistory history = new InstallHistory(historyFile);
+    history.record(INSTANCE_URL + "|aem-author/my-group:package1", 10000, 1000, 200);
+    history.write();
+    history.record(INSTANCE_URL + "|aem-author/my-group:package2", 10000, 1000, 200);
+    history.write();
+
+    InstallHistory loaded = new InstallHistory(historyFile);
+    loaded.load();
+    assertNotNull(loaded.get(INSTANCE_URL, "aem-author", packageFile("package2.zip", "package2")));
+    // no temp files are left behind
+    assertEquals(List.of(historyFile.getName()), List.of(historyFile.getAbsoluteFile().getParentFile()
+        .list((dir, name) -> name.startsWith(historyFile.getName()))));
+  }
+
+  @Test
+  void testGetKey() {
+    assertEquals(INSTANCE_URL + "|aem-author/my-group:package1",
+        InstallHistory.getKey(INSTANCE_URL, "aem-author", packageFile("package1.zip", "package1")));
+    assertEquals(INSTANCE_URL + "|aem-author/" + PACKAGE_FILE.getName(), InstallHistory.getKey(INSTANCE_URL, "aem-author",
+        new ModelContentPackageFile(PACKAGE_FILE, Map.of(ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of()), List.of())));
+    assertEquals(INSTANCE_URL + "|aem-author/" + BUNDLE_FILE.getName(), InstallHistory.getKey(INSTANCE_URL, "aem-author",
+        new BundleFile(BUNDLE_FILE, Map.of(), List.of())));
+  }
+
+  @Test
+  void testRecordMetrics() {
+    InstallMetrics metrics = new InstallMetrics(NODE_DIR, INSTANCE_URL);
+    FileInstallMetrics packageMetrics = metrics.add(new ModelContentPackageFile(PACKAGE_FILE,
+        Map.of(ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of()), List.of()));
+    packageMetrics.installStarted();
+    packageMetrics.installFinished(true);
+    packageMetrics.addStatusWait(new PollingResult(true, 1, 0, 500), PollingResult.SKIPPED);
+    metrics.add(new BundleFile(BUNDLE_FILE, Map.of("install", false), List.of())).skipped();
+    metrics.finished();
+
+    InstallHistory history = new InstallHistory(historyFile);
+    history.record(metrics);
+    InstallHistoryEntry entry = history.get(INSTANCE_URL, NODE_DIR.getName(), new ModelContentPackageFile(PACKAGE_FILE,
+        Map.of(ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of()), List.of()));
+    assertEquals(1, entry.getCount());
+    assertEquals(PACKAGE_FILE.length(), entry.getSizeBytes());
+    assertEquals(500, entry.getStatusWaitMs());
+
+    // skipped bundle is not recorded
+    assertNull(history.get(INSTANCE_URL, NODE_DIR.getName(), new BundleFile(BUNDLE_FILE, Map.of(), List.of())));
+  }
+
+  @Test
+  void testMovingAverage() {
+    InstallHistoryEntry entry = new InstallHistoryEntry(1, 100, 1000, 0);
+    for (int i = 0; i < 20; i++) {
+      entry = entry.add(100, 2000, 0, InstallHistory.AVERAGE_WINDOW);
+    }
+    // older measurements fade out
+    assertEquals(21, entry.getCount());
+    assertEquals(2000, entry.getUploadInstallMs(), 10);
+  }
+
+  @Test
+  void testInvalidHistory() throws IOException {
+    FileUtils.writeStringToFile(historyFile, "{invalid", StandardCharsets.UTF_8);
+    assertThrows(IOException.class, () -> new InstallHistory(historyFile).load());
+  }
+
+  private static ModelContentPackageFile packageFile(String fileName, String name) {
+    return new ModelContentPackageFile(new File(fileName), Map.of(
+        ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of("group", "my-group", "name", name)),
+        List.of());
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.BundleFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.postprocessor.ContentPackagePropertiesPostProcessor;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+class InstallMetricsReportTest {
+
+  private static final File NODE_DIR = new File("src/test/resources/node/aem-author");
+  private static final Map<String, Object> PACKAGE_FILE_DATA = Map.of(
+      ContentPackagePropertiesPostProcessor.MODEL_OPTIONS_PROPERTY, Map.of());
+
+  private InstallMetrics metrics;
+  private InstallMetricsReport underTest;
+
+  @BeforeEach
+  void setUp() {
+    metrics = new InstallMetrics(NODE_DIR, "http://localhost:4502/crx/packmgr/service");
+    metrics.getCurrentStatusWait().addStatusWait(new PollingResult(true, 2, 250, 300), PollingResult.SKIPPED);
+
+    FileInstallMetrics packageMetrics = metrics.add(new ModelContentPackageFile(
+        new File(NODE_DIR, "packages/wcm-io-samples-aem-cms-config.zip"), PACKAGE_FILE_DATA, List.of()));
+    packageMetrics.installStarted();
+    packageMetrics.installFinished(true);
+    packageMetrics.addStatusWait(new PollingResult(true, 3, 500, 1500), new PollingResult(true, 2, 250, 400));
+
+    FileInstallMetrics bundleMetrics = metrics.add(new BundleFile(
+        new File(NODE_DIR, "bundles/io.wcm.caconfig.editor-1.11.0.jar"), Map.of("install", false), List.of()));
+    bundleMetrics.skipped();
+
+    metrics.finished();
+    underTest = new InstallMetricsReport(metrics);
+  }
+
+  @Test
+  void testFileMetrics() {
+    FileInstallMetrics packageMetrics = metrics.getFiles().get(0);
+    assertEquals("packages/wcm-io-samples-aem-cms-config.zip", packageMetrics.getPath());
+    assertEquals(FileInstallMetrics.TYPE_CONTENT_PACKAGE, packageMetrics.getType());
+    assertTrue(packageMetrics.isSuccess());
+    assertEquals(1500, packageMetrics.getBundleStatusWaitMs());
+    assertEquals(400, packageMetrics.getInstallStatusWaitMs());
+    assertEquals(5, packageMetrics.getStatusChecks());
+    assertEquals(750, packageMetrics.getStatusDelayMs());
+    assertEquals(300, metrics.getInitialStatusWaitMs());
+
+    FileInstallMetrics bundleMetrics = metrics.getFiles().get(1);
+    assertEquals(FileInstallMetrics.TYPE_BUNDLE, bundleMetrics.getType());
+    assertTrue(bundleMetrics.isSkipped());
+  }
+
+  @Test
+  void testInstallAborted() {
+    FileInstallMetrics fileMetrics = metrics.add(new ModelContentPackageFile(
+        new File(NODE_DIR, "packages/core.wcm.components.all-2.17.0.zip"), PACKAGE_FILE_DATA, List.of()));
+    fileMetrics.installStarted();
+    metrics.finished();
+    assertFalse(fileMetrics.isSuccess());
+    assertFalse(fileMetrics.isSkipped());
+  }
+
+  @Test
+  void testJson() {
+    StringWriter writer = new StringWriter();
+    underTest.writeJson(writer);
+
+    try (JsonReader reader = Json.createReader(new StringReader(writer.toString()))) {
+      JsonObject json = reader.readObject();
+      assertEquals("aem-author", json.getString("node"));
+      assertEquals(300, json.getInt("initialStatusWaitMs"));
+      JsonArray files = json.getJsonArray("files");
+      assertEquals(2, files.size());
+      JsonObject file = files.getJsonObject(0);
+      assertEquals("packages/wcm-io-samples-aem-cms-config.zip", file.getString("path"));
+      assertEquals(new File(NODE_DIR, "packages/wcm-io-samples-aem-cms-config.zip").length(), file.getJsonNumber("sizeBytes").longValue());
+      assertEquals(64, file.getString("sha256").length());
+      assertEquals(1500, file.getInt("bundleStatusWaitMs"));
+      assertTrue(files.getJsonObject(1).getBoolean("skipped"));
+    }
+  }
+
+  @Test
+  void testOpenMetrics() {
+    String text = underTest.toOpenMetrics();
+    assertTrue(text.contains("# TYPE conga_aem_install_bundle_status_wait_seconds gauge\n"
+        + "# UNIT conga_aem_install_bundle_status_wait_seconds seconds\n"));
+    assertTrue(text.contains("conga_aem_install_bundle_status_wait_seconds{node=\"aem-author\","
+        + "instance=\"http://localhost:4502/crx/packmgr/service\","
+        + "file=\"packages/wcm-io-samples-aem-cms-config.zip\",type=\"content-package\"} 1.500\n"));
+    assertTrue(text.contains("conga_aem_install_status_checks{node=\"aem-author\","
+        + "instance=\"http://localhost:4502/crx/packmgr/service\","
+        + "file=\"packages/wcm-io-samples-aem-cms-config.zip\",type=\"content-package\"} 5\n"));
+    assertTrue(text.endsWith("# EOF\n"));
+  }
+
+  @Test
+  void testEscapeLabelValue() {
+    assertEquals("a\\\\b\\\"c\\nd", InstallMetricsReport.escapeLabelValue("a\\b\"c\nd"));
+  }
+
+  @Test
+  void testSummary() {
+    List<String> lines = underTest.getSummary();
+    assertEquals(4, lines.size());
+    assertTrue(lines.get(1).startsWith("packages/wcm-io-samples-aem-cms-config.zip"));
+    assertTrue(lines.get(2).contains("skipped"));
+    assertTrue(lines.get(3).startsWith("Total: 2 files"));
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.InstallableFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+import io.wcm.tooling.commons.packmgr.install.PackageFile;
+import jakarta.json.JsonObject;
+
+class InstallPlanTest {
+
+  private static final String INSTANCE_URL = "http://localhost:4502/crx/packmgr/service";
+
+  private File nodeDir;
+  private List<InstallableFile> items;
+  private InstallHistory history;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    File baseDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(baseDir);
+    nodeDir = new SyntheticNode()
+        .packageCount(2)
+        .packageSizeBytes(100000)
+        .bundleCount(1)
+        .create(new File(baseDir, "node"));
+    items = new ModelParser(nodeDir).getInstallableFilesForNode();
+    history = new InstallHistory(new File(baseDir, "history.json"));
+  }
+
+  @Test
+  void testSettings() {
+    InstallPlan underTest = new InstallPlan(nodeDir, INSTANCE_URL, items, InstallPlanTest::toPackageFile, 60, history);
+
+    List<InstallPlanStep> steps = underTest.getSteps();
+    assertEquals(3, steps.size());
+
+    InstallPlanStep package1 = steps.get(0);
+    assertEquals("packages/synthetic-package1.zip", package1.getPath());
+    assertEquals(FileInstallMetrics.TYPE_CONTENT_PACKAGE, package1.getType());
+    assertEquals(items.get(0).getFile().length(), package1.getSizeBytes());
+    assertEquals(items.get(0).getHashCode().toString(), package1.getSha256());
+    assertTrue(package1.isInstall());
+    assertTrue(package1.getForce());
+    assertFalse(package1.getRecursive());
+    assertEquals(5, package1.getDelayAfterInstallSec());
+    assertEquals(120, package1.getHttpSocketTimeoutSec());
+
+    InstallPlanStep bundle1 = steps.get(2);
+    assertEquals(FileInstallMetrics.TYPE_BUNDLE, bundle1.getType());
+    assertTrue(bundle1.isInstall());
+    assertNull(bundle1.getForce());
+    assertNull(bundle1.getRecursive());
+    assertEquals(0, bundle1.getDelayAfterInstallSec());
+    assertEquals(60, bundle1.getHttpSocketTimeoutSec());
+
+    assertEquals(10, underTest.getDelayAfterInstallSec());
+  }
+
+  @Test
+  void testEstimate_Default() {
+    InstallPlan underTest = new InstallPlan(nodeDir, INSTANCE_URL, items, InstallPlanTest::toPackageFile, 60, history);
+
+    InstallPlanStep package1 = underTest.getSteps().get(0);
+    assertEquals(InstallPlanStep.ESTIMATE_DEFAULT, package1.getEstimateSource());
+    assertEquals(InstallPlan.DEFAULT_OVERHEAD_MS
+        + package1.getSizeBytes() * 1000 / InstallPlan.DEFAULT_THROUGHPUT_BYTES_PER_SEC
+        + 5000, package1.getEstimatedMs());
+  }
+
+  @Test
+  void testEstimate_History() {
+    history.record(InstallHistory.getKey(INSTANCE_URL, nodeDir.getName(), items.get(0)), 100000, 8000, 2000);
+    // timings of other instances are ignored
+    history.record(InstallHistory.getKey("http://other:4502/crx/packmgr/service", nodeDir.getName(), items.get(1)), 100000, 100, 0);
+
+    InstallPlan underTest = new InstallPlan(nodeDir, INSTANCE_URL, items, InstallPlanTest::toPackageFile, 60, history);
+
+    InstallPlanStep package1 = underTest.getSteps().get(0);
+    assertEquals(InstallPlanStep.ESTIMATE_HISTORY, package1.getEstimateSource());
+    assertEquals(10000, package1.getEstimatedMs());
+
+    // other files are estimated by average throughput and status wait
+    InstallPlanStep bundle1 = underTest.getSteps().get(2);
+    assertEquals(InstallPlanStep.ESTIMATE_THROUGHPUT, bundle1.getEstimateSource());
+    assertEquals(bundle1.getSizeBytes() * 1000 / 12500 + 2000, bundle1.getEstimatedMs());
+
+    long sum = underTest.getSteps().stream().mapToLong(InstallPlanStep::getEstimatedMs).sum();
+    assertEquals(sum, underTest.getEstimatedDurationMs());
+  }
+
+  @Test
+  void testJsonAndSummary() {
+    InstallPlan underTest = new InstallPlan(nodeDir, INSTANCE_URL, items, InstallPlanTest::toPackageFile, 60, history);
+
+    JsonObject json = underTest.toJson();
+    assertEquals("node", json.getString("node"));
+    assertEquals(INSTANCE_URL, json.getString("instanceUrl"));
+    assertEquals(3, json.getJsonArray("files").size());
+    JsonObject bundle1 = json.getJsonArray("files").getJsonObject(2);
+    assertFalse(bundle1.containsKey("force"));
+    assertEquals(underTest.getEstimatedDurationMs(), json.getJsonNumber("estimatedDurationMs").longValue());
+
+    List<String> summary = underTest.getSummary();
+    assertEquals(5, summary.size());
+    assertTrue(summary.get(4).startsWith("Total: 3 files"));
+  }
+
+  private static PackageFile toPackageFile(ModelContentPackageFile item) {
+    PackageFile packageFile = new PackageFile();
+    packageFile.setFile(item.getFile());
+    packageFile.setInstall(true);
+    packageFile.setForce(true);
+    packageFile.setRecursive(false);
+    packageFile.setDelayAfterInstallSec(5);
+    packageFile.setHttpSocketTimeoutSec(120);
+    return packageFile;
+  }
+
+}
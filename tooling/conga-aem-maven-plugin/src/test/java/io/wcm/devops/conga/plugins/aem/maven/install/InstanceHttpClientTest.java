@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+
+import org.junit.jupiter.api.Test;
+
+class InstanceHttpClientTest {
+
+  @Test
+  void testGetVersion() {
+    assertEquals(HttpClient.Version.HTTP_2, InstanceHttpClient.getVersion(URI.create("https://localhost:8443/system/console")));
+    assertEquals(HttpClient.Version.HTTP_1_1, InstanceHttpClient.getVersion(URI.create("http://localhost:4502/system/console")));
+  }
+
+  @Test
+  void testAuthorization() {
+    assertEquals("Bearer token1", InstanceHttpClient.authorization("admin", "admin", "token1"));
+    assertEquals("Basic YWRtaW46YWRtaW4=", InstanceHttpClient.authorization("admin", "admin", null));
+    assertNull(InstanceHttpClient.authorization(null, null, null));
+  }
+
+}
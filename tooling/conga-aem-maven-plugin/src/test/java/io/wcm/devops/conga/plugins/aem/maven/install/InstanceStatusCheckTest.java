@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.plugins.aem.maven.install.InstanceStatusCheck.getBundlesPendingState;
+import static io.wcm.devops.conga.plugins.aem.maven.install.InstanceStatusCheck.getInstallPendingState;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+class InstanceStatusCheckTest {
+
+  private static final List<Pattern> BLACKLIST = List.of(Pattern.compile("^updater\\.aem.*$"));
+  private static final List<Pattern> WHITELIST = List.of(Pattern.compile("^org\\.apache\\.sling\\.jcr\\.davex$"));
+
+  @Test
+  void testBundlesActive() {
+    JsonObject status = json("{'data':["
+        + "{'symbolicName':'bundle1','stateRaw':32,'fragment':false},"
+        + "{'symbolicName':'fragment1','stateRaw':4,'fragment':true}]}");
+    assertNull(getBundlesPendingState(status, BLACKLIST, WHITELIST));
+  }
+
+  @Test
+  void testBundlesNotActive() {
+    JsonObject status = json("{'data':["
+        + "{'symbolicName':'bundle1','stateRaw':32,'fragment':false},"
+        + "{'symbolicName':'bundle2','stateRaw':8,'fragment':false}]}");
+    assertEquals("1 bundles not active (bundle2)", getBundlesPendingState(status, BLACKLIST, WHITELIST));
+  }
+
+  @Test
+  void testBundlesWhitelisted() {
+    JsonObject status = json("{'data':["
+        + "{'symbolicName':'bundle1','stateRaw':32,'fragment':false},"
+        + "{'symbolicName':'org.apache.sling.jcr.davex','stateRaw':4,'fragment':false}]}");
+    assertNull(getBundlesPendingState(status, BLACKLIST, WHITELIST));
+  }
+
+  @Test
+  void testBundlesBlacklisted() {
+    JsonObject status = json("{'data':["
+        + "{'symbolicName':'bundle1','stateRaw':32,'fragment':false},"
+        + "{'symbolicName':'updater.aem-service-pkg','stateRaw':32,'fragment':false}]}");
+    assertEquals("Installation in progress (updater.aem-service-pkg)", getBundlesPendingState(status, BLACKLIST, WHITELIST));
+  }
+
+  @Test
+  void testBundlesInvalidResponse() {
+    assertNotNull(getBundlesPendingState(json("{}"), BLACKLIST, WHITELIST));
+  }
+
+  @Test
+  void testInstallFinished() {
+    assertNull(getInstallPendingState(json("{'status':{'finished':true,'itemCount':0}}")));
+  }
+
+  @Test
+  void testInstallInProgress() {
+    assertEquals("Package installation in progress (3 items)",
+        getInstallPendingState(json("{'status':{'finished':false,'itemCount':3}}")));
+  }
+
+  @Test
+  void testInstallInvalidResponse() {
+    assertNotNull(getInstallPendingState(json("{}")));
+  }
+
+  private static JsonObject json(String value) {
+    try (JsonReader reader = Json.createReader(new StringReader(value.replace('\'', '"')))) {
+      return reader.readObject();
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+class NodeDirectoryWatcherTest {
+
+  private static final long TIMEOUT_SEC = 10;
+
+  private File nodeDir;
+  private Semaphore changes;
+  private Thread watcherThread;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    nodeDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(nodeDir);
+    new File(nodeDir, "packages").mkdirs();
+    changes = new Semaphore(0);
+
+    NodeDirectoryWatcher underTest = new NodeDirectoryWatcher(nodeDir).debounceMs(100);
+    watcherThread = new Thread(() -> {
+      try {
+        underTest.watch(changes::release);
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    watcherThread.start();
+    // give the watcher time to register
+    sleep(200);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    watcherThread.interrupt();
+    watcherThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SEC));
+  }
+
+  @Test
+  void testChangeInSubdirectory() throws Exception {
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/file1.zip"), "content", StandardCharsets.UTF_8);
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testChangesAreDebounced() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      FileUtils.writeStringToFile(new File(nodeDir, "packages/file" + i + ".zip"), "content", StandardCharsets.UTF_8);
+    }
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+    sleep(500);
+    assertEquals(0, changes.availablePermits());
+  }
+
+  @Test
+  void testNewSubdirectory() throws Exception {
+    new File(nodeDir, "bundles").mkdirs();
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+
+    FileUtils.writeStringToFile(new File(nodeDir, "bundles/bundle1.jar"), "content", StandardCharsets.UTF_8);
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testNodeDirectoryRecreated() throws Exception {
+    // listener is notified once the node directory exists again
+    FileUtils.deleteDirectory(nodeDir);
+    sleep(500);
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/file1.zip"), "content", StandardCharsets.UTF_8);
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+
+    // re-created node directory is watched
+    FileUtils.writeStringToFile(new File(nodeDir, "packages/file2.zip"), "content", StandardCharsets.UTF_8);
+    assertTrue(changes.tryAcquire(TIMEOUT_SEC, TimeUnit.SECONDS));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_BUNDLE_INSTALL;
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_INSTALL;
+import static io.wcm.devops.conga.plugins.aem.maven.install.PackageManagerStandIn.ENDPOINT_UPLOAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+/**
+ * Installs synthetic node directories to a local package manager stand-in.
+ */
+class NodeInstallerTest {
+
+  private File nodeDir;
+  private PackageManagerStandIn standIn;
+
+  @BeforeEach
+  void setUp(TestInfo testInfo) throws IOException {
+    nodeDir = new File("target/test-" + getClass().getSimpleName() + "_" + testInfo.getDisplayName());
+    FileUtils.deleteDirectory(nodeDir);
+    new SyntheticNode()
+        .packageCount(3)
+        .bundleCount(1)
+        .create(nodeDir);
+    standIn = new PackageManagerStandIn();
+  }
+
+  @AfterEach
+  void tearDown() {
+    standIn.close();
+  }
+
+  @Test
+  void testInstall() throws Exception {
+    InstallMetrics metrics = new StandInDeployment(standIn).deploy(nodeDir);
+
+    assertEquals(List.of("synthetic-package1.zip", "synthetic-package2.zip", "synthetic-package3.zip"),
+        standIn.getUploadedPackages());
+    assertEquals(3, standIn.getRequestCount(ENDPOINT_INSTALL));
+    assertEquals(List.of("synthetic.bundle1-1.0.0.jar"), standIn.getInstalledBundles());
+
+    assertEquals(4, metrics.getFiles().size());
+    metrics.getFiles().forEach(file -> assertTrue(file.isSuccess(), file.getPath()));
+  }
+
+  @Test
+  void testInstall_RetryAfterFailure() throws Exception {
+    standIn.failNextRequests(1);
+
+    InstallMetrics metrics = new StandInDeployment(standIn)
+        .adaptivePolling(true)
+        .pollingInitialDelayMs(10)
+        .deploy(nodeDir);
+
+    assertEquals(3, standIn.getUploadedPackages().size());
+    metrics.getFiles().forEach(file -> assertTrue(file.isSuccess(), file.getPath()));
+  }
+
+  @Test
+  void testInstall_Failure() {
+    standIn.failureRate(1.0d);
+
+    StandInDeployment deployment = new StandInDeployment(standIn)
+        .retryCount(1)
+        .retryDelaySec(0);
+    assertThrows(RuntimeException.class, () -> deployment.deploy(nodeDir));
+    assertEquals(0, standIn.getUploadedPackages().size());
+  }
+
+  @Test
+  void testInstall_AdaptivePollingWaitsForBundleRestart() throws Exception {
+    standIn.installDurationMs(50).bundleRestartMs(300);
+
+    InstallMetrics metrics = new StandInDeployment(standIn)
+        .adaptivePolling(true)
+        .pollingInitialDelayMs(20)
+        .deploy(nodeDir);
+
+    assertEquals(3, standIn.getRequestCount(ENDPOINT_UPLOAD));
+    assertEquals(1, standIn.getRequestCount(ENDPOINT_BUNDLE_INSTALL));
+    for (FileInstallMetrics file : metrics.getFiles()) {
+      assertTrue(file.getBundleStatusWaitMs() + file.getInstallStatusWaitMs() >= 250,
+          "Status wait after " + file.getPath());
+      assertTrue(file.getStatusChecks() > 2, "Status checks after " + file.getPath());
+    }
+  }
+
+}
@@ -0,0 +1,422 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Lightweight stand-in for an AEM instance that implements the HTTP endpoints used during package installation:
+ * CRX package manager service, package list, install status, Felix console bundle status and bundle install.
+ * Latency, install duration, bundle restart time after installations and failures of upload and install
+ * requests can be configured.
+ */
+final class PackageManagerStandIn implements AutoCloseable {
+
+  static final String ENDPOINT_UPLOAD = "upload";
+  static final String ENDPOINT_INSTALL = "install";
+  static final String ENDPOINT_LIST = "list";
+  static final String ENDPOINT_INSTALL_STATUS = "installstatus";
+  static final String ENDPOINT_BUNDLES = "bundles";
+  static final String ENDPOINT_BUNDLE_INSTALL = "bundleinstall";
+  static final String ENDPOINT_BUNDLE_DETAILS = "bundledetails";
+
+  private static final String SERVICE_PATH = "/crx/packmgr/service";
+  private static final String PACKAGE_ROOT = "/etc/packages/standin/";
+  private static final Pattern FILENAME_PATTERN = Pattern.compile("filename=\"([^\"]+)\"");
+  private static final Pattern BUNDLE_DETAILS_PATH_PATTERN = Pattern.compile("^/system/console/bundles/(\\d+)\\.json$");
+  private static final int BUNDLE_COUNT = 10;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Random random = new Random(0);
+  private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+  private final List<String> uploadedPackages = new ArrayList<>();
+  private final List<String> installedBundles = new ArrayList<>();
+  private final List<String[]> activeBundles = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failNextRequests = new AtomicInteger();
+
+  private volatile long latencyMs;
+  private volatile long installDurationMs;
+  private volatile long bundleRestartMs;
+  private volatile double failureRate;
+  private volatile long busyUntilNanos;
+  private volatile String lastBundleInstallRequest;
+  private volatile String lastAuthorization;
+
+  PackageManagerStandIn() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  /**
+   * @param value Latency added to each request (in milliseconds)
+   * @return this
+   */
+  PackageManagerStandIn latencyMs(long value) {
+    this.latencyMs = value;
+    return this;
+  }
+
+  /**
+   * @param value Duration of each package installation (in milliseconds)
+   * @return this
+   */
+  PackageManagerStandIn installDurationMs(long value) {
+    this.installDurationMs = value;
+    return this;
+  }
+
+  /**
+   * @param value Time after each package or bundle installation in which not all bundles are active and the
+   *          package manager reports pending items (in milliseconds)
+   * @return this
+   */
+  PackageManagerStandIn bundleRestartMs(long value) {
+    this.bundleRestartMs = value;
+    return this;
+  }
+
+  /**
+   * @param value Probability between 0 and 1 that an upload or install request fails with HTTP 503
+   * @return this
+   */
+  PackageManagerStandIn failureRate(double value) {
+    this.failureRate = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of next upload or install requests that fail with HTTP 503
+   * @return this
+   */
+  PackageManagerStandIn failNextRequests(int value) {
+    this.failNextRequests.set(value);
+    return this;
+  }
+
+  /**
+   * @param symbolicName Symbolic name of additional active bundle
+   * @param version Bundle version
+   * @param bndLastModified Value of Bnd-LastModified manifest header or null
+   * @return this
+   */
+  PackageManagerStandIn activeBundle(String symbolicName, String version, String bndLastModified) {
+    this.activeBundles.add(new String[] { symbolicName, version, bndLastModified });
+    return this;
+  }
+
+  String getBaseUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  String getServiceUrl() {
+    return getBaseUrl() + SERVICE_PATH;
+  }
+
+  String getBundleStatusUrl() {
+    return getBaseUrl() + "/system/console/bundles/.json";
+  }
+
+  String getInstallStatusUrl() {
+    return getBaseUrl() + "/crx/packmgr/installstatus.jsp";
+  }
+
+  int getRequestCount(String endpoint) {
+    AtomicInteger count = requestCounts.get(endpoint);
+    return count != null ? count.get() : 0;
+  }
+
+  List<String> getUploadedPackages() {
+    synchronized (uploadedPackages) {
+      return List.copyOf(uploadedPackages);
+    }
+  }
+
+  List<String> getInstalledBundles() {
+    synchronized (installedBundles) {
+      return List.copyOf(installedBundles);
+    }
+  }
+
+  String getLastBundleInstallRequest() {
+    return lastBundleInstallRequest;
+  }
+
+  String getLastAuthorization() {
+    return lastAuthorization;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      String endpoint = getEndpoint(exchange);
+      if (endpoint == null) {
+        send(exchange, 404, "text/plain", "Not found");
+        return;
+      }
+      requestCounts.computeIfAbsent(endpoint, key -> new AtomicInteger()).incrementAndGet();
+      lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+      sleep(latencyMs);
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      if (isModifying(endpoint) && shouldFail()) {
+        send(exchange, 503, "text/plain", "Service unavailable");
+        return;
+      }
+      switch (endpoint) {
+        case ENDPOINT_UPLOAD:
+          handleUpload(exchange, body);
+          break;
+        case ENDPOINT_INSTALL:
+          handleInstall(exchange);
+          break;
+        case ENDPOINT_LIST:
+          handleList(exchange);
+          break;
+        case ENDPOINT_INSTALL_STATUS:
+          send(exchange, 200, "application/json", "{\"status\":{\"finished\":" + !isBusy()
+              + ",\"itemCount\":" + (isBusy() ? 1 : 0) + "}}");
+          break;
+        case ENDPOINT_BUNDLES:
+          handleBundles(exchange);
+          break;
+        case ENDPOINT_BUNDLE_DETAILS:
+          handleBundleDetails(exchange);
+          break;
+        case ENDPOINT_BUNDLE_INSTALL:
+          lastBundleInstallRequest = new String(body, StandardCharsets.ISO_8859_1);
+          synchronized (installedBundles) {
+            installedBundles.add(getFileName(body));
+          }
+          markBusy();
+          send(exchange, 200, "text/html", "<html><body>Bundle installed</body></html>");
+          break;
+        default:
+          send(exchange, 404, "text/plain", "Not found");
+      }
+    }
+    finally {
+      exchange.close();
+    }
+  }
+
+  private static String getEndpoint(HttpExchange exchange) {
+    URI uri = exchange.getRequestURI();
+    String path = uri.getPath();
+    String query = StringUtils.defaultString(uri.getQuery());
+    boolean post = StringUtils.equals(exchange.getRequestMethod(), "POST");
+    if (post && StringUtils.equals(path, SERVICE_PATH + "/.json") && query.contains("cmd=upload")) {
+      return ENDPOINT_UPLOAD;
+    }
+    if (post && StringUtils.startsWith(path, SERVICE_PATH + "/console.html/") && query.contains("cmd=install")) {
+      return ENDPOINT_INSTALL;
+    }
+    if (post && StringUtils.equals(path, "/system/console/install")) {
+      return ENDPOINT_BUNDLE_INSTALL;
+    }
+    if (StringUtils.equals(path, "/crx/packmgr/list.jsp")) {
+      return ENDPOINT_LIST;
+    }
+    if (StringUtils.equals(path, "/crx/packmgr/installstatus.jsp")) {
+      return ENDPOINT_INSTALL_STATUS;
+    }
+    if (StringUtils.equalsAny(path, "/system/console/bundles/.json", "/system/console/bundles.json")) {
+      return ENDPOINT_BUNDLES;
+    }
+    if (BUNDLE_DETAILS_PATH_PATTERN.matcher(path).matches()) {
+      return ENDPOINT_BUNDLE_DETAILS;
+    }
+    return null;
+  }
+
+  private void handleUpload(HttpExchange exchange, byte[] body) throws IOException {
+    String fileName = getFileName(body);
+    synchronized (uploadedPackages) {
+      uploadedPackages.add(fileName);
+    }
+    send(exchange, 200, "application/json", "{\"success\":true,\"msg\":\"Package uploaded\","
+        + "\"path\":\"" + PACKAGE_ROOT + fileName + "\"}");
+  }
+
+  private void handleInstall(HttpExchange exchange) throws IOException {
+    long start = System.nanoTime();
+    sleep(installDurationMs);
+    markBusy();
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    send(exchange, 200, "text/html", "<html><head></head><body><pre>\n"
+        + "Installing content\n"
+        + "Package imported.\n"
+        + "Package installed in " + duration + "ms.\n"
+        + "</pre></body></html>");
+  }
+
+  private void handleList(HttpExchange exchange) throws IOException {
+    StringBuilder results = new StringBuilder();
+    List<String> packages = getUploadedPackages();
+    for (String fileName : packages) {
+      if (results.length() > 0) {
+        results.append(',');
+      }
+      results.append("{\"path\":\"").append(PACKAGE_ROOT).append(fileName).append("\",")
+          .append("\"group\":\"standin\",\"name\":\"").append(StringUtils.substringBeforeLast(fileName, ".")).append("\",")
+          .append("\"version\":\"\",\"lastUnpacked\":").append(System.currentTimeMillis()).append('}');
+    }
+    send(exchange, 200, "application/json", "{\"results\":[" + results + "],\"total\":" + packages.size() + "}");
+  }
+
+  private void handleBundles(HttpExchange exchange) throws IOException {
+    int resolved = isBusy() ? 1 : 0;
+    int active = BUNDLE_COUNT - resolved;
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < BUNDLE_COUNT; i++) {
+      boolean bundleActive = i < active;
+      if (i > 0) {
+        data.append(',');
+      }
+      data.append("{\"id\":").append(i)
+          .append(",\"name\":\"Bundle ").append(i).append('"')
+          .append(",\"fragment\":false")
+          .append(",\"stateRaw\":").append(bundleActive ? 32 : 4)
+          .append(",\"state\":\"").append(bundleActive ? "Active" : "Resolved").append('"')
+          .append(",\"version\":\"1.0.0\"")
+          .append(",\"symbolicName\":\"standin.bundle").append(i).append('"')
+          .append(",\"category\":\"\"}");
+    }
+    for (int i = 0; i < activeBundles.size(); i++) {
+      String[] bundle = activeBundles.get(i);
+      data.append(",{\"id\":").append(BUNDLE_COUNT + i)
+          .append(",\"name\":\"").append(bundle[0]).append('"')
+          .append(",\"fragment\":false,\"stateRaw\":32,\"state\":\"Active\"")
+          .append(",\"version\":\"").append(bundle[1]).append('"')
+          .append(",\"symbolicName\":\"").append(bundle[0]).append('"')
+          .append(",\"category\":\"\"}");
+    }
+    String status = resolved == 0
+        ? "Bundle information: " + BUNDLE_COUNT + " bundles in total - all " + BUNDLE_COUNT + " bundles active."
+        : "Bundle information: " + BUNDLE_COUNT + " bundles in total, " + active + " bundles active, "
+            + resolved + " bundle resolved.";
+    send(exchange, 200, "application/json", "{\"status\":\"" + status + "\","
+        + "\"s\":[" + BUNDLE_COUNT + "," + active + ",0," + resolved + ",0],"
+        + "\"data\":[" + data + "]}");
+  }
+
+  private void handleBundleDetails(HttpExchange exchange) throws IOException {
+    Matcher matcher = BUNDLE_DETAILS_PATH_PATTERN.matcher(exchange.getRequestURI().getPath());
+    int index = matcher.matches() ? Integer.parseInt(matcher.group(1)) - BUNDLE_COUNT : -1;
+    if (index < 0 || index >= activeBundles.size()) {
+      send(exchange, 404, "text/plain", "Not found");
+      return;
+    }
+    String[] bundle = activeBundles.get(index);
+    StringBuilder headers = new StringBuilder()
+        .append("\"Bundle-SymbolicName: ").append(bundle[0]).append('"')
+        .append(",\"Bundle-Version: ").append(bundle[1]).append('"');
+    if (bundle[2] != null) {
+      headers.append(",\"Bnd-LastModified: ").append(bundle[2]).append('"');
+    }
+    send(exchange, 200, "application/json", "{\"status\":\"Bundle information\","
+        + "\"data\":[{\"id\":" + (BUNDLE_COUNT + index) + ",\"symbolicName\":\"" + bundle[0] + "\","
+        + "\"props\":[{\"key\":\"Symbolic Name\",\"value\":\"" + bundle[0] + "\"},"
+        + "{\"key\":\"Manifest Headers\",\"value\":[" + headers + "]}]}]}");
+  }
+
+  private static boolean isModifying(String endpoint) {
+    return StringUtils.equalsAny(endpoint, ENDPOINT_UPLOAD, ENDPOINT_INSTALL, ENDPOINT_BUNDLE_INSTALL);
+  }
+
+  private boolean shouldFail() {
+    if (failNextRequests.getAndUpdate(value -> value > 0 ? value - 1 : 0) > 0) {
+      return true;
+    }
+    if (failureRate > 0) {
+      synchronized (random) {
+        return random.nextDouble() < failureRate;
+      }
+    }
+    return false;
+  }
+
+  private void markBusy() {
+    busyUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(bundleRestartMs);
+  }
+
+  private boolean isBusy() {
+    return System.nanoTime() - busyUntilNanos < 0;
+  }
+
+  private static String getFileName(byte[] body) {
+    // multipart body headers are ASCII, binary content is ignored
+    Matcher matcher = FILENAME_PATTERN.matcher(new String(body, StandardCharsets.ISO_8859_1));
+    if (matcher.find()) {
+      return matcher.group(1);
+    }
+    return "unknown";
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+  }
+
+  private static void sleep(long millis) {
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
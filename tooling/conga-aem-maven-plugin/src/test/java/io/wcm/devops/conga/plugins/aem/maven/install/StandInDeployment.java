@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelContentPackageFile;
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+import io.wcm.tooling.commons.packmgr.PackageManagerProperties;
+import io.wcm.tooling.commons.packmgr.install.PackageFile;
+import io.wcm.tooling.commons.packmgr.install.PackageInstaller;
+
+/**
+ * Deploys a node directory to a {@link PackageManagerStandIn} with the same components
+ * the package-install goal uses.
+ */
+final class StandInDeployment {
+
+  private static final int WAIT_LIMIT_SEC = 60;
+  private static final String AUTHORIZATION = InstanceHttpClient.authorization("admin", "admin", null);
+
+  private final PackageManagerStandIn standIn;
+  private final InstanceHttpClient httpClient = new InstanceHttpClient(10, 60, false, null, null);
+  private boolean adaptivePolling;
+  private int pollingInitialDelayMs = 250;
+  private int retryCount = 3;
+  private int retryDelaySec = 1;
+
+  StandInDeployment(PackageManagerStandIn standIn) {
+    this.standIn = standIn;
+  }
+
+  StandInDeployment adaptivePolling(boolean value) {
+    this.adaptivePolling = value;
+    return this;
+  }
+
+  StandInDeployment pollingInitialDelayMs(int value) {
+    this.pollingInitialDelayMs = value;
+    return this;
+  }
+
+  StandInDeployment retryCount(int value) {
+    this.retryCount = value;
+    return this;
+  }
+
+  StandInDeployment retryDelaySec(int value) {
+    this.retryDelaySec = value;
+    return this;
+  }
+
+  /**
+   * Installs all files from the node directory.
+   * @param nodeDir Node directory
+   * @return Install metrics
+   * @throws MojoExecutionException Mojo execution exception
+   */
+  InstallMetrics deploy(File nodeDir) throws MojoExecutionException {
+    PackageInstaller installer = new PackageInstaller(getPackageManagerProperties());
+    InstallMetrics metrics = new InstallMetrics(nodeDir, standIn.getServiceUrl());
+    BundleInstaller bundleInstaller = new FelixBundleInstaller(httpClient, standIn.getBaseUrl() + "/system/console",
+        AUTHORIZATION);
+    new NodeInstaller(installer, StandInDeployment::toPackageFile, bundleInstaller)
+        .statusCheck(getStatusCheck())
+        .install(new ModelParser(nodeDir).getInstallableFilesForNode(), metrics);
+    return metrics;
+  }
+
+  private PackageManagerProperties getPackageManagerProperties() {
+    PackageManagerProperties props = new PackageManagerProperties();
+    props.setPackageManagerUrl(standIn.getServiceUrl());
+    props.setUserId("admin");
+    props.setPassword("admin");
+    props.setRetryCount(retryCount);
+    props.setRetryDelaySec(retryDelaySec);
+    props.setBundleStatusWaitLimitSec(WAIT_LIMIT_SEC);
+    props.setBundleStatusBlacklistBundleNames(List.of());
+    props.setBundleStatusWhitelistBundleNames(List.of());
+    props.setPackageManagerInstallStatusWaitLimitSec(WAIT_LIMIT_SEC);
+    props.setHttpConnectTimeoutSec(10);
+    props.setHttpSocketTimeoutSec(60);
+    props.setProxies(List.of());
+    props.setPackageManagerOutputLogLevel("DEBUG");
+    if (!adaptivePolling) {
+      props.setBundleStatusUrl(standIn.getBundleStatusUrl());
+      props.setPackageManagerInstallStatusURL(standIn.getInstallStatusUrl());
+    }
+    return props;
+  }
+
+  private InstanceStatusCheck getStatusCheck() {
+    if (!adaptivePolling) {
+      return null;
+    }
+    return new InstanceStatusCheck(httpClient, new AdaptivePolling().initialDelayMs(pollingInitialDelayMs))
+        .bundleStatus(standIn.getBundleStatusUrl(), AUTHORIZATION, WAIT_LIMIT_SEC, List.of(), List.of())
+        .packageManagerInstallStatus(standIn.getInstallStatusUrl(), AUTHORIZATION, WAIT_LIMIT_SEC);
+  }
+
+  private static PackageFile toPackageFile(ModelContentPackageFile item) {
+    PackageFile output = new PackageFile();
+    output.setFile(item.getFile());
+    output.setInstall(true);
+    output.setForce(true);
+    output.setRecursive(true);
+    output.setDelayAfterInstallSec(0);
+    return output;
+  }
+
+}
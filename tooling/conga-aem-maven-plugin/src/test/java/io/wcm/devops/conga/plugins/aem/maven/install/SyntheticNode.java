@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+
+import io.wcm.devops.conga.plugins.aem.maven.model.ModelParser;
+
+/**
+ * Generates a synthetic CONGA node directory with model file, content packages and OSGi bundles.
+ */
+final class SyntheticNode {
+
+  private static final String GROUP = "standin";
+
+  private int packageCount = 1;
+  private int packageSizeBytes = 1024;
+  private int bundleCount;
+
+  SyntheticNode packageCount(int value) {
+    this.packageCount = value;
+    return this;
+  }
+
+  SyntheticNode packageSizeBytes(int value) {
+    this.packageSizeBytes = value;
+    return this;
+  }
+
+  SyntheticNode bundleCount(int value) {
+    this.bundleCount = value;
+    return this;
+  }
+
+  /**
+   * Generates the node directory.
+   * @param nodeDir Node directory
+   * @return Node directory
+   * @throws IOException I/O exception
+   */
+  File create(File nodeDir) throws IOException {
+    Random random = new Random(0);
+    StringBuilder model = new StringBuilder()
+        .append("roles:\n")
+        .append("- role: synthetic\n")
+        .append("  files:\n");
+
+    for (int i = 1; i <= packageCount; i++) {
+      String name = "synthetic-package" + i;
+      String path = "packages/" + name + ".zip";
+      writeContentPackage(new File(nodeDir, path), name, random);
+      model.append("  - path: ").append(path).append('\n')
+          .append("    postProcessors: [aem-contentpackage-properties]\n")
+          .append("    aemContentPackageProperties: {group: ").append(GROUP).append(", name: ").append(name)
+          .append(", version: 1.0.0, packageType: content, requiresRoot: false}\n");
+    }
+
+    for (int i = 1; i <= bundleCount; i++) {
+      String path = "bundles/synthetic.bundle" + i + "-1.0.0.jar";
+      writeBundle(new File(nodeDir, path), "synthetic.bundle" + i);
+      model.append("  - {path: ").append(path).append("}\n");
+    }
+    FileUtils.write(new File(nodeDir, ModelParser.MODEL_FILE), model.toString(), StandardCharsets.UTF_8);
+    return nodeDir;
+  }
+
+  private void writeContentPackage(File file, String name, Random random) throws IOException {
+    Files.createDirectories(file.getParentFile().toPath());
+    try (OutputStream os = Files.newOutputStream(file.toPath());
+        ZipOutputStream zip = new ZipOutputStream(os)) {
+      zip.putNextEntry(new ZipEntry("META-INF/vault/properties.xml"));
+      zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">\n"
+          + "<properties>\n"
+          + "<entry key=\"group\">" + GROUP + "</entry>\n"
+          + "<entry key=\"name\">" + name + "</entry>\n"
+          + "<entry key=\"version\">1.0.0</entry>\n"
+          + "<entry key=\"packageType\">content</entry>\n"
+          + "</properties>\n").getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      zip.putNextEntry(new ZipEntry("META-INF/vault/filter.xml"));
+      zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<workspaceFilter version=\"1.0\">\n"
+          + "  <filter root=\"/content/" + name + "\"/>\n"
+          + "</workspaceFilter>\n").getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      // random content is not compressible, so the package size matches the configured size
+      zip.putNextEntry(new ZipEntry("jcr_root/content/" + name + "/data.bin"));
+      byte[] data = new byte[packageSizeBytes];
+      random.nextBytes(data);
+      zip.write(data);
+      zip.closeEntry();
+    }
+  }
+
+  private static void writeBundle(File file, String symbolicName) throws IOException {
+    writeBundle(file, symbolicName, "1.0.0", null);
+  }
+
+  /**
+   * Writes a minimal OSGi bundle JAR.
+   * @param file Target file
+   * @param symbolicName Bundle symbolic name
+   * @param version Bundle version
+   * @param bndLastModified Value of Bnd-LastModified manifest header or null
+   * @throws IOException I/O exception
+   */
+  static void writeBundle(File file, String symbolicName, String version, String bndLastModified) throws IOException {
+    Files.createDirectories(file.getParentFile().toPath());
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().putValue("Bundle-ManifestVersion", "2");
+    manifest.getMainAttributes().putValue("Bundle-SymbolicName", symbolicName);
+    manifest.getMainAttributes().putValue("Bundle-Version", version);
+    if (bndLastModified != null) {
+      manifest.getMainAttributes().putValue("Bnd-LastModified", bndLastModified);
+    }
+    try (OutputStream os = Files.newOutputStream(file.toPath());
+        JarOutputStream jar = new JarOutputStream(os, manifest)) {
+      jar.putNextEntry(new ZipEntry("OSGI-INF/.keep"));
+      jar.closeEntry();
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Lightweight stand-in for a caching web server: The first request to a path is answered with
+ * <code>X-Cache: MISS</code>, all further requests with <code>X-Cache: HIT</code>. Paths starting with
+ * <code>/missing</code> return HTTP 404.
+ */
+final class CacheStandIn implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Set<String> cachedPaths = ConcurrentHashMap.newKeySet();
+  private final Set<String> hosts = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger activeRequests = new AtomicInteger();
+  private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+  private volatile long latencyMs;
+
+  CacheStandIn() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  /**
+   * @param value Latency added to each request (in milliseconds)
+   * @return this
+   */
+  CacheStandIn latencyMs(long value) {
+    this.latencyMs = value;
+    return this;
+  }
+
+  String getBaseUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  int getRequestCount() {
+    return requestCount.get();
+  }
+
+  /**
+   * @return Values of the Host header of all requests
+   */
+  Set<String> getHosts() {
+    return Set.copyOf(hosts);
+  }
+
+  int getMaxActiveRequests() {
+    return maxActiveRequests.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requestCount.incrementAndGet();
+    hosts.add(exchange.getRequestHeaders().getFirst("Host"));
+    int active = activeRequests.incrementAndGet();
+    maxActiveRequests.accumulateAndGet(active, Math::max);
+    try {
+      if (latencyMs > 0) {
+        Thread.sleep(latencyMs);
+      }
+      String path = exchange.getRequestURI().getPath();
+      if (path.startsWith("/missing")) {
+        send(exchange, 404, "Not found");
+        return;
+      }
+      boolean hit = !cachedPaths.add(path);
+      exchange.getResponseHeaders().add("X-Cache", hit ? "HIT" : "MISS");
+      send(exchange, 200, "<html>" + path + "</html>");
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      activeRequests.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private static void send(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+  }
+
+}
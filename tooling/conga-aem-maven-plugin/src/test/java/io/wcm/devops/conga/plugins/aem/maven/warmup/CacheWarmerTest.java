@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2024 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.plugins.aem.maven.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.wcm.devops.conga.plugins.aem.maven.install.InstanceHttpClient;
+
+class CacheWarmerTest {
+
+  private CacheStandIn standIn;
+  private CacheWarmer underTest;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    standIn = new CacheStandIn();
+    underTest = new CacheWarmer(new InstanceHttpClient(5, 5, false, null, null));
+  }
+
+  @AfterEach
+  void tearDown() {
+    standIn.close();
+  }
+
+  @Test
+  void testWarmup() {
+    List<String> urls = urls(20);
+
+    CacheWarmupResult result = underTest.run(urls);
+    assertEquals(20, result.getRequestCount());
+    assertEquals(20, result.getSuccessCount());
+    assertEquals(0, result.getCacheHitCount());
+
+    // second run is served from cache
+    result = underTest.run(urls);
+    assertEquals(20, result.getCacheHitCount());
+    assertEquals(1d, result.getCacheHitRatio());
+  }
+
+  @Test
+  void testFailures() {
+    List<String> urls = List.of(standIn.getBaseUrl() + "/page1.html", standIn.getBaseUrl() + "/missing.html");
+
+    CacheWarmupResult result = underTest.run(urls);
+    assertEquals(2, result.getRequestCount());
+    assertEquals(1, result.getSuccessCount());
+    assertEquals(1, result.getFailureCount());
+    assertEquals(List.of(standIn.getBaseUrl() + "/missing.html: HTTP 404"), result.getFailures());
+  }
+
+  @Test
+  void testConcurrency() {
+    standIn.latencyMs(50);
+    underTest.concurrency(3);
+
+    CacheWarmupResult result = underTest.run(urls(12));
+    assertEquals(12, result.getSuccessCount());
+    assertTrue(standIn.getMaxActiveRequests() <= 3, "max active requests: " + standIn.getMaxActiveRequests());
+    assertTrue(result.getLatencyMs(50) >= 50, "p50 latency: " + result.getLatencyMs(50));
+  }
+
+  @Test
+  void testRateLimit() {
+    underTest.concurrency(4).requestsPerSecond(50);
+
+    CacheWarmupResult result = underTest.run(urls(11));
+    assertEquals(11, result.getSuccessCount());
+    // 11 requests at 50 requests/sec need at least 200 ms
+    assertTrue(result.getDurationMs() >= 190, "duration: " + result.getDurationMs());
+  }
+
+  @Test
+  void testTargetUrl() {
+    underTest = new CacheWarmer(new InstanceHttpClient(5, 5, false,
+        CacheWarmer.getTargetProxySelector(standIn.getBaseUrl()), null))
+        .targetUrl(standIn.getBaseUrl());
+
+    CacheWarmupResult result = underTest.run(List.of("http://www.example.com/page1.html?param=1",
+        "https://www.example.org/page2.html"));
+    assertEquals(2, result.getSuccessCount());
+    // the original host names are preserved
+    assertEquals(Set.of("www.example.com", "www.example.org"), standIn.getHosts());
+    assertEquals("http://www.example.org/page2.html", underTest.toRequestUrl("https://www.example.org/page2.html"));
+  }
+
+  @Test
+  void testTargetUrlHttps() {
+    assertThrows(IllegalArgumentException.class, () -> CacheWarmer.getTargetProxySelector("https://dispatcher1"));
+  }
+
+  private List<String> urls(int count) {
+    List<String> urls = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      urls.add(standIn.getBaseUrl() + "/content/page" + i + ".html");
+    }
+    return urls;
+  }
+
+}